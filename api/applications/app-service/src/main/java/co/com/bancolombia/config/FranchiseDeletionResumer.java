@@ -0,0 +1,57 @@
+package co.com.bancolombia.config;
+
+import co.com.bancolombia.dynamodb.config.DynamoDBProperties;
+import co.com.bancolombia.usecase.franchise.DeleteFranchiseUseCase;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationListener;
+import org.springframework.stereotype.Component;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+
+import java.time.Duration;
+
+// Retoma los borrados que una instancia detenida dejó a medias: al arrancar y luego cada resume-interval, así un
+// job abandonado no espera a que otra instancia se reinicie. Una ronda que falla se registra y no corta las siguientes
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class FranchiseDeletionResumer implements ApplicationListener<ApplicationReadyEvent>, DisposableBean {
+    
+    private final DeleteFranchiseUseCase deleteFranchiseUseCase;
+    private final DynamoDBProperties properties;
+    private Disposable schedule;
+    
+    @Override
+    public void onApplicationEvent(ApplicationReadyEvent event) {
+        schedule = Flux.interval(Duration.ZERO, properties.getFranchiseDeletion().getResumeInterval())
+                // Si una ronda tarda más que el intervalo, los ticks intermedios se descartan en vez de acumularse
+                .onBackpressureDrop()
+                .concatMap(tick -> resumeRound(), 1)
+                .subscribe();
+    }
+    
+    // Cada job retomado corre por su cuenta: la ronda no espera a que termine
+    private Flux<Void> resumeRound() {
+        return deleteFranchiseUseCase.resumeAbandoned()
+                .doOnNext(job -> {
+                    log.info("Borrado de la franquicia {} retomado con {} items ya borrados",
+                            job.getFranchiseId(), job.getDeletedItems());
+                    deleteFranchiseUseCase.run(job).subscribe();
+                })
+                .onErrorResume(error -> {
+                    log.warn("No se pudieron retomar los borrados de franquicias", error);
+                    return Flux.empty();
+                })
+                .thenMany(Flux.empty());
+    }
+    
+    @Override
+    public void destroy() {
+        if (schedule != null) {
+            schedule.dispose();
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package co.com.bancolombia.config;
+
+import co.com.bancolombia.dynamodb.branch.BranchRepositoryAdapter;
+import co.com.bancolombia.dynamodb.cache.CachingBranchRepository;
+import co.com.bancolombia.dynamodb.cache.CachingFranchiseRepository;
+import co.com.bancolombia.dynamodb.cache.EntityCacheFactory;
+import co.com.bancolombia.dynamodb.coalescing.CoalescingBranchRepository;
+import co.com.bancolombia.dynamodb.coalescing.CoalescingFranchiseRepository;
+import co.com.bancolombia.dynamodb.coalescing.CoalescingProductRepository;
+import co.com.bancolombia.dynamodb.coalescing.SingleFlight;
+import co.com.bancolombia.dynamodb.config.DynamoDBProperties;
+import co.com.bancolombia.dynamodb.franchise.FranchiseRepositoryAdapter;
+import co.com.bancolombia.dynamodb.product.ProductRepositoryAdapter;
+import co.com.bancolombia.model.franchise.Branch;
+import co.com.bancolombia.model.franchise.Franchise;
+import co.com.bancolombia.model.franchise.Product;
+import co.com.bancolombia.model.franchise.gateways.BranchRepository;
+import co.com.bancolombia.model.franchise.gateways.FranchiseRepository;
+import co.com.bancolombia.model.franchise.gateways.ProductRepository;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+
+// Los casos de uso reciben los gateways decorados (@Primary); los decoradores envuelven a los adaptadores
+// por su tipo concreto para no resolverse a sí mismos. Orden: caché -> single-flight -> adaptador, así
+// un acierto de caché no entra al single-flight y los fallos simultáneos comparten una sola lectura
+@Configuration
+public class RepositoryDecoratorsConfig {
+    
+    private final SingleFlight<String, Product> productReads = new SingleFlight<>();
+    
+    @Bean
+    @Primary
+    public FranchiseRepository franchiseRepository(FranchiseRepositoryAdapter adapter, EntityCacheFactory caches,
+                                                   DynamoDBProperties properties) {
+        FranchiseRepository coalescing = new CoalescingFranchiseRepository(adapter);
+        if (!caches.isEnabled()) {
+            return coalescing;
+        }
+        return new CachingFranchiseRepository(coalescing,
+                caches.<Franchise>create("franchises", properties.getCache().getFranchises(), franchise -> true));
+    }
+    
+    @Bean
+    @Primary
+    public BranchRepository branchRepository(BranchRepositoryAdapter adapter, EntityCacheFactory caches,
+                                             DynamoDBProperties properties) {
+        BranchRepository coalescing = new CoalescingBranchRepository(adapter, productReads);
+        if (!caches.isEnabled()) {
+            return coalescing;
+        }
+        return new CachingBranchRepository(coalescing,
+                caches.<Branch>create("branches", properties.getCache().getBranches(), CachingBranchRepository::isCacheable));
+    }
+    
+    @Bean
+    @Primary
+    public ProductRepository productRepository(ProductRepositoryAdapter adapter) {
+        return new CoalescingProductRepository(adapter, productReads);
+    }
+}
@@ -1,13 +1,24 @@
 package co.com.bancolombia.config;
 
 import co.com.bancolombia.model.franchise.gateways.BranchRepository;
+import co.com.bancolombia.model.franchise.gateways.FranchiseDeletionRepository;
 import co.com.bancolombia.model.franchise.gateways.FranchiseRepository;
+import co.com.bancolombia.model.franchise.gateways.FranchiseStatsRepository;
+import co.com.bancolombia.model.franchise.gateways.InventoryExportRepository;
 import co.com.bancolombia.model.franchise.gateways.ProductRepository;
+import co.com.bancolombia.model.franchise.gateways.StorageStrategyEngine;
 import co.com.bancolombia.usecase.branch.CreateBranchUseCase;
+import co.com.bancolombia.usecase.branch.MigrateBranchToEmbeddedUseCase;
+import co.com.bancolombia.usecase.branch.MigrateBranchToSeparatedUseCase;
 import co.com.bancolombia.usecase.branch.UpdateBranchNameUseCase;
 import co.com.bancolombia.usecase.franchise.CreateFranchiseUseCase;
+import co.com.bancolombia.usecase.franchise.DeleteFranchiseUseCase;
+import co.com.bancolombia.usecase.franchise.ExportInventoryUseCase;
+import co.com.bancolombia.usecase.franchise.FranchiseStatsRecorder;
 import co.com.bancolombia.usecase.franchise.GetAllFranchisesUseCase;
+import co.com.bancolombia.usecase.franchise.GetFranchiseStatsUseCase;
 import co.com.bancolombia.usecase.franchise.UpdateFranchiseNameUseCase;
+import co.com.bancolombia.usecase.product.AdjustProductStockUseCase;
 import co.com.bancolombia.usecase.product.CreateProductUseCase;
 import co.com.bancolombia.usecase.product.DeleteProductUseCase;
 import co.com.bancolombia.usecase.product.GetProductByIdUseCase;
@@ -15,6 +26,7 @@ import co.com.bancolombia.usecase.product.GetProductsByBranchUseCase;
 import co.com.bancolombia.usecase.product.GetTopStockProductByBranchUseCase;
 import co.com.bancolombia.usecase.product.GetTopStockProductByBranchWithBranchNameUseCase;
 import co.com.bancolombia.usecase.product.GetTopStockProductsUseCase;
+import co.com.bancolombia.usecase.product.ImportProductsUseCase;
 import co.com.bancolombia.usecase.product.UpdateProductNameUseCase;
 import co.com.bancolombia.usecase.product.UpdateProductStockUseCase;
 import org.springframework.context.annotation.Bean;
@@ -39,8 +51,31 @@ public class UseCasesConfig {
     }
     
     @Bean
-    public CreateBranchUseCase createBranchUseCase(BranchRepository branchRepository, FranchiseRepository franchiseRepository) {
-        return new CreateBranchUseCase(branchRepository, franchiseRepository);
+    public DeleteFranchiseUseCase deleteFranchiseUseCase(FranchiseRepository franchiseRepository,
+                                                         FranchiseDeletionRepository franchiseDeletionRepository) {
+        return new DeleteFranchiseUseCase(franchiseRepository, franchiseDeletionRepository);
+    }
+    
+    @Bean
+    public ExportInventoryUseCase exportInventoryUseCase(InventoryExportRepository inventoryExportRepository) {
+        return new ExportInventoryUseCase(inventoryExportRepository);
+    }
+    
+    @Bean
+    public FranchiseStatsRecorder franchiseStatsRecorder(FranchiseStatsRepository repository) {
+        return new FranchiseStatsRecorder(repository);
+    }
+    
+    @Bean
+    public GetFranchiseStatsUseCase getFranchiseStatsUseCase(FranchiseRepository franchiseRepository,
+                                                             FranchiseStatsRepository franchiseStatsRepository) {
+        return new GetFranchiseStatsUseCase(franchiseRepository, franchiseStatsRepository);
+    }
+    
+    @Bean
+    public CreateBranchUseCase createBranchUseCase(BranchRepository branchRepository, FranchiseRepository franchiseRepository,
+                                                   FranchiseStatsRecorder franchiseStatsRecorder) {
+        return new CreateBranchUseCase(branchRepository, franchiseRepository, franchiseStatsRecorder);
     }
     
     @Bean
@@ -49,8 +84,35 @@ public class UseCasesConfig {
     }
     
     @Bean
-    public CreateProductUseCase createProductUseCase(ProductRepository productRepository, BranchRepository branchRepository) {
-        return new CreateProductUseCase(productRepository, branchRepository);
+    public MigrateBranchToSeparatedUseCase migrateBranchToSeparatedUseCase(BranchRepository repository) {
+        return new MigrateBranchToSeparatedUseCase(repository);
+    }
+    
+    @Bean
+    public MigrateBranchToEmbeddedUseCase migrateBranchToEmbeddedUseCase(BranchRepository branchRepository,
+                                                                         ProductRepository productRepository,
+                                                                         StorageStrategyEngine storageStrategyEngine) {
+        return new MigrateBranchToEmbeddedUseCase(branchRepository, productRepository, storageStrategyEngine);
+    }
+    
+    @Bean
+    public CreateProductUseCase createProductUseCase(ProductRepository productRepository, BranchRepository branchRepository,
+                                                     FranchiseRepository franchiseRepository,
+                                                     MigrateBranchToSeparatedUseCase migrateBranchToSeparatedUseCase,
+                                                     FranchiseStatsRecorder franchiseStatsRecorder,
+                                                     StorageStrategyEngine storageStrategyEngine) {
+        return new CreateProductUseCase(productRepository, branchRepository, franchiseRepository, migrateBranchToSeparatedUseCase,
+                franchiseStatsRecorder, storageStrategyEngine);
+    }
+    
+    @Bean
+    public ImportProductsUseCase importProductsUseCase(ProductRepository productRepository, BranchRepository branchRepository,
+                                                       FranchiseRepository franchiseRepository,
+                                                       MigrateBranchToSeparatedUseCase migrateBranchToSeparatedUseCase,
+                                                       FranchiseStatsRecorder franchiseStatsRecorder,
+                                                       StorageStrategyEngine storageStrategyEngine) {
+        return new ImportProductsUseCase(productRepository, branchRepository, franchiseRepository, migrateBranchToSeparatedUseCase,
+                franchiseStatsRecorder, storageStrategyEngine);
     }
     
     @Bean
@@ -59,8 +121,15 @@ public class UseCasesConfig {
     }
     
     @Bean
-    public UpdateProductStockUseCase updateProductStockUseCase(ProductRepository productRepository, BranchRepository branchRepository) {
-        return new UpdateProductStockUseCase(productRepository, branchRepository);
+    public UpdateProductStockUseCase updateProductStockUseCase(ProductRepository productRepository, BranchRepository branchRepository,
+                                                               FranchiseStatsRecorder franchiseStatsRecorder) {
+        return new UpdateProductStockUseCase(productRepository, branchRepository, franchiseStatsRecorder);
+    }
+    
+    @Bean
+    public AdjustProductStockUseCase adjustProductStockUseCase(ProductRepository productRepository, BranchRepository branchRepository,
+                                                               FranchiseStatsRecorder franchiseStatsRecorder) {
+        return new AdjustProductStockUseCase(productRepository, branchRepository, franchiseStatsRecorder);
     }
     
     @Bean
@@ -91,7 +160,10 @@ public class UseCasesConfig {
     }
     
     @Bean
-    public DeleteProductUseCase deleteProductUseCase(ProductRepository productRepository, BranchRepository branchRepository) {
-        return new DeleteProductUseCase(productRepository, branchRepository);
+    public DeleteProductUseCase deleteProductUseCase(ProductRepository productRepository, BranchRepository branchRepository,
+                                                     FranchiseStatsRecorder franchiseStatsRecorder,
+                                                     MigrateBranchToEmbeddedUseCase migrateBranchToEmbeddedUseCase) {
+        return new DeleteProductUseCase(productRepository, branchRepository, franchiseStatsRecorder,
+                migrateBranchToEmbeddedUseCase);
     }
 }
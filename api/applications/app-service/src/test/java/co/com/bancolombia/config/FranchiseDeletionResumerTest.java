@@ -0,0 +1,89 @@
+package co.com.bancolombia.config;
+
+import co.com.bancolombia.dynamodb.config.DynamoDBProperties;
+import co.com.bancolombia.model.franchise.FranchiseDeletionJob;
+import co.com.bancolombia.usecase.franchise.DeleteFranchiseUseCase;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.scheduler.VirtualTimeScheduler;
+
+import java.time.Duration;
+
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class FranchiseDeletionResumerTest {
+
+    @Mock
+    private DeleteFranchiseUseCase deleteFranchiseUseCase;
+
+    private VirtualTimeScheduler scheduler;
+    private FranchiseDeletionResumer resumer;
+
+    @BeforeEach
+    void setUp() {
+        scheduler = VirtualTimeScheduler.getOrSet();
+        DynamoDBProperties properties = new DynamoDBProperties();
+        properties.getFranchiseDeletion().setResumeInterval(Duration.ofMinutes(1));
+        resumer = new FranchiseDeletionResumer(deleteFranchiseUseCase, properties);
+    }
+
+    @AfterEach
+    void tearDown() {
+        resumer.destroy();
+        VirtualTimeScheduler.reset();
+    }
+
+    @Test
+    void shouldResumeOnStartupAndOnEveryInterval() {
+        // Given
+        FranchiseDeletionJob abandoned = FranchiseDeletionJob.start("franchise-1");
+        when(deleteFranchiseUseCase.resumeAbandoned()).thenReturn(Flux.just(abandoned));
+        when(deleteFranchiseUseCase.run(abandoned)).thenReturn(Mono.just(abandoned.completed()));
+
+        // When
+        resumer.onApplicationEvent(null);
+        scheduler.advanceTimeBy(Duration.ofMinutes(2));
+
+        // Then
+        verify(deleteFranchiseUseCase, times(3)).resumeAbandoned();
+        verify(deleteFranchiseUseCase, times(3)).run(abandoned);
+    }
+
+    @Test
+    void shouldKeepResumingAfterAFailedRound() {
+        // Given - La primera búsqueda falla; la siguiente ronda se ejecuta igual
+        when(deleteFranchiseUseCase.resumeAbandoned())
+                .thenReturn(Flux.error(new IllegalStateException("boom")))
+                .thenReturn(Flux.empty());
+
+        // When
+        resumer.onApplicationEvent(null);
+        scheduler.advanceTimeBy(Duration.ofMinutes(1));
+
+        // Then
+        verify(deleteFranchiseUseCase, times(2)).resumeAbandoned();
+    }
+
+    @Test
+    void shouldStopResumingWhenDestroyed() {
+        // Given
+        when(deleteFranchiseUseCase.resumeAbandoned()).thenReturn(Flux.empty());
+        resumer.onApplicationEvent(null);
+
+        // When
+        resumer.destroy();
+        scheduler.advanceTimeBy(Duration.ofMinutes(5));
+
+        // Then
+        verify(deleteFranchiseUseCase, times(1)).resumeAbandoned();
+    }
+}
@@ -15,7 +15,13 @@ public class Branch {
     LocalDateTime createdAt;
     LocalDateTime updatedAt;
     List<Product> products;
-    String storageStrategy; // EMBEDDED | SEPARATED
+    String storageStrategy; // EMBEDDED | MIGRATING | SEPARATED | EMBEDDING | BUCKETED
+    // Resumen de los productos embebidos, mantenido en la misma escritura que cada producto (EMBEDDED; en
+    // BUCKETED cada bucket lleva el suyo y se suman al leer)
+    Integer productCount;
+    Long totalStock;
+    Product topStockProduct; // id, name y stock
+    Long embeddedBytes; // tamaño estimado de los productos embebidos en el item (EMBEDDED)
     
     public static Branch create(String franchiseId, String name) {
         return Branch.builder()
@@ -26,6 +32,14 @@ public class Branch {
                 .build();
     }
     
+    // Con una lectura proyectada products no viene: se usa el contador
+    public int countProducts() {
+        if (productCount != null) {
+            return productCount;
+        }
+        return products != null ? products.size() : 0;
+    }
+    
     public Branch updateName(String newName) {
         return this.toBuilder()
                 .name(newName)
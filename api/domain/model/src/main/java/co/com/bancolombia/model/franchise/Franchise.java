@@ -9,11 +9,15 @@ import java.util.List;
 @Value
 @Builder(toBuilder = true)
 public class Franchise {
+    public static final String DELETING = "DELETING";
+    
     String id;
     String name;
     LocalDateTime createdAt;
     LocalDateTime updatedAt;
     List<Branch> branches;
+    String status; // null | DELETING: desde que se lanza su borrado no admite sucursales ni productos nuevos
+    LocalDateTime lastWriteAt; // Última creación de sucursales o productos registrada en la franquicia
     
     public static Franchise create(String name) {
         return Franchise.builder()
@@ -29,4 +33,8 @@ public class Franchise {
                 .updatedAt(LocalDateTime.now())
                 .build();
     }
+    
+    public boolean isDeleting() {
+        return DELETING.equals(status);
+    }
 }
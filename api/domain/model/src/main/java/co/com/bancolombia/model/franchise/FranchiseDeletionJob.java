@@ -0,0 +1,68 @@
+package co.com.bancolombia.model.franchise;
+
+import lombok.Builder;
+import lombok.Value;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+@Value
+@Builder(toBuilder = true)
+public class FranchiseDeletionJob {
+    public static final String RUNNING = "RUNNING";
+    public static final String COMPLETED = "COMPLETED";
+    public static final String FAILED = "FAILED";
+    
+    String franchiseId;
+    String runId; // Ejecución dueña del job: cambia cada vez que una instancia lo retoma
+    String status; // RUNNING | COMPLETED | FAILED
+    long deletedItems; // Sucursales, productos, locators y contadores borrados hasta ahora
+    String error;
+    LocalDateTime startedAt;
+    LocalDateTime finishedAt;
+    
+    public static FranchiseDeletionJob start(String franchiseId) {
+        return FranchiseDeletionJob.builder()
+                .franchiseId(franchiseId)
+                .runId(UUID.randomUUID().toString())
+                .status(RUNNING)
+                .startedAt(LocalDateTime.now())
+                .build();
+    }
+    
+    // Otra ejecución continúa donde esta quedó: conserva el avance y el inicio
+    public FranchiseDeletionJob resume() {
+        return this.toBuilder()
+                .runId(UUID.randomUUID().toString())
+                .status(RUNNING)
+                .error(null)
+                .finishedAt(null)
+                .build();
+    }
+    
+    public FranchiseDeletionJob progress(long deleted) {
+        return this.toBuilder()
+                .deletedItems(deletedItems + deleted)
+                .build();
+    }
+    
+    public FranchiseDeletionJob completed() {
+        return finish(COMPLETED, null);
+    }
+    
+    public FranchiseDeletionJob failed(String error) {
+        return finish(FAILED, error);
+    }
+    
+    public boolean isRunning() {
+        return RUNNING.equals(status);
+    }
+    
+    private FranchiseDeletionJob finish(String status, String error) {
+        return this.toBuilder()
+                .status(status)
+                .error(error)
+                .finishedAt(LocalDateTime.now())
+                .build();
+    }
+}
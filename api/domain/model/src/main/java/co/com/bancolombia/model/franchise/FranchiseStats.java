@@ -0,0 +1,27 @@
+package co.com.bancolombia.model.franchise;
+
+import lombok.Builder;
+import lombok.Value;
+
+@Value
+@Builder(toBuilder = true)
+public class FranchiseStats {
+    String franchiseId;
+    long branchCount;
+    long productCount;
+    long totalStock;
+    
+    public static FranchiseStats empty(String franchiseId) {
+        return FranchiseStats.builder()
+                .franchiseId(franchiseId)
+                .build();
+    }
+    
+    public FranchiseStats plus(FranchiseStats other) {
+        return this.toBuilder()
+                .branchCount(branchCount + other.branchCount)
+                .productCount(productCount + other.productCount)
+                .totalStock(totalStock + other.totalStock)
+                .build();
+    }
+}
@@ -0,0 +1,25 @@
+package co.com.bancolombia.model.franchise;
+
+import lombok.Builder;
+import lombok.Value;
+
+import java.time.LocalDateTime;
+
+// Una fila del volcado de inventario: franquicias, sucursales y productos van en un mismo flujo, sin
+// desnormalizar (el consumidor los une por franchiseId/branchId)
+@Value
+@Builder
+public class InventoryRecord {
+    public static final String FRANCHISE = "FRANCHISE";
+    public static final String BRANCH = "BRANCH";
+    public static final String PRODUCT = "PRODUCT";
+    
+    String type; // FRANCHISE | BRANCH | PRODUCT
+    String id;
+    String franchiseId;
+    String branchId;
+    String name;
+    Integer stock; // Solo productos
+    String storageStrategy; // Solo sucursales
+    LocalDateTime updatedAt;
+}
@@ -0,0 +1,38 @@
+package co.com.bancolombia.model.franchise;
+
+import lombok.Builder;
+import lombok.Value;
+
+import java.util.List;
+
+@Value
+@Builder(toBuilder = true)
+public class Page<T> {
+    public static final int DEFAULT_LIMIT = 50;
+    public static final int MAX_LIMIT = 200;
+    
+    List<T> items;
+    String nextCursor; // Opaco; null en la última página
+    
+    public static <T> Page<T> of(List<T> items, String nextCursor) {
+        return Page.<T>builder()
+                .items(items)
+                .nextCursor(nextCursor)
+                .build();
+    }
+    
+    // Tamaño de página pedido por el cliente: por defecto DEFAULT_LIMIT, nunca más de MAX_LIMIT
+    public static int resolveLimit(Integer requested) {
+        if (requested == null) {
+            return DEFAULT_LIMIT;
+        }
+        if (requested < 1 || requested > MAX_LIMIT) {
+            throw new IllegalArgumentException("limit debe estar entre 1 y " + MAX_LIMIT);
+        }
+        return requested;
+    }
+    
+    public boolean hasNext() {
+        return nextCursor != null;
+    }
+}
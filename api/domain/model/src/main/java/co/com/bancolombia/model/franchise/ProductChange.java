@@ -0,0 +1,28 @@
+package co.com.bancolombia.model.franchise;
+
+import lombok.Builder;
+import lombok.Value;
+
+// Resultado de una escritura sobre un producto: el valor que tenía (tal como lo devolvió la propia escritura,
+// sin lectura previa) y el que quedó
+@Value
+@Builder(toBuilder = true)
+public class ProductChange {
+    Product previous;
+    Product current;
+
+    public static ProductChange of(Product previous, Product current) {
+        return ProductChange.builder()
+                .previous(previous)
+                .current(current)
+                .build();
+    }
+
+    public long stockDelta() {
+        return stock(current) - stock(previous);
+    }
+
+    private static long stock(Product product) {
+        return product != null && product.getStock() != null ? product.getStock() : 0;
+    }
+}
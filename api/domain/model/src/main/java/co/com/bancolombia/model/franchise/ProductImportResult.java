@@ -0,0 +1,33 @@
+package co.com.bancolombia.model.franchise;
+
+import lombok.Builder;
+import lombok.Value;
+
+@Value
+@Builder
+public class ProductImportResult {
+    long line;
+    String branchId;
+    String productId; // Solo si la fila se importó
+    String error;
+    
+    public static ProductImportResult imported(ProductImportRow row, Product product) {
+        return ProductImportResult.builder()
+                .line(row.getLine())
+                .branchId(row.getBranchId())
+                .productId(product.getId())
+                .build();
+    }
+    
+    public static ProductImportResult failed(ProductImportRow row, String error) {
+        return ProductImportResult.builder()
+                .line(row.getLine())
+                .branchId(row.getBranchId())
+                .error(error)
+                .build();
+    }
+    
+    public boolean isImported() {
+        return error == null;
+    }
+}
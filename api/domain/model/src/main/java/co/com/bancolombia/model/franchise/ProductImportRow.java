@@ -0,0 +1,21 @@
+package co.com.bancolombia.model.franchise;
+
+import lombok.Builder;
+import lombok.Value;
+
+@Value
+@Builder(toBuilder = true)
+public class ProductImportRow {
+    long line; // Línea del cuerpo en la que viene la fila (en CSV la 1 es la cabecera)
+    String branchId;
+    String name;
+    Integer stock;
+    String error; // La fila no se pudo interpretar: se reporta sin escribir nada
+    
+    public static ProductImportRow invalid(long line, String error) {
+        return ProductImportRow.builder()
+                .line(line)
+                .error(error)
+                .build();
+    }
+}
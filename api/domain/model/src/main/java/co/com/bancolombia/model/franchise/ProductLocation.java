@@ -0,0 +1,21 @@
+package co.com.bancolombia.model.franchise;
+
+import lombok.Builder;
+import lombok.Value;
+
+@Value
+@Builder(toBuilder = true)
+public class ProductLocation {
+    String productId;
+    String branchId;
+    String storageStrategy; // EMBEDDED | BUCKETED | SEPARATED
+    
+    // EMBEDDED o BUCKETED: el producto vive en la partición de la sucursal y se escribe con BranchRepository
+    public boolean isEmbedded() {
+        return "EMBEDDED".equals(storageStrategy) || isBucketed();
+    }
+    
+    public boolean isBucketed() {
+        return "BUCKETED".equals(storageStrategy);
+    }
+}
@@ -0,0 +1,10 @@
+package co.com.bancolombia.model.franchise;
+
+// La sucursal está cambiando de estrategia (p. ej. volviendo a EMBEDDED) y no admite la escritura tal como se
+// decidió: quien la recibe vuelve a leer la estrategia y reintenta. Si persiste, es un conflicto (409)
+public class StorageStrategyChangingException extends IllegalStateException {
+    
+    public StorageStrategyChangingException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,10 @@
+package co.com.bancolombia.model.franchise;
+
+// La base de datos rechazó la operación por capacidad y se agotaron los reintentos: el cliente
+// puede reintentar más tarde (503), a diferencia de un error interno
+public class ThrottledException extends RuntimeException {
+    
+    public ThrottledException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
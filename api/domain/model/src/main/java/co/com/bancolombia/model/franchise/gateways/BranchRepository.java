@@ -2,14 +2,48 @@ package co.com.bancolombia.model.franchise.gateways;
 
 import co.com.bancolombia.model.franchise.Branch;
 import co.com.bancolombia.model.franchise.Product;
+import co.com.bancolombia.model.franchise.ProductChange;
+import co.com.bancolombia.model.franchise.ProductLocation;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
+import java.util.Collection;
+import java.util.List;
+
 public interface BranchRepository {
     Mono<Branch> save(Branch branch);
     Mono<Branch> findById(String id);
+    // Sin products: solo datos de la sucursal y su resumen (productCount, totalStock, topStockProduct)
+    Mono<Branch> findSummaryById(String id);
+    Flux<Branch> findAllById(Collection<String> ids);
     Flux<Branch> findByFranchiseId(String franchiseId);
+    Flux<Branch> findSummariesByFranchiseId(String franchiseId);
     Mono<Void> deleteById(String id);
-    Mono<Branch> addProduct(String branchId, Product product);
-    Mono<String> findBranchIdByProductId(String productId);
+    // Solo name y updatedAt: no lee ni reescribe los productos embebidos; vacío si no existe
+    Mono<Branch> updateName(String id, String name);
+    // La estrategia de la sucursal (EMBEDDED o BUCKETED) decide en qué item se escribe el producto
+    Mono<Branch> addProduct(Branch branch, Product product);
+    // Varios productos de una carga masiva en una sola escritura del item (EMBEDDED) o uno por bucket (BUCKETED)
+    Mono<Void> addProducts(Branch branch, List<Product> products);
+    Mono<ProductLocation> findProductLocation(String productId);
+    // El producto anterior llega en la respuesta de la escritura: quien necesite la diferencia no lo lee antes
+    Mono<ProductChange> updateProductStock(ProductLocation location, Integer stock);
+    Mono<Product> adjustProductStock(ProductLocation location, Integer delta);
+    Mono<Product> updateProductName(ProductLocation location, String name);
+    // Devuelve el producto quitado
+    Mono<Product> removeProduct(ProductLocation location);
+    Mono<Boolean> startMigration(String branchId);
+    Mono<Integer> migrateProductsChunk(String branchId, int chunkSize);
+    Mono<Void> completeMigration(String branchId);
+    // Antes de escribir productos de una SEPARATED o MIGRATING en la tabla de productos. Falla con
+    // StorageStrategyChangingException si la sucursal está volviendo a EMBEDDED (o ya volvió)
+    Mono<Void> markSeparatedWrite(String branchId);
+    // SEPARATED -> EMBEDDING: desde aquí no se admiten productos nuevos en la tabla de productos; false si la
+    // sucursal ya no es SEPARATED o tuvo escrituras separadas demasiado recientes
+    Mono<Boolean> startEmbedding(String branchId);
+    // EMBEDDING -> SEPARATED cuando finalmente no se embebe
+    Mono<Void> abortEmbedding(String branchId);
+    // EMBEDDING -> EMBEDDED: todos los productos de la sucursal vuelven al item en una sola escritura; false si
+    // la sucursal ya no está en EMBEDDING o alguno cambió mientras tanto
+    Mono<Boolean> embedProducts(String branchId, List<Product> products);
 }
@@ -0,0 +1,21 @@
+package co.com.bancolombia.model.franchise.gateways;
+
+import co.com.bancolombia.model.franchise.FranchiseDeletionJob;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+
+public interface FranchiseDeletionRepository {
+    // Borra sucursales, productos y contadores de la franquicia, no su item; emite los items borrados por lote.
+    // Puede volver a llamarse tras un fallo: continúa con lo que quede
+    Flux<Integer> deleteContents(String franchiseId);
+    // Registra el job si la franquicia no tiene otro en curso, o si el que tiene lleva más de lease sin guardar
+    // avance (su instancia se detuvo). false si otra ejecución lo tiene
+    Mono<Boolean> claimJob(FranchiseDeletionJob job, Duration lease);
+    // Guarda el estado del job; falla con IllegalStateException si otra ejecución lo reclamó
+    Mono<Void> saveJob(FranchiseDeletionJob job);
+    Mono<FranchiseDeletionJob> findJob(String franchiseId);
+    // Jobs en curso que llevan más de lease sin guardar avance
+    Flux<FranchiseDeletionJob> findAbandonedJobs(Duration lease);
+}
@@ -1,12 +1,25 @@
 package co.com.bancolombia.model.franchise.gateways;
 
 import co.com.bancolombia.model.franchise.Franchise;
+import co.com.bancolombia.model.franchise.Page;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
+import java.util.Collection;
+
 public interface FranchiseRepository {
     Mono<Franchise> save(Franchise franchise);
     Mono<Franchise> findById(String id);
+    // Solo name y updatedAt, sin leer la franquicia; vacío si no existe
+    Mono<Franchise> updateName(String id, String name);
+    Flux<Franchise> findAllById(Collection<String> ids);
     Flux<Franchise> findAll();
+    Mono<Page<Franchise>> findPage(int limit, String cursor);
     Mono<Void> deleteById(String id);
+    // Condicionado a que exista: la marca DELETING y devuelve la franquicia marcada (con lastWriteAt); vacío si no
+    // existe. Repetirlo sobre una ya marcada no falla
+    Mono<Franchise> markDeleting(String id);
+    // Antes de crear sucursales o productos: registra la escritura en lastWriteAt, condicionado a que la franquicia
+    // exista y no esté marcada DELETING. Falla con IllegalStateException si se está borrando
+    Mono<Void> registerWrite(String id);
 }
@@ -0,0 +1,10 @@
+package co.com.bancolombia.model.franchise.gateways;
+
+import co.com.bancolombia.model.franchise.FranchiseStats;
+import reactor.core.publisher.Mono;
+
+public interface FranchiseStatsRepository {
+    // Suma los deltas (pueden ser negativos) a los contadores de la franquicia
+    Mono<Void> increment(String franchiseId, long branches, long products, long stock);
+    Mono<FranchiseStats> findByFranchiseId(String franchiseId);
+}
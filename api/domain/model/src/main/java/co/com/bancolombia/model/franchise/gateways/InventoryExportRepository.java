@@ -0,0 +1,9 @@
+package co.com.bancolombia.model.franchise.gateways;
+
+import co.com.bancolombia.model.franchise.InventoryRecord;
+import reactor.core.publisher.Flux;
+
+public interface InventoryExportRepository {
+    // Todo el inventario, sin orden: productos embebidos y separados por igual
+    Flux<InventoryRecord> exportAll();
+}
@@ -1,14 +1,29 @@
 package co.com.bancolombia.model.franchise.gateways;
 
+import co.com.bancolombia.model.franchise.Page;
 import co.com.bancolombia.model.franchise.Product;
+import co.com.bancolombia.model.franchise.ProductChange;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
+import java.util.Collection;
+import java.util.List;
+
 public interface ProductRepository {
     Mono<Product> save(Product product);
+    // Escritura por lotes (BatchWriteItem) para una carga masiva: sin condiciones ni lectura previa. Emite cada
+    // producto al confirmarse su lote; si alguno falla, el error llega después de todos los que sí se escribieron
+    Flux<Product> saveAll(List<Product> products);
     Mono<Product> findById(String id);
+    Flux<Product> findAllById(Collection<String> ids);
     Flux<Product> findByBranchId(String branchId);
+    Mono<Page<Product>> findPageByBranchId(String branchId, int limit, String cursor);
     Flux<Product> findByFranchiseId(String franchiseId);
-    Flux<Product> findTopStockByFranchise(String franchiseId);
-    Mono<Void> deleteById(String id);
+    Flux<Product> findTopStockByFranchise(String franchiseId, int limit);
+    Flux<Product> findTopStockByBranch(String branchId, int limit);
+    // Devuelve el producto borrado; vacío si no existía
+    Mono<Product> deleteById(String id);
+    Mono<Product> adjustStock(String id, Integer delta);
+    // Solo stock y updatedAt; el producto anterior llega en la respuesta de la escritura
+    Mono<ProductChange> updateStock(String id, Integer stock);
 }
@@ -0,0 +1,19 @@
+package co.com.bancolombia.model.franchise.gateways;
+
+import co.com.bancolombia.model.franchise.Branch;
+import co.com.bancolombia.model.franchise.Product;
+
+import java.util.List;
+
+// Decide entre EMBEDDED y SEPARATED por el tamaño estimado del item de la sucursal, que depende de cómo lo
+// codifica el adapter (longitud de los nombres incluida) y no solo del número de productos
+public interface StorageStrategyEngine {
+    // true si al embeber product la sucursal superaría el umbral de tamaño y debe pasar a SEPARATED
+    boolean shouldSeparate(Branch branch, Product product);
+    // Igual, para un lote de productos que se embeberían juntos
+    boolean shouldSeparate(Branch branch, List<Product> products);
+    // true si products (todos los de una sucursal SEPARATED) caben embebidos con holgura
+    boolean shouldEmbed(Branch branch, List<Product> products);
+    // Cuántos productos como máximo pueden volver a la sucursal en una sola escritura
+    int maxEmbeddableProducts();
+}
@@ -0,0 +1,65 @@
+package co.com.bancolombia.usecase.topk;
+
+import co.com.bancolombia.model.franchise.Product;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import reactor.core.publisher.Flux;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+// Compara el camino anterior de GetTopStockProductsUseCase (sort del Flux completo + take) con TopK.
+// Con el profiler gc se ve la diferencia de memoria: el sort acumula los n productos, TopK solo k
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class TopKBenchmark {
+
+    private static final Comparator<Product> BY_ID = Comparator.comparing(Product::getId);
+
+    @Param({"1000", "100000", "1000000"})
+    private int products;
+
+    @Param({"3", "10"})
+    private int k;
+
+    private List<Product> source;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        source = new ArrayList<>(products);
+        for (int i = 0; i < products; i++) {
+            source.add(Product.builder()
+                    .id("product-" + i)
+                    .stock(random.nextInt(1_000_000))
+                    .build());
+        }
+    }
+
+    @Benchmark
+    public List<Product> sortAndTake() {
+        return Flux.fromIterable(source)
+                .sort((p1, p2) -> Integer.compare(p2.getStock(), p1.getStock()))
+                .take(k)
+                .collectList()
+                .block();
+    }
+
+    @Benchmark
+    public List<Product> topK() {
+        return Flux.fromIterable(source)
+                .transform(TopK.largest(k, Product::getStock, BY_ID))
+                .collectList()
+                .block();
+    }
+}
@@ -3,6 +3,7 @@ package co.com.bancolombia.usecase.branch;
 import co.com.bancolombia.model.franchise.Branch;
 import co.com.bancolombia.model.franchise.gateways.BranchRepository;
 import co.com.bancolombia.model.franchise.gateways.FranchiseRepository;
+import co.com.bancolombia.usecase.franchise.FranchiseStatsRecorder;
 import lombok.RequiredArgsConstructor;
 import reactor.core.publisher.Mono;
 
@@ -13,6 +14,7 @@ public class CreateBranchUseCase {
     
     private final BranchRepository branchRepository;
     private final FranchiseRepository franchiseRepository;
+    private final FranchiseStatsRecorder franchiseStatsRecorder;
     
     public Mono<Branch> execute(String franchiseId, String name) {
         if (franchiseId == null || franchiseId.trim().isEmpty()) {
@@ -23,12 +25,13 @@ public class CreateBranchUseCase {
             return Mono.error(new IllegalArgumentException("El nombre de la sucursal es requerido"));
         }
         
-        return franchiseRepository.findById(franchiseId)
-                .switchIfEmpty(Mono.error(new RuntimeException("Franquicia con ID " + franchiseId + " not found")))
-                .then(Mono.just(Branch.create(franchiseId, name.trim())))
+        // Escritura condicionada sobre la franquicia, no una lectura: falla si no existe o si se está borrando
+        return franchiseRepository.registerWrite(franchiseId)
+                .then(Mono.fromSupplier(() -> Branch.create(franchiseId, name.trim())))
                 .map(branch -> branch.toBuilder()
                         .id(UUID.randomUUID().toString())
                         .build())
-                .flatMap(branchRepository::save);
+                .flatMap(branchRepository::save)
+                .flatMap(saved -> franchiseStatsRecorder.branchCreated(saved).thenReturn(saved));
     }
 }
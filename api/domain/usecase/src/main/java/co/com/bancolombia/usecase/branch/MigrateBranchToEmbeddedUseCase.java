@@ -0,0 +1,67 @@
+package co.com.bancolombia.usecase.branch;
+
+import co.com.bancolombia.model.franchise.Branch;
+import co.com.bancolombia.model.franchise.Page;
+import co.com.bancolombia.model.franchise.Product;
+import co.com.bancolombia.model.franchise.gateways.BranchRepository;
+import co.com.bancolombia.model.franchise.gateways.ProductRepository;
+import co.com.bancolombia.model.franchise.gateways.StorageStrategyEngine;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.java.Log;
+import reactor.core.publisher.Mono;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.logging.Level;
+
+@Log
+@RequiredArgsConstructor
+public class MigrateBranchToEmbeddedUseCase {
+    
+    private static final String SEPARATED = "SEPARATED";
+    
+    private final BranchRepository branchRepository;
+    private final ProductRepository productRepository;
+    private final StorageStrategyEngine storageStrategyEngine;
+    private final Set<String> inFlight = ConcurrentHashMap.newKeySet();
+    
+    // SEPARATED -> EMBEDDED cuando la sucursal se ha reducido lo suficiente. Solo se lee una página acotada de
+    // sus productos: si hay más de los que caben en una escritura, o no caben con holgura, sigue SEPARATED.
+    // Si parece que caben, la sucursal pasa antes a EMBEDDING (deja de admitir altas en la tabla de productos) y
+    // la página se vuelve a leer: lo que se embebe es el conjunto completo, sin productos creados entre medias
+    public Mono<Boolean> execute(String branchId) {
+        if (branchId == null || branchId.trim().isEmpty()) {
+            return Mono.error(new IllegalArgumentException("El ID de la sucursal es requerido"));
+        }
+        
+        return branchRepository.findSummaryById(branchId)
+                .filter(branch -> SEPARATED.equals(branch.getStorageStrategy()))
+                .filterWhen(branch -> embeddablePage(branch).hasElement())
+                .flatMap(branch -> branchRepository.startEmbedding(branchId)
+                        .filter(Boolean::booleanValue)
+                        .flatMap(started -> embeddablePage(branch)
+                                .flatMap(page -> branchRepository.embedProducts(branchId, page.getItems()))
+                                .filter(Boolean::booleanValue)
+                                .switchIfEmpty(Mono.defer(() -> branchRepository.abortEmbedding(branchId).thenReturn(false)))
+                                .onErrorResume(error -> branchRepository.abortEmbedding(branchId).then(Mono.error(error)))))
+                .defaultIfEmpty(false);
+    }
+    
+    private Mono<Page<Product>> embeddablePage(Branch branch) {
+        return productRepository.findPageByBranchId(branch.getId(), storageStrategyEngine.maxEmbeddableProducts(), null)
+                .filter(page -> !page.hasNext())
+                .filter(page -> storageStrategyEngine.shouldEmbed(branch, page.getItems()));
+    }
+    
+    // Fuera del request: una sola evaluación en curso por sucursal en esta instancia. Si falla o pierde contra
+    // una escritura concurrente, la sucursal sigue SEPARATED y se vuelve a evaluar en el siguiente borrado
+    public void launch(String branchId) {
+        if (!inFlight.add(branchId)) {
+            return;
+        }
+        execute(branchId)
+                .doFinally(signal -> inFlight.remove(branchId))
+                .subscribe(embedded -> { }, error -> log.log(Level.WARNING,
+                        "No se pudo evaluar la vuelta a EMBEDDED de la sucursal " + branchId, error));
+    }
+}
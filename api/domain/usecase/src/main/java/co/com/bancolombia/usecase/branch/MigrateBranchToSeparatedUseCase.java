@@ -0,0 +1,62 @@
+package co.com.bancolombia.usecase.branch;
+
+import co.com.bancolombia.model.franchise.gateways.BranchRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.java.Log;
+import reactor.core.publisher.Mono;
+import reactor.util.retry.Retry;
+
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.logging.Level;
+
+@Log
+@RequiredArgsConstructor
+public class MigrateBranchToSeparatedUseCase {
+    
+    private static final int CHUNK_SIZE = 25;
+    private static final int MAX_RETRIES = 5;
+    private static final Duration RETRY_BACKOFF = Duration.ofMillis(50);
+    
+    private final BranchRepository branchRepository;
+    private final Set<String> inFlight = ConcurrentHashMap.newKeySet();
+    
+    // Mueve los productos embebidos a la tabla de productos por tramos y solo al final pasa a SEPARATED.
+    // Es idempotente y reanudable: cada tramo borra de la sucursal lo que ya copió
+    public Mono<Boolean> execute(String branchId) {
+        if (branchId == null || branchId.trim().isEmpty()) {
+            return Mono.error(new IllegalArgumentException("El ID de la sucursal es requerido"));
+        }
+        
+        return Mono.defer(() -> branchRepository.startMigration(branchId))
+                .filter(Boolean::booleanValue)
+                .flatMap(started -> migrateRemaining(branchId)
+                        .then(Mono.defer(() -> branchRepository.completeMigration(branchId)))
+                        .thenReturn(true))
+                // Un tramo en conflicto con una escritura concurrente se vuelve a leer y reintentar
+                .retryWhen(Retry.backoff(MAX_RETRIES, RETRY_BACKOFF)
+                        .filter(IllegalStateException.class::isInstance))
+                .defaultIfEmpty(false);
+    }
+    
+    // Fuera del request: una sola migración en curso por sucursal en esta instancia. Si falla, la sucursal
+    // queda en MIGRATING (las lecturas combinan ambos orígenes) y se reanuda en la siguiente escritura
+    public void launch(String branchId) {
+        if (!inFlight.add(branchId)) {
+            return;
+        }
+        execute(branchId)
+                .doFinally(signal -> inFlight.remove(branchId))
+                .subscribe(migrated -> { }, error -> log.log(Level.WARNING,
+                        "La migración a SEPARATED de la sucursal " + branchId + " quedó interrumpida", error));
+    }
+    
+    private Mono<Void> migrateRemaining(String branchId) {
+        return branchRepository.migrateProductsChunk(branchId, CHUNK_SIZE)
+                .expand(moved -> moved > 0
+                        ? branchRepository.migrateProductsChunk(branchId, CHUNK_SIZE)
+                        : Mono.empty())
+                .then();
+    }
+}
@@ -23,9 +23,8 @@ public class UpdateBranchNameUseCase {
             return Mono.error(new IllegalArgumentException("El nombre debe tener entre 2 y 100 caracteres"));
         }
         
-        return branchRepository.findById(id)
-                .switchIfEmpty(Mono.error(new RuntimeException("Sucursal con ID " + id + " not found")))
-                .map(branch -> branch.toBuilder().name(name.trim()).build())
-                .flatMap(branchRepository::save);
+        // Una sola escritura parcial: sin leer la sucursal ni reescribir sus productos
+        return branchRepository.updateName(id, name.trim())
+                .switchIfEmpty(Mono.error(new RuntimeException("Sucursal con ID " + id + " not found")));
     }
 }
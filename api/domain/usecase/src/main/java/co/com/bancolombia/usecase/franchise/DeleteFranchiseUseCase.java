@@ -0,0 +1,96 @@
+package co.com.bancolombia.usecase.franchise;
+
+import co.com.bancolombia.model.franchise.Franchise;
+import co.com.bancolombia.model.franchise.FranchiseDeletionJob;
+import co.com.bancolombia.model.franchise.gateways.FranchiseDeletionRepository;
+import co.com.bancolombia.model.franchise.gateways.FranchiseRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.java.Log;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.logging.Level;
+
+@Log
+@RequiredArgsConstructor
+public class DeleteFranchiseUseCase {
+
+    // Un job que lleva este tiempo sin guardar avance se da por abandonado (su instancia se detuvo) y otra
+    // ejecución lo retoma donde quedó
+    static final Duration LEASE = Duration.ofMinutes(2);
+    // Cada cuánto se guarda el avance mientras el borrado corre: muy por debajo de LEASE
+    private static final Duration HEARTBEAT = Duration.ofSeconds(10);
+    // Tiempo que tiene una creación registrada antes de la marca DELETING para terminar de escribir: muy por
+    // encima de lo que tarda una escritura, incluidos sus reintentos
+    static final Duration WRITE_FENCE = Duration.ofSeconds(30);
+
+    private final FranchiseRepository franchiseRepository;
+    private final FranchiseDeletionRepository franchiseDeletionRepository;
+
+    // Registra el job de borrado y lo devuelve sin correrlo: quien lo recibe se suscribe a run. El job se guarda
+    // junto a la franquicia y hay uno solo en curso entre todas las instancias; vacío si otra ejecución ya lo tiene
+    public Mono<FranchiseDeletionJob> start(String franchiseId) {
+        if (franchiseId == null || franchiseId.trim().isEmpty()) {
+            return Mono.error(new IllegalArgumentException("El ID de la franquicia es requerido"));
+        }
+
+        return franchiseRepository.findById(franchiseId)
+                .switchIfEmpty(Mono.error(new RuntimeException("Franquicia con ID " + franchiseId + " not found")))
+                .flatMap(franchise -> claim(FranchiseDeletionJob.start(franchiseId)));
+    }
+
+    public Mono<FranchiseDeletionJob> status(String franchiseId) {
+        return franchiseDeletionRepository.findJob(franchiseId)
+                .switchIfEmpty(Mono.error(new RuntimeException("Borrado de la franquicia " + franchiseId + " not found")));
+    }
+
+    // Reclama los jobs que quedaron a medias en una instancia que se detuvo y los devuelve para correrlos con run:
+    // el borrado continúa con lo que quede. Lo invoca periódicamente FranchiseDeletionResumer
+    public Flux<FranchiseDeletionJob> resumeAbandoned() {
+        return franchiseDeletionRepository.findAbandonedJobs(LEASE)
+                .concatMap(job -> claim(job.resume()));
+    }
+
+    // Solo la ejecución que logra registrar el job lo corre
+    private Mono<FranchiseDeletionJob> claim(FranchiseDeletionJob job) {
+        return franchiseDeletionRepository.claimJob(job, LEASE)
+                .filter(Boolean::booleanValue)
+                .map(claimed -> job);
+    }
+
+    // Primero se marca la franquicia DELETING: desde ahí se rechazan sucursales y productos nuevos, y se espera a
+    // que terminen los que se registraron antes de la marca. El item de la franquicia se borra al final: mientras
+    // exista, un job fallido puede volver a lanzarse. Termina con el job guardado (COMPLETED o FAILED); un fallo al
+    // guardarlo solo se registra
+    public Mono<FranchiseDeletionJob> run(FranchiseDeletionJob started) {
+        String franchiseId = started.getFranchiseId();
+        AtomicReference<FranchiseDeletionJob> current = new AtomicReference<>(started);
+        return franchiseRepository.markDeleting(franchiseId)
+                .flatMap(DeleteFranchiseUseCase::awaitRegisteredWrites)
+                .thenMany(Flux.defer(() -> franchiseDeletionRepository.deleteContents(franchiseId)))
+                .map(deleted -> current.updateAndGet(job -> job.progress(deleted)))
+                .sample(HEARTBEAT)
+                .concatMap(franchiseDeletionRepository::saveJob)
+                .then(Mono.defer(() -> franchiseRepository.deleteById(franchiseId)))
+                .then(Mono.fromSupplier(() -> current.get().completed()))
+                .onErrorResume(error -> Mono.fromSupplier(() -> current.get().failed(error.getMessage())))
+                .flatMap(finished -> franchiseDeletionRepository.saveJob(finished).thenReturn(finished))
+                .onErrorResume(error -> {
+                    log.log(Level.WARNING, "No se pudo guardar el borrado de la franquicia " + franchiseId, error);
+                    return Mono.empty();
+                });
+    }
+
+    // Una creación que pasó registerWrite antes de la marca puede seguir escribiendo: se le da WRITE_FENCE desde su
+    // registro. Sin creaciones recientes no se espera
+    private static Mono<Void> awaitRegisteredWrites(Franchise franchise) {
+        if (franchise.getLastWriteAt() == null) {
+            return Mono.empty();
+        }
+        Duration remaining = Duration.between(LocalDateTime.now(), franchise.getLastWriteAt().plus(WRITE_FENCE));
+        return remaining.isNegative() || remaining.isZero() ? Mono.empty() : Mono.delay(remaining).then();
+    }
+}
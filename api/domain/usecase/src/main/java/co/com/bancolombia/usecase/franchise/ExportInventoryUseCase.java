@@ -0,0 +1,18 @@
+package co.com.bancolombia.usecase.franchise;
+
+import co.com.bancolombia.model.franchise.InventoryRecord;
+import co.com.bancolombia.model.franchise.gateways.InventoryExportRepository;
+import lombok.RequiredArgsConstructor;
+import reactor.core.publisher.Flux;
+
+// Volcado para procesos batch. No es una vista consistente: el Scan recorre las tablas mientras siguen recibiendo
+// escrituras, y un producto que migra entre su sucursal y la tabla de productos puede salir dos veces o ninguna
+@RequiredArgsConstructor
+public class ExportInventoryUseCase {
+
+    private final InventoryExportRepository inventoryExportRepository;
+
+    public Flux<InventoryRecord> execute() {
+        return inventoryExportRepository.exportAll();
+    }
+}
@@ -0,0 +1,59 @@
+package co.com.bancolombia.usecase.franchise;
+
+import co.com.bancolombia.model.franchise.Branch;
+import co.com.bancolombia.model.franchise.Product;
+import co.com.bancolombia.model.franchise.gateways.FranchiseStatsRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.java.Log;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+import java.util.logging.Level;
+
+// Traduce cada escritura de sucursales/productos a deltas de los contadores de su franquicia. Se aplica
+// después de la escritura principal y no en la misma transacción: un fallo aquí no revierte ni falla el
+// request, solo deja el contador desviado (son métricas de tablero, no la fuente de verdad del inventario). El
+// dominio no depende de SLF4J: java.util.logging, que Spring Boot redirige a su logging
+@Log
+@RequiredArgsConstructor
+public class FranchiseStatsRecorder {
+    
+    private final FranchiseStatsRepository franchiseStatsRepository;
+    
+    public Mono<Void> branchCreated(Branch branch) {
+        return record(branch.getFranchiseId(), 1, 0, 0);
+    }
+    
+    public Mono<Void> productCreated(Product product) {
+        return record(product.getFranchiseId(), 0, 1, stock(product));
+    }
+    
+    // Una carga masiva suma todos sus productos en un solo incremento
+    public Mono<Void> productsCreated(String franchiseId, List<Product> products) {
+        return record(franchiseId, 0, products.size(), products.stream().mapToLong(FranchiseStatsRecorder::stock).sum());
+    }
+    
+    public Mono<Void> stockChanged(Product product, long delta) {
+        return record(product.getFranchiseId(), 0, 0, delta);
+    }
+    
+    public Mono<Void> productRemoved(Product product) {
+        return record(product.getFranchiseId(), 0, -1, -stock(product));
+    }
+    
+    private Mono<Void> record(String franchiseId, long branches, long products, long stock) {
+        if (franchiseId == null) {
+            return Mono.empty();
+        }
+        return franchiseStatsRepository.increment(franchiseId, branches, products, stock)
+                .onErrorResume(error -> {
+                    log.log(Level.WARNING, "No se pudieron actualizar los contadores de la franquicia " + franchiseId
+                            + " (sucursales " + branches + ", productos " + products + ", stock " + stock + ")", error);
+                    return Mono.empty();
+                });
+    }
+    
+    private static long stock(Product product) {
+        return product.getStock() != null ? product.getStock() : 0;
+    }
+}
@@ -1,9 +1,11 @@
 package co.com.bancolombia.usecase.franchise;
 
 import co.com.bancolombia.model.franchise.Franchise;
+import co.com.bancolombia.model.franchise.Page;
 import co.com.bancolombia.model.franchise.gateways.FranchiseRepository;
 import lombok.RequiredArgsConstructor;
 import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 
 @RequiredArgsConstructor
 public class GetAllFranchisesUseCase {
@@ -13,4 +15,9 @@ public class GetAllFranchisesUseCase {
     public Flux<Franchise> execute() {
         return franchiseRepository.findAll();
     }
+    
+    public Mono<Page<Franchise>> execute(Integer limit, String cursor) {
+        return Mono.fromCallable(() -> Page.resolveLimit(limit))
+                .flatMap(pageSize -> franchiseRepository.findPage(pageSize, cursor));
+    }
 }
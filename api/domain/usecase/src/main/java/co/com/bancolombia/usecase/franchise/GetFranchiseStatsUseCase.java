@@ -0,0 +1,25 @@
+package co.com.bancolombia.usecase.franchise;
+
+import co.com.bancolombia.model.franchise.FranchiseStats;
+import co.com.bancolombia.model.franchise.gateways.FranchiseRepository;
+import co.com.bancolombia.model.franchise.gateways.FranchiseStatsRepository;
+import lombok.RequiredArgsConstructor;
+import reactor.core.publisher.Mono;
+
+@RequiredArgsConstructor
+public class GetFranchiseStatsUseCase {
+    
+    private final FranchiseRepository franchiseRepository;
+    private final FranchiseStatsRepository franchiseStatsRepository;
+    
+    public Mono<FranchiseStats> execute(String franchiseId) {
+        if (franchiseId == null || franchiseId.trim().isEmpty()) {
+            return Mono.error(new IllegalArgumentException("El ID de la franquicia es requerido"));
+        }
+        
+        // Suma de los shards de la franquicia: una sola ronda de lectura, sin recorrer sucursales ni productos
+        return franchiseRepository.findById(franchiseId)
+                .switchIfEmpty(Mono.error(new RuntimeException("Franquicia con ID " + franchiseId + " not found")))
+                .then(Mono.defer(() -> franchiseStatsRepository.findByFranchiseId(franchiseId)));
+    }
+}
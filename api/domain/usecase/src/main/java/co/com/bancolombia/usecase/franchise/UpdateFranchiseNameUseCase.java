@@ -15,9 +15,7 @@ public class UpdateFranchiseNameUseCase {
             return Mono.error(new IllegalArgumentException("El nombre es requerido"));
         }
         
-        return franchiseRepository.findById(franchiseId)
-                .switchIfEmpty(Mono.error(new RuntimeException("Franchise not found")))
-                .map(franchise -> franchise.updateName(newName.trim()))
-                .flatMap(franchiseRepository::save);
+        return franchiseRepository.updateName(franchiseId, newName.trim())
+                .switchIfEmpty(Mono.error(new RuntimeException("Franchise not found")));
     }
 }
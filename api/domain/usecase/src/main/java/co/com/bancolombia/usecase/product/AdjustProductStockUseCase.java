@@ -0,0 +1,35 @@
+package co.com.bancolombia.usecase.product;
+
+import co.com.bancolombia.model.franchise.Product;
+import co.com.bancolombia.model.franchise.gateways.BranchRepository;
+import co.com.bancolombia.model.franchise.gateways.ProductRepository;
+import co.com.bancolombia.usecase.franchise.FranchiseStatsRecorder;
+import lombok.RequiredArgsConstructor;
+import reactor.core.publisher.Mono;
+
+@RequiredArgsConstructor
+public class AdjustProductStockUseCase {
+    
+    private final ProductRepository productRepository;
+    private final BranchRepository branchRepository;
+    private final FranchiseStatsRecorder franchiseStatsRecorder;
+    
+    public Mono<Product> execute(String id, Integer delta) {
+        if (id == null || id.trim().isEmpty()) {
+            return Mono.error(new IllegalArgumentException("El ID del producto es requerido"));
+        }
+        
+        if (delta == null || delta == 0) {
+            return Mono.error(new IllegalArgumentException("El ajuste de stock debe ser distinto de 0"));
+        }
+        
+        // El incremento/decremento lo aplica DynamoDB en un único UpdateItem condicional (stock >= -delta),
+        // sin leer el stock actual: ajustes concurrentes no se pisan y el stock nunca queda negativo
+        return branchRepository.findProductLocation(id)
+                .switchIfEmpty(Mono.error(new RuntimeException("Product not found")))
+                .flatMap(location -> location.isEmbedded()
+                        ? branchRepository.adjustProductStock(location, delta)
+                        : productRepository.adjustStock(id, delta))
+                .flatMap(adjusted -> franchiseStatsRecorder.stockChanged(adjusted, delta).thenReturn(adjusted));
+    }
+}
@@ -1,20 +1,33 @@
 package co.com.bancolombia.usecase.product;
 
-import co.com.bancolombia.model.franchise.Branch;
 import co.com.bancolombia.model.franchise.Product;
+import co.com.bancolombia.model.franchise.StorageStrategyChangingException;
 import co.com.bancolombia.model.franchise.gateways.BranchRepository;
+import co.com.bancolombia.model.franchise.gateways.FranchiseRepository;
 import co.com.bancolombia.model.franchise.gateways.ProductRepository;
+import co.com.bancolombia.model.franchise.gateways.StorageStrategyEngine;
+import co.com.bancolombia.usecase.branch.MigrateBranchToSeparatedUseCase;
+import co.com.bancolombia.usecase.franchise.FranchiseStatsRecorder;
 import lombok.RequiredArgsConstructor;
 import reactor.core.publisher.Mono;
+import reactor.util.retry.Retry;
 
-import java.util.List;
+import java.time.Duration;
 import java.util.UUID;
 
 @RequiredArgsConstructor
 public class CreateProductUseCase {
     
+    // Una vuelta a EMBEDDING -> EMBEDDED dura una lectura y una transacción: unos pocos reintentos la cubren
+    private static final int STRATEGY_RETRIES = 5;
+    private static final Duration STRATEGY_BACKOFF = Duration.ofMillis(20);
+    
     private final ProductRepository productRepository;
     private final BranchRepository branchRepository;
+    private final FranchiseRepository franchiseRepository;
+    private final MigrateBranchToSeparatedUseCase migrateBranchToSeparatedUseCase;
+    private final FranchiseStatsRecorder franchiseStatsRecorder;
+    private final StorageStrategyEngine storageStrategyEngine;
     
     public Mono<Product> execute(String franchiseId, String branchId, String name, Integer stock) {
         if (franchiseId == null || franchiseId.trim().isEmpty()) {
@@ -33,7 +46,10 @@ public class CreateProductUseCase {
             return Mono.error(new IllegalArgumentException("El stock debe ser mayor o igual a 0"));
         }
         
-        return branchRepository.findById(branchId)
+        // La escritura condicionada sobre la franquicia la rechaza si se está borrando. Lectura proyectada: para
+        // decidir la estrategia basta el resumen, sin traer los productos embebidos
+        return franchiseRepository.registerWrite(franchiseId)
+                .then(Mono.defer(() -> branchRepository.findSummaryById(branchId)))
                 .switchIfEmpty(Mono.error(new RuntimeException("Sucursal con ID " + branchId + " not found")))
                 .flatMap(branch -> {
                     Product newProduct = Product.create(franchiseId, branchId, name.trim(), stock)
@@ -41,22 +57,46 @@ public class CreateProductUseCase {
                             .id(UUID.randomUUID().toString())
                             .build();
 
-                    int currentProductCount = branch.getProducts() != null ? branch.getProducts().size() : 0;
-                    
-                    if (currentProductCount >= 99) {
-                        return productRepository.save(newProduct)
-                                .flatMap(savedProduct -> {
-                                    Branch updatedBranch = branch.toBuilder()
-                                            .storageStrategy("SEPARATED")
-                                            .products(List.of())
-                                            .build();
-                                    return branchRepository.save(updatedBranch)
-                                            .thenReturn(savedProduct);
+                    // BUCKETED: los productos se reparten en buckets de la partición de la sucursal, sin límite
+                    if ("BUCKETED".equals(branch.getStorageStrategy())) {
+                        return branchRepository.addProduct(branch, newProduct)
+                                .thenReturn(newProduct);
+                    }
+
+                    // SEPARATED o MIGRATING: el producto va directo a la tabla de productos, tras marcar la
+                    // sucursal para que no empiece a volver a EMBEDDED sin verlo; si la migración quedó
+                    // interrumpida se reanuda en segundo plano
+                    if (branch.getStorageStrategy() != null && !"EMBEDDED".equals(branch.getStorageStrategy())) {
+                        return branchRepository.markSeparatedWrite(branchId)
+                                .then(Mono.defer(() -> productRepository.save(newProduct)))
+                                .doOnSuccess(savedProduct -> {
+                                    if ("MIGRATING".equals(branch.getStorageStrategy())) {
+                                        migrateBranchToSeparatedUseCase.launch(branchId);
+                                    }
                                 });
+                    }
+
+                    // Si con este producto el item superaría el umbral de tamaño la sucursal pasa a MIGRATING y
+                    // los productos existentes se mueven fuera del request, sin perder ninguno ni penalizar la
+                    // latencia de esta inserción. Si otra escritura cambió la estrategia desde la lectura (p. ej.
+                    // a EMBEDDING) la sucursal no pasa a MIGRATING: se vuelve a leer y a decidir
+                    if (storageStrategyEngine.shouldSeparate(branch, newProduct)) {
+                        return branchRepository.startMigration(branchId)
+                                .flatMap(started -> started
+                                        ? productRepository.save(newProduct)
+                                        : Mono.<Product>error(new StorageStrategyChangingException(
+                                                "La sucursal " + branchId + " cambió de estrategia antes de migrar")))
+                                .doOnSuccess(savedProduct -> migrateBranchToSeparatedUseCase.launch(branchId));
                     } else {
-                        return branchRepository.addProduct(branchId, newProduct)
+                        return branchRepository.addProduct(branch, newProduct)
                                 .thenReturn(newProduct);
                     }
-                });
+                })
+                // La sucursal está cambiando de estrategia (p. ej. volviendo a EMBEDDED): se vuelve a leer, que en
+                // breve será EMBEDDED (o de nuevo SEPARATED si finalmente no se embebe)
+                .retryWhen(Retry.backoff(STRATEGY_RETRIES, STRATEGY_BACKOFF)
+                        .filter(StorageStrategyChangingException.class::isInstance)
+                        .onRetryExhaustedThrow((spec, signal) -> signal.failure()))
+                .flatMap(saved -> franchiseStatsRecorder.productCreated(saved).thenReturn(saved));
     }
 }
@@ -1,38 +1,29 @@
 package co.com.bancolombia.usecase.product;
 
-import co.com.bancolombia.model.franchise.Product;
 import co.com.bancolombia.model.franchise.gateways.BranchRepository;
 import co.com.bancolombia.model.franchise.gateways.ProductRepository;
+import co.com.bancolombia.usecase.branch.MigrateBranchToEmbeddedUseCase;
+import co.com.bancolombia.usecase.franchise.FranchiseStatsRecorder;
 import lombok.RequiredArgsConstructor;
 import reactor.core.publisher.Mono;
 
-import java.util.List;
-import java.util.stream.Collectors;
-
 @RequiredArgsConstructor
 public class DeleteProductUseCase {
     
     private final ProductRepository productRepository;
     private final BranchRepository branchRepository;
+    private final FranchiseStatsRecorder franchiseStatsRecorder;
+    private final MigrateBranchToEmbeddedUseCase migrateBranchToEmbeddedUseCase;
     
     public Mono<Void> execute(String productId) {
-        return productRepository.findById(productId)
-                .flatMap(product -> productRepository.deleteById(productId))
-                .switchIfEmpty(
-                    branchRepository.findBranchIdByProductId(productId)
-                            .flatMap(branchId -> deleteEmbeddedInBranch(branchId, productId))
-                );
-    }
-    
-    private Mono<Void> deleteEmbeddedInBranch(String branchId, String productId) {
-        return branchRepository.findById(branchId)
-                .flatMap(branch -> {
-                    List<Product> updated = branch.getProducts().stream()
-                            .filter(p -> !productId.equals(p.getId()))
-                            .collect(Collectors.toList());
-                    
-                    return branchRepository.save(branch.toBuilder().products(updated).build());
-                })
-                .then();
+        // EMBEDDED: se elimina solo la entrada del producto (y su locator), sin reescribir la sucursal. Ambos
+        // borrados devuelven el producto quitado, con el stock que se descuenta del contador de la franquicia. Tras
+        // borrar un producto SEPARATED se evalúa en segundo plano si la sucursal ya cabe de nuevo embebida
+        return branchRepository.findProductLocation(productId)
+                .flatMap(location -> location.isEmbedded()
+                        ? branchRepository.removeProduct(location)
+                        : productRepository.deleteById(productId)
+                                .doOnSuccess(deleted -> migrateBranchToEmbeddedUseCase.launch(location.getBranchId())))
+                .flatMap(franchiseStatsRecorder::productRemoved);
     }
 }
@@ -1,30 +1,117 @@
 package co.com.bancolombia.usecase.product;
 
+import co.com.bancolombia.model.franchise.Page;
 import co.com.bancolombia.model.franchise.Product;
 import co.com.bancolombia.model.franchise.gateways.BranchRepository;
 import co.com.bancolombia.model.franchise.gateways.ProductRepository;
 import lombok.RequiredArgsConstructor;
 import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
 
 @RequiredArgsConstructor
 public class GetProductsByBranchUseCase {
     
+    // El cursor público lleva la fase: "s" + cursor del repositorio (productos separados, una Query por
+    // página) o "e" + último id embebido entregado (productos embebidos, ordenados por id)
+    private static final char SEPARATED_PHASE = 's';
+    private static final char EMBEDDED_PHASE = 'e';
+    
     private final ProductRepository productRepository;
     private final BranchRepository branchRepository;
     
+    // Durante una migración un producto puede pasar de embebido a separado entre las dos lecturas:
+    // se leen primero los embebidos y se descartan los que ya aparecieron como separados
     public Flux<Product> execute(String branchId) {
-        Flux<Product> separatedProducts = productRepository.findByBranchId(branchId);
-
-        Flux<Product> embeddedProducts = branchRepository.findById(branchId)
-                .flatMapMany(branch -> {
-                    if (branch.getProducts() != null && !branch.getProducts().isEmpty()) {
-                        return Flux.fromIterable(branch.getProducts())
-                                .map(product -> product.toBuilder()
-                                        .branchId(branchId)
-                                        .build());
+        return branchRepository.findById(branchId)
+                .map(branch -> branch.getProducts() != null ? branch.getProducts() : List.<Product>of())
+                .defaultIfEmpty(List.of())
+                .flatMapMany(embedded -> Flux.defer(() -> {
+                    Set<String> separatedIds = new HashSet<>();
+                    Flux<Product> separatedProducts = productRepository.findByBranchId(branchId)
+                            .doOnNext(product -> separatedIds.add(product.getId()));
+                    Flux<Product> embeddedProducts = Flux.fromIterable(embedded)
+                            .filter(product -> !separatedIds.contains(product.getId()))
+                            .map(product -> product.toBuilder()
+                                    .branchId(branchId)
+                                    .build());
+                    return Flux.concat(separatedProducts, embeddedProducts);
+                }));
+    }
+    
+    public Mono<Page<Product>> execute(String branchId, Integer limit, String cursor) {
+        return Mono.fromCallable(() -> Page.resolveLimit(limit))
+                .flatMap(pageSize -> {
+                    if (cursor == null || cursor.isEmpty()) {
+                        return separatedPage(branchId, pageSize, null);
+                    }
+                    return switch (cursor.charAt(0)) {
+                        case SEPARATED_PHASE -> separatedPage(branchId, pageSize, cursor.substring(1));
+                        case EMBEDDED_PHASE -> embeddedPage(branchId, pageSize, decodeId(cursor.substring(1)), Set.of());
+                        default -> Mono.error(new IllegalArgumentException("Cursor de paginación inválido"));
+                    };
+                });
+    }
+    
+    // Agotados los separados, el resto de la página se completa con los embebidos desde el inicio
+    private Mono<Page<Product>> separatedPage(String branchId, int limit, String repositoryCursor) {
+        return productRepository.findPageByBranchId(branchId, limit, repositoryCursor)
+                .flatMap(page -> {
+                    if (page.hasNext()) {
+                        return Mono.just(Page.of(page.getItems(), SEPARATED_PHASE + page.getNextCursor()));
                     }
-                    return Flux.empty();
+                    if (page.getItems().size() >= limit) {
+                        String next = EMBEDDED_PHASE + encodeId("");
+                        return Mono.just(Page.of(page.getItems(), next));
+                    }
+                    Set<String> separatedIds = new HashSet<>();
+                    page.getItems().forEach(product -> separatedIds.add(product.getId()));
+                    return embeddedPage(branchId, limit - page.getItems().size(), "", separatedIds)
+                            .map(embedded -> {
+                                List<Product> items = new ArrayList<>(page.getItems());
+                                items.addAll(embedded.getItems());
+                                return Page.of(items, embedded.getNextCursor());
+                            });
+                });
+    }
+    
+    private Mono<Page<Product>> embeddedPage(String branchId, int limit, String afterId, Set<String> excludedIds) {
+        return branchRepository.findById(branchId)
+                .map(branch -> branch.getProducts() != null ? branch.getProducts() : List.<Product>of())
+                .defaultIfEmpty(List.of())
+                .map(embedded -> {
+                    List<Product> remaining = embedded.stream()
+                            .filter(product -> product.getId().compareTo(afterId) > 0)
+                            .filter(product -> !excludedIds.contains(product.getId()))
+                            .sorted(Comparator.comparing(Product::getId))
+                            .map(product -> product.toBuilder()
+                                    .branchId(branchId)
+                                    .build())
+                            .toList();
+                    if (remaining.size() <= limit) {
+                        return Page.of(remaining, null);
+                    }
+                    List<Product> items = remaining.subList(0, limit);
+                    return Page.of(items, EMBEDDED_PHASE + encodeId(items.get(limit - 1).getId()));
                 });
-        return Flux.concat(separatedProducts, embeddedProducts);
+    }
+    
+    private static String encodeId(String id) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(id.getBytes(StandardCharsets.UTF_8));
+    }
+    
+    private static String decodeId(String encoded) {
+        try {
+            return new String(Base64.getUrlDecoder().decode(encoded), StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Cursor de paginación inválido", e);
+        }
     }
 }
@@ -19,20 +19,36 @@ public class GetTopStockProductByBranchUseCase {
             return Flux.error(new IllegalArgumentException("El ID de la franquicia es requerido"));
         }
 
-        return branchRepository.findByFranchiseId(franchiseId)
-                .flatMap(branch -> getTopStockProductForBranch(branch));
+        return branchRepository.findSummariesByFranchiseId(franchiseId)
+                .flatMap(this::topStockProduct);
     }
     
-    private Mono<Product> getTopStockProductForBranch(Branch branch) {
-        if ("EMBEDDED".equals(branch.getStorageStrategy()) && branch.getProducts() != null && !branch.getProducts().isEmpty()) {
-            return Flux.fromIterable(branch.getProducts())
-                    .reduce((p1, p2) -> p1.getStock() > p2.getStock() ? p1 : p2)
+    // EMBEDDED: el item de la sucursal ya trae su topStockProduct, sin leer ni recorrer los productos.
+    // BUCKETED: el resumen llega ya combinado a partir del de cada bucket
+    public Mono<Product> topStockProduct(Branch branch) {
+        if ("EMBEDDED".equals(branch.getStorageStrategy()) || "BUCKETED".equals(branch.getStorageStrategy())) {
+            return Mono.justOrEmpty(branch.getTopStockProduct())
                     .map(product -> product.toBuilder()
                             .branchId(branch.getId())
                             .build());
+        } else if ("MIGRATING".equals(branch.getStorageStrategy())) {
+            // Migración en curso: el máximo puede estar aún embebido o ya en la tabla de productos
+            return Flux.concat(topEmbeddedProduct(branch), productRepository.findTopStockByBranch(branch.getId(), 1).next())
+                    .reduce((p1, p2) -> p1.getStock() >= p2.getStock() ? p1 : p2);
         } else {
-            return productRepository.findByBranchId(branch.getId())
-                    .reduce((p1, p2) -> p1.getStock() > p2.getStock() ? p1 : p2);
+            return productRepository.findTopStockByBranch(branch.getId(), 1)
+                    .next();
         }
     }
+    
+    private Mono<Product> topEmbeddedProduct(Branch branch) {
+        if (branch.getProducts() == null || branch.getProducts().isEmpty()) {
+            return Mono.empty();
+        }
+        return Flux.fromIterable(branch.getProducts())
+                .reduce((p1, p2) -> p1.getStock() > p2.getStock() ? p1 : p2)
+                .map(product -> product.toBuilder()
+                        .branchId(branch.getId())
+                        .build());
+    }
 }
@@ -11,13 +11,15 @@ public class GetTopStockProductByBranchWithBranchNameUseCase {
     private final GetTopStockProductByBranchUseCase getTopStockProductByBranchUseCase;
     private final BranchRepository branchRepository;
     
+    // El nombre viene en el mismo resumen del que sale el top de cada sucursal: ninguna lectura más por nombres
     public Flux<ProductWithBranchName> execute(String franchiseId) {
-        return getTopStockProductByBranchUseCase.execute(franchiseId)
-                .flatMap(product -> 
-                    branchRepository.findById(product.getBranchId())
-                        .map(branch -> new ProductWithBranchName(product, branch.getName()))
-                        .defaultIfEmpty(new ProductWithBranchName(product, "Sucursal no encontrada"))
-                );
+        if (franchiseId == null || franchiseId.trim().isEmpty()) {
+            return Flux.error(new IllegalArgumentException("El ID de la franquicia es requerido"));
+        }
+    
+        return branchRepository.findSummariesByFranchiseId(franchiseId)
+                .flatMap(branch -> getTopStockProductByBranchUseCase.topStockProduct(branch)
+                        .map(product -> new ProductWithBranchName(product, branch.getName())));
     }
     
     public static class ProductWithBranchName {
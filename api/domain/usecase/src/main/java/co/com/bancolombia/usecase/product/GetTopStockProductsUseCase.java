@@ -1,21 +1,34 @@
 package co.com.bancolombia.usecase.product;
 
+import co.com.bancolombia.model.franchise.Branch;
 import co.com.bancolombia.model.franchise.Product;
 import co.com.bancolombia.model.franchise.gateways.BranchRepository;
 import co.com.bancolombia.model.franchise.gateways.ProductRepository;
+import co.com.bancolombia.usecase.topk.TopK;
 import lombok.RequiredArgsConstructor;
 import reactor.core.publisher.Flux;
 
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
 @RequiredArgsConstructor
 public class GetTopStockProductsUseCase {
     
+    private static final int TOP_LIMIT = 3;
+    private static final Comparator<Product> BY_ID = Comparator.comparing(Product::getId);
+    
     private final ProductRepository productRepository;
     private final BranchRepository branchRepository;
     
+    // Embebidos primero y distinct por id: un producto que se migra entre ambas lecturas no se pierde ni se duplica.
+    // Los embebidos se reducen a su top-K antes del distinct, así que nunca se retienen más de 2K productos
     public Flux<Product> execute(String franchiseId) {
-        Flux<Product> separatedProducts = productRepository.findTopStockByFranchise(franchiseId);
+        Flux<Product> separatedProducts = Flux.defer(() -> productRepository.findTopStockByFranchise(franchiseId, TOP_LIMIT));
 
-        Flux<Product> embeddedProducts = branchRepository.findByFranchiseId(franchiseId)
+        Flux<Product> embeddedProducts = branchRepository.findSummariesByFranchiseId(franchiseId)
+                .collectList()
+                .flatMapMany(this::candidates)
                 .flatMap(branch -> {
                     if (branch.getProducts() != null && !branch.getProducts().isEmpty()) {
                         return Flux.fromIterable(branch.getProducts())
@@ -25,10 +38,53 @@ public class GetTopStockProductsUseCase {
                                         .build());
                     }
                     return Flux.empty();
-                });
+                })
+                .transform(TopK.largest(TOP_LIMIT, Product::getStock, BY_ID));
+
+        return Flux.concat(embeddedProducts, separatedProducts)
+                .distinct(Product::getId)
+                .transform(TopK.largest(TOP_LIMIT, Product::getStock, BY_ID));
+    }
+
+    // Solo se cargan con sus productos las sucursales cuyo topStockProduct llega al K-ésimo mayor de los tops: los
+    // K tops son K productos distintos, así que ningún producto de una sucursal con top menor entra en el top-K.
+    // Las que no tienen resumen (MIGRATING, EMBEDDING o escritas antes del resumen) pueden guardar cualquier
+    // producto: entran siempre, y si el resumen ya trajo sus productos no se vuelven a leer
+    private Flux<Branch> candidates(List<Branch> summaries) {
+        List<Branch> summarized = summaries.stream()
+                .filter(branch -> !needsProducts(branch) && hasTop(branch))
+                .toList();
+        TopK<Product> tops = new TopK<>(TOP_LIMIT, Product::getStock, BY_ID);
+        summarized.forEach(branch -> tops.offer(branch.getTopStockProduct()));
+        List<Product> best = tops.toList();
+        long threshold = best.size() < TOP_LIMIT ? Long.MIN_VALUE : best.get(best.size() - 1).getStock();
+
+        List<Branch> loaded = new ArrayList<>();
+        List<String> toLoad = new ArrayList<>();
+        summaries.forEach(branch -> {
+            if (needsProducts(branch) && branch.getProducts() != null) {
+                loaded.add(branch);
+            } else if (needsProducts(branch)
+                    || (hasTop(branch) && branch.getTopStockProduct().getStock() >= threshold)) {
+                toLoad.add(branch.getId());
+            }
+        });
+        return toLoad.isEmpty()
+                ? Flux.fromIterable(loaded)
+                : Flux.concat(Flux.fromIterable(loaded), branchRepository.findAllById(toLoad));
+    }
+
+    private static boolean needsProducts(Branch branch) {
+        String strategy = branch.getStorageStrategy();
+        if ("MIGRATING".equals(strategy) || "EMBEDDING".equals(strategy)) {
+            return true;
+        }
+        // Una SEPARATED no guarda productos en el item; una con resumen y sin productos está vacía
+        return !"SEPARATED".equals(strategy) && !hasTop(branch)
+                && (branch.getProductCount() == null || branch.getProductCount() > 0);
+    }
 
-        return Flux.concat(separatedProducts, embeddedProducts)
-                .sort((p1, p2) -> Integer.compare(p2.getStock(), p1.getStock()))
-                .take(3);
+    private static boolean hasTop(Branch branch) {
+        return branch.getTopStockProduct() != null && branch.getTopStockProduct().getStock() != null;
     }
 }
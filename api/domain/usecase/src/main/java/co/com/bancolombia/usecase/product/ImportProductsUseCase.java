@@ -0,0 +1,175 @@
+package co.com.bancolombia.usecase.product;
+
+import co.com.bancolombia.model.franchise.Branch;
+import co.com.bancolombia.model.franchise.Product;
+import co.com.bancolombia.model.franchise.ProductImportResult;
+import co.com.bancolombia.model.franchise.ProductImportRow;
+import co.com.bancolombia.model.franchise.StorageStrategyChangingException;
+import co.com.bancolombia.model.franchise.gateways.BranchRepository;
+import co.com.bancolombia.model.franchise.gateways.FranchiseRepository;
+import co.com.bancolombia.model.franchise.gateways.ProductRepository;
+import co.com.bancolombia.model.franchise.gateways.StorageStrategyEngine;
+import co.com.bancolombia.usecase.branch.MigrateBranchToSeparatedUseCase;
+import co.com.bancolombia.usecase.franchise.FranchiseStatsRecorder;
+import lombok.RequiredArgsConstructor;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.util.retry.Retry;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+// Carga masiva de productos de una franquicia. Las filas llegan en streaming y se procesan por ventanas: en cada
+// una se agrupan por sucursal, se lee una vez el resumen de cada sucursal y sus productos se escriben juntos según
+// su estrategia, varias sucursales a la vez. Cada fila produce un resultado (no necesariamente en el orden de
+// entrada: lo identifica su línea); un error en una sucursal solo marca como fallidas sus filas
+@RequiredArgsConstructor
+public class ImportProductsUseCase {
+
+    // Filas que se tienen en memoria a la vez, independiente del tamaño de la carga
+    private static final int WINDOW_SIZE = 500;
+    private static final int BRANCH_CONCURRENCY = 4;
+    // Como en CreateProductUseCase: cubren una vuelta a EMBEDDED en curso
+    private static final int STRATEGY_RETRIES = 5;
+    private static final Duration STRATEGY_BACKOFF = Duration.ofMillis(20);
+
+    private final ProductRepository productRepository;
+    private final BranchRepository branchRepository;
+    private final FranchiseRepository franchiseRepository;
+    private final MigrateBranchToSeparatedUseCase migrateBranchToSeparatedUseCase;
+    private final FranchiseStatsRecorder franchiseStatsRecorder;
+    private final StorageStrategyEngine storageStrategyEngine;
+
+    public Flux<ProductImportResult> execute(String franchiseId, Flux<ProductImportRow> rows) {
+        if (franchiseId == null || franchiseId.trim().isEmpty()) {
+            return Flux.error(new IllegalArgumentException("El ID de la franquicia es requerido"));
+        }
+
+        return rows
+                .buffer(WINDOW_SIZE)
+                .concatMap(window -> importWindow(franchiseId, window));
+    }
+
+    private Flux<ProductImportResult> importWindow(String franchiseId, List<ProductImportRow> window) {
+        List<ProductImportResult> rejected = new ArrayList<>();
+        Map<String, List<ProductImportRow>> byBranch = new LinkedHashMap<>();
+        for (ProductImportRow row : window) {
+            String error = validate(row);
+            if (error != null) {
+                rejected.add(ProductImportResult.failed(row, error));
+            } else {
+                byBranch.computeIfAbsent(row.getBranchId().trim(), branchId -> new ArrayList<>()).add(row);
+            }
+        }
+
+        return Flux.concat(
+                Flux.fromIterable(rejected),
+                Flux.fromIterable(byBranch.entrySet())
+                        .flatMap(group -> importBranch(franchiseId, group.getKey(), group.getValue()), BRANCH_CONCURRENCY));
+    }
+
+    private static String validate(ProductImportRow row) {
+        if (row.getError() != null) {
+            return row.getError();
+        }
+        if (row.getBranchId() == null || row.getBranchId().trim().isEmpty()) {
+            return "El ID de la sucursal es requerido";
+        }
+        if (row.getName() == null || row.getName().trim().isEmpty()) {
+            return "El nombre del producto es requerido";
+        }
+        if (row.getStock() == null || row.getStock() < 0) {
+            return "El stock debe ser mayor o igual a 0";
+        }
+        return null;
+    }
+
+    // Una sucursal de otra franquicia se trata como inexistente: la carga solo escribe en la de la ruta. Un error
+    // a mitad de la escritura solo marca como fallidas las filas que no se llegaron a escribir, y los contadores
+    // suman solo las escritas
+    private Flux<ProductImportResult> importBranch(String franchiseId, String branchId, List<ProductImportRow> rows) {
+        List<Product> products = rows.stream()
+                .map(row -> Product.create(franchiseId, branchId, row.getName().trim(), row.getStock())
+                        .toBuilder()
+                        .id(UUID.randomUUID().toString())
+                        .build())
+                .toList();
+
+        return Flux.defer(() -> {
+            List<Product> written = new ArrayList<>();
+            // Se registra por sucursal y ventana: una franquicia que pasa a borrarse a mitad de la carga rechaza
+            // los grupos siguientes
+            return franchiseRepository.registerWrite(franchiseId)
+                    .then(Mono.defer(() -> branchRepository.findSummaryById(branchId)))
+                    .filter(branch -> franchiseId.equals(branch.getFranchiseId()))
+                    .switchIfEmpty(Mono.error(new RuntimeException("Sucursal con ID " + branchId + " not found")))
+                    .flatMapMany(branch -> write(branch, products))
+                    // markSeparatedWrite o un startMigration rechazado, antes de escribir nada: reintentar no duplica
+                    // productos
+                    .retryWhen(Retry.backoff(STRATEGY_RETRIES, STRATEGY_BACKOFF)
+                            .filter(StorageStrategyChangingException.class::isInstance)
+                            .onRetryExhaustedThrow((spec, signal) -> signal.failure()))
+                    .doOnNext(written::add)
+                    .materialize()
+                    .filter(signal -> !signal.isOnNext())
+                    .single()
+                    .flatMapMany(end -> Mono.defer(() -> written.isEmpty()
+                                    ? Mono.<Void>empty()
+                                    : franchiseStatsRecorder.productsCreated(franchiseId, written))
+                            .thenMany(results(rows, products, written, end.getThrowable())));
+        });
+    }
+
+    private static Flux<ProductImportResult> results(List<ProductImportRow> rows, List<Product> products,
+                                                     List<Product> written, Throwable error) {
+        Set<String> writtenIds = new HashSet<>();
+        written.forEach(product -> writtenIds.add(product.getId()));
+        return Flux.range(0, rows.size())
+                .map(index -> writtenIds.contains(products.get(index).getId())
+                        ? ProductImportResult.imported(rows.get(index), products.get(index))
+                        : ProductImportResult.failed(rows.get(index), error.getMessage()));
+    }
+
+    // Mismas reglas que CreateProductUseCase, aplicadas al grupo completo. Emite los productos escritos: por lote
+    // en la tabla de productos, todos a la vez cuando van en el item de la sucursal
+    private Flux<Product> write(Branch branch, List<Product> products) {
+        String branchId = branch.getId();
+        String strategy = branch.getStorageStrategy();
+
+        if ("BUCKETED".equals(strategy)) {
+            return branchRepository.addProducts(branch, products)
+                    .thenMany(Flux.fromIterable(products));
+        }
+
+        // SEPARATED o MIGRATING: BatchWriteItem directo a la tabla de productos, tras marcar la sucursal como en
+        // CreateProductUseCase
+        if (strategy != null && !"EMBEDDED".equals(strategy)) {
+            return branchRepository.markSeparatedWrite(branchId)
+                    .thenMany(Flux.defer(() -> productRepository.saveAll(products)))
+                    .doOnComplete(() -> {
+                        if ("MIGRATING".equals(strategy)) {
+                            migrateBranchToSeparatedUseCase.launch(branchId);
+                        }
+                    });
+        }
+
+        // Si el grupo no cabe en el item la sucursal pasa a MIGRATING y el grupo va ya a la tabla de productos; si la
+        // estrategia cambió desde la lectura, se vuelve a leer como en CreateProductUseCase
+        if (storageStrategyEngine.shouldSeparate(branch, products)) {
+            return branchRepository.startMigration(branchId)
+                    .flatMapMany(started -> started
+                            ? productRepository.saveAll(products)
+                            : Flux.<Product>error(new StorageStrategyChangingException(
+                                    "La sucursal " + branchId + " cambió de estrategia antes de migrar")))
+                    .doOnComplete(() -> migrateBranchToSeparatedUseCase.launch(branchId));
+        }
+        return branchRepository.addProducts(branch, products)
+                .thenMany(Flux.fromIterable(products));
+    }
+}
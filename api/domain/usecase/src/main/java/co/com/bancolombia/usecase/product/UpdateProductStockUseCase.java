@@ -3,17 +3,16 @@ package co.com.bancolombia.usecase.product;
 import co.com.bancolombia.model.franchise.Product;
 import co.com.bancolombia.model.franchise.gateways.BranchRepository;
 import co.com.bancolombia.model.franchise.gateways.ProductRepository;
+import co.com.bancolombia.usecase.franchise.FranchiseStatsRecorder;
 import lombok.RequiredArgsConstructor;
 import reactor.core.publisher.Mono;
 
-import java.util.List;
-import java.util.stream.Collectors;
-
 @RequiredArgsConstructor
 public class UpdateProductStockUseCase {
     
     private final ProductRepository productRepository;
     private final BranchRepository branchRepository;
+    private final FranchiseStatsRecorder franchiseStatsRecorder;
     
     public Mono<Product> execute(String id, Integer stock) {
         if (id == null || id.trim().isEmpty()) {
@@ -24,30 +23,14 @@ public class UpdateProductStockUseCase {
             return Mono.error(new IllegalArgumentException("El stock debe ser mayor o igual a 0"));
         }
         
-        return productRepository.findById(id)
-                .flatMap(product -> productRepository.save(product.updateStock(stock)))
-                .onErrorResume(error -> branchRepository.findBranchIdByProductId(id)
-                            .flatMap(branchId -> updateEmbeddedStockInBranch(branchId, id, stock)));
-    }
-    
-    private Mono<Product> updateEmbeddedStockInBranch(String branchId, String productId, Integer newStock) {
-        return branchRepository.findById(branchId)
-                .flatMap(branch -> {
-                    List<Product> products = branch.getProducts();
-                    if (products == null || products.isEmpty()) {
-                        return Mono.error(new RuntimeException("Product not found"));
-                    }
-                    
-                    List<Product> updated = products.stream()
-                            .map(p -> productId.equals(p.getId()) ? p.updateStock(newStock) : p)
-                            .collect(Collectors.toList());
-                    
-                    return branchRepository.save(branch.toBuilder().products(updated).build())
-                            .then(Mono.just(updated.stream()
-                                    .filter(p -> productId.equals(p.getId()))
-                                    .findFirst()
-                                    .map(p -> p.toBuilder().branchId(branchId).build())
-                                    .orElseThrow()));
-                });
+        // Una sola escritura, sin lectura previa: EMBEDDED sobre el producto dentro de la sucursal, SEPARATED sobre
+        // su item. Ambas devuelven el stock anterior y el contador de la franquicia suma la diferencia
+        return branchRepository.findProductLocation(id)
+                .switchIfEmpty(Mono.error(new RuntimeException("Product not found")))
+                .flatMap(location -> location.isEmbedded()
+                        ? branchRepository.updateProductStock(location, stock)
+                        : productRepository.updateStock(id, stock))
+                .flatMap(change -> franchiseStatsRecorder.stockChanged(change.getCurrent(), change.stockDelta())
+                        .thenReturn(change.getCurrent()));
     }
 }
@@ -0,0 +1,130 @@
+package co.com.bancolombia.usecase.topk;
+
+import reactor.core.publisher.Flux;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.function.ToLongFunction;
+
+// Los k elementos de mayor clave sin ordenar la secuencia completa: min-heap de tamaño fijo con la clave en
+// un long[] paralelo, O(n log k) en tiempo y O(k) en memoria. En la raíz queda el peor de los k: un
+// elemento nuevo solo entra si lo supera. A igual clave gana el primero según tieBreak
+public final class TopK<T> {
+    
+    private final int capacity;
+    private final ToLongFunction<? super T> key;
+    private final Comparator<? super T> tieBreak;
+    private final long[] keys;
+    private final Object[] items;
+    private int size;
+    
+    public TopK(int capacity, ToLongFunction<? super T> key, Comparator<? super T> tieBreak) {
+        if (capacity < 0) {
+            throw new IllegalArgumentException("k no puede ser negativo");
+        }
+        this.capacity = capacity;
+        this.key = Objects.requireNonNull(key);
+        this.tieBreak = Objects.requireNonNull(tieBreak);
+        this.keys = new long[capacity];
+        this.items = new Object[capacity];
+    }
+    
+    // Operador para Flux.transform: emite los k mayores en orden descendente al completar la fuente
+    public static <T> Function<Flux<T>, Flux<T>> largest(int k, ToLongFunction<? super T> key, Comparator<? super T> tieBreak) {
+        return source -> source
+                .collect(() -> new TopK<T>(k, key, tieBreak), TopK::offer)
+                .flatMapIterable(TopK::toList);
+    }
+    
+    public void offer(T item) {
+        if (capacity == 0) {
+            return;
+        }
+        long itemKey = key.applyAsLong(item);
+        if (size < capacity) {
+            keys[size] = itemKey;
+            items[size] = item;
+            siftUp(size++);
+        } else if (isWorse(keys[0], root(), itemKey, item)) {
+            keys[0] = itemKey;
+            items[0] = item;
+            siftDown(0);
+        }
+    }
+    
+    public int size() {
+        return size;
+    }
+    
+    // Copia ordenada de mayor a menor; el heap no se modifica
+    public List<T> toList() {
+        Integer[] order = new Integer[size];
+        for (int i = 0; i < size; i++) {
+            order[i] = i;
+        }
+        Arrays.sort(order, (a, b) -> isWorse(keys[a], item(a), keys[b], item(b)) ? 1
+                : isWorse(keys[b], item(b), keys[a], item(a)) ? -1 : 0);
+        List<T> result = new ArrayList<>(size);
+        for (Integer index : order) {
+            result.add(item(index));
+        }
+        return result;
+    }
+    
+    private void siftUp(int index) {
+        while (index > 0) {
+            int parent = (index - 1) >>> 1;
+            if (!isWorse(keys[index], item(index), keys[parent], item(parent))) {
+                return;
+            }
+            swap(index, parent);
+            index = parent;
+        }
+    }
+    
+    private void siftDown(int index) {
+        int half = size >>> 1;
+        while (index < half) {
+            int child = 2 * index + 1;
+            int right = child + 1;
+            if (right < size && isWorse(keys[right], item(right), keys[child], item(child))) {
+                child = right;
+            }
+            if (!isWorse(keys[child], item(child), keys[index], item(index))) {
+                return;
+            }
+            swap(index, child);
+            index = child;
+        }
+    }
+    
+    // El comparador solo se consulta en empates de clave
+    private boolean isWorse(long leftKey, T left, long rightKey, T right) {
+        if (leftKey != rightKey) {
+            return leftKey < rightKey;
+        }
+        return tieBreak.compare(left, right) > 0;
+    }
+    
+    private void swap(int a, int b) {
+        long keyA = keys[a];
+        keys[a] = keys[b];
+        keys[b] = keyA;
+        Object itemA = items[a];
+        items[a] = items[b];
+        items[b] = itemA;
+    }
+    
+    private T root() {
+        return item(0);
+    }
+    
+    @SuppressWarnings("unchecked")
+    private T item(int index) {
+        return (T) items[index];
+    }
+}
@@ -0,0 +1,223 @@
+package co.com.bancolombia.usecase.branch;
+
+import co.com.bancolombia.model.franchise.Branch;
+import co.com.bancolombia.model.franchise.Page;
+import co.com.bancolombia.model.franchise.Product;
+import co.com.bancolombia.model.franchise.gateways.BranchRepository;
+import co.com.bancolombia.model.franchise.gateways.ProductRepository;
+import co.com.bancolombia.model.franchise.gateways.StorageStrategyEngine;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class MigrateBranchToEmbeddedUseCaseTest {
+
+    @Mock
+    private BranchRepository branchRepository;
+
+    @Mock
+    private ProductRepository productRepository;
+
+    @Mock
+    private StorageStrategyEngine storageStrategyEngine;
+
+    private MigrateBranchToEmbeddedUseCase migrateBranchToEmbeddedUseCase;
+
+    @BeforeEach
+    void setUp() {
+        migrateBranchToEmbeddedUseCase = new MigrateBranchToEmbeddedUseCase(branchRepository, productRepository,
+                storageStrategyEngine);
+    }
+
+    @Test
+    void shouldEmbedProductsWhenBranchFitsAgain() {
+        // Given
+        String branchId = "branch-1";
+        Branch branch = branch(branchId, "SEPARATED");
+        List<Product> products = List.of(product("product-1"), product("product-2"));
+
+        when(branchRepository.findSummaryById(branchId)).thenReturn(Mono.just(branch));
+        when(storageStrategyEngine.maxEmbeddableProducts()).thenReturn(49);
+        when(productRepository.findPageByBranchId(branchId, 49, null)).thenReturn(Mono.just(Page.of(products, null)));
+        when(storageStrategyEngine.shouldEmbed(branch, products)).thenReturn(true);
+        when(branchRepository.startEmbedding(branchId)).thenReturn(Mono.just(true));
+        when(branchRepository.embedProducts(branchId, products)).thenReturn(Mono.just(true));
+
+        // When & Then
+        StepVerifier.create(migrateBranchToEmbeddedUseCase.execute(branchId))
+                .expectNext(true)
+                .verifyComplete();
+
+        // La página se vuelve a leer ya en EMBEDDING: es la que se embebe
+        verify(productRepository, times(2)).findPageByBranchId(branchId, 49, null);
+        verify(branchRepository, never()).abortEmbedding(anyString());
+    }
+
+    @Test
+    void shouldNotEmbedWhenBranchHadRecentSeparatedWrites() {
+        // Given - startEmbedding rechaza la sucursal: una escritura separada reciente podría no verse aún
+        String branchId = "branch-1";
+        Branch branch = branch(branchId, "SEPARATED");
+        List<Product> products = List.of(product("product-1"));
+
+        when(branchRepository.findSummaryById(branchId)).thenReturn(Mono.just(branch));
+        when(storageStrategyEngine.maxEmbeddableProducts()).thenReturn(49);
+        when(productRepository.findPageByBranchId(branchId, 49, null)).thenReturn(Mono.just(Page.of(products, null)));
+        when(storageStrategyEngine.shouldEmbed(branch, products)).thenReturn(true);
+        when(branchRepository.startEmbedding(branchId)).thenReturn(Mono.just(false));
+
+        // When & Then
+        StepVerifier.create(migrateBranchToEmbeddedUseCase.execute(branchId))
+                .expectNext(false)
+                .verifyComplete();
+
+        verify(branchRepository, never()).embedProducts(anyString(), anyList());
+        verify(branchRepository, never()).abortEmbedding(anyString());
+    }
+
+    @Test
+    void shouldReturnToSeparatedWhenProductsNoLongerFitAfterStartingEmbedding() {
+        // Given - Entre la primera lectura y EMBEDDING se creó otro producto: ya no cabe
+        String branchId = "branch-1";
+        Branch branch = branch(branchId, "SEPARATED");
+        List<Product> before = List.of(product("product-1"));
+        List<Product> after = List.of(product("product-1"), product("product-2"));
+
+        when(branchRepository.findSummaryById(branchId)).thenReturn(Mono.just(branch));
+        when(storageStrategyEngine.maxEmbeddableProducts()).thenReturn(49);
+        when(productRepository.findPageByBranchId(branchId, 49, null))
+                .thenReturn(Mono.just(Page.of(before, null)), Mono.just(Page.of(after, null)));
+        when(storageStrategyEngine.shouldEmbed(branch, before)).thenReturn(true);
+        when(storageStrategyEngine.shouldEmbed(branch, after)).thenReturn(false);
+        when(branchRepository.startEmbedding(branchId)).thenReturn(Mono.just(true));
+        when(branchRepository.abortEmbedding(branchId)).thenReturn(Mono.empty());
+
+        // When & Then
+        StepVerifier.create(migrateBranchToEmbeddedUseCase.execute(branchId))
+                .expectNext(false)
+                .verifyComplete();
+
+        verify(branchRepository, never()).embedProducts(anyString(), anyList());
+        verify(branchRepository).abortEmbedding(branchId);
+    }
+
+    @Test
+    void shouldReturnToSeparatedWhenEmbedLosesAgainstConcurrentWrite() {
+        // Given
+        String branchId = "branch-1";
+        Branch branch = branch(branchId, "SEPARATED");
+        List<Product> products = List.of(product("product-1"));
+
+        when(branchRepository.findSummaryById(branchId)).thenReturn(Mono.just(branch));
+        when(storageStrategyEngine.maxEmbeddableProducts()).thenReturn(49);
+        when(productRepository.findPageByBranchId(branchId, 49, null)).thenReturn(Mono.just(Page.of(products, null)));
+        when(storageStrategyEngine.shouldEmbed(branch, products)).thenReturn(true);
+        when(branchRepository.startEmbedding(branchId)).thenReturn(Mono.just(true));
+        when(branchRepository.embedProducts(branchId, products)).thenReturn(Mono.just(false));
+        when(branchRepository.abortEmbedding(branchId)).thenReturn(Mono.empty());
+
+        // When & Then
+        StepVerifier.create(migrateBranchToEmbeddedUseCase.execute(branchId))
+                .expectNext(false)
+                .verifyComplete();
+
+        verify(branchRepository).abortEmbedding(branchId);
+    }
+
+    @Test
+    void shouldKeepSeparatedWhenMoreProductsThanFitInOneWrite() {
+        // Given - La página viene llena y con cursor: hay más productos de los que caben en la transacción
+        String branchId = "branch-1";
+
+        when(branchRepository.findSummaryById(branchId)).thenReturn(Mono.just(branch(branchId, "SEPARATED")));
+        when(storageStrategyEngine.maxEmbeddableProducts()).thenReturn(49);
+        when(productRepository.findPageByBranchId(branchId, 49, null))
+                .thenReturn(Mono.just(Page.of(List.of(product("product-1")), "cursor")));
+
+        // When & Then
+        StepVerifier.create(migrateBranchToEmbeddedUseCase.execute(branchId))
+                .expectNext(false)
+                .verifyComplete();
+
+        verify(branchRepository, never()).startEmbedding(anyString());
+        verify(branchRepository, never()).embedProducts(anyString(), anyList());
+    }
+
+    @Test
+    void shouldKeepSeparatedWhenProductsDoNotFitWithMargin() {
+        // Given
+        String branchId = "branch-1";
+        Branch branch = branch(branchId, "SEPARATED");
+        List<Product> products = List.of(product("product-1"));
+
+        when(branchRepository.findSummaryById(branchId)).thenReturn(Mono.just(branch));
+        when(storageStrategyEngine.maxEmbeddableProducts()).thenReturn(49);
+        when(productRepository.findPageByBranchId(branchId, 49, null)).thenReturn(Mono.just(Page.of(products, null)));
+        when(storageStrategyEngine.shouldEmbed(branch, products)).thenReturn(false);
+
+        // When & Then
+        StepVerifier.create(migrateBranchToEmbeddedUseCase.execute(branchId))
+                .expectNext(false)
+                .verifyComplete();
+
+        verify(branchRepository, never()).embedProducts(anyString(), anyList());
+    }
+
+    @Test
+    void shouldIgnoreBranchesThatAreNotSeparated() {
+        // Given - Una migración en curso (MIGRATING) no se revierte
+        String branchId = "branch-1";
+
+        when(branchRepository.findSummaryById(branchId)).thenReturn(Mono.just(branch(branchId, "MIGRATING")));
+
+        // When & Then
+        StepVerifier.create(migrateBranchToEmbeddedUseCase.execute(branchId))
+                .expectNext(false)
+                .verifyComplete();
+
+        verify(productRepository, never()).findPageByBranchId(anyString(), anyInt(), any());
+    }
+
+    @Test
+    void shouldFailWhenBranchIdIsEmpty() {
+        // When & Then
+        StepVerifier.create(migrateBranchToEmbeddedUseCase.execute(" "))
+                .expectError(IllegalArgumentException.class)
+                .verify();
+    }
+
+    private Branch branch(String branchId, String storageStrategy) {
+        return Branch.builder()
+                .id(branchId)
+                .franchiseId("franchise-1")
+                .name("Test Branch")
+                .storageStrategy(storageStrategy)
+                .build();
+    }
+
+    private Product product(String productId) {
+        return Product.builder()
+                .id(productId)
+                .branchId("branch-1")
+                .franchiseId("franchise-1")
+                .name("Product " + productId)
+                .stock(10)
+                .build();
+    }
+}
@@ -0,0 +1,93 @@
+package co.com.bancolombia.usecase.branch;
+
+import co.com.bancolombia.model.franchise.gateways.BranchRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class MigrateBranchToSeparatedUseCaseTest {
+
+    @Mock
+    private BranchRepository branchRepository;
+
+    private MigrateBranchToSeparatedUseCase migrateBranchToSeparatedUseCase;
+
+    @BeforeEach
+    void setUp() {
+        migrateBranchToSeparatedUseCase = new MigrateBranchToSeparatedUseCase(branchRepository);
+    }
+
+    @Test
+    void shouldMigrateInChunksUntilEmptyAndComplete() {
+        // Given
+        String branchId = "branch-1";
+
+        when(branchRepository.startMigration(branchId)).thenReturn(Mono.just(true));
+        when(branchRepository.migrateProductsChunk(anyString(), anyInt()))
+                .thenReturn(Mono.just(25), Mono.just(25), Mono.just(10), Mono.just(0));
+        when(branchRepository.completeMigration(branchId)).thenReturn(Mono.empty());
+
+        // When & Then
+        StepVerifier.create(migrateBranchToSeparatedUseCase.execute(branchId))
+                .expectNext(true)
+                .verifyComplete();
+
+        verify(branchRepository, times(4)).migrateProductsChunk(anyString(), anyInt());
+        verify(branchRepository).completeMigration(branchId);
+    }
+
+    @Test
+    void shouldReturnFalseWhenBranchCannotStartMigration() {
+        // Given
+        String branchId = "branch-1";
+
+        when(branchRepository.startMigration(branchId)).thenReturn(Mono.just(false));
+
+        // When & Then
+        StepVerifier.create(migrateBranchToSeparatedUseCase.execute(branchId))
+                .expectNext(false)
+                .verifyComplete();
+
+        verify(branchRepository, never()).migrateProductsChunk(anyString(), anyInt());
+        verify(branchRepository, never()).completeMigration(anyString());
+    }
+
+    @Test
+    void shouldResumeWhenChunkConflictsWithConcurrentWrite() {
+        // Given
+        String branchId = "branch-1";
+
+        when(branchRepository.startMigration(branchId)).thenReturn(Mono.just(true));
+        when(branchRepository.migrateProductsChunk(anyString(), anyInt()))
+                .thenReturn(Mono.error(new IllegalStateException("Conflicto")), Mono.just(5), Mono.just(0));
+        when(branchRepository.completeMigration(branchId)).thenReturn(Mono.empty());
+
+        // When & Then
+        StepVerifier.create(migrateBranchToSeparatedUseCase.execute(branchId))
+                .expectNext(true)
+                .verifyComplete();
+
+        verify(branchRepository, times(2)).startMigration(branchId);
+        verify(branchRepository).completeMigration(branchId);
+    }
+
+    @Test
+    void shouldFailWhenBranchIdIsEmpty() {
+        // When & Then
+        StepVerifier.create(migrateBranchToSeparatedUseCase.execute(" "))
+                .expectError(IllegalArgumentException.class)
+                .verify();
+    }
+}
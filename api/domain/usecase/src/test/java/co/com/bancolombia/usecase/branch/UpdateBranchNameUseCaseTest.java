@@ -0,0 +1,78 @@
+package co.com.bancolombia.usecase.branch;
+
+import co.com.bancolombia.model.franchise.Branch;
+import co.com.bancolombia.model.franchise.gateways.BranchRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class UpdateBranchNameUseCaseTest {
+
+    @Mock
+    private BranchRepository branchRepository;
+
+    private UpdateBranchNameUseCase updateBranchNameUseCase;
+
+    @BeforeEach
+    void setUp() {
+        updateBranchNameUseCase = new UpdateBranchNameUseCase(branchRepository);
+    }
+
+    @Test
+    void shouldRenameWithoutReadingTheBranch() {
+        // Given
+        String branchId = "branch-1";
+        Branch renamed = Branch.builder()
+                .id(branchId)
+                .franchiseId("franchise-1")
+                .name("Sucursal Centro")
+                .build();
+
+        when(branchRepository.updateName(branchId, "Sucursal Centro"))
+                .thenReturn(Mono.just(renamed));
+
+        // When & Then - El nombre se recorta antes de escribirse
+        StepVerifier.create(updateBranchNameUseCase.execute(branchId, "  Sucursal Centro "))
+                .expectNextMatches(branch -> branch.getName().equals("Sucursal Centro"))
+                .verifyComplete();
+
+        // Renombrar no lee ni reescribe los productos embebidos
+        verify(branchRepository, never()).findById(anyString());
+        verify(branchRepository, never()).save(any(Branch.class));
+    }
+
+    @Test
+    void shouldFailWhenBranchNotFound() {
+        // Given
+        when(branchRepository.updateName(anyString(), anyString()))
+                .thenReturn(Mono.empty());
+
+        // When & Then
+        StepVerifier.create(updateBranchNameUseCase.execute("nonexistent", "Sucursal Centro"))
+                .expectErrorMatches(throwable ->
+                    throwable instanceof RuntimeException &&
+                    throwable.getMessage().contains("not found"))
+                .verify();
+    }
+
+    @Test
+    void shouldFailWhenNameIsTooShort() {
+        // When & Then
+        StepVerifier.create(updateBranchNameUseCase.execute("branch-1", "A"))
+                .expectError(IllegalArgumentException.class)
+                .verify();
+
+        verify(branchRepository, never()).updateName(anyString(), anyString());
+    }
+}
@@ -0,0 +1,271 @@
+package co.com.bancolombia.usecase.franchise;
+
+import co.com.bancolombia.model.franchise.Franchise;
+import co.com.bancolombia.model.franchise.FranchiseDeletionJob;
+import co.com.bancolombia.model.franchise.gateways.FranchiseDeletionRepository;
+import co.com.bancolombia.model.franchise.gateways.FranchiseRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class DeleteFranchiseUseCaseTest {
+
+    @Mock
+    private FranchiseRepository franchiseRepository;
+
+    @Mock
+    private FranchiseDeletionRepository franchiseDeletionRepository;
+
+    private DeleteFranchiseUseCase deleteFranchiseUseCase;
+
+    @BeforeEach
+    void setUp() {
+        deleteFranchiseUseCase = new DeleteFranchiseUseCase(franchiseRepository, franchiseDeletionRepository);
+    }
+
+    @Test
+    void shouldClaimJobWithoutRunningIt() {
+        // Given
+        String franchiseId = "franchise-1";
+
+        when(franchiseRepository.findById(franchiseId)).thenReturn(Mono.just(franchise(franchiseId)));
+        when(franchiseDeletionRepository.claimJob(any(FranchiseDeletionJob.class), eq(DeleteFranchiseUseCase.LEASE)))
+                .thenReturn(Mono.just(true));
+
+        // When & Then - El borrado corre cuando quien recibe el job se suscribe a run
+        StepVerifier.create(deleteFranchiseUseCase.start(franchiseId))
+                .expectNextMatches(job -> job.getFranchiseId().equals(franchiseId) && job.isRunning())
+                .verifyComplete();
+
+        verify(franchiseRepository, never()).markDeleting(anyString());
+        verify(franchiseDeletionRepository, never()).deleteContents(anyString());
+    }
+
+    @Test
+    void shouldNotStartAnotherJobWhileOneIsRunning() {
+        // Given - Otra instancia ya tiene el job
+        String franchiseId = "franchise-1";
+
+        when(franchiseRepository.findById(franchiseId)).thenReturn(Mono.just(franchise(franchiseId)));
+        when(franchiseDeletionRepository.claimJob(any(FranchiseDeletionJob.class), eq(DeleteFranchiseUseCase.LEASE)))
+                .thenReturn(Mono.just(false));
+
+        // When & Then
+        StepVerifier.create(deleteFranchiseUseCase.start(franchiseId))
+                .verifyComplete();
+    }
+
+    @Test
+    void shouldMarkFranchiseDeletingBeforeDeletingContentsAndPersistProgress() {
+        // Given
+        String franchiseId = "franchise-1";
+        FranchiseDeletionJob started = FranchiseDeletionJob.start(franchiseId);
+
+        when(franchiseRepository.markDeleting(franchiseId)).thenReturn(Mono.just(deleting(franchiseId, null)));
+        when(franchiseDeletionRepository.deleteContents(franchiseId)).thenReturn(Flux.just(25, 25, 7));
+        when(franchiseDeletionRepository.saveJob(any(FranchiseDeletionJob.class))).thenReturn(Mono.empty());
+        when(franchiseRepository.deleteById(franchiseId)).thenReturn(Mono.empty());
+
+        // When & Then
+        StepVerifier.create(deleteFranchiseUseCase.run(started))
+                .expectNextMatches(job -> FranchiseDeletionJob.COMPLETED.equals(job.getStatus())
+                        && job.getDeletedItems() == 57
+                        && job.getFinishedAt() != null)
+                .verifyComplete();
+
+        InOrder order = inOrder(franchiseDeletionRepository, franchiseRepository);
+        order.verify(franchiseRepository).markDeleting(franchiseId);
+        order.verify(franchiseDeletionRepository).deleteContents(franchiseId);
+        order.verify(franchiseRepository).deleteById(franchiseId);
+        order.verify(franchiseDeletionRepository).saveJob(argThat(job -> FranchiseDeletionJob.COMPLETED.equals(job.getStatus())));
+    }
+
+    @Test
+    void shouldWaitForWritesRegisteredBeforeTheMark() {
+        // Given - Una creación se registró justo antes de la marca: tiene WRITE_FENCE para terminar
+        String franchiseId = "franchise-1";
+        FranchiseDeletionJob started = FranchiseDeletionJob.start(franchiseId);
+
+        when(franchiseRepository.markDeleting(franchiseId))
+                .thenReturn(Mono.just(deleting(franchiseId, LocalDateTime.now())));
+        when(franchiseDeletionRepository.deleteContents(franchiseId)).thenReturn(Flux.just(3));
+        when(franchiseDeletionRepository.saveJob(any(FranchiseDeletionJob.class))).thenReturn(Mono.empty());
+        when(franchiseRepository.deleteById(franchiseId)).thenReturn(Mono.empty());
+
+        // When & Then
+        StepVerifier.withVirtualTime(() -> deleteFranchiseUseCase.run(started))
+                .expectSubscription()
+                .expectNoEvent(DeleteFranchiseUseCase.WRITE_FENCE.minusSeconds(1))
+                .then(() -> verify(franchiseDeletionRepository, never()).deleteContents(anyString()))
+                .thenAwait(Duration.ofSeconds(1))
+                .expectNextMatches(job -> FranchiseDeletionJob.COMPLETED.equals(job.getStatus()))
+                .verifyComplete();
+    }
+
+    @Test
+    void shouldKeepFranchiseWhenContentsDeletionFails() {
+        // Given - El item de la franquicia se conserva (y sigue DELETING) para poder relanzar el borrado
+        String franchiseId = "franchise-1";
+        FranchiseDeletionJob started = FranchiseDeletionJob.start(franchiseId);
+
+        when(franchiseRepository.markDeleting(franchiseId)).thenReturn(Mono.just(deleting(franchiseId, null)));
+        when(franchiseDeletionRepository.deleteContents(franchiseId))
+                .thenReturn(Flux.concat(Flux.just(25), Flux.error(new RuntimeException("Unprocessed items"))));
+        when(franchiseDeletionRepository.saveJob(any(FranchiseDeletionJob.class))).thenReturn(Mono.empty());
+
+        // When & Then
+        StepVerifier.create(deleteFranchiseUseCase.run(started))
+                .expectNextMatches(job -> FranchiseDeletionJob.FAILED.equals(job.getStatus())
+                        && job.getDeletedItems() == 25
+                        && "Unprocessed items".equals(job.getError()))
+                .verifyComplete();
+
+        verify(franchiseRepository, never()).deleteById(anyString());
+    }
+
+    @Test
+    void shouldFinishResumedJobWhoseFranchiseItemIsAlreadyGone() {
+        // Given - La ejecución anterior borró la franquicia pero no alcanzó a guardar el job
+        String franchiseId = "franchise-1";
+        FranchiseDeletionJob resumed = FranchiseDeletionJob.start(franchiseId).progress(40).resume();
+
+        when(franchiseRepository.markDeleting(franchiseId)).thenReturn(Mono.empty());
+        when(franchiseDeletionRepository.deleteContents(franchiseId)).thenReturn(Flux.empty());
+        when(franchiseDeletionRepository.saveJob(any(FranchiseDeletionJob.class))).thenReturn(Mono.empty());
+        when(franchiseRepository.deleteById(franchiseId)).thenReturn(Mono.empty());
+
+        // When & Then
+        StepVerifier.create(deleteFranchiseUseCase.run(resumed))
+                .expectNextMatches(job -> FranchiseDeletionJob.COMPLETED.equals(job.getStatus()) && job.getDeletedItems() == 40)
+                .verifyComplete();
+    }
+
+    @Test
+    void shouldCompleteWithoutErrorWhenJobCannotBeSaved() {
+        // Given - Otra ejecución retomó el job: esta deja de reportar
+        String franchiseId = "franchise-1";
+        FranchiseDeletionJob started = FranchiseDeletionJob.start(franchiseId);
+
+        when(franchiseRepository.markDeleting(franchiseId)).thenReturn(Mono.just(deleting(franchiseId, null)));
+        when(franchiseDeletionRepository.deleteContents(franchiseId)).thenReturn(Flux.just(5));
+        when(franchiseDeletionRepository.saveJob(any(FranchiseDeletionJob.class)))
+                .thenReturn(Mono.error(new IllegalStateException("El borrado lo retomó otra ejecución")));
+
+        // When & Then
+        StepVerifier.create(deleteFranchiseUseCase.run(started))
+                .verifyComplete();
+
+        verify(franchiseRepository, never()).deleteById(anyString());
+    }
+
+    @Test
+    void shouldClaimAbandonedJobKeepingProgress() {
+        // Given - La instancia que lo corría se detuvo tras borrar 40 items
+        String franchiseId = "franchise-1";
+        LocalDateTime startedAt = LocalDateTime.now().minusMinutes(10);
+        FranchiseDeletionJob abandoned = FranchiseDeletionJob.start(franchiseId).toBuilder()
+                .startedAt(startedAt)
+                .deletedItems(40)
+                .build();
+
+        when(franchiseDeletionRepository.findAbandonedJobs(DeleteFranchiseUseCase.LEASE)).thenReturn(Flux.just(abandoned));
+        when(franchiseDeletionRepository.claimJob(any(FranchiseDeletionJob.class), eq(DeleteFranchiseUseCase.LEASE)))
+                .thenReturn(Mono.just(true));
+
+        // When & Then
+        StepVerifier.create(deleteFranchiseUseCase.resumeAbandoned())
+                .expectNextMatches(job -> job.isRunning()
+                        && !job.getRunId().equals(abandoned.getRunId())
+                        && startedAt.equals(job.getStartedAt())
+                        && job.getDeletedItems() == 40)
+                .verifyComplete();
+
+        verify(franchiseDeletionRepository, never()).deleteContents(anyString());
+    }
+
+    @Test
+    void shouldNotResumeJobClaimedByAnotherInstance() {
+        // Given
+        FranchiseDeletionJob abandoned = FranchiseDeletionJob.start("franchise-1");
+
+        when(franchiseDeletionRepository.findAbandonedJobs(DeleteFranchiseUseCase.LEASE)).thenReturn(Flux.just(abandoned));
+        when(franchiseDeletionRepository.claimJob(any(FranchiseDeletionJob.class), eq(DeleteFranchiseUseCase.LEASE)))
+                .thenReturn(Mono.just(false));
+
+        // When & Then
+        StepVerifier.create(deleteFranchiseUseCase.resumeAbandoned())
+                .verifyComplete();
+    }
+
+    @Test
+    void shouldFailWhenFranchiseNotFound() {
+        // Given
+        when(franchiseRepository.findById(anyString())).thenReturn(Mono.empty());
+
+        // When & Then
+        StepVerifier.create(deleteFranchiseUseCase.start("nonexistent"))
+                .expectErrorMatches(throwable ->
+                    throwable instanceof RuntimeException &&
+                    throwable.getMessage().contains("not found"))
+                .verify();
+
+        verify(franchiseDeletionRepository, never()).claimJob(any(), any());
+        verify(franchiseDeletionRepository, never()).deleteContents(anyString());
+    }
+
+    @Test
+    void shouldReturnPersistedJobStatus() {
+        // Given
+        FranchiseDeletionJob completed = FranchiseDeletionJob.start("franchise-1").progress(57).completed();
+        when(franchiseDeletionRepository.findJob("franchise-1")).thenReturn(Mono.just(completed));
+
+        // When & Then
+        StepVerifier.create(deleteFranchiseUseCase.status("franchise-1"))
+                .expectNext(completed)
+                .verifyComplete();
+    }
+
+    @Test
+    void shouldFailWhenNoDeletionWasLaunched() {
+        // Given
+        when(franchiseDeletionRepository.findJob("franchise-1")).thenReturn(Mono.empty());
+
+        // When & Then
+        StepVerifier.create(deleteFranchiseUseCase.status("franchise-1"))
+                .expectErrorMatches(throwable -> throwable.getMessage().contains("not found"))
+                .verify();
+    }
+
+    private Franchise franchise(String franchiseId) {
+        return Franchise.builder()
+                .id(franchiseId)
+                .name("Franquicia Test")
+                .build();
+    }
+
+    private Franchise deleting(String franchiseId, LocalDateTime lastWriteAt) {
+        return franchise(franchiseId).toBuilder()
+                .status(Franchise.DELETING)
+                .lastWriteAt(lastWriteAt)
+                .build();
+    }
+}
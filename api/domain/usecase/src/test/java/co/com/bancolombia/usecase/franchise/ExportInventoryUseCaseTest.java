@@ -0,0 +1,54 @@
+package co.com.bancolombia.usecase.franchise;
+
+import co.com.bancolombia.model.franchise.InventoryRecord;
+import co.com.bancolombia.model.franchise.gateways.InventoryExportRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import reactor.core.publisher.Flux;
+import reactor.test.StepVerifier;
+
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ExportInventoryUseCaseTest {
+
+    @Mock
+    private InventoryExportRepository inventoryExportRepository;
+
+    private ExportInventoryUseCase exportInventoryUseCase;
+
+    @BeforeEach
+    void setUp() {
+        exportInventoryUseCase = new ExportInventoryUseCase(inventoryExportRepository);
+    }
+
+    @Test
+    void shouldStreamRecordsAsTheRepositoryEmitsThem() {
+        // Given
+        InventoryRecord franchise = InventoryRecord.builder()
+                .type(InventoryRecord.FRANCHISE)
+                .id("franchise-1")
+                .franchiseId("franchise-1")
+                .name("Franquicia Test")
+                .build();
+        InventoryRecord product = InventoryRecord.builder()
+                .type(InventoryRecord.PRODUCT)
+                .id("product-1")
+                .branchId("branch-1")
+                .name("Producto Test")
+                .stock(10)
+                .build();
+
+        when(inventoryExportRepository.exportAll()).thenReturn(Flux.just(franchise, product));
+
+        // When & Then
+        StepVerifier.create(exportInventoryUseCase.execute(), 1)
+                .expectNext(franchise)
+                .thenRequest(1)
+                .expectNext(product)
+                .verifyComplete();
+    }
+}
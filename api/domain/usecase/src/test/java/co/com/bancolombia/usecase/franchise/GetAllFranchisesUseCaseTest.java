@@ -1,6 +1,7 @@
 package co.com.bancolombia.usecase.franchise;
 
 import co.com.bancolombia.model.franchise.Franchise;
+import co.com.bancolombia.model.franchise.Page;
 import co.com.bancolombia.model.franchise.gateways.FranchiseRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -8,10 +9,16 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 import reactor.test.StepVerifier;
 
 import java.time.LocalDateTime;
+import java.util.List;
 
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
@@ -64,4 +71,45 @@ class GetAllFranchisesUseCaseTest {
         StepVerifier.create(getAllFranchisesUseCase.execute())
                 .verifyComplete();
     }
+
+    @Test
+    void shouldUseDefaultLimitWhenNotProvided() {
+        // Given
+        Franchise franchise = Franchise.builder()
+                .id("franchise-1")
+                .name("Franchise 1")
+                .build();
+        Page<Franchise> page = Page.of(List.of(franchise), "next-cursor");
+
+        when(franchiseRepository.findPage(Page.DEFAULT_LIMIT, null))
+                .thenReturn(Mono.just(page));
+
+        // When & Then
+        StepVerifier.create(getAllFranchisesUseCase.execute(null, null))
+                .expectNext(page)
+                .verifyComplete();
+    }
+
+    @Test
+    void shouldPassCursorToRepository() {
+        // Given
+        Page<Franchise> lastPage = Page.of(List.of(), null);
+
+        when(franchiseRepository.findPage(10, "cursor"))
+                .thenReturn(Mono.just(lastPage));
+
+        // When & Then
+        StepVerifier.create(getAllFranchisesUseCase.execute(10, "cursor"))
+                .expectNextMatches(page -> !page.hasNext())
+                .verifyComplete();
+    }
+
+    @Test
+    void shouldRejectLimitOutOfRange() {
+        // When & Then
+        StepVerifier.create(getAllFranchisesUseCase.execute(0, null))
+                .expectError(IllegalArgumentException.class)
+                .verify();
+        verify(franchiseRepository, never()).findPage(anyInt(), any());
+    }
 }
@@ -0,0 +1,87 @@
+package co.com.bancolombia.usecase.franchise;
+
+import co.com.bancolombia.model.franchise.Franchise;
+import co.com.bancolombia.model.franchise.FranchiseStats;
+import co.com.bancolombia.model.franchise.gateways.FranchiseRepository;
+import co.com.bancolombia.model.franchise.gateways.FranchiseStatsRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class GetFranchiseStatsUseCaseTest {
+
+    @Mock
+    private FranchiseRepository franchiseRepository;
+    
+    @Mock
+    private FranchiseStatsRepository franchiseStatsRepository;
+
+    private GetFranchiseStatsUseCase useCase;
+
+    @BeforeEach
+    void setUp() {
+        useCase = new GetFranchiseStatsUseCase(franchiseRepository, franchiseStatsRepository);
+    }
+
+    @Test
+    void shouldReturnFranchiseStats() {
+        // Given
+        String franchiseId = "franchise-1";
+        FranchiseStats stats = FranchiseStats.builder()
+                .franchiseId(franchiseId)
+                .branchCount(3)
+                .productCount(12)
+                .totalStock(480)
+                .build();
+
+        when(franchiseRepository.findById(franchiseId))
+                .thenReturn(Mono.just(Franchise.builder().id(franchiseId).name("Franchise").build()));
+        when(franchiseStatsRepository.findByFranchiseId(franchiseId))
+                .thenReturn(Mono.just(stats));
+
+        // When & Then
+        StepVerifier.create(useCase.execute(franchiseId))
+                .expectNext(stats)
+                .verifyComplete();
+    }
+
+    @Test
+    void shouldFailWhenFranchiseNotFound() {
+        // Given
+        when(franchiseRepository.findById(anyString())).thenReturn(Mono.empty());
+
+        // When & Then
+        StepVerifier.create(useCase.execute("nonexistent"))
+                .expectErrorMatches(throwable -> 
+                    throwable instanceof RuntimeException &&
+                    throwable.getMessage().contains("not found"))
+                .verify();
+        
+        verify(franchiseStatsRepository, never()).findByFranchiseId(anyString());
+    }
+
+    @Test
+    void shouldAddUpShards() {
+        // When & Then
+        FranchiseStats total = FranchiseStats.empty("franchise-1")
+                .plus(FranchiseStats.builder().branchCount(1).productCount(2).totalStock(30).build())
+                .plus(FranchiseStats.builder().productCount(-1).totalStock(-10).build());
+
+        StepVerifier.create(Mono.just(total))
+                .expectNextMatches(stats -> "franchise-1".equals(stats.getFranchiseId())
+                        && stats.getBranchCount() == 1
+                        && stats.getProductCount() == 1
+                        && stats.getTotalStock() == 20)
+                .verifyComplete();
+    }
+}
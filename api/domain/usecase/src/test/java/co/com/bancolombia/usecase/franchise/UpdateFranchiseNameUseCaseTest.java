@@ -14,6 +14,8 @@ import java.time.LocalDateTime;
 
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
@@ -46,9 +48,7 @@ class UpdateFranchiseNameUseCaseTest {
                 .name(newName)
                 .build();
 
-        when(franchiseRepository.findById(franchiseId))
-                .thenReturn(Mono.just(existingFranchise));
-        when(franchiseRepository.save(any(Franchise.class)))
+        when(franchiseRepository.updateName(franchiseId, newName))
                 .thenReturn(Mono.just(updatedFranchise));
 
         // When & Then
@@ -57,12 +57,16 @@ class UpdateFranchiseNameUseCaseTest {
                     franchise.getName().equals(newName) && 
                     franchise.getId().equals(franchiseId))
                 .verifyComplete();
+
+        // Renombrar no lee ni reescribe la franquicia completa
+        verify(franchiseRepository, never()).findById(anyString());
+        verify(franchiseRepository, never()).save(any(Franchise.class));
     }
 
     @Test
     void shouldFailWhenFranchiseNotFound() {
         // Given
-        when(franchiseRepository.findById(anyString()))
+        when(franchiseRepository.updateName(anyString(), anyString()))
                 .thenReturn(Mono.empty());
 
         // When & Then
@@ -0,0 +1,139 @@
+package co.com.bancolombia.usecase.product;
+
+import co.com.bancolombia.model.franchise.Product;
+import co.com.bancolombia.model.franchise.ProductLocation;
+import co.com.bancolombia.model.franchise.gateways.BranchRepository;
+import co.com.bancolombia.model.franchise.gateways.FranchiseStatsRepository;
+import co.com.bancolombia.model.franchise.gateways.ProductRepository;
+import co.com.bancolombia.usecase.franchise.FranchiseStatsRecorder;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class AdjustProductStockUseCaseTest {
+
+    @Mock
+    private ProductRepository productRepository;
+    
+    @Mock
+    private BranchRepository branchRepository;
+
+    @Mock
+    private FranchiseStatsRepository franchiseStatsRepository;
+
+    private AdjustProductStockUseCase useCase;
+
+    @BeforeEach
+    void setUp() {
+        useCase = new AdjustProductStockUseCase(productRepository, branchRepository,
+                new FranchiseStatsRecorder(franchiseStatsRepository));
+    }
+
+    @Test
+    void shouldAdjustSeparatedProductStock() {
+        // Given
+        String productId = "product-1";
+        Product adjusted = Product.builder()
+                .id(productId)
+                .name("Separated Product")
+                .stock(120)
+                .branchId("branch-1")
+                .build();
+
+        when(branchRepository.findProductLocation(productId))
+                .thenReturn(Mono.just(location(productId, "SEPARATED")));
+        when(productRepository.adjustStock(productId, 20)).thenReturn(Mono.just(adjusted));
+
+        // When & Then
+        StepVerifier.create(useCase.execute(productId, 20))
+                .expectNext(adjusted)
+                .verifyComplete();
+        
+        verify(productRepository, never()).findById(anyString());
+    }
+
+    @Test
+    void shouldAdjustEmbeddedProductStock() {
+        // Given
+        String productId = "product-1";
+        Product adjusted = Product.builder()
+                .id(productId)
+                .name("Embedded Product")
+                .stock(7)
+                .branchId("branch-1")
+                .franchiseId("franchise-1")
+                .build();
+
+        when(branchRepository.findProductLocation(productId))
+                .thenReturn(Mono.just(location(productId, "EMBEDDED")));
+        when(branchRepository.adjustProductStock(location(productId, "EMBEDDED"), -3)).thenReturn(Mono.just(adjusted));
+        when(franchiseStatsRepository.increment("franchise-1", 0, 0, -3)).thenReturn(Mono.empty());
+
+        // When & Then
+        StepVerifier.create(useCase.execute(productId, -3))
+                .expectNext(adjusted)
+                .verifyComplete();
+        
+        verify(productRepository, never()).adjustStock(anyString(), anyInt());
+        // El delta va directo al contador de la franquicia, sin leer el stock anterior
+        verify(franchiseStatsRepository).increment("franchise-1", 0, 0, -3);
+    }
+
+    @Test
+    void shouldPropagateInsufficientStock() {
+        // Given
+        String productId = "product-1";
+
+        when(branchRepository.findProductLocation(productId))
+                .thenReturn(Mono.just(location(productId, "SEPARATED")));
+        when(productRepository.adjustStock(productId, -50))
+                .thenReturn(Mono.error(new IllegalStateException("Stock insuficiente para el producto " + productId)));
+
+        // When & Then
+        StepVerifier.create(useCase.execute(productId, -50))
+                .expectError(IllegalStateException.class)
+                .verify();
+    }
+
+    @Test
+    void shouldFailWhenProductNotFound() {
+        // Given
+        when(branchRepository.findProductLocation(anyString())).thenReturn(Mono.empty());
+
+        // When & Then
+        StepVerifier.create(useCase.execute("nonexistent", 5))
+                .expectErrorMatches(throwable -> 
+                    throwable instanceof RuntimeException &&
+                    throwable.getMessage().contains("not found"))
+                .verify();
+    }
+
+    @Test
+    void shouldFailWhenDeltaIsZero() {
+        // When & Then
+        StepVerifier.create(useCase.execute("product-1", 0))
+                .expectErrorMatches(throwable -> 
+                    throwable instanceof IllegalArgumentException &&
+                    throwable.getMessage().contains("distinto de 0"))
+                .verify();
+    }
+
+    private ProductLocation location(String productId, String storageStrategy) {
+        return ProductLocation.builder()
+                .productId(productId)
+                .branchId("branch-1")
+                .storageStrategy(storageStrategy)
+                .build();
+    }
+}
@@ -2,8 +2,14 @@ package co.com.bancolombia.usecase.product;
 
 import co.com.bancolombia.model.franchise.Branch;
 import co.com.bancolombia.model.franchise.Product;
+import co.com.bancolombia.model.franchise.StorageStrategyChangingException;
 import co.com.bancolombia.model.franchise.gateways.BranchRepository;
+import co.com.bancolombia.model.franchise.gateways.FranchiseRepository;
+import co.com.bancolombia.model.franchise.gateways.FranchiseStatsRepository;
 import co.com.bancolombia.model.franchise.gateways.ProductRepository;
+import co.com.bancolombia.model.franchise.gateways.StorageStrategyEngine;
+import co.com.bancolombia.usecase.branch.MigrateBranchToSeparatedUseCase;
+import co.com.bancolombia.usecase.franchise.FranchiseStatsRecorder;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -16,8 +22,10 @@ import java.util.ArrayList;
 import java.util.List;
 
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.ArgumentMatchers.anyString;
-import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -29,12 +37,25 @@ class CreateProductUseCaseTest {
     
     @Mock
     private BranchRepository branchRepository;
+    
+    @Mock
+    private FranchiseRepository franchiseRepository;
+    
+    @Mock
+    private MigrateBranchToSeparatedUseCase migrateBranchToSeparatedUseCase;
+
+    @Mock
+    private FranchiseStatsRepository franchiseStatsRepository;
+
+    @Mock
+    private StorageStrategyEngine storageStrategyEngine;
 
     private CreateProductUseCase createProductUseCase;
 
     @BeforeEach
     void setUp() {
-        createProductUseCase = new CreateProductUseCase(productRepository, branchRepository);
+        createProductUseCase = new CreateProductUseCase(productRepository, branchRepository, franchiseRepository, migrateBranchToSeparatedUseCase,
+                new FranchiseStatsRecorder(franchiseStatsRepository), storageStrategyEngine);
     }
 
     @Test
@@ -60,10 +81,15 @@ class CreateProductUseCaseTest {
                 .stock(stock)
                 .build();
 
-        when(branchRepository.findById(branchId))
+        when(franchiseRepository.registerWrite(anyString())).thenReturn(Mono.empty());
+        when(branchRepository.findSummaryById(branchId))
                 .thenReturn(Mono.just(existingBranch));
-        when(branchRepository.addProduct(anyString(), any(Product.class)))
+        when(storageStrategyEngine.shouldSeparate(any(Branch.class), any(Product.class)))
+                .thenReturn(false);
+        when(branchRepository.addProduct(any(Branch.class), any(Product.class)))
                 .thenReturn(Mono.just(existingBranch));
+        when(franchiseStatsRepository.increment(franchiseId, 0, 1, stock))
+                .thenReturn(Mono.empty());
 
         // When & Then
         StepVerifier.create(createProductUseCase.execute(franchiseId, branchId, name, stock))
@@ -72,12 +98,15 @@ class CreateProductUseCaseTest {
                     product.getStock().equals(stock) &&
                     product.getBranchId().equals(branchId))
                 .verifyComplete();
+        
+        verify(franchiseStatsRepository).increment(franchiseId, 0, 1, stock);
     }
 
     @Test
     void shouldFailWhenBranchNotFound() {
         // Given
-        when(branchRepository.findById(anyString()))
+        when(franchiseRepository.registerWrite(anyString())).thenReturn(Mono.empty());
+        when(branchRepository.findSummaryById(anyString()))
                 .thenReturn(Mono.empty());
 
         // When & Then
@@ -88,6 +117,23 @@ class CreateProductUseCaseTest {
                 .verify();
     }
 
+    @Test
+    void shouldRejectProductOfFranchiseBeingDeleted() {
+        // Given - La condición sobre la franquicia falla: no se lee ni se escribe la sucursal
+        when(franchiseRepository.registerWrite("franchise-1"))
+                .thenReturn(Mono.error(new IllegalStateException("La franquicia franchise-1 se está eliminando")));
+
+        // When & Then
+        StepVerifier.create(createProductUseCase.execute("franchise-1", "branch-1", "Product", 100))
+                .expectErrorMatches(throwable ->
+                    throwable instanceof IllegalStateException &&
+                    throwable.getMessage().contains("se está eliminando"))
+                .verify();
+
+        verify(branchRepository, never()).findSummaryById(anyString());
+        verify(productRepository, never()).save(any());
+    }
+
     @Test
     void shouldFailWhenStockIsNegative() {
         // When & Then
@@ -99,14 +145,14 @@ class CreateProductUseCaseTest {
     }
 
     @Test
-    void shouldUseSeparatedStrategyWhenBranchHas100Products() {
+    void shouldStartBackgroundMigrationWhenBranchItemWouldGrowTooLarge() {
         // Given
         String franchiseId = "franchise-1";
         String branchId = "branch-1";
         String name = "Test Product";
         Integer stock = 50;
 
-        // Crear lista con 99 productos (al agregar uno más serán 100 = SEPARATED)
+        // Crear lista con 99 productos: el motor de estrategia indica que el item ya no admite uno más
         List<Product> existingProducts = new ArrayList<>();
         for (int i = 0; i < 99; i++) {
             existingProducts.add(Product.builder().id("product-" + i).build());
@@ -128,17 +174,17 @@ class CreateProductUseCaseTest {
                 .stock(stock)
                 .build();
 
-        Branch updatedBranch = branchWithManyProducts.toBuilder()
-                .storageStrategy("SEPARATED")
-                .products(List.of())
-                .build();
-
-        when(branchRepository.findById(branchId))
+        when(franchiseRepository.registerWrite(anyString())).thenReturn(Mono.empty());
+        when(branchRepository.findSummaryById(branchId))
                 .thenReturn(Mono.just(branchWithManyProducts));
+        when(storageStrategyEngine.shouldSeparate(any(Branch.class), any(Product.class)))
+                .thenReturn(true);
+        when(branchRepository.startMigration(branchId))
+                .thenReturn(Mono.just(true));
         when(productRepository.save(any(Product.class)))
                 .thenReturn(Mono.just(expectedProduct));
-        when(branchRepository.save(any(Branch.class)))
-                .thenReturn(Mono.just(updatedBranch));
+        when(franchiseStatsRepository.increment(anyString(), anyLong(), anyLong(), anyLong()))
+                .thenReturn(Mono.empty());
 
         // When & Then
         StepVerifier.create(createProductUseCase.execute(franchiseId, branchId, name, stock))
@@ -148,9 +194,202 @@ class CreateProductUseCaseTest {
                     product.getBranchId().equals(branchId))
                 .verifyComplete();
 
-        // Verify that branch was updated to SEPARATED strategy
-        verify(branchRepository).save(argThat(branch -> 
-            "SEPARATED".equals(branch.getStorageStrategy()) && 
-            branch.getProducts().isEmpty()));
+        // Los productos embebidos no se descartan: se migran fuera del request
+        verify(migrateBranchToSeparatedUseCase).launch(branchId);
+        verify(branchRepository, never()).save(any(Branch.class));
+    }
+
+    @Test
+    void shouldDecideFromBranchSummarySizeEstimate() {
+        // Given - Lectura proyectada: sin products, solo el contador y el tamaño estimado
+        String branchId = "branch-1";
+
+        Branch fullBranch = Branch.builder()
+                .id(branchId)
+                .franchiseId("franchise-1")
+                .storageStrategy("EMBEDDED")
+                .productCount(20)
+                .embeddedBytes(70_000L)
+                .build();
+
+        when(franchiseRepository.registerWrite(anyString())).thenReturn(Mono.empty());
+        when(branchRepository.findSummaryById(branchId))
+                .thenReturn(Mono.just(fullBranch));
+        when(storageStrategyEngine.shouldSeparate(eq(fullBranch), any(Product.class)))
+                .thenReturn(true);
+        when(branchRepository.startMigration(branchId))
+                .thenReturn(Mono.just(true));
+        when(productRepository.save(any(Product.class)))
+                .thenAnswer(invocation -> Mono.just(invocation.getArgument(0)));
+        when(franchiseStatsRepository.increment(anyString(), anyLong(), anyLong(), anyLong()))
+                .thenReturn(Mono.empty());
+
+        // When & Then
+        StepVerifier.create(createProductUseCase.execute("franchise-1", branchId, "Product", 10))
+                .expectNextMatches(product -> product.getBranchId().equals(branchId))
+                .verifyComplete();
+
+        verify(branchRepository, never()).addProduct(any(Branch.class), any(Product.class));
+        verify(migrateBranchToSeparatedUseCase).launch(branchId);
+    }
+
+    @Test
+    void shouldSaveDirectlyToProductsTableWhenBranchIsSeparated() {
+        // Given
+        String branchId = "branch-1";
+
+        Branch separatedBranch = Branch.builder()
+                .id(branchId)
+                .franchiseId("franchise-1")
+                .name("Test Branch")
+                .storageStrategy("SEPARATED")
+                .build();
+
+        when(franchiseRepository.registerWrite(anyString())).thenReturn(Mono.empty());
+        when(branchRepository.findSummaryById(branchId))
+                .thenReturn(Mono.just(separatedBranch));
+        when(branchRepository.markSeparatedWrite(branchId))
+                .thenReturn(Mono.empty());
+        when(productRepository.save(any(Product.class)))
+                .thenAnswer(invocation -> Mono.just(invocation.getArgument(0)));
+        when(franchiseStatsRepository.increment(anyString(), anyLong(), anyLong(), anyLong()))
+                .thenReturn(Mono.empty());
+
+        // When & Then
+        StepVerifier.create(createProductUseCase.execute("franchise-1", branchId, "Product", 10))
+                .expectNextMatches(product -> product.getBranchId().equals(branchId))
+                .verifyComplete();
+
+        verify(branchRepository, never()).addProduct(any(Branch.class), any(Product.class));
+        verify(migrateBranchToSeparatedUseCase, never()).launch(anyString());
+    }
+
+    @Test
+    void shouldRereadStrategyWhenBranchIsReturningToEmbedded() {
+        // Given - La sucursal pasa a EMBEDDING entre la lectura y el alta: la tabla de productos ya no la admite
+        String branchId = "branch-1";
+
+        Branch embeddingBranch = Branch.builder()
+                .id(branchId)
+                .franchiseId("franchise-1")
+                .storageStrategy("EMBEDDING")
+                .build();
+        Branch embeddedBranch = embeddingBranch.toBuilder()
+                .storageStrategy("EMBEDDED")
+                .build();
+
+        when(franchiseRepository.registerWrite(anyString())).thenReturn(Mono.empty());
+        when(branchRepository.findSummaryById(branchId))
+                .thenReturn(Mono.just(embeddingBranch), Mono.just(embeddedBranch));
+        when(branchRepository.markSeparatedWrite(branchId))
+                .thenReturn(Mono.error(new StorageStrategyChangingException("La sucursal branch-1 ya no admite productos separados")));
+        when(storageStrategyEngine.shouldSeparate(eq(embeddedBranch), any(Product.class)))
+                .thenReturn(false);
+        when(branchRepository.addProduct(eq(embeddedBranch), any(Product.class)))
+                .thenReturn(Mono.just(embeddedBranch));
+        when(franchiseStatsRepository.increment(anyString(), anyLong(), anyLong(), anyLong()))
+                .thenReturn(Mono.empty());
+
+        // When & Then - Se vuelve a leer la estrategia y el producto queda embebido
+        StepVerifier.create(createProductUseCase.execute("franchise-1", branchId, "Product", 10))
+                .expectNextMatches(product -> product.getBranchId().equals(branchId))
+                .verifyComplete();
+
+        verify(productRepository, never()).save(any(Product.class));
+    }
+
+    @Test
+    void shouldRereadStrategyWhenMigrationCannotStart() {
+        // Given - La sucursal deja de ser EMBEDDED entre la lectura y startMigration: no pasa a MIGRATING
+        String branchId = "branch-1";
+
+        Branch embeddedBranch = Branch.builder()
+                .id(branchId)
+                .franchiseId("franchise-1")
+                .storageStrategy("EMBEDDED")
+                .build();
+        Branch separatedBranch = embeddedBranch.toBuilder()
+                .storageStrategy("SEPARATED")
+                .build();
+
+        when(franchiseRepository.registerWrite(anyString())).thenReturn(Mono.empty());
+        when(branchRepository.findSummaryById(branchId))
+                .thenReturn(Mono.just(embeddedBranch), Mono.just(separatedBranch));
+        when(storageStrategyEngine.shouldSeparate(eq(embeddedBranch), any(Product.class)))
+                .thenReturn(true);
+        when(branchRepository.startMigration(branchId))
+                .thenReturn(Mono.just(false));
+        when(branchRepository.markSeparatedWrite(branchId))
+                .thenReturn(Mono.empty());
+        when(productRepository.save(any(Product.class)))
+                .thenAnswer(invocation -> Mono.just(invocation.getArgument(0)));
+        when(franchiseStatsRepository.increment(anyString(), anyLong(), anyLong(), anyLong()))
+                .thenReturn(Mono.empty());
+
+        // When & Then - Se vuelve a leer la estrategia y el producto se escribe tras marcar la sucursal
+        StepVerifier.create(createProductUseCase.execute("franchise-1", branchId, "Product", 10))
+                .expectNextMatches(product -> product.getBranchId().equals(branchId))
+                .verifyComplete();
+
+        verify(branchRepository).markSeparatedWrite(branchId);
+        verify(productRepository).save(any(Product.class));
+        verify(migrateBranchToSeparatedUseCase, never()).launch(anyString());
+    }
+
+    @Test
+    void shouldKeepAddingToBucketsWhenBranchIsBucketed() {
+        // Given - BUCKETED no tiene límite: con más de 100 productos no se migra
+        String branchId = "branch-1";
+
+        Branch bucketedBranch = Branch.builder()
+                .id(branchId)
+                .franchiseId("franchise-1")
+                .storageStrategy("BUCKETED")
+                .productCount(250)
+                .build();
+
+        when(franchiseRepository.registerWrite(anyString())).thenReturn(Mono.empty());
+        when(branchRepository.findSummaryById(branchId))
+                .thenReturn(Mono.just(bucketedBranch));
+        when(branchRepository.addProduct(any(Branch.class), any(Product.class)))
+                .thenReturn(Mono.just(bucketedBranch));
+        when(franchiseStatsRepository.increment(anyString(), anyLong(), anyLong(), anyLong()))
+                .thenReturn(Mono.empty());
+
+        // When & Then
+        StepVerifier.create(createProductUseCase.execute("franchise-1", branchId, "Product", 10))
+                .expectNextMatches(product -> product.getBranchId().equals(branchId))
+                .verifyComplete();
+
+        verify(branchRepository).addProduct(any(Branch.class), any(Product.class));
+        verify(branchRepository, never()).startMigration(anyString());
+        verify(productRepository, never()).save(any(Product.class));
+    }
+
+    @Test
+    void shouldCreateProductEvenIfFranchiseStatsFail() {
+        // Given
+        String branchId = "branch-1";
+
+        Branch separatedBranch = Branch.builder()
+                .id(branchId)
+                .franchiseId("franchise-1")
+                .storageStrategy("SEPARATED")
+                .build();
+
+        when(franchiseRepository.registerWrite(anyString())).thenReturn(Mono.empty());
+        when(branchRepository.findSummaryById(branchId))
+                .thenReturn(Mono.just(separatedBranch));
+        when(branchRepository.markSeparatedWrite(branchId))
+                .thenReturn(Mono.empty());
+        when(productRepository.save(any(Product.class)))
+                .thenAnswer(invocation -> Mono.just(invocation.getArgument(0)));
+        when(franchiseStatsRepository.increment("franchise-1", 0, 1, 10))
+                .thenReturn(Mono.error(new RuntimeException("Error updating franchise stats")));
+
+        // When & Then - Los contadores son best effort: el producto ya quedó guardado
+        StepVerifier.create(createProductUseCase.execute("franchise-1", branchId, "Product", 10))
+                .expectNextMatches(product -> product.getBranchId().equals(branchId))
+                .verifyComplete();
     }
 }
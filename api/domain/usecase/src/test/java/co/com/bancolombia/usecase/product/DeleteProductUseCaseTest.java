@@ -1,9 +1,12 @@
 package co.com.bancolombia.usecase.product;
 
-import co.com.bancolombia.model.franchise.Branch;
 import co.com.bancolombia.model.franchise.Product;
+import co.com.bancolombia.model.franchise.ProductLocation;
 import co.com.bancolombia.model.franchise.gateways.BranchRepository;
+import co.com.bancolombia.model.franchise.gateways.FranchiseStatsRepository;
 import co.com.bancolombia.model.franchise.gateways.ProductRepository;
+import co.com.bancolombia.usecase.branch.MigrateBranchToEmbeddedUseCase;
+import co.com.bancolombia.usecase.franchise.FranchiseStatsRecorder;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -12,11 +15,11 @@ import org.mockito.junit.jupiter.MockitoExtension;
 import reactor.core.publisher.Mono;
 import reactor.test.StepVerifier;
 
-import java.time.LocalDateTime;
-import java.util.List;
-
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
@@ -28,30 +31,43 @@ class DeleteProductUseCaseTest {
     @Mock
     private BranchRepository branchRepository;
 
+    @Mock
+    private FranchiseStatsRepository franchiseStatsRepository;
+
+    @Mock
+    private MigrateBranchToEmbeddedUseCase migrateBranchToEmbeddedUseCase;
+
     private DeleteProductUseCase useCase;
 
     @BeforeEach
     void setUp() {
-        useCase = new DeleteProductUseCase(productRepository, branchRepository);
+        useCase = new DeleteProductUseCase(productRepository, branchRepository,
+                new FranchiseStatsRecorder(franchiseStatsRepository), migrateBranchToEmbeddedUseCase);
     }
 
     @Test
     void shouldDeleteSeparatedProduct() {
         // Given
         String productId = "separated-product-id";
-        Product product = Product.builder()
-                .id(productId)
-                .name("Separated Product")
-                .stock(100)
+        ProductLocation location = ProductLocation.builder()
+                .productId(productId)
+                .branchId("branch-id")
+                .storageStrategy("SEPARATED")
                 .build();
 
-        when(productRepository.findById(productId)).thenReturn(Mono.just(product));
-        when(productRepository.deleteById(productId)).thenReturn(Mono.empty());
-        when(branchRepository.findBranchIdByProductId(productId)).thenReturn(Mono.empty());
+        when(branchRepository.findProductLocation(productId)).thenReturn(Mono.just(location));
+        when(productRepository.deleteById(productId)).thenReturn(Mono.just(product(productId, "branch-id")));
+        when(franchiseStatsRepository.increment("franchise-id", 0, -1, -15)).thenReturn(Mono.empty());
 
         // When & Then
         StepVerifier.create(useCase.execute(productId))
                 .verifyComplete();
+        
+        verify(branchRepository, never()).removeProduct(any(ProductLocation.class));
+        verify(productRepository, never()).findById(anyString());
+        verify(franchiseStatsRepository).increment("franchise-id", 0, -1, -15);
+        // La sucursal puede volver a caber embebida: se evalúa fuera del request
+        verify(migrateBranchToEmbeddedUseCase).launch("branch-id");
     }
 
     @Test
@@ -59,31 +75,46 @@ class DeleteProductUseCaseTest {
         // Given
         String productId = "embedded-product-id";
         String branchId = "branch-id";
-        
-        Product embeddedProduct = Product.builder()
-                .id(productId)
-                .name("Embedded Product")
-                .stock(100)
+        ProductLocation location = ProductLocation.builder()
+                .productId(productId)
+                .branchId(branchId)
+                .storageStrategy("EMBEDDED")
                 .build();
 
-        Branch branch = Branch.builder()
-                .id(branchId)
-                .name("Test Branch")
-                .products(List.of(embeddedProduct))
-                .build();
+        when(branchRepository.findProductLocation(productId)).thenReturn(Mono.just(location));
+        when(branchRepository.removeProduct(location)).thenReturn(Mono.just(product(productId, branchId)));
+        when(franchiseStatsRepository.increment("franchise-id", 0, -1, -15)).thenReturn(Mono.empty());
 
-        Branch updatedBranch = branch.toBuilder()
-                .products(List.of())
+        // When & Then
+        StepVerifier.create(useCase.execute(productId))
+                .verifyComplete();
+        
+        verify(branchRepository, never()).findById(anyString());
+        verify(productRepository, never()).deleteById(anyString());
+        verify(productRepository, never()).findById(anyString());
+        verify(franchiseStatsRepository).increment("franchise-id", 0, -1, -15);
+        verify(migrateBranchToEmbeddedUseCase, never()).launch(anyString());
+    }
+
+    @Test
+    void shouldNotTouchStatsWhenSeparatedProductWasAlreadyDeleted() {
+        // Given
+        String productId = "separated-product-id";
+        ProductLocation location = ProductLocation.builder()
+                .productId(productId)
+                .branchId("branch-id")
+                .storageStrategy("SEPARATED")
                 .build();
 
-        when(productRepository.findById(productId)).thenReturn(Mono.empty());
-        when(branchRepository.findBranchIdByProductId(productId)).thenReturn(Mono.just(branchId));
-        when(branchRepository.findById(branchId)).thenReturn(Mono.just(branch));
-        when(branchRepository.save(any(Branch.class))).thenReturn(Mono.just(updatedBranch));
+        when(branchRepository.findProductLocation(productId)).thenReturn(Mono.just(location));
+        when(productRepository.deleteById(productId)).thenReturn(Mono.empty());
 
-        // When & Then
+        // When & Then - Otro borrado concurrente ganó: ya descontó el producto
         StepVerifier.create(useCase.execute(productId))
                 .verifyComplete();
+
+        verify(franchiseStatsRepository, never()).increment(anyString(), anyLong(), anyLong(), anyLong());
+        verify(migrateBranchToEmbeddedUseCase).launch("branch-id");
     }
 
     @Test
@@ -91,11 +122,19 @@ class DeleteProductUseCaseTest {
         // Given
         String productId = "non-existent-id";
         
-        when(productRepository.findById(productId)).thenReturn(Mono.empty());
-        when(branchRepository.findBranchIdByProductId(productId)).thenReturn(Mono.empty());
+        when(branchRepository.findProductLocation(productId)).thenReturn(Mono.empty());
 
         // When & Then
         StepVerifier.create(useCase.execute(productId))
                 .verifyComplete();
     }
+
+    private Product product(String productId, String branchId) {
+        return Product.builder()
+                .id(productId)
+                .branchId(branchId)
+                .franchiseId("franchise-id")
+                .stock(15)
+                .build();
+    }
 }
@@ -1,6 +1,7 @@
 package co.com.bancolombia.usecase.product;
 
 import co.com.bancolombia.model.franchise.Branch;
+import co.com.bancolombia.model.franchise.Page;
 import co.com.bancolombia.model.franchise.Product;
 import co.com.bancolombia.model.franchise.gateways.BranchRepository;
 import co.com.bancolombia.model.franchise.gateways.ProductRepository;
@@ -13,10 +14,15 @@ import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 import reactor.test.StepVerifier;
 
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
+import java.util.Base64;
 import java.util.List;
 
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
@@ -118,4 +124,96 @@ class GetProductsByBranchUseCaseTest {
         StepVerifier.create(useCase.execute(branchId))
                 .verifyComplete();
     }
+
+    @Test
+    void shouldReturnSeparatedPageWithPhaseCursorWhenMoreSeparatedProducts() {
+        // Given
+        String branchId = "test-branch-id";
+        Product separatedProduct = product("separated-id", branchId);
+
+        when(productRepository.findPageByBranchId(branchId, 1, null))
+                .thenReturn(Mono.just(Page.of(List.of(separatedProduct), "repo-cursor")));
+
+        // When & Then
+        StepVerifier.create(useCase.execute(branchId, 1, null))
+                .expectNextMatches(page ->
+                    page.getItems().equals(List.of(separatedProduct)) &&
+                    page.getNextCursor().equals("srepo-cursor"))
+                .verifyComplete();
+        verify(branchRepository, never()).findById(anyString());
+    }
+
+    @Test
+    void shouldFillPageWithEmbeddedProductsWhenSeparatedExhausted() {
+        // Given
+        String branchId = "test-branch-id";
+        Product separatedProduct = product("b", branchId);
+        Branch branch = Branch.builder()
+                .id(branchId)
+                .name("Test Branch")
+                .products(List.of(product("d", null), product("b", null), product("c", null), product("a", null)))
+                .build();
+
+        when(productRepository.findPageByBranchId(branchId, 3, "repo-cursor"))
+                .thenReturn(Mono.just(Page.of(List.of(separatedProduct), null)));
+        when(branchRepository.findById(branchId)).thenReturn(Mono.just(branch));
+
+        // When & Then
+        StepVerifier.create(useCase.execute(branchId, 3, "srepo-cursor"))
+                .expectNextMatches(page ->
+                    page.getItems().stream().map(Product::getId).toList().equals(List.of("b", "a", "c")) &&
+                    page.getItems().stream().allMatch(product -> branchId.equals(product.getBranchId())) &&
+                    page.getNextCursor() != null &&
+                    page.getNextCursor().startsWith("e"))
+                .verifyComplete();
+    }
+
+    @Test
+    void shouldContinueEmbeddedPhaseAfterLastId() {
+        // Given
+        String branchId = "test-branch-id";
+        Branch branch = Branch.builder()
+                .id(branchId)
+                .name("Test Branch")
+                .products(List.of(product("a", null), product("b", null), product("c", null)))
+                .build();
+        String cursor = "e" + Base64.getUrlEncoder().withoutPadding().encodeToString("a".getBytes(StandardCharsets.UTF_8));
+
+        when(branchRepository.findById(branchId)).thenReturn(Mono.just(branch));
+
+        // When & Then
+        StepVerifier.create(useCase.execute(branchId, 5, cursor))
+                .expectNextMatches(page ->
+                    page.getItems().stream().map(Product::getId).toList().equals(List.of("b", "c")) &&
+                    !page.hasNext())
+                .verifyComplete();
+        verify(productRepository, never()).findPageByBranchId(anyString(), anyInt(), anyString());
+    }
+
+    @Test
+    void shouldRejectLimitOutOfRange() {
+        // When & Then
+        StepVerifier.create(useCase.execute("test-branch-id", Page.MAX_LIMIT + 1, null))
+                .expectError(IllegalArgumentException.class)
+                .verify();
+    }
+
+    @Test
+    void shouldRejectCursorWithUnknownPhase() {
+        // When & Then
+        StepVerifier.create(useCase.execute("test-branch-id", 10, "xyz"))
+                .expectError(IllegalArgumentException.class)
+                .verify();
+    }
+
+    private Product product(String id, String branchId) {
+        return Product.builder()
+                .id(id)
+                .name("Product " + id)
+                .stock(10)
+                .branchId(branchId)
+                .createdAt(LocalDateTime.now())
+                .updatedAt(LocalDateTime.now())
+                .build();
+    }
 }
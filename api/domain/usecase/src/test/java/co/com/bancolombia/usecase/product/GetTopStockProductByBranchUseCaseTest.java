@@ -0,0 +1,89 @@
+package co.com.bancolombia.usecase.product;
+
+import co.com.bancolombia.model.franchise.Branch;
+import co.com.bancolombia.model.franchise.Product;
+import co.com.bancolombia.model.franchise.gateways.BranchRepository;
+import co.com.bancolombia.model.franchise.gateways.ProductRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import reactor.core.publisher.Flux;
+import reactor.test.StepVerifier;
+
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class GetTopStockProductByBranchUseCaseTest {
+
+    @Mock
+    private BranchRepository branchRepository;
+
+    @Mock
+    private ProductRepository productRepository;
+
+    private GetTopStockProductByBranchUseCase useCase;
+
+    @BeforeEach
+    void setUp() {
+        useCase = new GetTopStockProductByBranchUseCase(branchRepository, productRepository);
+    }
+
+    @Test
+    void shouldAnswerEmbeddedBranchesFromSummary() {
+        // Given - Sin products: el resumen de la sucursal basta
+        Branch embedded = Branch.builder()
+                .id("branch-1")
+                .storageStrategy("EMBEDDED")
+                .productCount(3)
+                .totalStock(60L)
+                .topStockProduct(Product.builder().id("product-1").name("Top").stock(40).build())
+                .build();
+        Branch empty = Branch.builder()
+                .id("branch-2")
+                .storageStrategy("EMBEDDED")
+                .productCount(0)
+                .totalStock(0L)
+                .build();
+
+        when(branchRepository.findSummariesByFranchiseId("franchise-1")).thenReturn(Flux.just(embedded, empty));
+
+        // When & Then
+        StepVerifier.create(useCase.execute("franchise-1"))
+                .expectNextMatches(product -> product.getId().equals("product-1")
+                        && product.getStock().equals(40)
+                        && product.getBranchId().equals("branch-1"))
+                .verifyComplete();
+
+        verify(productRepository, never()).findTopStockByBranch(anyString(), anyInt());
+    }
+
+    @Test
+    void shouldQueryProductsTableForSeparatedAndMigratingBranches() {
+        // Given
+        Branch separated = Branch.builder().id("branch-1").storageStrategy("SEPARATED").build();
+        Branch migrating = Branch.builder()
+                .id("branch-2")
+                .storageStrategy("MIGRATING")
+                .products(List.of(Product.builder().id("embedded").stock(5).build()))
+                .build();
+
+        when(branchRepository.findSummariesByFranchiseId("franchise-1")).thenReturn(Flux.just(separated, migrating));
+        when(productRepository.findTopStockByBranch("branch-1", 1))
+                .thenReturn(Flux.just(Product.builder().id("separated").stock(30).branchId("branch-1").build()));
+        when(productRepository.findTopStockByBranch("branch-2", 1))
+                .thenReturn(Flux.just(Product.builder().id("migrated").stock(8).branchId("branch-2").build()));
+
+        // When & Then
+        StepVerifier.create(useCase.execute("franchise-1").map(Product::getId).collectList())
+                .expectNextMatches(ids -> ids.size() == 2 && ids.containsAll(List.of("separated", "migrated")))
+                .verifyComplete();
+    }
+}
@@ -14,7 +14,9 @@ import reactor.test.StepVerifier;
 
 import java.time.LocalDateTime;
 
-import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
@@ -54,8 +56,8 @@ class GetTopStockProductByBranchWithBranchNameUseCaseTest {
                 .name("Test Branch")
                 .build();
 
-        when(getTopStockProductByBranchUseCase.execute(franchiseId)).thenReturn(Flux.just(product));
-        when(branchRepository.findById(branchId)).thenReturn(Mono.just(branch));
+        when(branchRepository.findSummariesByFranchiseId(franchiseId)).thenReturn(Flux.just(branch));
+        when(getTopStockProductByBranchUseCase.topStockProduct(branch)).thenReturn(Mono.just(product));
 
         // When & Then
         StepVerifier.create(useCase.execute(franchiseId))
@@ -66,40 +68,78 @@ class GetTopStockProductByBranchWithBranchNameUseCaseTest {
     }
 
     @Test
-    void shouldReturnDefaultMessageWhenBranchNotFound() {
+    void shouldSkipBranchesWithoutProducts() {
         // Given
         String franchiseId = "franchise-id";
-        String branchId = "non-existent-branch";
+        Branch branch = Branch.builder().id("empty-branch").name("Empty Branch").build();
         
-        Product product = Product.builder()
-                .id("product-id")
-                .name("Top Stock Product")
-                .stock(1000)
-                .branchId(branchId)
-                .createdAt(LocalDateTime.now())
-                .updatedAt(LocalDateTime.now())
-                .build();
+        when(branchRepository.findSummariesByFranchiseId(franchiseId)).thenReturn(Flux.just(branch));
+        when(getTopStockProductByBranchUseCase.topStockProduct(branch)).thenReturn(Mono.empty());
 
-        when(getTopStockProductByBranchUseCase.execute(franchiseId)).thenReturn(Flux.just(product));
-        when(branchRepository.findById(branchId)).thenReturn(Mono.empty());
+        // When & Then
+        StepVerifier.create(useCase.execute(franchiseId))
+                .verifyComplete();
+    }
+
+    @Test
+    void shouldReturnEmptyWhenNoBranches() {
+        // Given
+        String franchiseId = "franchise-id";
+        
+        when(branchRepository.findSummariesByFranchiseId(franchiseId)).thenReturn(Flux.empty());
 
         // When & Then
         StepVerifier.create(useCase.execute(franchiseId))
-                .expectNextMatches(productWithBranch -> 
-                    productWithBranch.getProduct().equals(product) &&
-                    productWithBranch.getBranchName().equals("Sucursal no encontrada"))
                 .verifyComplete();
+        
+        verify(getTopStockProductByBranchUseCase, never()).topStockProduct(any());
     }
 
     @Test
-    void shouldReturnEmptyWhenNoProducts() {
+    void shouldTakeNamesFromSummariesWithoutReadingBranchesAgain() {
         // Given
         String franchiseId = "franchise-id";
         
-        when(getTopStockProductByBranchUseCase.execute(franchiseId)).thenReturn(Flux.empty());
+        Product firstProduct = Product.builder()
+                .id("product-1")
+                .name("Product 1")
+                .stock(100)
+                .branchId("branch-1")
+                .build();
+
+        Product secondProduct = Product.builder()
+                .id("product-2")
+                .name("Product 2")
+                .stock(200)
+                .branchId("branch-2")
+                .build();
+
+        Branch firstBranch = Branch.builder().id("branch-1").name("Branch 1").build();
+        Branch secondBranch = Branch.builder().id("branch-2").name("Branch 2").build();
+
+        when(branchRepository.findSummariesByFranchiseId(franchiseId))
+                .thenReturn(Flux.just(firstBranch, secondBranch));
+        when(getTopStockProductByBranchUseCase.topStockProduct(firstBranch)).thenReturn(Mono.just(firstProduct));
+        when(getTopStockProductByBranchUseCase.topStockProduct(secondBranch)).thenReturn(Mono.just(secondProduct));
 
         // When & Then
         StepVerifier.create(useCase.execute(franchiseId))
+                .expectNextMatches(productWithBranch ->
+                    productWithBranch.getProduct().equals(firstProduct) &&
+                    productWithBranch.getBranchName().equals("Branch 1"))
+                .expectNextMatches(productWithBranch ->
+                    productWithBranch.getProduct().equals(secondProduct) &&
+                    productWithBranch.getBranchName().equals("Branch 2"))
                 .verifyComplete();
+        
+        verify(branchRepository, never()).findAllById(any());
+    }
+
+    @Test
+    void shouldRejectMissingFranchiseId() {
+        // When & Then
+        StepVerifier.create(useCase.execute(" "))
+                .expectError(IllegalArgumentException.class)
+                .verify();
     }
 }
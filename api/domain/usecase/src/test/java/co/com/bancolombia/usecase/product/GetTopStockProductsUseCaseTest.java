@@ -15,7 +15,10 @@ import reactor.test.StepVerifier;
 import java.time.LocalDateTime;
 import java.util.List;
 
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
@@ -65,8 +68,12 @@ class GetTopStockProductsUseCaseTest {
                 .products(List.of(embeddedProduct))
                 .build();
 
-        when(productRepository.findTopStockByFranchise(franchiseId)).thenReturn(Flux.just(separatedProduct));
-        when(branchRepository.findByFranchiseId(franchiseId)).thenReturn(Flux.just(branch));
+        when(productRepository.findTopStockByFranchise(franchiseId, 3)).thenReturn(Flux.just(separatedProduct));
+        when(branchRepository.findSummariesByFranchiseId(franchiseId)).thenReturn(Flux.just(branch.toBuilder()
+                .products(null)
+                .topStockProduct(embeddedProduct)
+                .build()));
+        when(branchRepository.findAllById(List.of("branch-2"))).thenReturn(Flux.just(branch));
 
         // When & Then - Debería devolver primero el de mayor stock (embedded: 1000)
         StepVerifier.create(useCase.execute(franchiseId))
@@ -91,8 +98,8 @@ class GetTopStockProductsUseCaseTest {
                 .stock(100)
                 .build();
 
-        when(productRepository.findTopStockByFranchise(franchiseId)).thenReturn(Flux.just(separatedProduct));
-        when(branchRepository.findByFranchiseId(franchiseId)).thenReturn(Flux.empty());
+        when(productRepository.findTopStockByFranchise(franchiseId, 3)).thenReturn(Flux.just(separatedProduct));
+        when(branchRepository.findSummariesByFranchiseId(franchiseId)).thenReturn(Flux.empty());
 
         // When & Then
         StepVerifier.create(useCase.execute(franchiseId))
@@ -111,13 +118,100 @@ class GetTopStockProductsUseCaseTest {
         Product product4 = Product.builder().id("4").stock(400).build();
         Product product5 = Product.builder().id("5").stock(500).build();
 
-        when(productRepository.findTopStockByFranchise(franchiseId))
+        when(productRepository.findTopStockByFranchise(franchiseId, 3))
                 .thenReturn(Flux.just(product1, product2, product3, product4, product5));
-        when(branchRepository.findByFranchiseId(franchiseId)).thenReturn(Flux.empty());
+        when(branchRepository.findSummariesByFranchiseId(franchiseId)).thenReturn(Flux.empty());
 
         // When & Then - Solo debe devolver los top 3
         StepVerifier.create(useCase.execute(franchiseId))
                 .expectNextCount(3)
                 .verifyComplete();
     }
+
+    @Test
+    void shouldLoadOnlyBranchesWhoseTopReachesTheKthLargestTop() {
+        // Given
+        String franchiseId = "franchise-id";
+
+        Branch first = Branch.builder()
+                .id("branch-1")
+                .products(List.of(
+                    Product.builder().id("a").stock(900).build(),
+                    Product.builder().id("b").stock(860).build(),
+                    Product.builder().id("c").stock(850).build()))
+                .build();
+
+        when(productRepository.findTopStockByFranchise(franchiseId, 3)).thenReturn(Flux.empty());
+        when(branchRepository.findSummariesByFranchiseId(franchiseId)).thenReturn(Flux.just(
+                summary("branch-1", "a", 900),
+                summary("branch-2", "d", 800),
+                summary("branch-3", "e", 700),
+                summary("branch-4", "f", 100),
+                Branch.builder().id("separated").storageStrategy("SEPARATED").build()));
+        // branch-4 (top 100) y la SEPARATED (sin top) no se cargan
+        when(branchRepository.findAllById(List.of("branch-1", "branch-2", "branch-3"))).thenReturn(Flux.just(
+                first,
+                Branch.builder().id("branch-2").products(List.of(Product.builder().id("d").stock(800).build())).build(),
+                Branch.builder().id("branch-3").products(List.of(Product.builder().id("e").stock(700).build())).build()));
+
+        // When & Then - Los tres mejores están en la misma sucursal
+        StepVerifier.create(useCase.execute(franchiseId))
+                .expectNextMatches(product -> product.getId().equals("a") && product.getBranchId().equals("branch-1"))
+                .expectNextMatches(product -> product.getId().equals("b"))
+                .expectNextMatches(product -> product.getId().equals("c"))
+                .verifyComplete();
+    }
+
+    @Test
+    void shouldIncludeEmbeddedProductsOfMigratingBranchWithoutSummary() {
+        // Given - Una MIGRATING no tiene topStockProduct pero aún guarda embebido el producto de mayor stock
+        String franchiseId = "franchise-id";
+        Branch migrating = Branch.builder()
+                .id("migrating")
+                .storageStrategy("MIGRATING")
+                .products(List.of(Product.builder().id("top").stock(5000).build()))
+                .build();
+
+        when(productRepository.findTopStockByFranchise(franchiseId, 3)).thenReturn(Flux.empty());
+        when(branchRepository.findSummariesByFranchiseId(franchiseId)).thenReturn(Flux.just(
+                summary("branch-1", "a", 100),
+                migrating.toBuilder().products(null).build()));
+        when(branchRepository.findAllById(List.of("branch-1", "migrating"))).thenReturn(Flux.just(
+                Branch.builder().id("branch-1").products(List.of(Product.builder().id("a").stock(100).build())).build(),
+                migrating));
+
+        // When & Then
+        StepVerifier.create(useCase.execute(franchiseId))
+                .expectNextMatches(product -> product.getId().equals("top") && product.getBranchId().equals("migrating"))
+                .expectNextMatches(product -> product.getId().equals("a"))
+                .verifyComplete();
+    }
+
+    @Test
+    void shouldNotReadAgainMigratingBranchWhoseSummaryBringsProducts() {
+        // Given
+        String franchiseId = "franchise-id";
+        Branch migrating = Branch.builder()
+                .id("migrating")
+                .storageStrategy("MIGRATING")
+                .products(List.of(Product.builder().id("top").stock(5000).build()))
+                .build();
+
+        when(productRepository.findTopStockByFranchise(franchiseId, 3)).thenReturn(Flux.empty());
+        when(branchRepository.findSummariesByFranchiseId(franchiseId)).thenReturn(Flux.just(migrating));
+
+        // When & Then
+        StepVerifier.create(useCase.execute(franchiseId))
+                .expectNextMatches(product -> product.getId().equals("top"))
+                .verifyComplete();
+
+        verify(branchRepository, never()).findAllById(any());
+    }
+
+    private static Branch summary(String branchId, String topProductId, int topStock) {
+        return Branch.builder()
+                .id(branchId)
+                .topStockProduct(Product.builder().id(topProductId).stock(topStock).build())
+                .build();
+    }
 }
@@ -0,0 +1,269 @@
+package co.com.bancolombia.usecase.product;
+
+import co.com.bancolombia.model.franchise.Branch;
+import co.com.bancolombia.model.franchise.Product;
+import co.com.bancolombia.model.franchise.ProductImportResult;
+import co.com.bancolombia.model.franchise.ProductImportRow;
+import co.com.bancolombia.model.franchise.gateways.BranchRepository;
+import co.com.bancolombia.model.franchise.gateways.FranchiseRepository;
+import co.com.bancolombia.model.franchise.gateways.FranchiseStatsRepository;
+import co.com.bancolombia.model.franchise.gateways.ProductRepository;
+import co.com.bancolombia.model.franchise.gateways.StorageStrategyEngine;
+import co.com.bancolombia.usecase.branch.MigrateBranchToSeparatedUseCase;
+import co.com.bancolombia.usecase.franchise.FranchiseStatsRecorder;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ImportProductsUseCaseTest {
+
+    private static final String FRANCHISE_ID = "franchise-1";
+
+    @Mock
+    private ProductRepository productRepository;
+
+    @Mock
+    private BranchRepository branchRepository;
+
+    @Mock
+    private FranchiseRepository franchiseRepository;
+
+    @Mock
+    private MigrateBranchToSeparatedUseCase migrateBranchToSeparatedUseCase;
+
+    @Mock
+    private FranchiseStatsRepository franchiseStatsRepository;
+
+    @Mock
+    private StorageStrategyEngine storageStrategyEngine;
+
+    private ImportProductsUseCase importProductsUseCase;
+
+    @BeforeEach
+    void setUp() {
+        importProductsUseCase = new ImportProductsUseCase(productRepository, branchRepository, franchiseRepository, migrateBranchToSeparatedUseCase,
+                new FranchiseStatsRecorder(franchiseStatsRepository), storageStrategyEngine);
+    }
+
+    @Test
+    void shouldWriteEmbeddedBranchGroupInOneWrite() {
+        // Given - Dos filas de la misma sucursal: una lectura y una escritura para ambas
+        Branch branch = branch("branch-1", "EMBEDDED", FRANCHISE_ID);
+
+        when(franchiseRepository.registerWrite(anyString())).thenReturn(Mono.empty());
+        when(branchRepository.findSummaryById("branch-1")).thenReturn(Mono.just(branch));
+        when(storageStrategyEngine.shouldSeparate(eq(branch), anyList())).thenReturn(false);
+        when(branchRepository.addProducts(eq(branch), anyList())).thenReturn(Mono.empty());
+        when(franchiseStatsRepository.increment(FRANCHISE_ID, 0, 2, 15)).thenReturn(Mono.empty());
+
+        // When & Then
+        StepVerifier.create(importProductsUseCase.execute(FRANCHISE_ID, Flux.just(
+                        row(1, "branch-1", "Producto A", 10),
+                        row(2, "branch-1", " Producto B ", 5))))
+                .expectNextMatches(result -> result.isImported() && result.getLine() == 1 && result.getProductId() != null)
+                .expectNextMatches(result -> result.isImported() && result.getLine() == 2 && result.getProductId() != null)
+                .verifyComplete();
+
+        verify(branchRepository, times(1)).findSummaryById("branch-1");
+        verify(branchRepository, never()).addProduct(any(Branch.class), any());
+    }
+
+    @Test
+    void shouldBatchWriteProductsOfSeparatedBranch() {
+        // Given
+        Branch branch = branch("branch-1", "SEPARATED", FRANCHISE_ID);
+
+        when(franchiseRepository.registerWrite(anyString())).thenReturn(Mono.empty());
+        when(branchRepository.findSummaryById("branch-1")).thenReturn(Mono.just(branch));
+        when(branchRepository.markSeparatedWrite("branch-1")).thenReturn(Mono.empty());
+        when(productRepository.saveAll(anyList())).thenAnswer(invocation -> Flux.fromIterable(invocation.getArgument(0)));
+        when(franchiseStatsRepository.increment(FRANCHISE_ID, 0, 2, 30)).thenReturn(Mono.empty());
+
+        // When & Then
+        StepVerifier.create(importProductsUseCase.execute(FRANCHISE_ID, Flux.just(
+                        row(1, "branch-1", "Producto A", 10),
+                        row(2, "branch-1", "Producto B", 20))))
+                .expectNextCount(2)
+                .verifyComplete();
+
+        verify(productRepository, times(1)).saveAll(anyList());
+        verify(migrateBranchToSeparatedUseCase, never()).launch(anyString());
+    }
+
+    @Test
+    void shouldStartMigrationWhenGroupDoesNotFitEmbedded() {
+        // Given
+        Branch branch = branch("branch-1", "EMBEDDED", FRANCHISE_ID);
+
+        when(franchiseRepository.registerWrite(anyString())).thenReturn(Mono.empty());
+        when(branchRepository.findSummaryById("branch-1")).thenReturn(Mono.just(branch));
+        when(storageStrategyEngine.shouldSeparate(eq(branch), anyList())).thenReturn(true);
+        when(branchRepository.startMigration("branch-1")).thenReturn(Mono.just(true));
+        when(productRepository.saveAll(anyList())).thenAnswer(invocation -> Flux.fromIterable(invocation.getArgument(0)));
+        when(franchiseStatsRepository.increment(FRANCHISE_ID, 0, 1, 10)).thenReturn(Mono.empty());
+
+        // When & Then
+        StepVerifier.create(importProductsUseCase.execute(FRANCHISE_ID, Flux.just(row(1, "branch-1", "Producto A", 10))))
+                .expectNextMatches(ProductImportResult::isImported)
+                .verifyComplete();
+
+        verify(migrateBranchToSeparatedUseCase).launch("branch-1");
+        verify(branchRepository, never()).addProducts(any(Branch.class), anyList());
+    }
+
+    @Test
+    void shouldRereadStrategyWhenMigrationCannotStart() {
+        // Given - Otra escritura pasa la sucursal a SEPARATED entre la lectura y startMigration
+        Branch embedded = branch("branch-1", "EMBEDDED", FRANCHISE_ID);
+        Branch separated = branch("branch-1", "SEPARATED", FRANCHISE_ID);
+
+        when(franchiseRepository.registerWrite(anyString())).thenReturn(Mono.empty());
+        when(branchRepository.findSummaryById("branch-1")).thenReturn(Mono.just(embedded), Mono.just(separated));
+        when(storageStrategyEngine.shouldSeparate(eq(embedded), anyList())).thenReturn(true);
+        when(branchRepository.startMigration("branch-1")).thenReturn(Mono.just(false));
+        when(branchRepository.markSeparatedWrite("branch-1")).thenReturn(Mono.empty());
+        when(productRepository.saveAll(anyList())).thenAnswer(invocation -> Flux.fromIterable(invocation.getArgument(0)));
+        when(franchiseStatsRepository.increment(FRANCHISE_ID, 0, 1, 10)).thenReturn(Mono.empty());
+
+        // When & Then - El grupo se escribe una sola vez, por el camino de SEPARATED
+        StepVerifier.create(importProductsUseCase.execute(FRANCHISE_ID, Flux.just(row(1, "branch-1", "Producto A", 10))))
+                .expectNextMatches(ProductImportResult::isImported)
+                .verifyComplete();
+
+        verify(productRepository, times(1)).saveAll(anyList());
+        verify(migrateBranchToSeparatedUseCase, never()).launch(anyString());
+    }
+
+    @Test
+    void shouldReportInvalidRowsWithoutWriting() {
+        // When & Then
+        StepVerifier.create(importProductsUseCase.execute(FRANCHISE_ID, Flux.just(
+                        ProductImportRow.invalid(1, "La línea no es un objeto JSON válido"),
+                        row(2, "branch-1", "Producto A", -1),
+                        row(3, " ", "Producto B", 3))))
+                .expectNextMatches(result -> !result.isImported() && result.getError().contains("JSON"))
+                .expectNextMatches(result -> !result.isImported() && result.getError().contains("stock"))
+                .expectNextMatches(result -> !result.isImported() && result.getError().contains("sucursal"))
+                .verifyComplete();
+
+        verify(branchRepository, never()).findSummaryById(anyString());
+    }
+
+    @Test
+    void shouldFailOnlyRowsOfBranchFromAnotherFranchise() {
+        // Given - branch-2 existe pero pertenece a otra franquicia
+        when(franchiseRepository.registerWrite(anyString())).thenReturn(Mono.empty());
+        when(branchRepository.findSummaryById("branch-1"))
+                .thenReturn(Mono.just(branch("branch-1", "SEPARATED", FRANCHISE_ID)));
+        when(branchRepository.findSummaryById("branch-2"))
+                .thenReturn(Mono.just(branch("branch-2", "SEPARATED", "franchise-2")));
+        when(branchRepository.markSeparatedWrite("branch-1")).thenReturn(Mono.empty());
+        when(productRepository.saveAll(anyList())).thenAnswer(invocation -> Flux.fromIterable(invocation.getArgument(0)));
+        when(franchiseStatsRepository.increment(FRANCHISE_ID, 0, 1, 10)).thenReturn(Mono.empty());
+
+        // When & Then - El orden entre sucursales no está garantizado: cada resultado lleva su línea
+        StepVerifier.create(importProductsUseCase.execute(FRANCHISE_ID, Flux.just(
+                        row(1, "branch-1", "Producto A", 10),
+                        row(2, "branch-2", "Producto B", 20))))
+                .recordWith(ArrayList::new)
+                .expectNextCount(2)
+                .consumeRecordedWith(results -> {
+                    assertTrue(results.stream().anyMatch(result -> result.getLine() == 1 && result.isImported()));
+                    assertTrue(results.stream().anyMatch(result -> result.getLine() == 2 && !result.isImported()
+                            && result.getError().contains("not found")));
+                })
+                .verifyComplete();
+
+        verify(productRepository, times(1)).saveAll(anyList());
+    }
+
+    @Test
+    void shouldFailOnlyRowsThatWereNotWrittenWhenBatchWriteFailsMidway() {
+        // Given - El primer lote se escribe y el segundo falla: solo la fila del segundo queda fallida
+        Branch branch = branch("branch-1", "SEPARATED", FRANCHISE_ID);
+
+        when(franchiseRepository.registerWrite(anyString())).thenReturn(Mono.empty());
+        when(branchRepository.findSummaryById("branch-1")).thenReturn(Mono.just(branch));
+        when(branchRepository.markSeparatedWrite("branch-1")).thenReturn(Mono.empty());
+        when(productRepository.saveAll(anyList())).thenAnswer(invocation -> {
+            List<Product> products = invocation.getArgument(0);
+            return Flux.concat(Flux.just(products.get(0)),
+                    Flux.error(new RuntimeException("Unprocessed items after 8 retries writing to products")));
+        });
+        // Los contadores suman solo el producto escrito
+        when(franchiseStatsRepository.increment(FRANCHISE_ID, 0, 1, 10)).thenReturn(Mono.empty());
+
+        // When & Then
+        StepVerifier.create(importProductsUseCase.execute(FRANCHISE_ID, Flux.just(
+                        row(1, "branch-1", "Producto A", 10),
+                        row(2, "branch-1", "Producto B", 20))))
+                .expectNextMatches(result -> result.getLine() == 1 && result.isImported() && result.getProductId() != null)
+                .expectNextMatches(result -> result.getLine() == 2 && !result.isImported()
+                        && result.getError().contains("Unprocessed"))
+                .verifyComplete();
+    }
+
+    @Test
+    void shouldNotRecordStatsWhenNothingWasWritten() {
+        // Given
+        Branch branch = branch("branch-1", "SEPARATED", FRANCHISE_ID);
+
+        when(franchiseRepository.registerWrite(anyString())).thenReturn(Mono.empty());
+        when(branchRepository.findSummaryById("branch-1")).thenReturn(Mono.just(branch));
+        when(branchRepository.markSeparatedWrite("branch-1")).thenReturn(Mono.empty());
+        when(productRepository.saveAll(anyList())).thenReturn(Flux.error(new RuntimeException("boom")));
+
+        // When & Then
+        StepVerifier.create(importProductsUseCase.execute(FRANCHISE_ID, Flux.just(row(1, "branch-1", "Producto A", 10))))
+                .expectNextMatches(result -> !result.isImported() && result.getError().equals("boom"))
+                .verifyComplete();
+
+        verify(franchiseStatsRepository, never()).increment(anyString(), anyLong(), anyLong(), anyLong());
+    }
+
+    @Test
+    void shouldFailWhenFranchiseIdIsEmpty() {
+        // When & Then
+        StepVerifier.create(importProductsUseCase.execute(" ", Flux.empty()))
+                .expectError(IllegalArgumentException.class)
+                .verify();
+    }
+
+    private ProductImportRow row(long line, String branchId, String name, Integer stock) {
+        return ProductImportRow.builder()
+                .line(line)
+                .branchId(branchId)
+                .name(name)
+                .stock(stock)
+                .build();
+    }
+
+    private Branch branch(String branchId, String storageStrategy, String franchiseId) {
+        return Branch.builder()
+                .id(branchId)
+                .franchiseId(franchiseId)
+                .name("Test Branch")
+                .storageStrategy(storageStrategy)
+                .build();
+    }
+}
@@ -1,8 +1,12 @@
 package co.com.bancolombia.usecase.product;
 
 import co.com.bancolombia.model.franchise.Product;
+import co.com.bancolombia.model.franchise.ProductChange;
+import co.com.bancolombia.model.franchise.ProductLocation;
 import co.com.bancolombia.model.franchise.gateways.BranchRepository;
+import co.com.bancolombia.model.franchise.gateways.FranchiseStatsRepository;
 import co.com.bancolombia.model.franchise.gateways.ProductRepository;
+import co.com.bancolombia.usecase.franchise.FranchiseStatsRecorder;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -15,6 +19,8 @@ import java.time.LocalDateTime;
 
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
@@ -26,11 +32,15 @@ class UpdateProductStockUseCaseTest {
     @Mock
     private BranchRepository branchRepository;
 
+    @Mock
+    private FranchiseStatsRepository franchiseStatsRepository;
+
     private UpdateProductStockUseCase updateProductStockUseCase;
 
     @BeforeEach
     void setUp() {
-        updateProductStockUseCase = new UpdateProductStockUseCase(productRepository, branchRepository);
+        updateProductStockUseCase = new UpdateProductStockUseCase(productRepository, branchRepository,
+                new FranchiseStatsRecorder(franchiseStatsRepository));
     }
 
     @Test
@@ -53,10 +63,16 @@ class UpdateProductStockUseCaseTest {
                 .stock(newStock)
                 .build();
 
-        when(productRepository.findById(productId))
-                .thenReturn(Mono.just(existingProduct));
-        when(productRepository.save(any(Product.class)))
-                .thenReturn(Mono.just(updatedProduct));
+        when(branchRepository.findProductLocation(productId))
+                .thenReturn(Mono.just(ProductLocation.builder()
+                        .productId(productId)
+                        .branchId("branch-1")
+                        .storageStrategy("SEPARATED")
+                        .build()));
+        when(productRepository.updateStock(productId, newStock))
+                .thenReturn(Mono.just(ProductChange.of(existingProduct, updatedProduct)));
+        when(franchiseStatsRepository.increment("franchise-1", 0, 0, 400))
+                .thenReturn(Mono.empty());
 
         // When & Then
         StepVerifier.create(updateProductStockUseCase.execute(productId, newStock))
@@ -64,15 +80,86 @@ class UpdateProductStockUseCaseTest {
                     product.getStock().equals(newStock) && 
                     product.getId().equals(productId))
                 .verifyComplete();
+        
+        // Al contador de la franquicia se suma la diferencia con el stock anterior que devolvió la escritura
+        verify(franchiseStatsRepository).increment("franchise-1", 0, 0, 400);
+        verify(productRepository, never()).findById(anyString());
+    }
+
+    @Test
+    void shouldUpdateEmbeddedProductStockInPlace() {
+        // Given
+        String productId = "product-1";
+        String branchId = "branch-1";
+        Integer newStock = 500;
+        
+        Product currentProduct = Product.builder()
+                .id(productId)
+                .name("Embedded Product")
+                .stock(520)
+                .branchId(branchId)
+                .franchiseId("franchise-1")
+                .build();
+        Product updatedProduct = currentProduct.updateStock(newStock);
+
+        ProductLocation location = ProductLocation.builder()
+                .productId(productId)
+                .branchId(branchId)
+                .storageStrategy("EMBEDDED")
+                .build();
+
+        when(branchRepository.findProductLocation(productId))
+                .thenReturn(Mono.just(location));
+        when(branchRepository.updateProductStock(location, newStock))
+                .thenReturn(Mono.just(ProductChange.of(currentProduct, updatedProduct)));
+        when(franchiseStatsRepository.increment("franchise-1", 0, 0, -20))
+                .thenReturn(Mono.empty());
+
+        // When & Then
+        StepVerifier.create(updateProductStockUseCase.execute(productId, newStock))
+                .expectNext(updatedProduct)
+                .verifyComplete();
+        
+        verify(branchRepository, never()).findById(anyString());
+        verify(branchRepository, never()).save(any());
+        verify(productRepository, never()).findById(anyString());
+        verify(franchiseStatsRepository).increment("franchise-1", 0, 0, -20);
+    }
+
+    @Test
+    void shouldUpdateStockEvenWhenFranchiseStatsFail() {
+        // Given
+        String productId = "product-1";
+        Product currentProduct = Product.builder()
+                .id(productId)
+                .stock(10)
+                .branchId("branch-1")
+                .franchiseId("franchise-1")
+                .build();
+        Product updatedProduct = currentProduct.updateStock(30);
+
+        when(branchRepository.findProductLocation(productId))
+                .thenReturn(Mono.just(ProductLocation.builder()
+                        .productId(productId)
+                        .branchId("branch-1")
+                        .storageStrategy("SEPARATED")
+                        .build()));
+        when(productRepository.updateStock(productId, 30))
+                .thenReturn(Mono.just(ProductChange.of(currentProduct, updatedProduct)));
+        when(franchiseStatsRepository.increment("franchise-1", 0, 0, 20))
+                .thenReturn(Mono.error(new RuntimeException("stats unavailable")));
+
+        // When & Then - El contador se desvía (y se registra), pero la escritura principal ya se hizo
+        StepVerifier.create(updateProductStockUseCase.execute(productId, 30))
+                .expectNext(updatedProduct)
+                .verifyComplete();
     }
 
     @Test
     void shouldFailWhenProductNotFound() {
         // Given
-        when(productRepository.findById(anyString()))
-                .thenReturn(Mono.error(new RuntimeException("Product not found")));
-        when(branchRepository.findBranchIdByProductId(anyString()))
-                .thenReturn(Mono.error(new RuntimeException("Product not found")));
+        when(branchRepository.findProductLocation(anyString()))
+                .thenReturn(Mono.empty());
 
         // When & Then
         StepVerifier.create(updateProductStockUseCase.execute("nonexistent", 100))
@@ -0,0 +1,76 @@
+package co.com.bancolombia.usecase.topk;
+
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+import reactor.test.StepVerifier;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class TopKTest {
+
+    private record Item(String id, long stock) {
+    }
+
+    private static final Comparator<Item> BY_ID = Comparator.comparing(Item::id);
+
+    @Test
+    void shouldEmitLargestInDescendingOrder() {
+        // Given
+        Flux<Item> items = Flux.just(new Item("a", 5), new Item("b", 1), new Item("c", 9),
+                new Item("d", 7), new Item("e", 3));
+
+        // When & Then
+        StepVerifier.create(items.transform(TopK.largest(3, Item::stock, BY_ID)).map(Item::id))
+                .expectNext("c", "d", "a")
+                .verifyComplete();
+    }
+
+    @Test
+    void shouldBreakTiesWithComparator() {
+        // Given - Misma clave: gana el menor id, sin importar el orden de llegada
+        Flux<Item> items = Flux.just(new Item("z", 10), new Item("m", 10), new Item("x", 10), new Item("a", 10));
+
+        // When & Then
+        StepVerifier.create(items.transform(TopK.largest(2, Item::stock, BY_ID)).map(Item::id))
+                .expectNext("a", "m")
+                .verifyComplete();
+    }
+
+    @Test
+    void shouldEmitAllWhenFewerThanK() {
+        StepVerifier.create(Flux.just(new Item("a", 1), new Item("b", 2))
+                        .transform(TopK.largest(5, Item::stock, BY_ID)).map(Item::id))
+                .expectNext("b", "a")
+                .verifyComplete();
+        StepVerifier.create(Flux.<Item>empty().transform(TopK.largest(3, Item::stock, BY_ID)))
+                .verifyComplete();
+    }
+
+    @Test
+    void shouldMatchFullSortOnRandomInput() {
+        // Given - Claves con muchos empates para ejercitar el desempate en el heap
+        Random random = new Random(42);
+        List<Item> items = IntStream.range(0, 10_000)
+                .mapToObj(i -> new Item("id-" + i, random.nextInt(500)))
+                .toList();
+        Comparator<Item> expectedOrder = Comparator.comparingLong(Item::stock).reversed().thenComparing(BY_ID);
+
+        // When
+        TopK<Item> topK = new TopK<>(25, Item::stock, BY_ID);
+        items.forEach(topK::offer);
+
+        // Then
+        assertEquals(items.stream().sorted(expectedOrder).limit(25).toList(), topK.toList());
+    }
+
+    @Test
+    void shouldRejectNegativeK() {
+        assertThrows(IllegalArgumentException.class, () -> new TopK<Item>(-1, Item::stock, BY_ID));
+    }
+}
@@ -0,0 +1,142 @@
+package co.com.bancolombia.dynamodb;
+
+import co.com.bancolombia.dynamodb.branch.BranchEntity;
+import co.com.bancolombia.dynamodb.codec.BranchCodec;
+import co.com.bancolombia.dynamodb.codec.ProductCodec;
+import co.com.bancolombia.model.franchise.Branch;
+import co.com.bancolombia.model.franchise.Product;
+import co.com.bancolombia.dynamodb.product.ProductEntity;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import software.amazon.awssdk.auth.credentials.AnonymousCredentialsProvider;
+import software.amazon.awssdk.enhanced.dynamodb.DynamoDbAsyncTable;
+import software.amazon.awssdk.enhanced.dynamodb.DynamoDbEnhancedAsyncClient;
+import software.amazon.awssdk.enhanced.dynamodb.TableSchema;
+import software.amazon.awssdk.regions.Region;
+import software.amazon.awssdk.services.dynamodb.DynamoDbAsyncClient;
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+// Compara el camino anterior (TableSchema.fromBean + dynamoClient.table en cada request) con el
+// esquema estático y la tabla cacheada, y ambos con los codecs que usan hoy los adaptadores.
+// No hace llamadas de red: solo mide el mapeo. Con el profiler gc se reportan bytes por operación.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class TableSchemaBenchmark {
+
+    private static final String BRANCHES = "business-sucursales-bench";
+    private static final String PRODUCTS = "business-productos-bench";
+
+    private DynamoDbAsyncClient basicClient;
+    private DynamoDbEnhancedAsyncClient enhancedClient;
+    private DynamoDbAsyncTable<BranchEntity> cachedBranchTable;
+    private DynamoDbAsyncTable<ProductEntity> cachedProductTable;
+    private BranchEntity branch;
+    private ProductEntity product;
+    private Map<String, AttributeValue> branchItem;
+    private Map<String, AttributeValue> productItem;
+
+    @Setup
+    public void setUp() {
+        basicClient = DynamoDbAsyncClient.builder()
+                .region(Region.US_EAST_1)
+                .credentialsProvider(AnonymousCredentialsProvider.create())
+                .build();
+        enhancedClient = DynamoDbEnhancedAsyncClient.builder().dynamoDbClient(basicClient).build();
+        cachedBranchTable = enhancedClient.table(BRANCHES, BranchEntity.TABLE_SCHEMA);
+        cachedProductTable = enhancedClient.table(PRODUCTS, ProductEntity.TABLE_SCHEMA);
+
+        LocalDateTime now = LocalDateTime.now();
+        Map<String, BranchEntity.EmbeddedProduct> products = new LinkedHashMap<>();
+        for (int i = 0; i < 50; i++) {
+            products.put("product-" + i, BranchEntity.EmbeddedProduct.builder()
+                    .id("product-" + i)
+                    .name("Producto " + i)
+                    .stock(i)
+                    .createdAt(now)
+                    .updatedAt(now)
+                    .build());
+        }
+        branch = BranchEntity.builder()
+                .id("branch-1")
+                .franchiseId("franchise-1")
+                .name("Sucursal Centro")
+                .storageStrategy("EMBEDDED")
+                .products(products)
+                .createdAt(now)
+                .updatedAt(now)
+                .build();
+        product = ProductEntity.builder()
+                .id("product-1")
+                .franchiseId("franchise-1")
+                .branchId("branch-1")
+                .name("Producto 1")
+                .stock(10)
+                .GSI1PK("branch-1")
+                .GSI2PK("franchise-1")
+                .createdAt(now)
+                .updatedAt(now)
+                .build();
+        branchItem = BranchEntity.TABLE_SCHEMA.itemToMap(branch, true);
+        productItem = ProductEntity.TABLE_SCHEMA.itemToMap(product, true);
+    }
+
+    @TearDown
+    public void tearDown() {
+        basicClient.close();
+    }
+
+    @Benchmark
+    public Map<String, AttributeValue> branchWriteBeanPerRequest() {
+        return enhancedClient.table(BRANCHES, TableSchema.fromBean(BranchEntity.class))
+                .tableSchema().itemToMap(branch, true);
+    }
+
+    @Benchmark
+    public Map<String, AttributeValue> branchWriteStaticCached() {
+        return cachedBranchTable.tableSchema().itemToMap(branch, true);
+    }
+
+    @Benchmark
+    public BranchEntity branchReadBeanPerRequest() {
+        return enhancedClient.table(BRANCHES, TableSchema.fromBean(BranchEntity.class))
+                .tableSchema().mapToItem(branchItem);
+    }
+
+    @Benchmark
+    public BranchEntity branchReadStaticCached() {
+        return cachedBranchTable.tableSchema().mapToItem(branchItem);
+    }
+
+    @Benchmark
+    public Branch branchReadCodec() {
+        return BranchCodec.fromItem(branchItem);
+    }
+
+    @Benchmark
+    public ProductEntity productReadBeanPerRequest() {
+        return enhancedClient.table(PRODUCTS, TableSchema.fromBean(ProductEntity.class))
+                .tableSchema().mapToItem(productItem);
+    }
+
+    @Benchmark
+    public ProductEntity productReadStaticCached() {
+        return cachedProductTable.tableSchema().mapToItem(productItem);
+    }
+
+    @Benchmark
+    public Product productReadCodec() {
+        return ProductCodec.fromItem(productItem);
+    }
+}
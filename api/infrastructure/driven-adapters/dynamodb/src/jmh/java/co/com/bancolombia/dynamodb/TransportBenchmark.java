@@ -0,0 +1,118 @@
+package co.com.bancolombia.dynamodb;
+
+import co.com.bancolombia.dynamodb.codec.FranchiseCodec;
+import co.com.bancolombia.dynamodb.config.DynamoDBProperties;
+import co.com.bancolombia.dynamodb.config.DynamoDBTransport;
+import com.sun.net.httpserver.HttpServer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import software.amazon.awssdk.auth.credentials.AwsBasicCredentials;
+import software.amazon.awssdk.auth.credentials.StaticCredentialsProvider;
+import software.amazon.awssdk.regions.Region;
+import software.amazon.awssdk.services.dynamodb.DynamoDbAsyncClient;
+import software.amazon.awssdk.services.dynamodb.model.GetItemRequest;
+import software.amazon.awssdk.services.dynamodb.model.GetItemResponse;
+
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+// Dimensionamiento del pool HTTP: lanza inFlight GetItem concurrentes contra un endpoint local que
+// imita a DynamoDB (respuesta fija tras latencyMillis) y mide cuánto tarda el lote completo.
+// Con inFlight > maxConcurrency las solicitudes esperan en la cola de adquisición de conexiones.
+// Ajustar inFlight/latencyMillis al tráfico real (requests concurrentes por instancia y p50 de DynamoDB)
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class TransportBenchmark {
+
+    private static final byte[] GET_ITEM_RESPONSE = ("{\"Item\":{"
+            + "\"PK\":{\"S\":\"FRANCHISE#franchise-1\"},\"SK\":{\"S\":\"METADATA\"},"
+            + "\"id\":{\"S\":\"franchise-1\"},\"name\":{\"S\":\"Franquicia Bench\"},"
+            + "\"createdAt\":{\"S\":\"2024-01-01T00:00:00\"},\"updatedAt\":{\"S\":\"2024-01-01T00:00:00\"}}}")
+            .getBytes(StandardCharsets.UTF_8);
+
+    @Param({"NETTY", "CRT"})
+    private String transportType;
+
+    @Param({"50", "200"})
+    private int maxConcurrency;
+
+    @Param({"256"})
+    private int inFlight;
+
+    @Param({"2"})
+    private int latencyMillis;
+
+    @Param({"true"})
+    private boolean nativeTransport;
+
+    private HttpServer server;
+    private DynamoDBTransport transport;
+    private DynamoDbAsyncClient client;
+    private GetItemRequest request;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 1024);
+        server.setExecutor(Executors.newVirtualThreadPerTaskExecutor());
+        server.createContext("/", exchange -> {
+            try (exchange; OutputStream body = exchange.getResponseBody()) {
+                exchange.getRequestBody().readAllBytes();
+                Thread.sleep(latencyMillis);
+                exchange.getResponseHeaders().add("Content-Type", "application/x-amz-json-1.0");
+                exchange.sendResponseHeaders(200, GET_ITEM_RESPONSE.length);
+                body.write(GET_ITEM_RESPONSE);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        server.start();
+
+        DynamoDBProperties properties = new DynamoDBProperties();
+        properties.getTransport().setType(DynamoDBProperties.Transport.Type.valueOf(transportType));
+        properties.getTransport().setMaxConcurrency(maxConcurrency);
+        properties.getTransport().setNativeTransport(nativeTransport);
+        transport = new DynamoDBTransport(properties);
+
+        client = DynamoDbAsyncClient.builder()
+                .region(Region.US_EAST_1)
+                .endpointOverride(URI.create("http://127.0.0.1:" + server.getAddress().getPort()))
+                .credentialsProvider(StaticCredentialsProvider.create(AwsBasicCredentials.create("bench", "bench")))
+                .httpClientBuilder(transport.httpClientBuilder())
+                .build();
+        request = GetItemRequest.builder()
+                .tableName("business-franquicias-bench")
+                .key(FranchiseCodec.key("franchise-1"))
+                .build();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        client.close();
+        transport.destroy();
+        server.stop(0);
+    }
+
+    @Benchmark
+    public int concurrentGetItem() {
+        CompletableFuture<?>[] calls = new CompletableFuture<?>[inFlight];
+        for (int i = 0; i < inFlight; i++) {
+            calls[i] = client.getItem(request);
+        }
+        CompletableFuture.allOf(calls).join();
+        return ((GetItemResponse) calls[inFlight - 1].join()).item().size();
+    }
+}
@@ -0,0 +1,164 @@
+package co.com.bancolombia.dynamodb.branch;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import software.amazon.awssdk.enhanced.dynamodb.EnhancedType;
+import software.amazon.awssdk.enhanced.dynamodb.TableSchema;
+import software.amazon.awssdk.enhanced.dynamodb.mapper.StaticAttributeTags;
+import software.amazon.awssdk.enhanced.dynamodb.mapper.StaticTableSchema;
+import software.amazon.awssdk.enhanced.dynamodb.mapper.annotations.DynamoDbBean;
+import software.amazon.awssdk.enhanced.dynamodb.mapper.annotations.DynamoDbConvertedBy;
+import software.amazon.awssdk.enhanced.dynamodb.mapper.annotations.DynamoDbPartitionKey;
+import software.amazon.awssdk.enhanced.dynamodb.mapper.annotations.DynamoDbSecondaryPartitionKey;
+import software.amazon.awssdk.enhanced.dynamodb.mapper.annotations.DynamoDbSecondarySortKey;
+import software.amazon.awssdk.enhanced.dynamodb.mapper.annotations.DynamoDbSortKey;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+
+// Mapeo del cliente enhanced anterior a los codecs: solo lo usa TableSchemaBenchmark como referencia
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Setter
+@DynamoDbBean
+public class BranchEntity {
+    
+    // Esquema declarado sin introspección: mismos atributos que produce TableSchema.fromBean(BranchEntity.class)
+    public static final TableSchema<BranchEntity> TABLE_SCHEMA = StaticTableSchema.builder(BranchEntity.class)
+            .newItemSupplier(BranchEntity::new)
+            .addAttribute(String.class, a -> a.name("PK")
+                    .getter(BranchEntity::getPK)
+                    .setter(BranchEntity::setPK)
+                    .tags(StaticAttributeTags.primaryPartitionKey()))
+            .addAttribute(String.class, a -> a.name("SK")
+                    .getter(BranchEntity::getSK)
+                    .setter(BranchEntity::setSK)
+                    .tags(StaticAttributeTags.primarySortKey()))
+            .addAttribute(String.class, a -> a.name("GSI1PK")
+                    .getter(BranchEntity::getGSI1PK)
+                    .setter(BranchEntity::setGSI1PK)
+                    .tags(StaticAttributeTags.secondaryPartitionKey("GSI1")))
+            .addAttribute(String.class, a -> a.name("GSI1SK")
+                    .getter(BranchEntity::getGSI1SK)
+                    .setter(BranchEntity::setGSI1SK)
+                    .tags(StaticAttributeTags.secondarySortKey("GSI1")))
+            .addAttribute(String.class, a -> a.name("id")
+                    .getter(BranchEntity::getId)
+                    .setter(BranchEntity::setId))
+            .addAttribute(String.class, a -> a.name("franchiseId")
+                    .getter(BranchEntity::getFranchiseId)
+                    .setter(BranchEntity::setFranchiseId))
+            .addAttribute(String.class, a -> a.name("name")
+                    .getter(BranchEntity::getName)
+                    .setter(BranchEntity::setName))
+            .addAttribute(LocalDateTime.class, a -> a.name("createdAt")
+                    .getter(BranchEntity::getCreatedAt)
+                    .setter(BranchEntity::setCreatedAt))
+            .addAttribute(LocalDateTime.class, a -> a.name("updatedAt")
+                    .getter(BranchEntity::getUpdatedAt)
+                    .setter(BranchEntity::setUpdatedAt))
+            .addAttribute(String.class, a -> a.name("storageStrategy")
+                    .getter(BranchEntity::getStorageStrategy)
+                    .setter(BranchEntity::setStorageStrategy))
+            .addAttribute(EnhancedType.mapOf(String.class, EmbeddedProduct.class), a -> a.name("products")
+                    .getter(BranchEntity::getProducts)
+                    .setter(BranchEntity::setProducts)
+                    .attributeConverter(new EmbeddedProductsConverter()))
+            .build();
+    
+    private String id;
+    private String franchiseId;
+    private String name;
+    private LocalDateTime createdAt;
+    private LocalDateTime updatedAt;
+    private String storageStrategy; // EMBEDDED | MIGRATING | SEPARATED
+    private Map<String, EmbeddedProduct> products; // Solo si EMBEDDED o MIGRATING, indexado por id de producto
+    
+    @DynamoDbPartitionKey
+    public String getPK() {
+        return "BRANCH#" + id;
+    }
+    
+    public void setPK(String pk) {
+        if (pk != null && pk.startsWith("BRANCH#")) {
+            this.id = pk.substring(7);
+        }
+    }
+    
+    @DynamoDbSortKey
+    public String getSK() {
+        return "METADATA";
+    }
+    
+    public void setSK(String sk) {
+    }
+    
+    @DynamoDbSecondaryPartitionKey(indexNames = "GSI1")
+    public String getGSI1PK() {
+        return franchiseId; // Para búsqueda por franchiseId
+    }
+    
+    public void setGSI1PK(String gsi1pk) {
+        // Derivado de franchiseId
+    }
+    
+    @DynamoDbSecondarySortKey(indexNames = "GSI1")
+    public String getGSI1SK() {
+        return id;
+    }
+    
+    public void setGSI1SK(String gsi1sk) {
+        // Derivado de id
+    }
+    
+    public String getId() {
+        return id;
+    }
+    
+    public String getFranchiseId() {
+        return franchiseId;
+    }
+    
+    public String getName() {
+        return name;
+    }
+    
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+    
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+    
+    public String getStorageStrategy() {
+        return storageStrategy;
+    }
+    
+    @DynamoDbConvertedBy(EmbeddedProductsConverter.class)
+    public Map<String, EmbeddedProduct> getProducts() {
+        return products;
+    }
+    
+    @DynamoDbBean
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Setter
+    public static class EmbeddedProduct {
+        private String id;
+        private String name;
+        private Integer stock;
+        private LocalDateTime createdAt;
+        private LocalDateTime updatedAt;
+        
+        public String getId() { return id; }
+        public String getName() { return name; }
+        public Integer getStock() { return stock; }
+        public LocalDateTime getCreatedAt() { return createdAt; }
+        public LocalDateTime getUpdatedAt() { return updatedAt; }
+    }
+}
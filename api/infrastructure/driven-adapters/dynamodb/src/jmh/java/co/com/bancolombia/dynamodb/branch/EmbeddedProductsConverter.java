@@ -0,0 +1,76 @@
+package co.com.bancolombia.dynamodb.branch;
+
+import software.amazon.awssdk.enhanced.dynamodb.AttributeConverter;
+import software.amazon.awssdk.enhanced.dynamodb.AttributeValueType;
+import software.amazon.awssdk.enhanced.dynamodb.EnhancedType;
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+// Los productos embebidos se guardan como mapa productId -> producto para poder direccionar
+// products.#pid en un UpdateItem. Las sucursales escritas con el formato anterior (lista) se
+// siguen leyendo y pasan a mapa en la siguiente escritura completa.
+public class EmbeddedProductsConverter implements AttributeConverter<Map<String, BranchEntity.EmbeddedProduct>> {
+
+    public static final String ID = "id";
+    public static final String NAME = "name";
+    public static final String STOCK = "stock";
+    public static final String CREATED_AT = "createdAt";
+    public static final String UPDATED_AT = "updatedAt";
+
+    @Override
+    public AttributeValue transformFrom(Map<String, BranchEntity.EmbeddedProduct> products) {
+        Map<String, AttributeValue> values = new LinkedHashMap<>();
+        products.forEach((productId, product) -> values.put(productId, toAttributeValue(product)));
+        return AttributeValue.builder().m(values).build();
+    }
+
+    @Override
+    public Map<String, BranchEntity.EmbeddedProduct> transformTo(AttributeValue value) {
+        Map<String, BranchEntity.EmbeddedProduct> products = new LinkedHashMap<>();
+        if (value.hasM()) {
+            value.m().forEach((productId, product) -> products.put(productId, fromAttributeValue(product)));
+        } else if (value.hasL()) {
+            List<AttributeValue> legacy = value.l();
+            legacy.forEach(product -> {
+                BranchEntity.EmbeddedProduct embedded = fromAttributeValue(product);
+                products.put(embedded.getId(), embedded);
+            });
+        }
+        return products;
+    }
+
+    @Override
+    public EnhancedType<Map<String, BranchEntity.EmbeddedProduct>> type() {
+        return EnhancedType.mapOf(String.class, BranchEntity.EmbeddedProduct.class);
+    }
+
+    @Override
+    public AttributeValueType attributeValueType() {
+        return AttributeValueType.M;
+    }
+
+    public static AttributeValue toAttributeValue(BranchEntity.EmbeddedProduct product) {
+        return AttributeValue.builder().m(Map.of(
+            ID, AttributeValue.builder().s(product.getId()).build(),
+            NAME, AttributeValue.builder().s(product.getName()).build(),
+            STOCK, AttributeValue.builder().n(product.getStock().toString()).build(),
+            CREATED_AT, AttributeValue.builder().s(product.getCreatedAt().toString()).build(),
+            UPDATED_AT, AttributeValue.builder().s(product.getUpdatedAt().toString()).build()
+        )).build();
+    }
+
+    public static BranchEntity.EmbeddedProduct fromAttributeValue(AttributeValue value) {
+        Map<String, AttributeValue> product = value.m();
+        return BranchEntity.EmbeddedProduct.builder()
+                .id(product.get(ID).s())
+                .name(product.get(NAME).s())
+                .stock(Integer.parseInt(product.get(STOCK).n()))
+                .createdAt(LocalDateTime.parse(product.get(CREATED_AT).s()))
+                .updatedAt(LocalDateTime.parse(product.get(UPDATED_AT).s()))
+                .build();
+    }
+}
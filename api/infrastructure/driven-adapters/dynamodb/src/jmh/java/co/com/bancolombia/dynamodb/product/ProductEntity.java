@@ -0,0 +1,137 @@
+package co.com.bancolombia.dynamodb.product;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import software.amazon.awssdk.enhanced.dynamodb.TableSchema;
+import software.amazon.awssdk.enhanced.dynamodb.mapper.StaticAttributeTags;
+import software.amazon.awssdk.enhanced.dynamodb.mapper.StaticTableSchema;
+import software.amazon.awssdk.enhanced.dynamodb.mapper.annotations.DynamoDbBean;
+import software.amazon.awssdk.enhanced.dynamodb.mapper.annotations.DynamoDbPartitionKey;
+import software.amazon.awssdk.enhanced.dynamodb.mapper.annotations.DynamoDbSortKey;
+import software.amazon.awssdk.enhanced.dynamodb.mapper.annotations.DynamoDbSecondaryPartitionKey;
+import software.amazon.awssdk.enhanced.dynamodb.mapper.annotations.DynamoDbSecondarySortKey;
+
+import java.time.LocalDateTime;
+
+// Mapeo del cliente enhanced anterior a los codecs: solo lo usa TableSchemaBenchmark como referencia
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Setter
+@DynamoDbBean
+public class ProductEntity {
+    
+    // Esquema declarado sin introspección: mismos atributos que produce TableSchema.fromBean(ProductEntity.class)
+    public static final TableSchema<ProductEntity> TABLE_SCHEMA = StaticTableSchema.builder(ProductEntity.class)
+            .newItemSupplier(ProductEntity::new)
+            .addAttribute(String.class, a -> a.name("PK")
+                    .getter(ProductEntity::getPK)
+                    .setter(ProductEntity::setPK)
+                    .tags(StaticAttributeTags.primaryPartitionKey()))
+            .addAttribute(String.class, a -> a.name("SK")
+                    .getter(ProductEntity::getSK)
+                    .setter(ProductEntity::setSK)
+                    .tags(StaticAttributeTags.primarySortKey()))
+            .addAttribute(String.class, a -> a.name("GSI1PK")
+                    .getter(ProductEntity::getGSI1PK)
+                    .setter(ProductEntity::setGSI1PK)
+                    .tags(StaticAttributeTags.secondaryPartitionKey("GSI1")))
+            .addAttribute(String.class, a -> a.name("GSI2PK")
+                    .getter(ProductEntity::getGSI2PK)
+                    .setter(ProductEntity::setGSI2PK)
+                    .tags(StaticAttributeTags.secondaryPartitionKey("GSI2")))
+            .addAttribute(String.class, a -> a.name("id")
+                    .getter(ProductEntity::getId)
+                    .setter(ProductEntity::setId))
+            .addAttribute(String.class, a -> a.name("franchiseId")
+                    .getter(ProductEntity::getFranchiseId)
+                    .setter(ProductEntity::setFranchiseId))
+            .addAttribute(String.class, a -> a.name("branchId")
+                    .getter(ProductEntity::getBranchId)
+                    .setter(ProductEntity::setBranchId))
+            .addAttribute(String.class, a -> a.name("name")
+                    .getter(ProductEntity::getName)
+                    .setter(ProductEntity::setName))
+            .addAttribute(Integer.class, a -> a.name("stock")
+                    .getter(ProductEntity::getStock)
+                    .setter(ProductEntity::setStock)
+                    .tags(StaticAttributeTags.secondarySortKey("GSI1"), StaticAttributeTags.secondarySortKey("GSI2")))
+            .addAttribute(LocalDateTime.class, a -> a.name("createdAt")
+                    .getter(ProductEntity::getCreatedAt)
+                    .setter(ProductEntity::setCreatedAt))
+            .addAttribute(LocalDateTime.class, a -> a.name("updatedAt")
+                    .getter(ProductEntity::getUpdatedAt)
+                    .setter(ProductEntity::setUpdatedAt))
+            .build();
+    
+    private String id;
+    private String franchiseId;
+    private String branchId;
+    private String name;
+    private Integer stock;
+    private LocalDateTime createdAt;
+    private LocalDateTime updatedAt;
+    private String GSI1PK; // Para búsqueda por branchId
+    private String GSI2PK; // Para búsqueda por franchiseId
+    
+    @DynamoDbPartitionKey
+    public String getPK() {
+        return "PRODUCT#" + id;
+    }
+    
+    public void setPK(String pk) {
+        if (pk != null && pk.startsWith("PRODUCT#")) {
+            this.id = pk.substring(8);
+        }
+    }
+    
+    @DynamoDbSortKey
+    public String getSK() {
+        return "METADATA";
+    }
+    
+    public void setSK(String sk) {
+        // SK fijo
+    }
+    
+    public String getId() {
+        return id;
+    }
+    
+    @DynamoDbSecondaryPartitionKey(indexNames = "GSI1")
+    public String getGSI1PK() {
+        return GSI1PK;
+    }
+    
+    @DynamoDbSecondaryPartitionKey(indexNames = "GSI2")
+    public String getGSI2PK() {
+        return GSI2PK;
+    }
+    
+    public String getFranchiseId() {
+        return franchiseId;
+    }
+    
+    public String getBranchId() {
+        return branchId;
+    }
+    
+    public String getName() {
+        return name;
+    }
+    
+    @DynamoDbSecondarySortKey(indexNames = {"GSI1", "GSI2"}) // Orden por stock en ambos índices
+    public Integer getStock() {
+        return stock;
+    }
+    
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+    
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+}
@@ -0,0 +1,65 @@
+package co.com.bancolombia.dynamodb.batch;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import software.amazon.awssdk.services.dynamodb.DynamoDbAsyncClient;
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+import software.amazon.awssdk.services.dynamodb.model.BatchGetItemRequest;
+import software.amazon.awssdk.services.dynamodb.model.KeysAndAttributes;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+@Component
+@RequiredArgsConstructor
+public class DynamoBatchReader {
+
+    public static final int MAX_BATCH_SIZE = 100;
+    private static final int CONCURRENCY = 8;
+    private static final int MAX_RETRIES = 8;
+    private static final Duration BASE_BACKOFF = Duration.ofMillis(25);
+
+    private final DynamoDbAsyncClient dynamoDbAsyncClient;
+
+    public Flux<Map<String, AttributeValue>> read(String tableName, List<Map<String, AttributeValue>> keys) {
+        return read(tableName, keys, null);
+    }
+
+    // Las claves deben venir sin duplicados: BatchGetItem rechaza la petición completa si los hay
+    public Flux<Map<String, AttributeValue>> read(String tableName, List<Map<String, AttributeValue>> keys,
+                                                  String projectionExpression) {
+        if (keys == null || keys.isEmpty()) {
+            return Flux.empty();
+        }
+        return Flux.fromIterable(DynamoBatchWriter.partition(keys, MAX_BATCH_SIZE))
+                .flatMap(chunk -> readChunk(tableName, chunk, projectionExpression, 0), CONCURRENCY);
+    }
+
+    // Las UnprocessedKeys se reintentan con backoff exponencial hasta MAX_RETRIES
+    private Flux<Map<String, AttributeValue>> readChunk(String tableName, List<Map<String, AttributeValue>> keys,
+                                                       String projectionExpression, int attempt) {
+        return Mono.fromFuture(() -> dynamoDbAsyncClient.batchGetItem(BatchGetItemRequest.builder()
+                        .requestItems(Map.of(tableName, KeysAndAttributes.builder()
+                                .keys(keys)
+                                .projectionExpression(projectionExpression)
+                                .build()))
+                        .build()))
+                .flatMapMany(response -> {
+                    Flux<Map<String, AttributeValue>> items =
+                            Flux.fromIterable(response.responses().getOrDefault(tableName, List.of()));
+                    KeysAndAttributes unprocessed = response.unprocessedKeys().get(tableName);
+                    if (unprocessed == null || unprocessed.keys().isEmpty()) {
+                        return items;
+                    }
+                    if (attempt >= MAX_RETRIES) {
+                        return Flux.concat(items, Mono.error(new RuntimeException("Unprocessed keys after "
+                                + MAX_RETRIES + " retries reading from " + tableName)));
+                    }
+                    return Flux.concat(items, Mono.delay(BASE_BACKOFF.multipliedBy(1L << attempt))
+                            .thenMany(readChunk(tableName, unprocessed.keys(), projectionExpression, attempt + 1)));
+                });
+    }
+}
@@ -0,0 +1,101 @@
+package co.com.bancolombia.dynamodb.batch;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import software.amazon.awssdk.services.dynamodb.DynamoDbAsyncClient;
+import software.amazon.awssdk.services.dynamodb.model.BatchWriteItemRequest;
+import software.amazon.awssdk.services.dynamodb.model.WriteRequest;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+
+@Component
+@RequiredArgsConstructor
+public class DynamoBatchWriter {
+
+    public static final int MAX_BATCH_SIZE = 25;
+    private static final int CONCURRENCY = 4;
+    private static final int MAX_RETRIES = 8;
+    private static final Duration BASE_BACKOFF = Duration.ofMillis(25);
+
+    private final DynamoDbAsyncClient dynamoDbAsyncClient;
+
+    public Mono<Void> write(String tableName, List<WriteRequest> requests) {
+        if (requests == null || requests.isEmpty()) {
+            return Mono.empty();
+        }
+        return Flux.fromIterable(partition(requests, MAX_BATCH_SIZE))
+                .flatMap(chunk -> writeChunk(Map.of(tableName, chunk), 0).flatMap(DynamoBatchWriter::failIfUnprocessed), CONCURRENCY)
+                .then();
+    }
+
+    // Resultado por elemento: emite cada uno cuando su lote lo confirma. Un lote que falla (o que agota los
+    // reintentos con UnprocessedItems) no detiene a los demás; su error llega al final, después de todo lo escrito
+    public <T> Flux<T> writeItems(String tableName, List<T> items, Function<T, WriteRequest> toRequest) {
+        if (items == null || items.isEmpty()) {
+            return Flux.empty();
+        }
+        return Flux.fromIterable(partition(items, MAX_BATCH_SIZE))
+                .flatMapDelayError(chunk -> {
+                    List<WriteRequest> requests = chunk.stream().map(toRequest).toList();
+                    return writeChunk(Map.of(tableName, requests), 0)
+                            .flatMapMany(unprocessed -> {
+                                Set<WriteRequest> pending = new HashSet<>(unprocessed.getOrDefault(tableName, List.of()));
+                                Flux<T> written = Flux.range(0, chunk.size())
+                                        .filter(index -> !pending.contains(requests.get(index)))
+                                        .map(chunk::get);
+                                return unprocessed.isEmpty()
+                                        ? written
+                                        : written.concatWith(failIfUnprocessed(unprocessed));
+                            });
+                }, CONCURRENCY, 1);
+    }
+
+    // Un lote ya armado por quien llama (hasta MAX_BATCH_SIZE escrituras, que pueden ser de varias tablas): la
+    // concurrencia y el ritmo entre lotes los decide él
+    public Mono<Void> writeBatch(Map<String, List<WriteRequest>> requestItems) {
+        if (requestItems.isEmpty()) {
+            return Mono.empty();
+        }
+        return writeChunk(requestItems, 0).flatMap(DynamoBatchWriter::failIfUnprocessed);
+    }
+
+    // Los UnprocessedItems se reintentan con backoff exponencial hasta MAX_RETRIES; devuelve los que quedaron
+    // sin escribir (vacío si se escribió todo)
+    private Mono<Map<String, List<WriteRequest>>> writeChunk(Map<String, List<WriteRequest>> requestItems, int attempt) {
+        return Mono.fromFuture(() -> dynamoDbAsyncClient.batchWriteItem(BatchWriteItemRequest.builder()
+                        .requestItems(requestItems)
+                        .build()))
+                .flatMap(response -> {
+                    Map<String, List<WriteRequest>> unprocessed = response.unprocessedItems();
+                    if (unprocessed.isEmpty() || attempt >= MAX_RETRIES) {
+                        return Mono.just(unprocessed);
+                    }
+                    return Mono.delay(BASE_BACKOFF.multipliedBy(1L << attempt))
+                            .then(writeChunk(unprocessed, attempt + 1));
+                });
+    }
+
+    private static <T> Mono<T> failIfUnprocessed(Map<String, List<WriteRequest>> unprocessed) {
+        if (unprocessed.isEmpty()) {
+            return Mono.empty();
+        }
+        return Mono.error(new RuntimeException("Unprocessed items after " + MAX_RETRIES
+                + " retries writing to " + String.join(", ", unprocessed.keySet())));
+    }
+
+    public static <T> List<List<T>> partition(List<T> items, int size) {
+        List<List<T>> chunks = new ArrayList<>((items.size() + size - 1) / size);
+        for (int start = 0; start < items.size(); start += size) {
+            chunks.add(items.subList(start, Math.min(start + size, items.size())));
+        }
+        return chunks;
+    }
+}
@@ -1,207 +1,1336 @@
 package co.com.bancolombia.dynamodb.branch;
 
+import co.com.bancolombia.dynamodb.batch.DynamoBatchReader;
+import co.com.bancolombia.dynamodb.codec.AttributeCodec;
+import co.com.bancolombia.dynamodb.codec.BranchCodec;
+import co.com.bancolombia.dynamodb.codec.ItemSizeEstimator;
+import co.com.bancolombia.dynamodb.codec.ProductCodec;
 import co.com.bancolombia.dynamodb.config.DynamoDBProperties;
+import co.com.bancolombia.dynamodb.product.ProductLocator;
 import co.com.bancolombia.model.franchise.Branch;
 import co.com.bancolombia.model.franchise.Product;
+import co.com.bancolombia.model.franchise.ProductChange;
+import co.com.bancolombia.model.franchise.ProductLocation;
+import co.com.bancolombia.model.franchise.StorageStrategyChangingException;
 import co.com.bancolombia.model.franchise.gateways.BranchRepository;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Repository;
+import reactor.core.Exceptions;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
-import software.amazon.awssdk.enhanced.dynamodb.DynamoDbAsyncTable;
-import software.amazon.awssdk.enhanced.dynamodb.DynamoDbEnhancedAsyncClient;
-import software.amazon.awssdk.enhanced.dynamodb.TableSchema;
-import software.amazon.awssdk.services.dynamodb.DynamoDbAsyncClient;
+import reactor.util.retry.Retry;
 import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+import software.amazon.awssdk.services.dynamodb.model.ConditionalCheckFailedException;
+import software.amazon.awssdk.services.dynamodb.model.Delete;
+import software.amazon.awssdk.services.dynamodb.model.DeleteItemRequest;
+import software.amazon.awssdk.services.dynamodb.model.DeleteItemResponse;
 import software.amazon.awssdk.services.dynamodb.model.GetItemRequest;
-import software.amazon.awssdk.services.dynamodb.model.ScanRequest;
+import software.amazon.awssdk.services.dynamodb.model.GetItemResponse;
+import software.amazon.awssdk.services.dynamodb.model.Put;
+import software.amazon.awssdk.services.dynamodb.model.PutItemRequest;
+import software.amazon.awssdk.services.dynamodb.model.QueryRequest;
+import software.amazon.awssdk.services.dynamodb.model.ReturnValue;
+import software.amazon.awssdk.services.dynamodb.model.TransactWriteItem;
+import software.amazon.awssdk.services.dynamodb.model.TransactWriteItemsRequest;
+import software.amazon.awssdk.services.dynamodb.model.TransactionCanceledException;
+import software.amazon.awssdk.services.dynamodb.model.Update;
 import software.amazon.awssdk.services.dynamodb.model.UpdateItemRequest;
 
+import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
-import java.util.stream.Collectors;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+import java.util.function.UnaryOperator;
 
 @Repository
 @RequiredArgsConstructor
 public class BranchRepositoryAdapter implements BranchRepository {
     
-    private static final int EMBEDDED_PRODUCT_LIMIT = 100;
     private static final String EMBEDDED_STRATEGY = "EMBEDDED";
     private static final String SEPARATED_STRATEGY = "SEPARATED";
-    private static final String BRANCH_PREFIX = "BRANCH#";
-    private static final String METADATA_SK = "METADATA";
-    private static final String PRODUCTS = "products";
+    private static final String MIGRATING_STRATEGY = "MIGRATING";
+    private static final String EMBEDDING_STRATEGY = "EMBEDDING";
+    private static final String BUCKETED_STRATEGY = BranchCodec.BUCKETED_STRATEGY;
+    private static final String STORAGE_STRATEGY = BranchCodec.STORAGE_STRATEGY;
+    private static final int MAX_MIGRATION_CHUNK = 49; // 2 acciones por producto + 1 sobre la sucursal <= 100 por transacción
+    private static final int MAX_PACKED_RETRIES = 5;
+    private static final int BUCKETED_IMPORT_CONCURRENCY = 8;
+    private static final String PRODUCTS = BranchCodec.PRODUCTS;
+    private static final String WRITE_PROJECTION = "franchiseId, products, storageStrategy, productCount, topStockProduct";
+    private static final String BUCKET_SUMMARY_PROJECTION = "SK, productCount, totalStock, topStockProduct";
+    private static final String CONDITIONAL_CHECK_FAILED = "ConditionalCheckFailed";
+    private static final String PRODUCT_NOT_FOUND = "Product not found";
+    private static final String BRANCH_NOT_FOUND = "Branch not found";
+    private static final AttributeValue ZERO = AttributeCodec.n(0);
+    private static final AttributeValue ONE = AttributeCodec.n(1);
+    private static final AttributeValue MAP_TYPE = AttributeCodec.s("M");
+    private static final AttributeValue EMBEDDED_VALUE = AttributeCodec.s(EMBEDDED_STRATEGY);
+    private static final AttributeValue MIGRATING_VALUE = AttributeCodec.s(MIGRATING_STRATEGY);
+    private static final AttributeValue SEPARATED_VALUE = AttributeCodec.s(SEPARATED_STRATEGY);
+    private static final AttributeValue EMBEDDING_VALUE = AttributeCodec.s(EMBEDDING_STRATEGY);
+    private static final AttributeValue BUCKETED_VALUE = AttributeCodec.s(BUCKETED_STRATEGY);
+    private static final AttributeValue BUCKET_PREFIX = AttributeCodec.s(BranchCodec.BUCKET_PREFIX);
+    private static final AttributeValue EMPTY_MAP = AttributeValue.builder().m(Map.of()).build();
     
-    private final DynamoDbEnhancedAsyncClient dynamoClient;
     private final DynamoDBProperties properties;
 
     private final software.amazon.awssdk.services.dynamodb.DynamoDbAsyncClient basicDynamoClient;
-    
-    private DynamoDbAsyncTable<BranchEntity> getTable() {
-        return dynamoClient.table(properties.getTables().getBranches(), 
-                TableSchema.fromBean(BranchEntity.class));
-    }
+    private final ProductLocator productLocator;
+    private final DynamoBatchReader batchReader;
+    private final SizeAwareStorageStrategyEngine storageStrategyEngine;
     
     @Override
     public Mono<Branch> save(Branch branch) {
-        String strategy = branch.getStorageStrategy() != null ? branch.getStorageStrategy() : determineStorageStrategy(branch.getProducts());
-        BranchEntity entity = toEntity(branch, strategy);
+        String strategy = branch.getStorageStrategy() != null ? branch.getStorageStrategy() : determineStorageStrategy(branch);
+        Map<String, AttributeValue> item = BranchCodec.toItem(branch, strategy, productsAttribute(branch, strategy));
         
-        return Mono.fromFuture(getTable().putItem(entity))
+        return Mono.fromFuture(basicDynamoClient.putItem(PutItemRequest.builder()
+                        .tableName(properties.getTables().getBranches())
+                        .item(item)
+                        .returnValues(ReturnValue.ALL_OLD)
+                        .build()))
+                .flatMap(response -> syncProductLocators(branch.getId(), response.attributes(), item))
                 .thenReturn(branch);
     }
     
+    // Una sucursal EMBEDDED siempre lleva el atributo (aunque esté vacío) para que products.#pid sea direccionable,
+    // o empaquetado si está activado; durante MIGRATING se conserva como mapa lo que aún no se ha movido. El
+    // METADATA de una BUCKETED no lleva productos: viven en sus buckets y solo se escriben con addProduct
+    private AttributeValue productsAttribute(Branch branch, String strategy) {
+        if (EMBEDDED_STRATEGY.equals(strategy) && packedProducts()) {
+            return BranchCodec.packedProducts(branch.getProducts() != null ? branch.getProducts() : List.of(),
+                    properties.getEmbeddedProducts().getCompressionThreshold());
+        }
+        if (EMBEDDED_STRATEGY.equals(strategy) || MIGRATING_STRATEGY.equals(strategy)) {
+            return BranchCodec.productsToAttributeValue(branch.getProducts());
+        }
+        return null;
+    }
+    
+    private boolean packedProducts() {
+        return properties.getEmbeddedProducts().isPacked();
+    }
+    
+    // ALL_OLD no consume lectura: con la versión previa se calculan los locators a crear y a borrar
+    private Mono<Void> syncProductLocators(String branchId, Map<String, AttributeValue> previous,
+                                           Map<String, AttributeValue> current) {
+        Set<String> previousIds = BranchCodec.productIds(previous != null ? previous.get(PRODUCTS) : null);
+        Set<String> currentIds = BranchCodec.productIds(current.get(PRODUCTS));
+        Set<String> added = new HashSet<>(currentIds);
+        added.removeAll(previousIds);
+        previousIds.removeAll(currentIds);
+        return productLocator.sync(branchId, added, previousIds);
+    }
+    
+    // Una sola Query sobre la partición trae el METADATA y, si la sucursal es BUCKETED, todos sus buckets
     @Override
     public Mono<Branch> findById(String id) {
-        return Mono.fromFuture(getTable().getItem(r -> r.key(k -> k.partitionValue(BRANCH_PREFIX + id).sortValue(METADATA_SK))))
-                .map(this::toDomain);
+        return Flux.from(basicDynamoClient.queryPaginator(QueryRequest.builder()
+                        .tableName(properties.getTables().getBranches())
+                        .keyConditionExpression("PK = :pk")
+                        .expressionAttributeValues(Map.of(":pk", AttributeCodec.s(BranchCodec.PREFIX + id)))
+                        .build()).items())
+                .collectList()
+                .flatMap(items -> Mono.justOrEmpty(BranchCodec.fromPartition(items)));
+    }
+    
+    @Override
+    public Mono<Branch> findSummaryById(String id) {
+        return Mono.fromFuture(() -> basicDynamoClient.getItem(GetItemRequest.builder()
+                        .tableName(properties.getTables().getBranches())
+                        .key(BranchCodec.key(id))
+                        .projectionExpression(BranchCodec.SUMMARY_PROJECTION)
+                        .expressionAttributeNames(BranchCodec.SUMMARY_PROJECTION_NAMES)
+                        .build()))
+                .filter(GetItemResponse::hasItem)
+                .map(GetItemResponse::item)
+                .flatMap(item -> needsProducts(item) ? findById(id) : withBuckets(item, true));
+    }
+    
+    // El METADATA de una BUCKETED se completa con sus buckets (una Query sobre la partición, solo el resumen si
+    // summaryOnly); el de las demás sucursales ya lo trae todo
+    private Mono<Branch> withBuckets(Map<String, AttributeValue> metadata, boolean summaryOnly) {
+        if (!BranchCodec.isBucketed(metadata)) {
+            return Mono.just(BranchCodec.fromItem(metadata));
+        }
+        QueryRequest.Builder query = QueryRequest.builder()
+                .tableName(properties.getTables().getBranches())
+                .keyConditionExpression("PK = :pk AND begins_with(SK, :bucket)")
+                .expressionAttributeValues(Map.of(
+                    ":pk", AttributeCodec.s(BranchCodec.PREFIX + AttributeCodec.string(metadata, BranchCodec.ID)),
+                    ":bucket", BUCKET_PREFIX
+                ));
+        if (summaryOnly) {
+            query.projectionExpression(BUCKET_SUMMARY_PROJECTION);
+        }
+        return Flux.from(basicDynamoClient.queryPaginator(query.build()).items())
+                .collectList()
+                .map(buckets -> BranchCodec.fromItems(metadata, buckets));
+    }
+    
+    @Override
+    public Flux<Branch> findAllById(Collection<String> ids) {
+        List<Map<String, AttributeValue>> keys = new LinkedHashSet<>(ids).stream()
+                .filter(Objects::nonNull)
+                .map(BranchCodec::key)
+                .toList();
+        return batchReader.read(properties.getTables().getBranches(), keys)
+                .flatMapSequential(item -> withBuckets(item, false));
     }
     
     @Override
     public Flux<Branch> findByFranchiseId(String franchiseId) {
-        return Flux.from(getTable().scan().items())
-                .filter(entity -> franchiseId.equals(entity.getFranchiseId()))
-                .map(this::toDomain);
+        return Flux.from(basicDynamoClient.queryPaginator(QueryRequest.builder()
+                        .tableName(properties.getTables().getBranches())
+                        .indexName("GSI1")
+                        .keyConditionExpression(BranchCodec.GSI1PK + " = :pk")
+                        .expressionAttributeValues(Map.of(":pk", AttributeCodec.s(franchiseId)))
+                        .build()).items())
+                .flatMapSequential(item -> withBuckets(item, false));
+    }
+    
+    // Las sucursales que necesitan sus productos se completan con una sola lectura por lotes; las BUCKETED suman
+    // el resumen de sus buckets
+    @Override
+    public Flux<Branch> findSummariesByFranchiseId(String franchiseId) {
+        return Flux.from(basicDynamoClient.queryPaginator(QueryRequest.builder()
+                        .tableName(properties.getTables().getBranches())
+                        .indexName("GSI1")
+                        .keyConditionExpression(BranchCodec.GSI1PK + " = :pk")
+                        .expressionAttributeValues(Map.of(":pk", AttributeCodec.s(franchiseId)))
+                        .projectionExpression(BranchCodec.SUMMARY_PROJECTION)
+                        .expressionAttributeNames(BranchCodec.SUMMARY_PROJECTION_NAMES)
+                        .build()).items())
+                .collectList()
+                .flatMapMany(items -> {
+                    List<Map<String, AttributeValue>> summaries = new ArrayList<>(items.size());
+                    List<String> incomplete = new ArrayList<>();
+                    items.forEach(item -> {
+                        if (needsProducts(item)) {
+                            incomplete.add(AttributeCodec.string(item, BranchCodec.ID));
+                        } else {
+                            summaries.add(item);
+                        }
+                    });
+                    Flux<Branch> complete = Flux.fromIterable(summaries)
+                            .flatMapSequential(item -> withBuckets(item, true));
+                    return incomplete.isEmpty()
+                            ? complete
+                            : Flux.concat(complete, findAllById(incomplete));
+                });
     }
     
+    // El resumen no alcanza si la sucursal se escribió antes de tenerlo o si está migrando: al iniciar la
+    // migración se retira y parte de sus productos sigue embebida. Una BUCKETED lo tiene en sus buckets. Un
+    // resumen sin embeddedBytes (anterior a la estimación de tamaño) tampoco basta para decidir la estrategia
+    private static boolean needsProducts(Map<String, AttributeValue> item) {
+        String strategy = AttributeCodec.string(item, STORAGE_STRATEGY);
+        return MIGRATING_STRATEGY.equals(strategy)
+                || (!SEPARATED_STRATEGY.equals(strategy) && !EMBEDDING_STRATEGY.equals(strategy)
+                        && !BUCKETED_STRATEGY.equals(strategy)
+                        && !(BranchCodec.hasSummary(item) && BranchCodec.hasSizeEstimate(item)));
+    }
+    
+    // Con el METADATA se borran los buckets de una BUCKETED (claves fijas: no hace falta leerlos)
     @Override
     public Mono<Void> deleteById(String id) {
-        return Mono.fromFuture(getTable().deleteItem(r -> r.key(k -> k.partitionValue(BRANCH_PREFIX + id).sortValue(METADATA_SK))))
-                .then();
+        return deleteReturningOld(BranchCodec.key(id))
+                .flatMapMany(previous -> BranchCodec.isBucketed(previous)
+                        ? Flux.range(0, BranchCodec.BUCKETS).flatMap(bucket -> deleteReturningOld(BranchCodec.bucketKey(id, bucket)))
+                        : Flux.just(previous))
+                .flatMapIterable(previous -> BranchCodec.productIds(previous.get(BranchCodec.PRODUCTS)))
+                .collectList()
+                .flatMap(productIds -> productLocator.sync(id, List.of(), productIds));
     }
     
+    // ALL_OLD trae los productos embebidos que tenía el item sin lectura previa: de ellos salen los LOCATOR a borrar
+    private Mono<Map<String, AttributeValue>> deleteReturningOld(Map<String, AttributeValue> key) {
+        return Mono.fromFuture(() -> basicDynamoClient.deleteItem(DeleteItemRequest.builder()
+                        .tableName(properties.getTables().getBranches())
+                        .key(key)
+                        .returnValues(ReturnValue.ALL_OLD)
+                        .build()))
+                .filter(DeleteItemResponse::hasAttributes)
+                .map(DeleteItemResponse::attributes);
+    }
+    
+    // Solo name y updatedAt: una escritura pequeña sin lectura que no puede pisar los cambios concurrentes sobre
+    // los productos embebidos. ALL_NEW trae el item tal como quedó; de una BUCKETED, el METADATA sin sus buckets
     @Override
-    public Mono<Branch> addProduct(String branchId, Product product) {
-        String pk = BRANCH_PREFIX + branchId;
-        String sk = METADATA_SK;
+    public Mono<Branch> updateName(String id, String name) {
+        return Mono.fromFuture(() -> basicDynamoClient.updateItem(UpdateItemRequest.builder()
+                        .tableName(properties.getTables().getBranches())
+                        .key(BranchCodec.key(id))
+                        .updateExpression("SET #name = :name, updatedAt = :updatedAt")
+                        .conditionExpression("attribute_exists(PK)")
+                        .expressionAttributeNames(Map.of("#name", BranchCodec.NAME))
+                        .expressionAttributeValues(Map.of(
+                            ":name", AttributeCodec.s(name),
+                            ":updatedAt", AttributeCodec.s(LocalDateTime.now().toString())
+                        ))
+                        .returnValues(ReturnValue.ALL_NEW)
+                        .build()))
+                .map(response -> BranchCodec.fromItem(response.attributes()))
+                .onErrorResume(this::isConditionalCheckFailure, error -> Mono.empty());
+    }
+    
+    // En una BUCKETED el producto va al bucket que indica su id: la escritura solo toca ese item y la sucursal
+    // no tiene límite de productos. El empaquetado no aplica a los buckets
+    @Override
+    public Mono<Branch> addProduct(Branch branch, Product product) {
+        String branchId = branch.getId();
+        boolean bucketed = BUCKETED_STRATEGY.equals(branch.getStorageStrategy());
+        // Releer todos los buckets anularía lo que se ahorra al escribir: de una BUCKETED se devuelve el resumen
+        return writeProduct(branch, product)
+                .then(Mono.defer(() -> bucketed ? findSummaryById(branchId) : findById(branchId)));
+    }
 
-        BranchEntity.EmbeddedProduct embeddedProduct = BranchEntity.EmbeddedProduct.builder()
-                .id(product.getId())
-                .name(product.getName())
-                .stock(product.getStock())
-                .createdAt(product.getCreatedAt())
-                .updatedAt(product.getUpdatedAt())
-                .build();
-        
-        UpdateItemRequest updateRequest = UpdateItemRequest.builder()
-                .tableName(properties.getTables().getBranches())
-                .key(Map.of(
-                    "PK", AttributeValue.builder().s(pk).build(),
-                    "SK", AttributeValue.builder().s(sk).build()
-                ))
-                .updateExpression("SET products = list_append(if_not_exists(products, :empty_list), :new_product)")
-                .expressionAttributeValues(Map.of(
-                    ":empty_list", AttributeValue.builder().l(List.of()).build(),
-                    ":new_product", AttributeValue.builder().l(
-                        AttributeValue.builder().m(Map.of(
-                            "id", AttributeValue.builder().s(embeddedProduct.getId()).build(),
-                            "name", AttributeValue.builder().s(embeddedProduct.getName()).build(),
-                            "stock", AttributeValue.builder().n(embeddedProduct.getStock().toString()).build(),
-                            "createdAt", AttributeValue.builder().s(embeddedProduct.getCreatedAt().toString()).build(),
-                            "updatedAt", AttributeValue.builder().s(embeddedProduct.getUpdatedAt().toString()).build()
-                        )).build()
-                    ).build()
-                ))
+    // Carga masiva. EMBEDDED: una sola reescritura del atributo con todos los productos nuevos y su resumen exacto,
+    // con el mismo control optimista del formato empaquetado; los LOCATOR se escriben después por lotes, como en
+    // save. BUCKETED: cada producto va a su bucket por el camino de addProduct, sin releer la sucursal
+    @Override
+    public Mono<Void> addProducts(Branch branch, List<Product> products) {
+        String branchId = branch.getId();
+        if (products.isEmpty()) {
+            return Mono.empty();
+        }
+        if (BUCKETED_STRATEGY.equals(branch.getStorageStrategy())) {
+            return Flux.fromIterable(products)
+                    .flatMap(product -> writeProduct(branch, product), BUCKETED_IMPORT_CONCURRENCY)
+                    .then();
+        }
+        return rewriteProducts(branchId, packedProducts(), current -> products.forEach(product -> {
+                    if (current.putIfAbsent(product.getId(), product) != null) {
+                        throw new IllegalStateException("El producto " + product.getId() + " ya existe en la sucursal " + branchId);
+                    }
+                }), null)
+                .then(Mono.defer(() -> productLocator.sync(branchId, products.stream().map(Product::getId).toList(), List.of())));
+    }
+
+    private Mono<Void> writeProduct(Branch branch, Product product) {
+        String branchId = branch.getId();
+        boolean bucketed = BUCKETED_STRATEGY.equals(branch.getStorageStrategy());
+        if (packedProducts() && !bucketed) {
+            return updatePackedProducts(branchId, products -> products.put(product.getId(), product),
+                    TransactWriteItem.builder().put(productLocator.locatorPut(product.getId(), branchId)).build())
+                    .then();
+        }
+        Map<String, AttributeValue> key = bucketed ? BranchCodec.bucketKey(branchId, product.getId()) : BranchCodec.key(branchId);
+        TransactWriteItem locator = TransactWriteItem.builder()
+                .put(productLocator.locatorPut(product.getId(), branchId, bucketed ? BUCKETED_VALUE : EMBEDDED_VALUE))
                 .build();
         
-        return Mono.fromFuture(basicDynamoClient.updateItem(updateRequest))
-                .then(findById(branchId));
+        // Sin lectura: se prueba primero sin desplazar el top (lo habitual) y, si esa condición falla, desplazándolo.
+        // Si fallan ambas (producto duplicado, sucursal sin resumen, lista del formato anterior) el camino con
+        // lectura distingue el caso
+        return addEmbeddedProduct(key, product, locator, false)
+                .onErrorResume(this::isConditionalCheckFailure, error -> addEmbeddedProduct(key, product, locator, true))
+                .onErrorResume(this::isConditionalCheckFailure, error -> writeEmbeddedProduct(key, branchId, product.getId(), current -> {
+                    if (current != null) {
+                        throw new IllegalStateException("El producto " + product.getId() + " ya existe en la sucursal " + branchId);
+                    }
+                    return product;
+                }, locator).then());
     }
     
-    private String determineStorageStrategy(List<Product> products) {
-        return (products != null && products.size() >= EMBEDDED_PRODUCT_LIMIT) 
-                ? SEPARATED_STRATEGY 
-                : EMBEDDED_STRATEGY;
+    // ADD incondicional sobre productCount/totalStock/embeddedBytes y, con newTop, SET del top en la misma escritura
+    // condicionado a que el producto lo supere. El locator va en la misma transacción para que nunca apunte a un
+    // producto inexistente
+    private Mono<Void> addEmbeddedProduct(Map<String, AttributeValue> key, Product product, TransactWriteItem locator,
+                                          boolean newTop) {
+        AttributeValue embedded = BranchCodec.embeddedProduct(product);
+        EmbeddedWrite write = new EmbeddedWrite(product.getId());
+        write.set("products.#pid = :product", ":product", embedded);
+        write.add("productCount :one", ":one", ONE);
+        write.add("totalStock :stock", ":stock", AttributeCodec.n(product.getStock()));
+        write.add("embeddedBytes :bytes", ":bytes", AttributeCodec.n(ItemSizeEstimator.entry(product.getId(), embedded)));
+        withoutRead(write, key);
+        write.condition("attribute_not_exists(products.#pid)");
+        if (newTop) {
+            write.set("topStockProduct = :top", ":top", BranchCodec.topStockProduct(product));
+            write.condition("(attribute_not_exists(topStockProduct) OR topStockProduct.stock < :stock "
+                    + "OR (topStockProduct.stock = :stock AND topStockProduct.id > :id))", ":id", AttributeCodec.s(product.getId()));
+        } else {
+            write.condition("(topStockProduct.stock > :stock "
+                    + "OR (topStockProduct.stock = :stock AND topStockProduct.id < :id))", ":id", AttributeCodec.s(product.getId()));
+        }
+        Update update = write.toUpdate(properties.getTables().getBranches(), key);
+        return Mono.fromFuture(() -> basicDynamoClient.transactWriteItems(TransactWriteItemsRequest.builder()
+                        .transactItems(TransactWriteItem.builder().update(update).build(), locator)
+                        .build()))
+                .then();
+    }
+
+    @Override
+    public Mono<ProductLocation> findProductLocation(String productId) {
+        return productLocator.resolve(productId)
+                .map(item -> ProductLocation.builder()
+                        .productId(productId)
+                        .branchId(item.get(ProductLocator.BRANCH_ID).s())
+                        .storageStrategy(ProductLocator.isLocator(item) ? ProductLocator.strategy(item) : SEPARATED_STRATEGY)
+                        .build());
     }
-    
-    private BranchEntity toEntity(Branch branch, String strategy) {
-        BranchEntity.BranchEntityBuilder builder = BranchEntity.builder()
-                .id(branch.getId())
-                .franchiseId(branch.getFranchiseId())
-                .name(branch.getName())
-                .createdAt(branch.getCreatedAt())
-                .updatedAt(branch.getUpdatedAt())
-                .storageStrategy(strategy);
 
-        if (EMBEDDED_STRATEGY.equals(strategy) && branch.getProducts() != null) {
-            List<BranchEntity.EmbeddedProduct> embeddedProducts = branch.getProducts().stream()
-                    .map(this::toEmbeddedProduct)
-                    .collect(Collectors.toList());
-            builder.products(embeddedProducts);
+    // El stock anterior, necesario para totalStock, llega en el ALL_OLD de la escritura: la diferencia se suma
+    // después con ADD, sin lectura previa. Ese mismo producto anterior se devuelve para los contadores de la franquicia
+    @Override
+    public Mono<ProductChange> updateProductStock(ProductLocation location, Integer stock) {
+        String branchId = location.getBranchId();
+        String productId = location.getProductId();
+        if (packed(location)) {
+            AtomicReference<Product> previous = new AtomicReference<>();
+            return updatePackedProduct(branchId, productId, product -> {
+                        previous.set(product);
+                        return product.updateStock(stock);
+                    })
+                    .map(next -> ProductChange.of(previous.get(), next));
         }
-        
-        return builder.build();
+        Map<String, AttributeValue> key = productsKey(location);
+        LocalDateTime updatedAt = LocalDateTime.now();
+        EmbeddedWrite write = new EmbeddedWrite(productId);
+        write.set("products.#pid.stock = :stock", ":stock", AttributeCodec.n(stock));
+        write.set("products.#pid.updatedAt = :updatedAt", ":updatedAt", AttributeCodec.s(updatedAt.toString()));
+        withoutRead(write, key);
+        write.condition("attribute_exists(products.#pid)");
+        return updateItem(write.toUpdate(properties.getTables().getBranches(), key), ReturnValue.ALL_OLD)
+                .flatMap(old -> {
+                    Product previous = embeddedProduct(old, branchId, productId);
+                    Product next = previous.toBuilder().stock(stock).updatedAt(updatedAt).build();
+                    return updateSummary(key, branchId, productId, next, withProduct(old, productId, next),
+                            stock(next) - stock(previous), 0)
+                            .thenReturn(ProductChange.of(previous, next));
+                })
+                .onErrorResume(this::isConditionalCheckFailure, error -> {
+                    AtomicReference<Product> previous = new AtomicReference<>();
+                    return writeEmbeddedProduct(key, branchId, productId, current -> {
+                                previous.set(current);
+                                return existing(current).updateStock(stock);
+                            }, null)
+                            .map(next -> ProductChange.of(previous.get(), next));
+                });
     }
-    
-    private BranchEntity.EmbeddedProduct toEmbeddedProduct(Product product) {
-        return BranchEntity.EmbeddedProduct.builder()
-                .id(product.getId())
-                .name(product.getName())
-                .stock(product.getStock())
-                .createdAt(product.getCreatedAt())
-                .updatedAt(product.getUpdatedAt())
-                .build();
+
+    // Item donde vive el producto: su bucket en una BUCKETED, el METADATA de la sucursal en una EMBEDDED
+    private static Map<String, AttributeValue> productsKey(ProductLocation location) {
+        return location.isBucketed()
+                ? BranchCodec.bucketKey(location.getBranchId(), location.getProductId())
+                : BranchCodec.key(location.getBranchId());
     }
-    
-    private Branch toDomain(BranchEntity entity) {
-        if (entity == null) {
-            return null;
+
+    private boolean packed(ProductLocation location) {
+        return packedProducts() && !location.isBucketed();
+    }
+
+    // ADD no admite rutas anidadas: el delta se aplica con SET sobre products.#pid.stock, igual de atómico, y con
+    // ADD sobre totalStock en el mismo UpdateItem. Ni lectura previa ni condición sobre el top: ajustes concurrentes
+    // sobre un producto caliente no se pisan ni se reintentan. El top se mantiene después, con lo que devuelve
+    // ALL_NEW. embeddedBytes no cambia: los números se estiman siempre con su tamaño máximo
+    @Override
+    public Mono<Product> adjustProductStock(ProductLocation location, Integer delta) {
+        String branchId = location.getBranchId();
+        String productId = location.getProductId();
+        if (packed(location)) {
+            return updatePackedProduct(branchId, productId, product -> {
+                if (product.getStock() + delta < 0) {
+                    throw new IllegalStateException("Stock insuficiente para el producto " + productId);
+                }
+                return product.updateStock(product.getStock() + delta);
+            });
         }
-        
-        Branch.BranchBuilder builder = Branch.builder()
-                .id(entity.getId())
-                .franchiseId(entity.getFranchiseId())
-                .name(entity.getName())
-                .createdAt(entity.getCreatedAt())
-                .updatedAt(entity.getUpdatedAt())
-                .storageStrategy(entity.getStorageStrategy());
-
-        if (entity.getProducts() != null) {
-            List<Product> products = entity.getProducts().stream()
-                    .map(this::fromEmbeddedProduct)
-                    .collect(Collectors.toList());
-            builder.products(products);
+        Map<String, AttributeValue> key = productsKey(location);
+        EmbeddedWrite write = new EmbeddedWrite(productId);
+        write.set("products.#pid.stock = products.#pid.stock + :delta", ":delta", AttributeCodec.n(delta));
+        write.set("products.#pid.updatedAt = :updatedAt", ":updatedAt", AttributeCodec.s(LocalDateTime.now().toString()));
+        write.add("totalStock :delta", ":delta", AttributeCodec.n(delta));
+        withoutRead(write, key);
+        write.condition("products.#pid.stock >= :needed", ":needed", AttributeCodec.n(-delta));
+        return updateItem(write.toUpdate(properties.getTables().getBranches(), key), ReturnValue.ALL_NEW)
+                .flatMap(item -> {
+                    Product next = embeddedProduct(item, branchId, productId);
+                    return updateSummary(key, branchId, productId, next, item, 0, 0).thenReturn(next);
+                })
+                .onErrorResume(this::isConditionalCheckFailure, error -> writeEmbeddedProduct(key, branchId, productId, current -> {
+                    Product product = existing(current);
+                    if (product.getStock() + delta < 0) {
+                        throw new IllegalStateException("Stock insuficiente para el producto " + productId);
+                    }
+                    return product.updateStock(product.getStock() + delta);
+                }, null));
+    }
+
+    // El nombre anterior (y con él la diferencia de tamaño) llega en el ALL_OLD; si es el de mayor stock, el nombre
+    // del top se actualiza en la segunda escritura
+    @Override
+    public Mono<Product> updateProductName(ProductLocation location, String name) {
+        String branchId = location.getBranchId();
+        String productId = location.getProductId();
+        if (packed(location)) {
+            return updatePackedProduct(branchId, productId, product -> product.updateName(name));
         }
-        
-        return builder.build();
+        Map<String, AttributeValue> key = productsKey(location);
+        LocalDateTime updatedAt = LocalDateTime.now();
+        EmbeddedWrite write = new EmbeddedWrite(productId);
+        write.name("#name", BranchCodec.NAME);
+        write.set("products.#pid.#name = :name", ":name", AttributeCodec.s(name));
+        write.set("products.#pid.updatedAt = :updatedAt", ":updatedAt", AttributeCodec.s(updatedAt.toString()));
+        withoutRead(write, key);
+        write.condition("attribute_exists(products.#pid)");
+        return updateItem(write.toUpdate(properties.getTables().getBranches(), key), ReturnValue.ALL_OLD)
+                .flatMap(old -> {
+                    Product next = embeddedProduct(old, branchId, productId).toBuilder()
+                            .name(name)
+                            .updatedAt(updatedAt)
+                            .build();
+                    long bytesDelta = ItemSizeEstimator.entry(productId, BranchCodec.embeddedProduct(next))
+                            - ItemSizeEstimator.entry(productId, old.get(PRODUCTS).m().get(productId));
+                    return updateSummary(key, branchId, productId, next, withProduct(old, productId, next), 0, bytesDelta)
+                            .thenReturn(next);
+                })
+                .onErrorResume(this::isConditionalCheckFailure, error -> writeEmbeddedProduct(key, branchId, productId,
+                        current -> existing(current).updateName(name), null));
     }
-    
-    private Product fromEmbeddedProduct(BranchEntity.EmbeddedProduct embedded) {
-        return Product.builder()
-                .id(embedded.getId())
-                .name(embedded.getName())
-                .stock(embedded.getStock())
-                .createdAt(embedded.getCreatedAt())
-                .updatedAt(embedded.getUpdatedAt())
+
+    // Condición de las escrituras sin lectura: mapa de productos con resumen y tamaño mantenidos y, sobre el
+    // METADATA, sucursal EMBEDDED (startMigration retira el resumen). Lo que no la cumple va por el camino con lectura
+    private static void withoutRead(EmbeddedWrite write, Map<String, AttributeValue> key) {
+        write.condition("attribute_type(products, :map) AND attribute_exists(productCount) AND attribute_exists(embeddedBytes)",
+                ":map", MAP_TYPE);
+        if (!BranchCodec.isBucket(key)) {
+            write.condition("(attribute_not_exists(storageStrategy) OR storageStrategy = :embedded)", ":embedded", EMBEDDED_VALUE);
+        }
+    }
+
+    private Mono<Map<String, AttributeValue>> updateItem(Update update, ReturnValue returnValue) {
+        return Mono.fromFuture(() -> basicDynamoClient.updateItem(UpdateItemRequest.builder()
+                        .tableName(update.tableName())
+                        .key(update.key())
+                        .updateExpression(update.updateExpression())
+                        .conditionExpression(update.conditionExpression())
+                        .expressionAttributeNames(update.expressionAttributeNames())
+                        .expressionAttributeValues(update.expressionAttributeValues())
+                        .returnValues(returnValue)
+                        .build()))
+                .map(response -> response.attributes());
+    }
+
+    // Segunda escritura, sin lectura, con lo que la primera no podía resolver: los ADD cuyo valor sale del ALL_OLD
+    // (stock o tamaño anteriores) y topStockProduct si el producto lo desplaza o era el top. Los ADD solo exigen que
+    // el resumen siga existiendo; el cambio del top va condicionado y, si otra escritura lo movió antes, se descarta
+    // y se repiten solo los ADD. item es la sucursal (o el bucket) con el cambio ya aplicado
+    private Mono<Void> updateSummary(Map<String, AttributeValue> key, String branchId, String productId, Product next,
+                                     Map<String, AttributeValue> item, long stockDelta, long bytesDelta) {
+        String table = properties.getTables().getBranches();
+        EmbeddedWrite write = summaryAdds(productId, stockDelta, bytesDelta);
+        boolean adds = !write.isEmpty();
+        if (!topUpdate(write, branchId, productId, next, item)) {
+            return adds
+                    ? updateItem(write.toUpdate(table, key), ReturnValue.NONE).then().onErrorResume(this::isConditionalCheckFailure, error -> Mono.empty())
+                    : Mono.empty();
+        }
+        return updateItem(write.toUpdate(table, key), ReturnValue.NONE)
+                .then()
+                .onErrorResume(this::isConditionalCheckFailure, error -> adds
+                        ? updateItem(summaryAdds(productId, stockDelta, bytesDelta).toUpdate(table, key), ReturnValue.NONE)
+                                .then()
+                                .onErrorResume(this::isConditionalCheckFailure, ignored -> Mono.empty())
+                        : Mono.empty());
+    }
+
+    private static EmbeddedWrite summaryAdds(String productId, long stockDelta, long bytesDelta) {
+        EmbeddedWrite write = new EmbeddedWrite(productId);
+        if (stockDelta != 0) {
+            write.add("totalStock :stockDelta", ":stockDelta", AttributeCodec.n(stockDelta));
+        }
+        if (bytesDelta != 0) {
+            write.add("embeddedBytes :bytesDelta", ":bytesDelta", AttributeCodec.n(bytesDelta));
+        }
+        write.condition("attribute_exists(productCount)");
+        return write;
+    }
+
+    // Si el producto supera al top, SET condicionado a que lo siga superando. Si era el top (bajó, cambió de nombre o
+    // se quitó), se recalcula con los productos del item y el SET se condiciona a que el top siga siendo él y a que
+    // el elegido conserve ese stock: así una escritura concurrente que ya lo movió no se pisa. false si no cambia
+    private static boolean topUpdate(EmbeddedWrite write, String branchId, String productId, Product next,
+                                     Map<String, AttributeValue> item) {
+        AttributeValue seenValue = item.get(BranchCodec.TOP_STOCK_PRODUCT);
+        Product seen = BranchCodec.topStockProduct(seenValue, branchId);
+        if (seen == null || !productId.equals(seen.getId())) {
+            if (next == null || next.getStock() == null || !BranchCodec.beats(next, seen)) {
+                return false;
+            }
+            write.set("topStockProduct = :top", ":top", BranchCodec.topStockProduct(next));
+            write.value(":topId", AttributeCodec.s(next.getId()));
+            write.condition("products.#pid.stock = :topStock AND (attribute_not_exists(topStockProduct) "
+                    + "OR topStockProduct.stock < :topStock OR (topStockProduct.stock = :topStock AND topStockProduct.id > :topId))",
+                    ":topStock", AttributeCodec.n(next.getStock()));
+            return true;
+        }
+        Product top = BranchCodec.topStockProduct(productsAfter(item.get(PRODUCTS), branchId, productId, next));
+        AttributeValue topValue = top != null ? BranchCodec.topStockProduct(top) : null;
+        if (Objects.equals(topValue, seenValue)) {
+            return false;
+        }
+        write.condition("topStockProduct.id = :seenTop", ":seenTop", AttributeCodec.s(productId));
+        if (top == null) {
+            write.remove("topStockProduct");
+            return true;
+        }
+        write.name("#top", top.getId());
+        write.set("topStockProduct = :top", ":top", topValue);
+        write.condition("products.#top.stock = :topStock", ":topStock", AttributeCodec.n(top.getStock()));
+        return true;
+    }
+
+    // El item devuelto por la escritura (ALL_OLD) con el producto ya cambiado, para recalcular el top sobre él
+    private static Map<String, AttributeValue> withProduct(Map<String, AttributeValue> item, String productId, Product next) {
+        Map<String, AttributeValue> products = new HashMap<>(item.get(PRODUCTS).m());
+        if (next != null) {
+            products.put(productId, BranchCodec.embeddedProduct(next));
+        } else {
+            products.remove(productId);
+        }
+        Map<String, AttributeValue> changed = new HashMap<>(item);
+        changed.put(PRODUCTS, AttributeValue.builder().m(products).build());
+        return changed;
+    }
+
+    private static Product embeddedProduct(Map<String, AttributeValue> item, String branchId, String productId) {
+        return withFranchise(BranchCodec.embeddedProduct(item.get(PRODUCTS).m().get(productId), branchId), item);
+    }
+
+    // El producto embebido no guarda franchiseId: se toma de la sucursal para que quien lo recibe (p. ej. los
+    // contadores por franquicia) no tenga que volver a leerla
+    private static Product withFranchise(Product product, Map<String, AttributeValue> branchItem) {
+        return product.toBuilder()
+                .franchiseId(AttributeCodec.string(branchItem, BranchCodec.FRANCHISE_ID))
                 .build();
     }
 
+    private static Product existing(Product current) {
+        if (current == null) {
+            throw new RuntimeException(PRODUCT_NOT_FOUND);
+        }
+        return current;
+    }
+
+    // Camino con lectura, solo para lo que las escrituras sin lectura no resuelven: sucursales sin resumen o con la
+    // lista del formato anterior (se normalizan aquí) y el motivo exacto de un fallo (inexistente, duplicado, stock
+    // insuficiente). Se leen products y el resumen, se aplica el cambio en memoria y se reescribe el producto
+    // condicionado a su valor leído, con el resumen en la misma escritura; ante una escritura concurrente se vuelve
+    // a leer. change recibe el producto actual (null si no existe) y devuelve el nuevo (null para quitarlo). key es
+    // el METADATA de la sucursal o, en una BUCKETED, el bucket del producto: cada bucket lleva su propio resumen
+    private Mono<Product> writeEmbeddedProduct(Map<String, AttributeValue> key, String branchId, String productId,
+                                               UnaryOperator<Product> change, TransactWriteItem sideEffect) {
+        boolean bucket = BranchCodec.isBucket(key);
+        return Mono.defer(() -> Mono.fromFuture(basicDynamoClient.getItem(GetItemRequest.builder()
+                                .tableName(properties.getTables().getBranches())
+                                .key(key)
+                                .projectionExpression(WRITE_PROJECTION)
+                                .consistentRead(true)
+                                .build())))
+                .flatMap(response -> {
+                    if (!response.hasItem()) {
+                        if (!bucket) {
+                            return Mono.error(new RuntimeException(BRANCH_NOT_FOUND));
+                        }
+                        // Bucket aún sin crear: para cualquier cambio que no sea un alta el producto no existe
+                        change.apply(null);
+                        return createBucket(key)
+                                .then(Mono.defer(() -> writeEmbeddedProduct(key, branchId, productId, change, sideEffect)));
+                    }
+                    Map<String, AttributeValue> item = response.item();
+                    AttributeValue products = item.get(PRODUCTS);
+                    if (products == null || !products.hasM()) {
+                        return normalizeProducts(branchId)
+                                .then(Mono.defer(() -> writeEmbeddedProduct(key, branchId, productId, change, sideEffect)));
+                    }
+                    AttributeValue currentValue = products.m().get(productId);
+                    Product current = currentValue != null
+                            ? withFranchise(BranchCodec.embeddedProduct(currentValue, branchId), item)
+                            : null;
+                    Product next = change.apply(current);
+
+                    EmbeddedWrite write = new EmbeddedWrite(productId);
+                    if (next != null) {
+                        write.set("products.#pid = :product", ":product", BranchCodec.embeddedProduct(next));
+                    } else {
+                        write.remove("products.#pid");
+                    }
+                    if (currentValue != null) {
+                        write.condition("products.#pid = :current", ":current", currentValue);
+                    } else {
+                        write.condition("attribute_not_exists(products.#pid)");
+                    }
+                    // Un bucket no lleva storageStrategy: su resumen se mantiene igual que el de una EMBEDDED
+                    String strategy = AttributeCodec.string(item, STORAGE_STRATEGY);
+                    if (strategy == null || EMBEDDED_STRATEGY.equals(strategy)) {
+                        summaryUpdate(write, item, branchId, productId, current, next);
+                        sizeUpdate(write, item, branchId, productId, next);
+                    }
+                    if (bucket && next != null && next.getFranchiseId() != null && !item.containsKey(BranchCodec.FRANCHISE_ID)) {
+                        write.set("franchiseId = :franchiseId", ":franchiseId", AttributeCodec.s(next.getFranchiseId()));
+                    }
+                    Update update = write.toUpdate(properties.getTables().getBranches(), key);
+                    Mono<?> result = sideEffect == null
+                            ? Mono.fromFuture(() -> basicDynamoClient.updateItem(UpdateItemRequest.builder()
+                                    .tableName(update.tableName())
+                                    .key(update.key())
+                                    .updateExpression(update.updateExpression())
+                                    .conditionExpression(update.conditionExpression())
+                                    .expressionAttributeNames(update.expressionAttributeNames())
+                                    .expressionAttributeValues(update.expressionAttributeValues())
+                                    .build()))
+                            : Mono.fromFuture(() -> basicDynamoClient.transactWriteItems(TransactWriteItemsRequest.builder()
+                                    .transactItems(TransactWriteItem.builder().update(update).build(), sideEffect)
+                                    .build()));
+                    return result.then(Mono.justOrEmpty(next));
+                })
+                .retryWhen(Retry.max(MAX_PACKED_RETRIES).filter(this::isConditionalCheckFailure))
+                .onErrorMap(Exceptions::isRetryExhausted, error -> new IllegalStateException(
+                        "Conflicto actualizando el producto " + productId + " de la sucursal " + branchId, error.getCause()));
+    }
+
+    // Bucket vacío con el mapa y el resumen inicializados; if_not_exists lo hace idempotente si otra escritura lo
+    // creó primero
+    private Mono<Void> createBucket(Map<String, AttributeValue> key) {
+        return Mono.fromFuture(() -> basicDynamoClient.updateItem(UpdateItemRequest.builder()
+                        .tableName(properties.getTables().getBranches())
+                        .key(key)
+                        .updateExpression("SET products = if_not_exists(products, :empty), "
+                                + "productCount = if_not_exists(productCount, :zero), totalStock = if_not_exists(totalStock, :zero), "
+                                + "embeddedBytes = if_not_exists(embeddedBytes, :bytes)")
+                        .expressionAttributeValues(Map.of(
+                            ":empty", EMPTY_MAP,
+                            ":zero", ZERO,
+                            ":bytes", AttributeCodec.n(BranchCodec.embeddedBytes(EMPTY_MAP))
+                        ))
+                        .build()))
+                .then();
+    }
+
+    // Solo mientras la sucursal es EMBEDDED: startMigration retira el resumen y la condición sobre la estrategia
+    // evita recrearlo a medias si la migración empieza entre la lectura y la escritura
+    private void summaryUpdate(EmbeddedWrite write, Map<String, AttributeValue> item, String branchId,
+                               String productId, Product current, Product next) {
+        AttributeValue strategy = item.get(STORAGE_STRATEGY);
+        if (strategy == null) {
+            write.condition("attribute_not_exists(storageStrategy)");
+        } else {
+            write.condition("storageStrategy = :embedded", ":embedded", EMBEDDED_VALUE);
+        }
+        AttributeValue products = item.get(PRODUCTS);
+        if (!BranchCodec.hasSummary(item)) {
+            // Sucursal escrita antes del resumen: se inicializa con los valores exactos
+            Map<String, AttributeValue> summary = new HashMap<>();
+            BranchCodec.putSummary(summary, productsAfter(products, branchId, productId, next));
+            write.set("productCount = :count", ":count", summary.get(BranchCodec.PRODUCT_COUNT));
+            write.set("totalStock = :total", ":total", summary.get(BranchCodec.TOTAL_STOCK));
+            setTop(write, summary.get(BranchCodec.TOP_STOCK_PRODUCT));
+            write.condition("attribute_not_exists(productCount)");
+            write.condition("products = :seen", ":seen", products);
+            return;
+        }
+        int countDelta = (next != null ? 1 : 0) - (current != null ? 1 : 0);
+        long stockDelta = stock(next) - stock(current);
+        if (countDelta != 0) {
+            write.add("productCount :countDelta", ":countDelta", AttributeCodec.n(countDelta));
+        }
+        if (stockDelta != 0) {
+            write.add("totalStock :stockDelta", ":stockDelta", AttributeCodec.n(stockDelta));
+        }
+        AttributeValue seenTopValue = item.get(BranchCodec.TOP_STOCK_PRODUCT);
+        Product seenTop = BranchCodec.topStockProduct(seenTopValue, branchId);
+        if (next != null && next.getStock() != null && BranchCodec.beats(next, seenTop)) {
+            setTop(write, BranchCodec.topStockProduct(next));
+            if (seenTopValue == null) {
+                write.condition("attribute_not_exists(topStockProduct)");
+            } else {
+                write.condition("topStockProduct = :seenTop", ":seenTop", seenTopValue);
+            }
+        } else if (seenTop != null && productId.equals(seenTop.getId())) {
+            Product top = BranchCodec.topStockProduct(productsAfter(products, branchId, productId, next));
+            setTop(write, top != null ? BranchCodec.topStockProduct(top) : null);
+            write.condition("products = :seen", ":seen", products);
+        }
+    }
+
+    // embeddedBytes: delta de la entrada products.#pid sobre la estimación mantenida o, si aún no existe, el
+    // valor exacto condicionado al mapa leído
+    private static void sizeUpdate(EmbeddedWrite write, Map<String, AttributeValue> item, String branchId,
+                                   String productId, Product next) {
+        AttributeValue products = item.get(PRODUCTS);
+        AttributeValue nextValue = next != null ? BranchCodec.embeddedProduct(next) : null;
+        if (!BranchCodec.hasSummary(item) || !BranchCodec.hasSizeEstimate(item)) {
+            write.set("embeddedBytes = :bytes", ":bytes", AttributeCodec.n(BranchCodec.embeddedBytes(
+                    BranchCodec.productsToAttributeValue(productsAfter(products, branchId, productId, next)))));
+            write.condition("products = :seen", ":seen", products);
+            return;
+        }
+        long delta = ItemSizeEstimator.entry(productId, nextValue) - ItemSizeEstimator.entry(productId, products.m().get(productId));
+        if (delta != 0) {
+            write.add("embeddedBytes :bytesDelta", ":bytesDelta", AttributeCodec.n(delta));
+        }
+    }
+
+    private static void setTop(EmbeddedWrite write, AttributeValue top) {
+        if (top != null) {
+            write.set("topStockProduct = :top", ":top", top);
+        } else {
+            write.remove("topStockProduct");
+        }
+    }
+
+    private static long stock(Product product) {
+        return product != null && product.getStock() != null ? product.getStock() : 0;
+    }
+
+    private static List<Product> productsAfter(AttributeValue products, String branchId, String productId, Product next) {
+        Map<String, Product> after = new LinkedHashMap<>();
+        BranchCodec.embeddedProducts(products, branchId).forEach(product -> after.put(product.getId(), product));
+        if (next != null) {
+            after.put(productId, next);
+        } else {
+            after.remove(productId);
+        }
+        return new ArrayList<>(after.values());
+    }
+
+    // Devuelve el producto quitado tal como estaba en la escritura que lo quitó. En los caminos con lectura
+    // (empaquetado y fallback) change puede repetirse ante un conflicto: queda el del intento que se escribió
     @Override
-    public Mono<String> findBranchIdByProductId(String productId) {
-        return Mono.fromFuture(basicDynamoClient.getItem(GetItemRequest.builder()
-                .tableName(properties.getTables().getProducts())
-                .key(Map.of(
-                    "PK", AttributeValue.builder().s("PRODUCT#" + productId).build(),
-                    "SK", AttributeValue.builder().s(METADATA_SK).build()
-                ))
-                .build()))
-                .filter(response -> response.item() != null && !response.item().isEmpty())
-                .map(response -> response.item().get("branchId").s())
-                .switchIfEmpty(
-                    Mono.fromFuture(basicDynamoClient.scan(ScanRequest.builder()
+    public Mono<Product> removeProduct(ProductLocation location) {
+        String branchId = location.getBranchId();
+        String productId = location.getProductId();
+        AtomicReference<Product> removed = new AtomicReference<>();
+        if (packed(location)) {
+            return updatePackedProducts(branchId, products -> {
+                        removed.set(products.remove(productId));
+                        if (removed.get() == null) {
+                            throw new RuntimeException(PRODUCT_NOT_FOUND);
+                        }
+                    }, TransactWriteItem.builder().delete(productLocator.locatorDelete(productId)).build())
+                    .then(Mono.fromSupplier(removed::get));
+        }
+        // REMOVE sin lectura: el stock y el tamaño que se descuentan llegan en el ALL_OLD. El locator se borra
+        // después; si ese borrado falla, apunta a una sucursal sin el producto y se resuelve como inexistente
+        Map<String, AttributeValue> key = productsKey(location);
+        EmbeddedWrite write = new EmbeddedWrite(productId);
+        write.remove("products.#pid");
+        write.add("productCount :minusOne", ":minusOne", AttributeCodec.n(-1));
+        withoutRead(write, key);
+        write.condition("attribute_exists(products.#pid)");
+        Delete locator = productLocator.locatorDelete(productId);
+        return updateItem(write.toUpdate(properties.getTables().getBranches(), key), ReturnValue.ALL_OLD)
+                .flatMap(old -> {
+                    Product previous = embeddedProduct(old, branchId, productId);
+                    return updateSummary(key, branchId, productId, null, withProduct(old, productId, null),
+                            -stock(previous), -ItemSizeEstimator.entry(productId, old.get(PRODUCTS).m().get(productId)))
+                            .then(Mono.fromFuture(() -> basicDynamoClient.deleteItem(DeleteItemRequest.builder()
+                                    .tableName(locator.tableName())
+                                    .key(locator.key())
+                                    .build())))
+                            .thenReturn(previous);
+                })
+                .onErrorResume(this::isConditionalCheckFailure, error -> writeEmbeddedProduct(key, branchId, productId, current -> {
+                            removed.set(existing(current));
+                            return null;
+                        }, TransactWriteItem.builder().delete(locator).build())
+                        .then(Mono.fromSupplier(removed::get)));
+    }
+
+    private Mono<Product> updatePackedProduct(String branchId, String productId, UnaryOperator<Product> change) {
+        return updatePackedProducts(branchId, products -> {
+                    Product current = products.get(productId);
+                    if (current == null) {
+                        throw new RuntimeException(PRODUCT_NOT_FOUND);
+                    }
+                    products.put(productId, change.apply(current));
+                }, null)
+                .map(products -> products.get(productId));
+    }
+
+    // Con el atributo empaquetado no hay rutas products.#pid: se lee, se modifica en memoria y se reescribe
+    // condicionado a que siga siendo exactamente el valor leído (control optimista). Si otra escritura ganó,
+    // se vuelve a leer. Lee cualquier formato previo (mapa, lista, empaquetado) y siempre escribe empaquetado
+    private Mono<Map<String, Product>> updatePackedProducts(String branchId, Consumer<Map<String, Product>> change,
+                                                            TransactWriteItem sideEffect) {
+        return rewriteProducts(branchId, true, change, sideEffect);
+    }
+
+    // packed decide el formato que se escribe; el de mapa es el de una carga masiva con el empaquetado desactivado
+    private Mono<Map<String, Product>> rewriteProducts(String branchId, boolean packed, Consumer<Map<String, Product>> change,
+                                                       TransactWriteItem sideEffect) {
+        return Mono.defer(() -> Mono.fromFuture(basicDynamoClient.getItem(GetItemRequest.builder()
+                                .tableName(properties.getTables().getBranches())
+                                .key(BranchCodec.key(branchId))
+                                .projectionExpression("franchiseId, products, storageStrategy")
+                                .consistentRead(true)
+                                .build())))
+                .filter(GetItemResponse::hasItem)
+                .switchIfEmpty(Mono.error(() -> new RuntimeException(BRANCH_NOT_FOUND)))
+                .flatMap(response -> {
+                    AttributeValue current = response.item().get(PRODUCTS);
+                    AttributeValue strategy = response.item().get(STORAGE_STRATEGY);
+                    Map<String, Product> products = new LinkedHashMap<>();
+                    if (current != null) {
+                        BranchCodec.embeddedProducts(current, branchId)
+                                .forEach(product -> products.put(product.getId(), withFranchise(product, response.item())));
+                    }
+                    change.accept(products);
+
+                    Map<String, AttributeValue> values = new HashMap<>();
+                    values.put(":products", packed
+                            ? BranchCodec.packedProducts(products.values(), properties.getEmbeddedProducts().getCompressionThreshold())
+                            : BranchCodec.productsToAttributeValue(products.values()));
+                    if (current != null) {
+                        values.put(":current", current);
+                    }
+                    String condition = current == null
+                            ? "attribute_exists(PK) AND attribute_not_exists(products)"
+                            : "products = :current";
+                    // El conjunto completo está en memoria: el resumen se reescribe con sus valores exactos
+                    String expression = "SET products = :products";
+                    if (strategy == null || EMBEDDED_VALUE.equals(strategy)) {
+                        Map<String, AttributeValue> summary = new HashMap<>();
+                        BranchCodec.putSummary(summary, products.values());
+                        values.put(":count", summary.get(BranchCodec.PRODUCT_COUNT));
+                        values.put(":total", summary.get(BranchCodec.TOTAL_STOCK));
+                        values.put(":bytes", AttributeCodec.n(BranchCodec.embeddedBytes(values.get(":products"))));
+                        expression += ", productCount = :count, totalStock = :total, embeddedBytes = :bytes";
+                        if (summary.containsKey(BranchCodec.TOP_STOCK_PRODUCT)) {
+                            values.put(":top", summary.get(BranchCodec.TOP_STOCK_PRODUCT));
+                            expression += ", topStockProduct = :top";
+                        } else {
+                            expression += " REMOVE topStockProduct";
+                        }
+                        if (strategy == null) {
+                            condition += " AND attribute_not_exists(storageStrategy)";
+                        } else {
+                            values.put(":embedded", EMBEDDED_VALUE);
+                            condition += " AND storageStrategy = :embedded";
+                        }
+                    }
+                    Update update = Update.builder()
                             .tableName(properties.getTables().getBranches())
-                            .build()))
-                            .flatMapMany(response -> Flux.fromIterable(response.items()))
-                            .filter(item -> {
-                                if (item.get(PRODUCTS) != null && item.get(PRODUCTS).l() != null) {
-                                    return item.get(PRODUCTS).l().stream()
-                                            .anyMatch(p -> productId.equals(p.m().get("id").s()));
-                                }
-                                return false;
-                            })
-                            .map(item -> item.get("PK").s().replace(BRANCH_PREFIX, ""))
-                            .next()
-                );
+                            .key(BranchCodec.key(branchId))
+                            .updateExpression(expression)
+                            .conditionExpression(condition)
+                            .expressionAttributeValues(values)
+                            .build();
+                    Mono<?> write = sideEffect == null
+                            ? Mono.fromFuture(() -> basicDynamoClient.updateItem(UpdateItemRequest.builder()
+                                    .tableName(update.tableName())
+                                    .key(update.key())
+                                    .updateExpression(update.updateExpression())
+                                    .conditionExpression(update.conditionExpression())
+                                    .expressionAttributeValues(update.expressionAttributeValues())
+                                    .build()))
+                            : Mono.fromFuture(() -> basicDynamoClient.transactWriteItems(TransactWriteItemsRequest.builder()
+                                    .transactItems(TransactWriteItem.builder().update(update).build(), sideEffect)
+                                    .build()));
+                    return write.thenReturn(products);
+                })
+                .retryWhen(Retry.max(MAX_PACKED_RETRIES).filter(this::isConditionalCheckFailure))
+                .onErrorMap(Exceptions::isRetryExhausted, error -> new IllegalStateException(
+                        "Conflicto actualizando los productos de la sucursal " + branchId, error.getCause()));
+    }
+
+    // EMBEDDED -> MIGRATING: desde aquí los productos nuevos se escriben en la tabla de productos. El resumen
+    // deja de mantenerse (los productos se reparten entre ambas tablas) y se retira
+    @Override
+    public Mono<Boolean> startMigration(String branchId) {
+        return Mono.fromFuture(() -> basicDynamoClient.updateItem(UpdateItemRequest.builder()
+                        .tableName(properties.getTables().getBranches())
+                        .key(BranchCodec.key(branchId))
+                        .updateExpression("SET storageStrategy = :migrating REMOVE productCount, totalStock, topStockProduct, embeddedBytes")
+                        .conditionExpression("attribute_exists(PK) AND (attribute_not_exists(storageStrategy) "
+                                + "OR storageStrategy IN (:embedded, :migrating))")
+                        .expressionAttributeValues(Map.of(
+                            ":migrating", MIGRATING_VALUE,
+                            ":embedded", EMBEDDED_VALUE
+                        ))
+                        .build()))
+                .thenReturn(true)
+                .onErrorResume(this::isConditionalCheckFailure, error -> Mono.just(false));
+    }
+
+    // El mapa de productos embebidos es el checkpoint: lo que sigue en él es lo que falta por mover,
+    // por lo que una migración interrumpida se reanuda simplemente volviendo a llamar a este método
+    @Override
+    public Mono<Integer> migrateProductsChunk(String branchId, int chunkSize) {
+        return Mono.fromFuture(() -> basicDynamoClient.getItem(GetItemRequest.builder()
+                        .tableName(properties.getTables().getBranches())
+                        .key(BranchCodec.key(branchId))
+                        .projectionExpression("franchiseId, storageStrategy, products")
+                        .consistentRead(true)
+                        .build()))
+                .filter(GetItemResponse::hasItem)
+                .map(GetItemResponse::item)
+                .filter(item -> item.containsKey(STORAGE_STRATEGY)
+                        && MIGRATING_STRATEGY.equals(item.get(STORAGE_STRATEGY).s()))
+                .flatMap(item -> {
+                    AttributeValue products = item.get(PRODUCTS);
+                    if (products != null && (products.hasL() || BranchCodec.isPacked(products))) {
+                        return normalizeProducts(branchId).then(Mono.defer(() -> migrateProductsChunk(branchId, chunkSize)));
+                    }
+                    if (products == null || products.m().isEmpty()) {
+                        return Mono.just(0);
+                    }
+                    List<Map.Entry<String, AttributeValue>> chunk = products.m().entrySet().stream()
+                            .limit(Math.min(chunkSize, MAX_MIGRATION_CHUNK))
+                            .toList();
+                    TransactWriteItemsRequest request = migrationTransaction(branchId, item.get(BranchCodec.FRANCHISE_ID).s(), chunk);
+                    return Mono.fromFuture(() -> basicDynamoClient.transactWriteItems(request))
+                            .onErrorMap(this::isConditionalCheckFailure, error -> new IllegalStateException(
+                                    "Conflicto migrando productos de la sucursal " + branchId, error))
+                            .thenReturn(chunk.size());
+                })
+                .defaultIfEmpty(0);
+    }
+
+    // Por producto: METADATA en la tabla de productos y borrado de su LOCATOR. Sobre la sucursal: REMOVE de
+    // esos productos condicionado a su updatedAt (un ajuste concurrente aborta el tramo) y avance del contador
+    private TransactWriteItemsRequest migrationTransaction(String branchId, String franchiseId,
+                                                           List<Map.Entry<String, AttributeValue>> chunk) {
+        List<TransactWriteItem> items = new ArrayList<>();
+        List<String> removals = new ArrayList<>();
+        List<String> conditions = new ArrayList<>();
+        Map<String, String> names = new HashMap<>();
+        Map<String, AttributeValue> values = new HashMap<>();
+        conditions.add("storageStrategy = :migrating");
+        values.put(":migrating", MIGRATING_VALUE);
+        values.put(":zero", ZERO);
+        values.put(":moved", AttributeCodec.n(chunk.size()));
+
+        for (int i = 0; i < chunk.size(); i++) {
+            String productId = chunk.get(i).getKey();
+            AttributeValue embedded = chunk.get(i).getValue();
+            names.put("#p" + i, productId);
+            values.put(":u" + i, embedded.m().get(BranchCodec.UPDATED_AT));
+            removals.add("products.#p" + i);
+            conditions.add("products.#p" + i + ".updatedAt = :u" + i);
+
+            Product product = BranchCodec.embeddedProduct(embedded, branchId).toBuilder()
+                    .franchiseId(franchiseId)
+                    .build();
+            items.add(TransactWriteItem.builder().put(Put.builder()
+                    .tableName(properties.getTables().getProducts())
+                    .item(ProductCodec.toItem(product))
+                    .build()).build());
+            items.add(TransactWriteItem.builder().delete(productLocator.locatorDelete(productId)).build());
+        }
+
+        items.add(TransactWriteItem.builder().update(Update.builder()
+                .tableName(properties.getTables().getBranches())
+                .key(BranchCodec.key(branchId))
+                .updateExpression("REMOVE " + String.join(", ", removals)
+                        + " SET migratedProducts = if_not_exists(migratedProducts, :zero) + :moved")
+                .conditionExpression(String.join(" AND ", conditions))
+                .expressionAttributeNames(names)
+                .expressionAttributeValues(values)
+                .build()).build());
+        return TransactWriteItemsRequest.builder().transactItems(items).build();
+    }
+
+    // MIGRATING -> SEPARATED solo cuando ya no queda ningún producto embebido. Cuenta como escritura separada
+    // (separatedWriteAt): los últimos productos movidos también tienen que verse en GSI1 antes de poder re-embeberla
+    @Override
+    public Mono<Void> completeMigration(String branchId) {
+        return Mono.fromFuture(() -> basicDynamoClient.updateItem(UpdateItemRequest.builder()
+                        .tableName(properties.getTables().getBranches())
+                        .key(BranchCodec.key(branchId))
+                        .updateExpression("SET storageStrategy = :separated, separatedWriteAt = :now REMOVE products")
+                        .conditionExpression("storageStrategy = :migrating "
+                                + "AND (attribute_not_exists(products) OR size(products) = :zero)")
+                        .expressionAttributeValues(Map.of(
+                            ":separated", SEPARATED_VALUE,
+                            ":migrating", MIGRATING_VALUE,
+                            ":zero", ZERO,
+                            ":now", AttributeCodec.n(System.currentTimeMillis())
+                        ))
+                        .build()))
+                .onErrorMap(this::isConditionalCheckFailure, error -> new IllegalStateException(
+                        "La sucursal " + branchId + " aún tiene productos embebidos por migrar", error))
+                .then();
+    }
+
+    // Sella separatedWriteAt condicionado a que la sucursal siga admitiendo productos en la tabla de productos.
+    // Si no, y está en un EMBEDDING más antiguo que embedding-fence (quien lo empezó no lo terminó ni deshizo),
+    // se devuelve aquí mismo a SEPARATED; su embedProducts, si aún llega, falla por la condición sobre EMBEDDING
+    @Override
+    public Mono<Void> markSeparatedWrite(String branchId) {
+        long now = System.currentTimeMillis();
+        return Mono.fromFuture(() -> basicDynamoClient.updateItem(UpdateItemRequest.builder()
+                        .tableName(properties.getTables().getBranches())
+                        .key(BranchCodec.key(branchId))
+                        .updateExpression("SET separatedWriteAt = :now")
+                        .conditionExpression("storageStrategy IN (:separated, :migrating)")
+                        .expressionAttributeValues(Map.of(
+                            ":now", AttributeCodec.n(now),
+                            ":separated", SEPARATED_VALUE,
+                            ":migrating", MIGRATING_VALUE
+                        ))
+                        .build()))
+                .onErrorResume(this::isConditionalCheckFailure, error -> Mono.fromFuture(() -> basicDynamoClient.updateItem(
+                        UpdateItemRequest.builder()
+                                .tableName(properties.getTables().getBranches())
+                                .key(BranchCodec.key(branchId))
+                                .updateExpression("SET storageStrategy = :separated, separatedWriteAt = :now "
+                                        + "REMOVE embeddingStartedAt")
+                                .conditionExpression("storageStrategy = :embedding AND embeddingStartedAt < :stale")
+                                .expressionAttributeValues(Map.of(
+                                    ":now", AttributeCodec.n(now),
+                                    ":separated", SEPARATED_VALUE,
+                                    ":embedding", EMBEDDING_VALUE,
+                                    ":stale", AttributeCodec.n(now - embeddingFence())
+                                ))
+                                .build())))
+                .onErrorMap(this::isConditionalCheckFailure, error -> new StorageStrategyChangingException(
+                        "La sucursal " + branchId + " ya no admite productos separados"))
+                .then();
+    }
+
+    // Solo si la última escritura separada es más antigua que embedding-fence: ya terminó y es visible en GSI1,
+    // que es de donde se leen los productos a embeber. Desde EMBEDDING markSeparatedWrite falla, así que ningún
+    // producto nuevo puede quedar fuera de esa lectura
+    @Override
+    public Mono<Boolean> startEmbedding(String branchId) {
+        long now = System.currentTimeMillis();
+        return Mono.fromFuture(() -> basicDynamoClient.updateItem(UpdateItemRequest.builder()
+                        .tableName(properties.getTables().getBranches())
+                        .key(BranchCodec.key(branchId))
+                        .updateExpression("SET storageStrategy = :embedding, embeddingStartedAt = :now")
+                        .conditionExpression("storageStrategy = :separated "
+                                + "AND (attribute_not_exists(separatedWriteAt) OR separatedWriteAt < :settled)")
+                        .expressionAttributeValues(Map.of(
+                            ":embedding", EMBEDDING_VALUE,
+                            ":separated", SEPARATED_VALUE,
+                            ":now", AttributeCodec.n(now),
+                            ":settled", AttributeCodec.n(now - embeddingFence())
+                        ))
+                        .build()))
+                .thenReturn(true)
+                .onErrorResume(this::isConditionalCheckFailure, error -> Mono.just(false));
+    }
+
+    // Sin efecto si ya no está en EMBEDDING (se embebió o markSeparatedWrite la dio por abandonada)
+    @Override
+    public Mono<Void> abortEmbedding(String branchId) {
+        return Mono.fromFuture(() -> basicDynamoClient.updateItem(UpdateItemRequest.builder()
+                        .tableName(properties.getTables().getBranches())
+                        .key(BranchCodec.key(branchId))
+                        .updateExpression("SET storageStrategy = :separated REMOVE embeddingStartedAt")
+                        .conditionExpression("storageStrategy = :embedding")
+                        .expressionAttributeValues(Map.of(
+                            ":separated", SEPARATED_VALUE,
+                            ":embedding", EMBEDDING_VALUE
+                        ))
+                        .build()))
+                .onErrorResume(this::isConditionalCheckFailure, error -> Mono.empty())
+                .then();
+    }
+
+    private long embeddingFence() {
+        return properties.getEmbeddedProducts().getEmbeddingFence().toMillis();
+    }
+
+    // EMBEDDING -> EMBEDDED en una sola transacción. Por producto: Delete de su METADATA condicionado al updatedAt
+    // leído y Put de su LOCATOR. Sobre la sucursal: el mapa completo con su resumen exacto, condicionado a que
+    // siga en EMBEDDING. Una escritura concurrente cancela la transacción y la sucursal queda como estaba
+    @Override
+    public Mono<Boolean> embedProducts(String branchId, List<Product> products) {
+        if (products.size() > MAX_MIGRATION_CHUNK) {
+            return Mono.just(false);
+        }
+        List<TransactWriteItem> items = new ArrayList<>(products.size() * 2 + 1);
+        for (Product product : products) {
+            Map<String, AttributeValue> updatedAt = new HashMap<>();
+            AttributeCodec.putDateTime(updatedAt, ":updatedAt", product.getUpdatedAt());
+            items.add(TransactWriteItem.builder().delete(Delete.builder()
+                    .tableName(properties.getTables().getProducts())
+                    .key(ProductCodec.key(product.getId()))
+                    .conditionExpression(updatedAt.isEmpty()
+                            ? "attribute_exists(PK) AND attribute_not_exists(updatedAt)"
+                            : "updatedAt = :updatedAt")
+                    .expressionAttributeValues(updatedAt.isEmpty() ? null : updatedAt)
+                    .build()).build());
+            items.add(TransactWriteItem.builder().put(productLocator.locatorPut(product.getId(), branchId)).build());
+        }
+
+        AttributeValue embedded = packedProducts()
+                ? BranchCodec.packedProducts(products, properties.getEmbeddedProducts().getCompressionThreshold())
+                : BranchCodec.productsToAttributeValue(products);
+        Map<String, AttributeValue> summary = new HashMap<>();
+        BranchCodec.putSummary(summary, products);
+        Map<String, AttributeValue> values = new HashMap<>();
+        values.put(":products", embedded);
+        values.put(":count", summary.get(BranchCodec.PRODUCT_COUNT));
+        values.put(":total", summary.get(BranchCodec.TOTAL_STOCK));
+        values.put(":bytes", AttributeCodec.n(BranchCodec.embeddedBytes(embedded)));
+        values.put(":embedded", EMBEDDED_VALUE);
+        values.put(":embedding", EMBEDDING_VALUE);
+        String expression = "SET storageStrategy = :embedded, products = :products, productCount = :count, "
+                + "totalStock = :total, embeddedBytes = :bytes";
+        if (summary.containsKey(BranchCodec.TOP_STOCK_PRODUCT)) {
+            values.put(":top", summary.get(BranchCodec.TOP_STOCK_PRODUCT));
+            expression += ", topStockProduct = :top";
+        }
+        items.add(TransactWriteItem.builder().update(Update.builder()
+                .tableName(properties.getTables().getBranches())
+                .key(BranchCodec.key(branchId))
+                .updateExpression(expression + " REMOVE migratedProducts, embeddingStartedAt, separatedWriteAt")
+                .conditionExpression("storageStrategy = :embedding")
+                .expressionAttributeValues(values)
+                .build()).build());
+
+        return Mono.fromFuture(() -> basicDynamoClient.transactWriteItems(TransactWriteItemsRequest.builder()
+                        .transactItems(items)
+                        .build()))
+                .thenReturn(true)
+                .onErrorResume(this::isConditionalCheckFailure, error -> Mono.just(false));
+    }
+
+    private Mono<Boolean> normalizeProducts(String branchId) {
+        return Mono.fromFuture(basicDynamoClient.getItem(GetItemRequest.builder()
+                        .tableName(properties.getTables().getBranches())
+                        .key(BranchCodec.key(branchId))
+                        .projectionExpression(PRODUCTS)
+                        .consistentRead(true)
+                        .build()))
+                .filter(response -> response.hasItem())
+                .flatMap(response -> {
+                    AttributeValue current = response.item().get(PRODUCTS);
+                    if (current != null && current.hasM()) {
+                        return Mono.just(false);
+                    }
+                    Map<String, AttributeValue> values = new HashMap<>();
+                    values.put(":products", BranchCodec.normalizeProducts(current));
+                    if (current != null) {
+                        values.put(":legacy", current);
+                    }
+                    // La condición garantiza que nadie modificó la lista entre la lectura y la conversión
+                    return Mono.fromFuture(basicDynamoClient.updateItem(UpdateItemRequest.builder()
+                                    .tableName(properties.getTables().getBranches())
+                                    .key(BranchCodec.key(branchId))
+                                    .updateExpression("SET products = :products")
+                                    .conditionExpression(current == null
+                                            ? "attribute_not_exists(products)"
+                                            : "products = :legacy")
+                                    .expressionAttributeValues(values)
+                                    .build()))
+                            .thenReturn(true)
+                            .onErrorResume(this::isConditionalCheckFailure, error -> Mono.just(true));
+                })
+                .defaultIfEmpty(false);
+    }
+
+    private boolean isConditionalCheckFailure(Throwable error) {
+        if (error instanceof ConditionalCheckFailedException) {
+            return true;
+        }
+        return error instanceof TransactionCanceledException canceled
+                && canceled.cancellationReasons().stream()
+                        .anyMatch(reason -> CONDITIONAL_CHECK_FAILED.equals(reason.code()));
+    }
+
+    // Acumula las cláusulas de una escritura sobre la sucursal; #pid es siempre el producto afectado
+    private static final class EmbeddedWrite {
+        private final List<String> sets = new ArrayList<>();
+        private final List<String> adds = new ArrayList<>();
+        private final List<String> removes = new ArrayList<>();
+        private final List<String> conditions = new ArrayList<>();
+        private final Map<String, String> names = new HashMap<>();
+        private final Map<String, AttributeValue> values = new HashMap<>();
+
+        private EmbeddedWrite(String productId) {
+            names.put("#pid", productId);
+        }
+
+        private void set(String clause, String name, AttributeValue value) {
+            sets.add(clause);
+            values.put(name, value);
+        }
+
+        private void add(String clause, String name, AttributeValue value) {
+            adds.add(clause);
+            values.put(name, value);
+        }
+
+        private void remove(String path) {
+            removes.add(path);
+        }
+
+        private void condition(String clause) {
+            conditions.add(clause);
+        }
+
+        private void condition(String clause, String name, AttributeValue value) {
+            conditions.add(clause);
+            values.put(name, value);
+        }
+
+        private void name(String placeholder, String attribute) {
+            names.put(placeholder, attribute);
+        }
+
+        private void value(String name, AttributeValue value) {
+            values.put(name, value);
+        }
+
+        private boolean isEmpty() {
+            return sets.isEmpty() && adds.isEmpty() && removes.isEmpty();
+        }
+
+        private Update toUpdate(String tableName, Map<String, AttributeValue> key) {
+            StringBuilder expression = new StringBuilder();
+            append(expression, "SET ", sets);
+            append(expression, "ADD ", adds);
+            append(expression, "REMOVE ", removes);
+            String condition = conditions.isEmpty() ? null : String.join(" AND ", conditions);
+            // DynamoDB rechaza nombres declarados que la expresión no usa (p. ej. #pid en una escritura solo del resumen)
+            Map<String, String> used = new HashMap<>();
+            names.forEach((placeholder, attribute) -> {
+                if (expression.indexOf(placeholder) >= 0 || (condition != null && condition.contains(placeholder))) {
+                    used.put(placeholder, attribute);
+                }
+            });
+            return Update.builder()
+                    .tableName(tableName)
+                    .key(key)
+                    .updateExpression(expression.toString())
+                    .conditionExpression(condition)
+                    .expressionAttributeNames(used.isEmpty() ? null : used)
+                    .expressionAttributeValues(values.isEmpty() ? null : values)
+                    .build();
+        }
+
+        private static void append(StringBuilder expression, String action, List<String> clauses) {
+            if (!clauses.isEmpty()) {
+                expression.append(expression.isEmpty() ? "" : " ").append(action).append(String.join(", ", clauses));
+            }
+        }
+    }
+
+    // Por tamaño estimado y no por número de productos. Opt-in: las sucursales nuevas reparten sus productos en
+    // buckets en lugar de embeberlos en el METADATA
+    private String determineStorageStrategy(Branch branch) {
+        List<Product> products = branch.getProducts();
+        if (products != null && storageStrategyEngine.exceedsEmbedded(branch, products)) {
+            return SEPARATED_STRATEGY;
+        }
+        if (properties.getEmbeddedProducts().isBucketed() && (products == null || products.isEmpty())) {
+            return BUCKETED_STRATEGY;
+        }
+        return EMBEDDED_STRATEGY;
     }
 }
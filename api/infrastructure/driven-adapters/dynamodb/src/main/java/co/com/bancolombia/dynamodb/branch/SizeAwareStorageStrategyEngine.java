@@ -0,0 +1,84 @@
+package co.com.bancolombia.dynamodb.branch;
+
+import co.com.bancolombia.dynamodb.codec.BranchCodec;
+import co.com.bancolombia.dynamodb.codec.ItemSizeEstimator;
+import co.com.bancolombia.dynamodb.config.DynamoDBProperties;
+import co.com.bancolombia.model.franchise.Branch;
+import co.com.bancolombia.model.franchise.Product;
+import co.com.bancolombia.model.franchise.gateways.StorageStrategyEngine;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.List;
+
+// Estima el tamaño del item de la sucursal con las mismas reglas que DynamoDB aplica al límite de 400 KB:
+// products según su codificación real (nombres incluidos) más el resto de atributos de la sucursal
+@Component
+@RequiredArgsConstructor
+public class SizeAwareStorageStrategyEngine implements StorageStrategyEngine {
+
+    // 2 acciones por producto (Delete del METADATA y Put del LOCATOR) + 1 sobre la sucursal <= 100 por transacción
+    private static final int MAX_EMBEDDABLE_PRODUCTS = 49;
+    // Nombres de atributo, fechas, estrategia, números del resumen y claves fijas (PK/SK/GSI1 sin los ids)
+    private static final long FIXED_METADATA_BYTES = 400;
+
+    private final DynamoDBProperties properties;
+
+    @Override
+    public boolean shouldSeparate(Branch branch, Product product) {
+        long productBytes = ItemSizeEstimator.entry(product.getId(), BranchCodec.embeddedProduct(product));
+        return metadataBytes(branch) + embeddedBytes(branch) + productBytes > separateAboveBytes();
+    }
+
+    @Override
+    public boolean shouldSeparate(Branch branch, List<Product> products) {
+        long productsBytes = products.stream()
+                .mapToLong(product -> ItemSizeEstimator.entry(product.getId(), BranchCodec.embeddedProduct(product)))
+                .sum();
+        return metadataBytes(branch) + embeddedBytes(branch) + productsBytes > separateAboveBytes();
+    }
+
+    @Override
+    public boolean shouldEmbed(Branch branch, List<Product> products) {
+        return products.size() <= MAX_EMBEDDABLE_PRODUCTS
+                && metadataBytes(branch) + productsBytes(products) <= properties.getEmbeddedProducts().getEmbedBelowBytes();
+    }
+
+    @Override
+    public int maxEmbeddableProducts() {
+        return MAX_EMBEDDABLE_PRODUCTS;
+    }
+
+    // Para un save con la lista completa de productos
+    public boolean exceedsEmbedded(Branch branch, Collection<Product> products) {
+        return metadataBytes(branch) + productsBytes(products) > separateAboveBytes();
+    }
+
+    private long separateAboveBytes() {
+        return properties.getEmbeddedProducts().getSeparateAboveBytes();
+    }
+
+    // Estimación mantenida en el resumen; si la lectura trajo los productos (sucursal anterior a la estimación)
+    // se calcula de ellos
+    private static long embeddedBytes(Branch branch) {
+        if (branch.getEmbeddedBytes() != null) {
+            return branch.getEmbeddedBytes();
+        }
+        return branch.getProducts() != null ? productsBytes(branch.getProducts()) : 0;
+    }
+
+    private static long productsBytes(Collection<Product> products) {
+        return BranchCodec.embeddedBytes(BranchCodec.productsToAttributeValue(products));
+    }
+
+    // id aparece en PK, id y GSI1SK; franchiseId en franchiseId y GSI1PK; topStockProduct repite un nombre
+    private static long metadataBytes(Branch branch) {
+        Product top = branch.getTopStockProduct();
+        return FIXED_METADATA_BYTES
+                + 3 * ItemSizeEstimator.utf8(branch.getId())
+                + 2 * ItemSizeEstimator.utf8(branch.getFranchiseId())
+                + ItemSizeEstimator.utf8(branch.getName())
+                + (top != null ? ItemSizeEstimator.utf8(top.getId()) + ItemSizeEstimator.utf8(top.getName()) : 0);
+    }
+}
@@ -0,0 +1,147 @@
+package co.com.bancolombia.dynamodb.cache;
+
+import co.com.bancolombia.model.franchise.Branch;
+import co.com.bancolombia.model.franchise.Product;
+import co.com.bancolombia.model.franchise.ProductChange;
+import co.com.bancolombia.model.franchise.ProductLocation;
+import co.com.bancolombia.model.franchise.StorageStrategyChangingException;
+import co.com.bancolombia.model.franchise.gateways.BranchRepository;
+import lombok.RequiredArgsConstructor;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.Collection;
+import java.util.List;
+
+// Solo se cachean sucursales SEPARATED: su item no lleva productos. Una EMBEDDED/MIGRATING/BUCKETED trae su
+// inventario, que cambia en cada venta; esas lecturas siguen yendo a DynamoDB. Toda escritura de esta instancia
+// invalida la entrada, pero otra instancia puede devolver la sucursal a EMBEDDED: la estrategia cacheada puede
+// estar obsoleta durante el TTL. Por eso solo se sirve de caché findSummaryById, cuyos llamadores deciden con ella
+// escrituras condicionadas a la estrategia real (markSeparatedWrite, startEmbedding). Si esa condición falla, la
+// entrada se descarta y el reintento lee DynamoDB. findById no se cachea: sus productos embebidos no se pueden
+// dar por vacíos a partir de una estrategia que quizá ya no es la actual
+@RequiredArgsConstructor
+public class CachingBranchRepository implements BranchRepository {
+    
+    public static final String CACHEABLE_STRATEGY = "SEPARATED";
+    
+    private final BranchRepository delegate;
+    private final ReadThroughCache<Branch> cache;
+    
+    public static boolean isCacheable(Branch branch) {
+        return CACHEABLE_STRATEGY.equals(branch.getStorageStrategy());
+    }
+    
+    @Override
+    public Mono<Branch> save(Branch branch) {
+        return cache.refresh(branch.getId(), delegate.save(branch));
+    }
+    
+    @Override
+    public Mono<Branch> findById(String id) {
+        return delegate.findById(id);
+    }
+    
+    @Override
+    public Mono<Branch> findSummaryById(String id) {
+        return cache.get(id, () -> delegate.findSummaryById(id));
+    }
+    
+    @Override
+    public Mono<Branch> updateName(String id, String name) {
+        return cache.refresh(id, delegate.updateName(id, name));
+    }
+    
+    @Override
+    public Flux<Branch> findAllById(Collection<String> ids) {
+        return delegate.findAllById(ids);
+    }
+    
+    @Override
+    public Flux<Branch> findByFranchiseId(String franchiseId) {
+        return delegate.findByFranchiseId(franchiseId);
+    }
+    
+    @Override
+    public Flux<Branch> findSummariesByFranchiseId(String franchiseId) {
+        return delegate.findSummariesByFranchiseId(franchiseId);
+    }
+    
+    @Override
+    public Mono<Void> deleteById(String id) {
+        return cache.invalidating(id, delegate.deleteById(id));
+    }
+    
+    @Override
+    public Mono<Branch> addProduct(Branch branch, Product product) {
+        return cache.invalidating(branch.getId(), delegate.addProduct(branch, product));
+    }
+    
+    @Override
+    public Mono<Void> addProducts(Branch branch, List<Product> products) {
+        return cache.invalidating(branch.getId(), delegate.addProducts(branch, products));
+    }
+    
+    @Override
+    public Mono<ProductLocation> findProductLocation(String productId) {
+        return delegate.findProductLocation(productId);
+    }
+    
+    @Override
+    public Mono<ProductChange> updateProductStock(ProductLocation location, Integer stock) {
+        return cache.invalidating(location.getBranchId(), delegate.updateProductStock(location, stock));
+    }
+    
+    @Override
+    public Mono<Product> adjustProductStock(ProductLocation location, Integer delta) {
+        return cache.invalidating(location.getBranchId(), delegate.adjustProductStock(location, delta));
+    }
+    
+    @Override
+    public Mono<Product> updateProductName(ProductLocation location, String name) {
+        return cache.invalidating(location.getBranchId(), delegate.updateProductName(location, name));
+    }
+    
+    @Override
+    public Mono<Product> removeProduct(ProductLocation location) {
+        return cache.invalidating(location.getBranchId(), delegate.removeProduct(location));
+    }
+    
+    @Override
+    public Mono<Boolean> startMigration(String branchId) {
+        return cache.invalidating(branchId, delegate.startMigration(branchId));
+    }
+    
+    @Override
+    public Mono<Integer> migrateProductsChunk(String branchId, int chunkSize) {
+        return cache.invalidating(branchId, delegate.migrateProductsChunk(branchId, chunkSize));
+    }
+    
+    @Override
+    public Mono<Void> completeMigration(String branchId) {
+        return cache.invalidating(branchId, delegate.completeMigration(branchId));
+    }
+    
+    // Solo sella separatedWriteAt, que no forma parte de la Branch cacheada: invalidar siempre vaciaría la caché
+    // de una sucursal SEPARATED en cada alta de producto. Si falla, la estrategia cacheada ya no es la real
+    @Override
+    public Mono<Void> markSeparatedWrite(String branchId) {
+        return delegate.markSeparatedWrite(branchId)
+                .doOnError(StorageStrategyChangingException.class, error -> cache.invalidate(branchId));
+    }
+    
+    @Override
+    public Mono<Boolean> startEmbedding(String branchId) {
+        return cache.invalidating(branchId, delegate.startEmbedding(branchId));
+    }
+    
+    @Override
+    public Mono<Void> abortEmbedding(String branchId) {
+        return cache.invalidating(branchId, delegate.abortEmbedding(branchId));
+    }
+    
+    @Override
+    public Mono<Boolean> embedProducts(String branchId, List<Product> products) {
+        return cache.invalidating(branchId, delegate.embedProducts(branchId, products));
+    }
+}
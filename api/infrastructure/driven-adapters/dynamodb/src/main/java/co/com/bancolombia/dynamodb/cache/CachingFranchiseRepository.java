@@ -0,0 +1,67 @@
+package co.com.bancolombia.dynamodb.cache;
+
+import co.com.bancolombia.model.franchise.Franchise;
+import co.com.bancolombia.model.franchise.Page;
+import co.com.bancolombia.model.franchise.gateways.FranchiseRepository;
+import lombok.RequiredArgsConstructor;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.Collection;
+
+// Las franquicias casi no cambian: findById (existencia al crear sucursales, renombrado) se sirve de caché
+@RequiredArgsConstructor
+public class CachingFranchiseRepository implements FranchiseRepository {
+    
+    private final FranchiseRepository delegate;
+    private final ReadThroughCache<Franchise> cache;
+    
+    @Override
+    public Mono<Franchise> save(Franchise franchise) {
+        return cache.refresh(franchise.getId(), delegate.save(franchise));
+    }
+    
+    @Override
+    public Mono<Franchise> findById(String id) {
+        return cache.get(id, () -> delegate.findById(id));
+    }
+    
+    // ALL_NEW devuelve la franquicia completa: reemplaza la entrada como un save
+    @Override
+    public Mono<Franchise> updateName(String id, String name) {
+        return cache.refresh(id, delegate.updateName(id, name));
+    }
+    
+    @Override
+    public Flux<Franchise> findAllById(Collection<String> ids) {
+        return delegate.findAllById(ids);
+    }
+    
+    @Override
+    public Flux<Franchise> findAll() {
+        return delegate.findAll();
+    }
+    
+    @Override
+    public Mono<Page<Franchise>> findPage(int limit, String cursor) {
+        return delegate.findPage(limit, cursor);
+    }
+    
+    @Override
+    public Mono<Void> deleteById(String id) {
+        return cache.invalidating(id, delegate.deleteById(id));
+    }
+    
+    // Se desaloja en vez de guardar la franquicia marcada: la caché solo acelera lecturas, el cerco lo pone la
+    // condición de registerWrite
+    @Override
+    public Mono<Franchise> markDeleting(String id) {
+        return cache.invalidating(id, delegate.markDeleting(id));
+    }
+    
+    // Siempre contra la tabla: la condición no puede evaluarse sobre una entrada cacheada
+    @Override
+    public Mono<Void> registerWrite(String id) {
+        return delegate.registerWrite(id);
+    }
+}
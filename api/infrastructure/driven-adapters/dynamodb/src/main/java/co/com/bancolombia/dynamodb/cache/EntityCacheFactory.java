@@ -0,0 +1,40 @@
+package co.com.bancolombia.dynamodb.cache;
+
+import co.com.bancolombia.dynamodb.config.DynamoDBProperties;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+
+import java.util.function.Predicate;
+
+// Crea las cachés de entidades según aws.dynamodb.cache y publica sus métricas (cache.gets hit/miss,
+// cache.evictions, cache.size) con el tag cache=<nombre>
+@Component
+public class EntityCacheFactory {
+    
+    private final DynamoDBProperties properties;
+    private final MeterRegistry meterRegistry;
+    
+    public EntityCacheFactory(DynamoDBProperties properties, ObjectProvider<MeterRegistry> meterRegistry) {
+        this.properties = properties;
+        this.meterRegistry = meterRegistry.getIfAvailable(SimpleMeterRegistry::new);
+    }
+    
+    public boolean isEnabled() {
+        return properties.getCache().isEnabled();
+    }
+    
+    public <V> ReadThroughCache<V> create(String name, DynamoDBProperties.Cache.Entry settings, Predicate<V> cacheable) {
+        Cache<String, V> cache = Caffeine.newBuilder()
+                .maximumSize(settings.getMaxSize())
+                .expireAfterWrite(settings.getTtl())
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, name);
+        return new ReadThroughCache<>(cache, cacheable);
+    }
+}
@@ -0,0 +1,66 @@
+package co.com.bancolombia.dynamodb.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import reactor.core.publisher.Mono;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+// Caché en proceso por id con lectura a través del gateway. Una lectura solo guarda su resultado si no
+// hubo escrituras mientras estaba en vuelo: así una consulta iniciada antes de un save no puede dejar
+// en la caché el valor anterior. Los ausentes no se cachean (la creación pasa por save)
+public class ReadThroughCache<V> {
+    
+    private final Cache<String, V> cache;
+    private final Predicate<V> cacheable;
+    private final AtomicLong writes = new AtomicLong();
+    
+    public ReadThroughCache(Cache<String, V> cache, Predicate<V> cacheable) {
+        this.cache = cache;
+        this.cacheable = cacheable;
+    }
+    
+    public Mono<V> get(String key, Supplier<Mono<V>> loader) {
+        return Mono.defer(() -> {
+            V cached = cache.getIfPresent(key);
+            if (cached != null) {
+                return Mono.just(cached);
+            }
+            long epoch = writes.get();
+            return loader.get()
+                    .doOnNext(value -> {
+                        if (cacheable.test(value) && writes.get() == epoch) {
+                            cache.put(key, value);
+                        }
+                    });
+        });
+    }
+    
+    // Escritura cuyo resultado es la entidad completa: reemplaza la entrada en vez de solo invalidarla
+    public Mono<V> refresh(String key, Mono<V> write) {
+        return write
+                .doOnSubscribe(subscription -> invalidate(key))
+                .doOnNext(value -> {
+                    invalidate(key);
+                    if (cacheable.test(value)) {
+                        cache.put(key, value);
+                    }
+                })
+                .doOnError(error -> invalidate(key))
+                .doOnCancel(() -> invalidate(key));
+    }
+    
+    public <T> Mono<T> invalidating(String key, Mono<T> write) {
+        return write
+                .doOnSubscribe(subscription -> invalidate(key))
+                .doOnTerminate(() -> invalidate(key))
+                .doOnCancel(() -> invalidate(key));
+    }
+    
+    // Para cuando una escritura revela que la entrada quedó obsoleta (cambió desde otra instancia)
+    public void invalidate(String key) {
+        writes.incrementAndGet();
+        cache.invalidate(key);
+    }
+}
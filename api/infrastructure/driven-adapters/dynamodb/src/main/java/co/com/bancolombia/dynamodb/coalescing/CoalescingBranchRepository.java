@@ -0,0 +1,159 @@
+package co.com.bancolombia.dynamodb.coalescing;
+
+import co.com.bancolombia.model.franchise.Branch;
+import co.com.bancolombia.model.franchise.Product;
+import co.com.bancolombia.model.franchise.ProductChange;
+import co.com.bancolombia.model.franchise.ProductLocation;
+import co.com.bancolombia.model.franchise.gateways.BranchRepository;
+import lombok.RequiredArgsConstructor;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.Collection;
+import java.util.List;
+
+@RequiredArgsConstructor
+public class CoalescingBranchRepository implements BranchRepository {
+    
+    private final BranchRepository delegate;
+    private final SingleFlight<String, Product> productReads;
+    private final SingleFlight<String, Branch> branchReads = new SingleFlight<>();
+    private final SingleFlight<String, ProductLocation> locationReads = new SingleFlight<>();
+    
+    @Override
+    public Mono<Branch> save(Branch branch) {
+        return forgetting(delegate.save(branch), branch.getId(), null);
+    }
+    
+    @Override
+    public Mono<Branch> findById(String id) {
+        return branchReads.execute(id, () -> delegate.findById(id));
+    }
+    
+    @Override
+    public Mono<Branch> findSummaryById(String id) {
+        return delegate.findSummaryById(id);
+    }
+    
+    @Override
+    public Flux<Branch> findAllById(Collection<String> ids) {
+        return delegate.findAllById(ids);
+    }
+    
+    @Override
+    public Flux<Branch> findByFranchiseId(String franchiseId) {
+        return delegate.findByFranchiseId(franchiseId);
+    }
+    
+    @Override
+    public Flux<Branch> findSummariesByFranchiseId(String franchiseId) {
+        return delegate.findSummariesByFranchiseId(franchiseId);
+    }
+    
+    @Override
+    public Mono<Void> deleteById(String id) {
+        return forgetting(delegate.deleteById(id), id, null);
+    }
+    
+    @Override
+    public Mono<Branch> updateName(String id, String name) {
+        return forgetting(delegate.updateName(id, name), id, null);
+    }
+    
+    @Override
+    public Mono<Branch> addProduct(Branch branch, Product product) {
+        return forgetting(delegate.addProduct(branch, product), branch.getId(), product.getId());
+    }
+    
+    // Los productos de una carga son nuevos: nadie los ha leído aún, basta liberar la sucursal
+    @Override
+    public Mono<Void> addProducts(Branch branch, List<Product> products) {
+        return forgetting(delegate.addProducts(branch, products), branch.getId(), null);
+    }
+    
+    @Override
+    public Mono<ProductLocation> findProductLocation(String productId) {
+        return locationReads.execute(productId, () -> delegate.findProductLocation(productId));
+    }
+    
+    @Override
+    public Mono<ProductChange> updateProductStock(ProductLocation location, Integer stock) {
+        return forgetting(delegate.updateProductStock(location, stock), location.getBranchId(), location.getProductId());
+    }
+    
+    @Override
+    public Mono<Product> adjustProductStock(ProductLocation location, Integer delta) {
+        return forgetting(delegate.adjustProductStock(location, delta), location.getBranchId(), location.getProductId());
+    }
+    
+    @Override
+    public Mono<Product> updateProductName(ProductLocation location, String name) {
+        return forgetting(delegate.updateProductName(location, name), location.getBranchId(), location.getProductId());
+    }
+    
+    @Override
+    public Mono<Product> removeProduct(ProductLocation location) {
+        return forgetting(delegate.removeProduct(location), location.getBranchId(), location.getProductId());
+    }
+    
+    @Override
+    public Mono<Boolean> startMigration(String branchId) {
+        return forgetting(delegate.startMigration(branchId), branchId, null);
+    }
+    
+    // Un lote de migración mueve productos cuyos ids no se conocen aquí: se liberan todas sus lecturas
+    @Override
+    public Mono<Integer> migrateProductsChunk(String branchId, int chunkSize) {
+        return delegate.migrateProductsChunk(branchId, chunkSize)
+                .doOnTerminate(() -> {
+                    branchReads.forget(branchId);
+                    locationReads.forgetAll();
+                    productReads.forgetAll();
+                });
+    }
+    
+    @Override
+    public Mono<Void> completeMigration(String branchId) {
+        return forgetting(delegate.completeMigration(branchId), branchId, null);
+    }
+    
+    // Solo sella la sucursal: nada de lo que se lee cambia
+    @Override
+    public Mono<Void> markSeparatedWrite(String branchId) {
+        return delegate.markSeparatedWrite(branchId);
+    }
+    
+    @Override
+    public Mono<Boolean> startEmbedding(String branchId) {
+        return forgetting(delegate.startEmbedding(branchId), branchId, null);
+    }
+    
+    @Override
+    public Mono<Void> abortEmbedding(String branchId) {
+        return forgetting(delegate.abortEmbedding(branchId), branchId, null);
+    }
+    
+    // Igual que un lote de migración: cambia la ubicación de todos los productos movidos
+    @Override
+    public Mono<Boolean> embedProducts(String branchId, List<Product> products) {
+        return delegate.embedProducts(branchId, products)
+                .doOnTerminate(() -> {
+                    branchReads.forget(branchId);
+                    locationReads.forgetAll();
+                    productReads.forgetAll();
+                });
+    }
+    
+    private <T> Mono<T> forgetting(Mono<T> write, String branchId, String productId) {
+        Runnable forget = () -> {
+            branchReads.forget(branchId);
+            if (productId != null) {
+                locationReads.forget(productId);
+                productReads.forget(productId);
+            }
+        };
+        return write
+                .doOnTerminate(forget)
+                .doOnCancel(forget);
+    }
+}
@@ -0,0 +1,70 @@
+package co.com.bancolombia.dynamodb.coalescing;
+
+import co.com.bancolombia.model.franchise.Franchise;
+import co.com.bancolombia.model.franchise.Page;
+import co.com.bancolombia.model.franchise.gateways.FranchiseRepository;
+import lombok.RequiredArgsConstructor;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.Collection;
+
+@RequiredArgsConstructor
+public class CoalescingFranchiseRepository implements FranchiseRepository {
+    
+    private final FranchiseRepository delegate;
+    private final SingleFlight<String, Franchise> franchiseReads = new SingleFlight<>();
+    
+    @Override
+    public Mono<Franchise> save(Franchise franchise) {
+        return delegate.save(franchise)
+                .doOnTerminate(() -> franchiseReads.forget(franchise.getId()))
+                .doOnCancel(() -> franchiseReads.forget(franchise.getId()));
+    }
+    
+    @Override
+    public Mono<Franchise> findById(String id) {
+        return franchiseReads.execute(id, () -> delegate.findById(id));
+    }
+    
+    @Override
+    public Mono<Franchise> updateName(String id, String name) {
+        return delegate.updateName(id, name)
+                .doOnTerminate(() -> franchiseReads.forget(id))
+                .doOnCancel(() -> franchiseReads.forget(id));
+    }
+    
+    @Override
+    public Flux<Franchise> findAllById(Collection<String> ids) {
+        return delegate.findAllById(ids);
+    }
+    
+    @Override
+    public Flux<Franchise> findAll() {
+        return delegate.findAll();
+    }
+    
+    @Override
+    public Mono<Page<Franchise>> findPage(int limit, String cursor) {
+        return delegate.findPage(limit, cursor);
+    }
+    
+    @Override
+    public Mono<Void> deleteById(String id) {
+        return delegate.deleteById(id)
+                .doOnTerminate(() -> franchiseReads.forget(id))
+                .doOnCancel(() -> franchiseReads.forget(id));
+    }
+    
+    @Override
+    public Mono<Franchise> markDeleting(String id) {
+        return delegate.markDeleting(id)
+                .doOnTerminate(() -> franchiseReads.forget(id))
+                .doOnCancel(() -> franchiseReads.forget(id));
+    }
+    
+    @Override
+    public Mono<Void> registerWrite(String id) {
+        return delegate.registerWrite(id);
+    }
+}
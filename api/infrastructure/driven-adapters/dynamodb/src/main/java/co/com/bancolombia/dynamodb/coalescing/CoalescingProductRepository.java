@@ -0,0 +1,88 @@
+package co.com.bancolombia.dynamodb.coalescing;
+
+import co.com.bancolombia.model.franchise.Page;
+import co.com.bancolombia.model.franchise.Product;
+import co.com.bancolombia.model.franchise.ProductChange;
+import co.com.bancolombia.model.franchise.gateways.ProductRepository;
+import lombok.RequiredArgsConstructor;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.Collection;
+import java.util.List;
+
+// productReads se comparte con CoalescingBranchRepository: los productos embebidos se modifican a
+// través de la sucursal y esas escrituras también deben liberar las lecturas por id
+@RequiredArgsConstructor
+public class CoalescingProductRepository implements ProductRepository {
+    
+    private final ProductRepository delegate;
+    private final SingleFlight<String, Product> productReads;
+    
+    @Override
+    public Mono<Product> save(Product product) {
+        return forgetting(delegate.save(product), product.getId());
+    }
+    
+    // Ids recién generados: no hay lecturas en vuelo que liberar
+    @Override
+    public Flux<Product> saveAll(List<Product> products) {
+        return delegate.saveAll(products);
+    }
+    
+    @Override
+    public Mono<Product> findById(String id) {
+        return productReads.execute(id, () -> delegate.findById(id));
+    }
+    
+    @Override
+    public Flux<Product> findAllById(Collection<String> ids) {
+        return delegate.findAllById(ids);
+    }
+    
+    @Override
+    public Flux<Product> findByBranchId(String branchId) {
+        return delegate.findByBranchId(branchId);
+    }
+    
+    @Override
+    public Mono<Page<Product>> findPageByBranchId(String branchId, int limit, String cursor) {
+        return delegate.findPageByBranchId(branchId, limit, cursor);
+    }
+    
+    @Override
+    public Flux<Product> findByFranchiseId(String franchiseId) {
+        return delegate.findByFranchiseId(franchiseId);
+    }
+    
+    @Override
+    public Flux<Product> findTopStockByFranchise(String franchiseId, int limit) {
+        return delegate.findTopStockByFranchise(franchiseId, limit);
+    }
+    
+    @Override
+    public Flux<Product> findTopStockByBranch(String branchId, int limit) {
+        return delegate.findTopStockByBranch(branchId, limit);
+    }
+    
+    @Override
+    public Mono<Product> deleteById(String id) {
+        return forgetting(delegate.deleteById(id), id);
+    }
+    
+    @Override
+    public Mono<Product> adjustStock(String id, Integer delta) {
+        return forgetting(delegate.adjustStock(id, delta), id);
+    }
+    
+    @Override
+    public Mono<ProductChange> updateStock(String id, Integer stock) {
+        return forgetting(delegate.updateStock(id, stock), id);
+    }
+    
+    private <T> Mono<T> forgetting(Mono<T> write, String productId) {
+        return write
+                .doOnTerminate(() -> productReads.forget(productId))
+                .doOnCancel(() -> productReads.forget(productId));
+    }
+}
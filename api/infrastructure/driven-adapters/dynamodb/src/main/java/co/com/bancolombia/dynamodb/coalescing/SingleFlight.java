@@ -0,0 +1,114 @@
+package co.com.bancolombia.dynamodb.coalescing;
+
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.util.context.Context;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+// Agrupa lecturas concurrentes de una misma clave: mientras una consulta está en vuelo, las demás se
+// suscriben a su resultado en vez de lanzar otra. Como cache() pero sin retener el valor: al terminar la
+// consulta la clave se libera y la siguiente lectura vuelve a la base. Si todos los suscriptores cancelan,
+// se cancela la consulta y la clave queda libre. La consulta corre con el Context de quien la lanzó: los que
+// se unen después reciben su resultado, pero su propio Context no llega a la consulta
+public class SingleFlight<K, V> {
+    
+    private final Map<K, Flight<V>> flights = new ConcurrentHashMap<>();
+    
+    public Mono<V> execute(K key, Supplier<Mono<V>> loader) {
+        return Mono.deferContextual(context -> {
+            Flight<V> created = new Flight<>();
+            Flight<V> flight = flights.compute(key, (k, current) -> current != null && current.join() ? current : created);
+            if (flight == created) {
+                flight.start(loader.get(), Context.of(context), () -> flights.remove(key, created));
+            }
+            return flight.result.asMono()
+                    .doOnCancel(() -> {
+                        if (flight.leave()) {
+                            flights.remove(key, flight);
+                        }
+                    });
+        });
+    }
+    
+    // Tras una escritura: las lecturas que empiecen después no deben unirse a una consulta anterior a ella
+    public void forget(K key) {
+        flights.remove(key);
+    }
+    
+    public void forgetAll() {
+        flights.clear();
+    }
+    
+    int inFlight() {
+        return flights.size();
+    }
+    
+    private static final class Flight<V> {
+        private final Sinks.One<V> result = Sinks.one();
+        private int subscribers = 1;
+        private boolean closed;
+        private boolean cancelled;
+        private Disposable upstream;
+        
+        synchronized boolean join() {
+            if (closed) {
+                return false;
+            }
+            subscribers++;
+            return true;
+        }
+        
+        // true si era el último suscriptor: la consulta se cancela y la clave debe liberarse
+        boolean leave() {
+            Disposable toCancel;
+            synchronized (this) {
+                if (closed || --subscribers > 0) {
+                    return false;
+                }
+                closed = true;
+                cancelled = true;
+                toCancel = upstream;
+            }
+            if (toCancel != null) {
+                toCancel.dispose();
+            }
+            return true;
+        }
+        
+        void start(Mono<V> source, Context context, Runnable release) {
+            // La clave se libera antes de emitir: quien reaccione al resultado con otra lectura arranca una nueva
+            Disposable subscription = source.subscribe(
+                value -> {
+                    close(release);
+                    result.tryEmitValue(value);
+                },
+                error -> {
+                    close(release);
+                    result.tryEmitError(error);
+                },
+                () -> {
+                    close(release);
+                    result.tryEmitEmpty();
+                },
+                context);
+            synchronized (this) {
+                upstream = subscription;
+                if (!cancelled) {
+                    return;
+                }
+            }
+            subscription.dispose();
+        }
+        
+        private void close(Runnable release) {
+            synchronized (this) {
+                closed = true;
+            }
+            release.run();
+        }
+    }
+}
@@ -0,0 +1,124 @@
+package co.com.bancolombia.dynamodb.codec;
+
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+
+// Conversión directa entre tipos Java y AttributeValue sin reflexión. Los valores que se repiten en
+// todas las claves (SK fijos) se construyen una sola vez: AttributeValue es inmutable y se puede compartir
+public final class AttributeCodec {
+
+    public static final String PK = "PK";
+    public static final String SK = "SK";
+    public static final AttributeValue METADATA_SK = s("METADATA");
+    public static final AttributeValue LOCATOR_SK = s("LOCATOR");
+
+    private AttributeCodec() {
+    }
+
+    public static AttributeValue s(String value) {
+        return AttributeValue.builder().s(value).build();
+    }
+
+    public static AttributeValue n(int value) {
+        return AttributeValue.builder().n(Integer.toString(value)).build();
+    }
+
+    public static AttributeValue n(long value) {
+        return AttributeValue.builder().n(Long.toString(value)).build();
+    }
+
+    public static Map<String, AttributeValue> key(String partitionKey, AttributeValue sortKey) {
+        return Map.of(PK, s(partitionKey), SK, sortKey);
+    }
+
+    // Igual que el cliente enhanced con ignoreNulls: un valor nulo no se escribe
+    public static void putS(Map<String, AttributeValue> item, String name, String value) {
+        if (value != null) {
+            item.put(name, s(value));
+        }
+    }
+
+    public static void putN(Map<String, AttributeValue> item, String name, Integer value) {
+        if (value != null) {
+            item.put(name, n(value));
+        }
+    }
+
+    public static void putDateTime(Map<String, AttributeValue> item, String name, LocalDateTime value) {
+        if (value != null) {
+            item.put(name, s(value.toString()));
+        }
+    }
+
+    public static String string(Map<String, AttributeValue> item, String name) {
+        AttributeValue value = item.get(name);
+        return value != null ? value.s() : null;
+    }
+
+    public static Integer integer(Map<String, AttributeValue> item, String name) {
+        AttributeValue value = item.get(name);
+        return value != null && value.n() != null ? Integer.valueOf(value.n()) : null;
+    }
+
+    public static Long longValue(Map<String, AttributeValue> item, String name) {
+        AttributeValue value = item.get(name);
+        return value != null && value.n() != null ? Long.valueOf(value.n()) : null;
+    }
+
+    public static LocalDateTime dateTime(Map<String, AttributeValue> item, String name) {
+        AttributeValue value = item.get(name);
+        return value != null && value.s() != null ? parseDateTime(value.s()) : null;
+    }
+
+    // Lee directamente los formatos que produce LocalDateTime.toString() (uuuu-MM-ddTHH:mm[:ss[.f{1,9}]])
+    // sin pasar por DateTimeFormatter; cualquier otra forma se delega en LocalDateTime.parse
+    static LocalDateTime parseDateTime(String text) {
+        int length = text.length();
+        if (length < 16 || text.charAt(4) != '-' || text.charAt(7) != '-' || text.charAt(10) != 'T'
+                || text.charAt(13) != ':') {
+            return LocalDateTime.parse(text);
+        }
+        int year = digits(text, 0, 4);
+        int month = digits(text, 5, 7);
+        int day = digits(text, 8, 10);
+        int hour = digits(text, 11, 13);
+        int minute = digits(text, 14, 16);
+        int second = 0;
+        int nano = 0;
+        if (length > 16) {
+            if (length < 19 || text.charAt(16) != ':') {
+                return LocalDateTime.parse(text);
+            }
+            second = digits(text, 17, 19);
+            if (length > 19) {
+                int fractionDigits = length - 20;
+                if (text.charAt(19) != '.' || fractionDigits < 1 || fractionDigits > 9) {
+                    return LocalDateTime.parse(text);
+                }
+                nano = digits(text, 20, length);
+                for (int i = fractionDigits; i < 9; i++) {
+                    nano *= 10;
+                }
+            }
+        }
+        if ((year | month | day | hour | minute | second | nano) < 0) {
+            return LocalDateTime.parse(text);
+        }
+        return LocalDateTime.of(year, month, day, hour, minute, second, nano);
+    }
+
+    // -1 si el tramo contiene algo distinto de un dígito
+    private static int digits(String text, int from, int to) {
+        int value = 0;
+        for (int i = from; i < to; i++) {
+            int digit = text.charAt(i) - '0';
+            if (digit < 0 || digit > 9) {
+                return -1;
+            }
+            value = value * 10 + digit;
+        }
+        return value;
+    }
+}
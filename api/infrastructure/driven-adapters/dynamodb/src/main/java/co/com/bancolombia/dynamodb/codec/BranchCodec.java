@@ -0,0 +1,367 @@
+package co.com.bancolombia.dynamodb.codec;
+
+import co.com.bancolombia.model.franchise.Branch;
+import co.com.bancolombia.model.franchise.Product;
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static co.com.bancolombia.dynamodb.codec.AttributeCodec.dateTime;
+import static co.com.bancolombia.dynamodb.codec.AttributeCodec.integer;
+import static co.com.bancolombia.dynamodb.codec.AttributeCodec.longValue;
+import static co.com.bancolombia.dynamodb.codec.AttributeCodec.putDateTime;
+import static co.com.bancolombia.dynamodb.codec.AttributeCodec.putN;
+import static co.com.bancolombia.dynamodb.codec.AttributeCodec.putS;
+import static co.com.bancolombia.dynamodb.codec.AttributeCodec.string;
+
+// Item METADATA de una sucursal y sus productos embebidos (mapa productId -> producto, o empaquetados en un
+// atributo B si está activado). Las sucursales escritas con el formato anterior (lista) se siguen leyendo.
+// Una sucursal EMBEDDED lleva además el resumen productCount/totalStock/topStockProduct y embeddedBytes, el
+// tamaño estimado de su atributo products (ver ItemSizeEstimator). Una BUCKETED reparte sus
+// productos en items PRODUCTS#NN de la misma partición, cada uno con su propio mapa y su propio resumen
+public final class BranchCodec {
+
+    public static final String PREFIX = "BRANCH#";
+    public static final String ID = "id";
+    public static final String FRANCHISE_ID = "franchiseId";
+    public static final String NAME = "name";
+    public static final String CREATED_AT = "createdAt";
+    public static final String UPDATED_AT = "updatedAt";
+    public static final String STORAGE_STRATEGY = "storageStrategy";
+    public static final String PRODUCTS = "products";
+    public static final String GSI1PK = "GSI1PK";
+    public static final String GSI1SK = "GSI1SK";
+    public static final String STOCK = "stock";
+    public static final String PRODUCT_COUNT = "productCount";
+    public static final String TOTAL_STOCK = "totalStock";
+    public static final String TOP_STOCK_PRODUCT = "topStockProduct";
+    public static final String EMBEDDED_BYTES = "embeddedBytes";
+    public static final String EMBEDDED_STRATEGY = "EMBEDDED";
+    public static final String BUCKETED_STRATEGY = "BUCKETED";
+    public static final String BUCKET_PREFIX = "PRODUCTS#";
+    // Número fijo de buckets: el de cada producto sale del hash de su id, sin estado de asignación ni lectura previa
+    public static final int BUCKETS = 16;
+    // Todo menos products; name es palabra reservada
+    public static final String SUMMARY_PROJECTION = "id, franchiseId, #name, createdAt, updatedAt, storageStrategy, "
+            + "productCount, totalStock, topStockProduct, embeddedBytes";
+    public static final Map<String, String> SUMMARY_PROJECTION_NAMES = Map.of("#name", NAME);
+    // Mayor stock; a igual stock, el menor id
+    private static final Comparator<Product> TOP_STOCK = Comparator.comparing(Product::getStock)
+            .thenComparing(Product::getId, Comparator.reverseOrder());
+    private static final int ATTRIBUTES = 14;
+    private static final int EMBEDDED_ATTRIBUTES = 5;
+
+    private BranchCodec() {
+    }
+
+    public static Map<String, AttributeValue> key(String branchId) {
+        return AttributeCodec.key(PREFIX + branchId, AttributeCodec.METADATA_SK);
+    }
+
+    public static Map<String, AttributeValue> bucketKey(String branchId, String productId) {
+        return bucketKey(branchId, Math.floorMod(productId.hashCode(), BUCKETS));
+    }
+
+    public static Map<String, AttributeValue> bucketKey(String branchId, int bucket) {
+        return AttributeCodec.key(PREFIX + branchId, AttributeCodec.s(String.format("%s%02d", BUCKET_PREFIX, bucket)));
+    }
+
+    public static boolean isBucket(Map<String, AttributeValue> item) {
+        AttributeValue sk = item.get(AttributeCodec.SK);
+        return sk != null && sk.s() != null && sk.s().startsWith(BUCKET_PREFIX);
+    }
+
+    public static boolean isBucketed(Map<String, AttributeValue> item) {
+        return BUCKETED_STRATEGY.equals(string(item, STORAGE_STRATEGY));
+    }
+
+    public static String idFromKey(Map<String, AttributeValue> item) {
+        return item.get(AttributeCodec.PK).s().substring(PREFIX.length());
+    }
+
+    // products es el atributo ya codificado (mapa o empaquetado), o null si la sucursal no embebe productos
+    public static Map<String, AttributeValue> toItem(Branch branch, String storageStrategy, AttributeValue products) {
+        Map<String, AttributeValue> item = new HashMap<>(ATTRIBUTES * 2);
+        item.put(AttributeCodec.PK, AttributeCodec.s(PREFIX + branch.getId()));
+        item.put(AttributeCodec.SK, AttributeCodec.METADATA_SK);
+        putS(item, ID, branch.getId());
+        putS(item, FRANCHISE_ID, branch.getFranchiseId());
+        putS(item, NAME, branch.getName());
+        putDateTime(item, CREATED_AT, branch.getCreatedAt());
+        putDateTime(item, UPDATED_AT, branch.getUpdatedAt());
+        putS(item, STORAGE_STRATEGY, storageStrategy);
+        putS(item, GSI1PK, branch.getFranchiseId());
+        putS(item, GSI1SK, branch.getId());
+        if (products != null) {
+            item.put(PRODUCTS, products);
+        }
+        if (EMBEDDED_STRATEGY.equals(storageStrategy)) {
+            putSummary(item, branch.getProducts() != null ? branch.getProducts() : List.of());
+            if (isPacked(products)) {
+                item.put(EMBEDDED_BYTES, AttributeCodec.n(embeddedBytes(products)));
+            }
+        }
+        return item;
+    }
+
+    // Valores exactos del resumen para el conjunto completo de productos embebidos; embeddedBytes corresponde al
+    // mapa (con el atributo empaquetado se sobrescribe con su tamaño real)
+    public static void putSummary(Map<String, AttributeValue> item, Collection<Product> products) {
+        item.put(PRODUCT_COUNT, AttributeCodec.n(products.size()));
+        item.put(TOTAL_STOCK, AttributeCodec.n(totalStock(products)));
+        item.put(EMBEDDED_BYTES, AttributeCodec.n(embeddedBytes(productsToAttributeValue(products))));
+        Product top = topStockProduct(products);
+        if (top != null) {
+            item.put(TOP_STOCK_PRODUCT, topStockProduct(top));
+        }
+    }
+
+    public static long totalStock(Collection<Product> products) {
+        long total = 0;
+        for (Product product : products) {
+            total += product.getStock() != null ? product.getStock() : 0;
+        }
+        return total;
+    }
+
+    public static Product topStockProduct(Collection<Product> products) {
+        return products.stream()
+                .filter(product -> product.getStock() != null)
+                .max(TOP_STOCK)
+                .orElse(null);
+    }
+
+    // true si candidate desplaza a top (o no hay top)
+    public static boolean beats(Product candidate, Product top) {
+        return top == null || TOP_STOCK.compare(candidate, top) >= 0;
+    }
+
+    public static AttributeValue topStockProduct(Product product) {
+        Map<String, AttributeValue> value = new HashMap<>(6);
+        putS(value, ID, product.getId());
+        putS(value, NAME, product.getName());
+        putN(value, STOCK, product.getStock());
+        return AttributeValue.builder().m(value).build();
+    }
+
+    public static Product topStockProduct(AttributeValue value, String branchId) {
+        if (value == null || !value.hasM()) {
+            return null;
+        }
+        return Product.builder()
+                .id(string(value.m(), ID))
+                .branchId(branchId)
+                .name(string(value.m(), NAME))
+                .stock(integer(value.m(), STOCK))
+                .build();
+    }
+
+    public static boolean hasSummary(Map<String, AttributeValue> item) {
+        return item.containsKey(PRODUCT_COUNT);
+    }
+
+    // Resúmenes escritos antes de la estimación de tamaño no la traen
+    public static boolean hasSizeEstimate(Map<String, AttributeValue> item) {
+        return item.containsKey(EMBEDDED_BYTES);
+    }
+
+    public static long embeddedBytes(AttributeValue products) {
+        return ItemSizeEstimator.attribute(PRODUCTS, products);
+    }
+
+    public static Branch fromItem(Map<String, AttributeValue> item) {
+        String branchId = string(item, ID);
+        AttributeValue products = item.get(PRODUCTS);
+        List<Product> embedded = products != null ? embeddedProducts(products, branchId) : null;
+        String storageStrategy = string(item, STORAGE_STRATEGY);
+        Branch.BranchBuilder branch = Branch.builder()
+                .id(branchId)
+                .franchiseId(string(item, FRANCHISE_ID))
+                .name(string(item, NAME))
+                .createdAt(dateTime(item, CREATED_AT))
+                .updatedAt(dateTime(item, UPDATED_AT))
+                .storageStrategy(storageStrategy)
+                .products(embedded);
+        if (hasSummary(item)) {
+            return branch
+                    .productCount(integer(item, PRODUCT_COUNT))
+                    .totalStock(longValue(item, TOTAL_STOCK))
+                    .topStockProduct(topStockProduct(item.get(TOP_STOCK_PRODUCT), branchId))
+                    .embeddedBytes(hasSizeEstimate(item) || products == null
+                            ? longValue(item, EMBEDDED_BYTES)
+                            : embeddedBytes(products))
+                    .build();
+        }
+        // Sucursal escrita antes del resumen: se calcula de los productos leídos
+        if (embedded != null && (storageStrategy == null || EMBEDDED_STRATEGY.equals(storageStrategy))) {
+            return branch
+                    .productCount(embedded.size())
+                    .totalStock(totalStock(embedded))
+                    .topStockProduct(topStockProduct(embedded))
+                    .embeddedBytes(embeddedBytes(products))
+                    .build();
+        }
+        return branch.build();
+    }
+
+    // Partición completa de una sucursal (METADATA y, si es BUCKETED, sus buckets, en cualquier orden).
+    // Sin METADATA la sucursal no existe
+    public static Branch fromPartition(Collection<Map<String, AttributeValue>> items) {
+        Map<String, AttributeValue> metadata = null;
+        List<Map<String, AttributeValue>> buckets = new ArrayList<>();
+        for (Map<String, AttributeValue> item : items) {
+            if (isBucket(item)) {
+                buckets.add(item);
+            } else if (AttributeCodec.METADATA_SK.equals(item.get(AttributeCodec.SK))) {
+                metadata = item;
+            }
+        }
+        return metadata != null ? fromItems(metadata, buckets) : null;
+    }
+
+    // Los productos de todos los buckets se unen y sus resúmenes se suman. Si los buckets se leyeron con la
+    // proyección del resumen, products queda sin valor como en cualquier lectura proyectada
+    public static Branch fromItems(Map<String, AttributeValue> metadata, Collection<Map<String, AttributeValue>> buckets) {
+        Branch branch = fromItem(metadata);
+        if (!isBucketed(metadata)) {
+            return branch;
+        }
+        String branchId = branch.getId();
+        List<Product> products = buckets.isEmpty() ? new ArrayList<>() : null;
+        int count = 0;
+        long total = 0;
+        Product top = null;
+        for (Map<String, AttributeValue> bucket : buckets) {
+            AttributeValue bucketProducts = bucket.get(PRODUCTS);
+            if (bucketProducts != null) {
+                products = products != null ? products : new ArrayList<>();
+                products.addAll(embeddedProducts(bucketProducts, branchId));
+            }
+            Integer bucketCount = integer(bucket, PRODUCT_COUNT);
+            Long bucketTotal = longValue(bucket, TOTAL_STOCK);
+            count += bucketCount != null ? bucketCount : 0;
+            total += bucketTotal != null ? bucketTotal : 0;
+            Product bucketTop = topStockProduct(bucket.get(TOP_STOCK_PRODUCT), branchId);
+            if (bucketTop != null && beats(bucketTop, top)) {
+                top = bucketTop;
+            }
+        }
+        return branch.toBuilder()
+                .products(products)
+                .productCount(count)
+                .totalStock(total)
+                .topStockProduct(top)
+                .build();
+    }
+
+    public static AttributeValue productsToAttributeValue(Collection<Product> products) {
+        Map<String, AttributeValue> values = new LinkedHashMap<>();
+        if (products != null) {
+            products.forEach(product -> values.put(product.getId(), embeddedProduct(product)));
+        }
+        return AttributeValue.builder().m(values).build();
+    }
+
+    public static AttributeValue packedProducts(Collection<Product> products, int compressionThreshold) {
+        return AttributeValue.builder().b(PackedProductsCodec.encode(products, compressionThreshold)).build();
+    }
+
+    public static boolean isPacked(AttributeValue products) {
+        return products != null && products.b() != null;
+    }
+
+    public static AttributeValue embeddedProduct(Product product) {
+        Map<String, AttributeValue> value = new HashMap<>(EMBEDDED_ATTRIBUTES * 2);
+        putS(value, ID, product.getId());
+        putS(value, NAME, product.getName());
+        putN(value, STOCK, product.getStock());
+        putDateTime(value, CREATED_AT, product.getCreatedAt());
+        putDateTime(value, UPDATED_AT, product.getUpdatedAt());
+        return AttributeValue.builder().m(value).build();
+    }
+
+    public static Product embeddedProduct(AttributeValue value, String branchId) {
+        Map<String, AttributeValue> product = value.m();
+        return Product.builder()
+                .id(string(product, ID))
+                .branchId(branchId)
+                .name(string(product, NAME))
+                .stock(integer(product, STOCK))
+                .createdAt(dateTime(product, CREATED_AT))
+                .updatedAt(dateTime(product, UPDATED_AT))
+                .build();
+    }
+
+    // Decodifica solo el producto pedido; null si la sucursal no lo tiene
+    public static Product embeddedProduct(AttributeValue products, String productId, String branchId) {
+        if (isPacked(products)) {
+            return PackedProductsCodec.decode(products.b(), branchId).stream()
+                    .filter(product -> productId.equals(product.getId()))
+                    .findFirst()
+                    .orElse(null);
+        }
+        if (products.hasM()) {
+            AttributeValue value = products.m().get(productId);
+            return value != null ? embeddedProduct(value, branchId) : null;
+        }
+        if (products.hasL()) {
+            for (AttributeValue value : products.l()) {
+                if (productId.equals(string(value.m(), ID))) {
+                    return embeddedProduct(value, branchId);
+                }
+            }
+        }
+        return null;
+    }
+
+    public static List<Product> embeddedProducts(AttributeValue products, String branchId) {
+        if (isPacked(products)) {
+            return PackedProductsCodec.decode(products.b(), branchId);
+        }
+        Collection<AttributeValue> values = products.hasM() ? products.m().values()
+                : products.hasL() ? products.l() : List.of();
+        List<Product> result = new ArrayList<>(values.size());
+        values.forEach(value -> result.add(embeddedProduct(value, branchId)));
+        return result;
+    }
+
+    public static Set<String> productIds(AttributeValue products) {
+        if (products == null) {
+            return new HashSet<>();
+        }
+        if (isPacked(products)) {
+            Set<String> ids = new HashSet<>();
+            PackedProductsCodec.decode(products.b(), null).forEach(product -> ids.add(product.getId()));
+            return ids;
+        }
+        if (products.hasM()) {
+            return new HashSet<>(products.m().keySet());
+        }
+        Set<String> ids = new HashSet<>();
+        if (products.hasL()) {
+            products.l().forEach(value -> ids.add(string(value.m(), ID)));
+        }
+        return ids;
+    }
+
+    // Lista del formato anterior -> mapa indexado por id, conservando los valores tal como están guardados.
+    // Un atributo empaquetado se desempaqueta a mapa
+    public static AttributeValue normalizeProducts(AttributeValue products) {
+        if (isPacked(products)) {
+            return productsToAttributeValue(PackedProductsCodec.decode(products.b(), null));
+        }
+        Map<String, AttributeValue> values = new LinkedHashMap<>();
+        if (products != null && products.hasL()) {
+            products.l().forEach(value -> values.put(string(value.m(), ID), value));
+        }
+        return AttributeValue.builder().m(values).build();
+    }
+}
@@ -0,0 +1,89 @@
+package co.com.bancolombia.dynamodb.codec;
+
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
+// Cursor opaco de paginación: el LastEvaluatedKey de DynamoDB serializado en base64url. Solo lleva
+// atributos de clave (S o N); cualquier cursor que no decodifique a las claves esperadas se rechaza
+public final class CursorCodec {
+
+    private static final byte VERSION = 1;
+    private static final int MAX_LENGTH = 1024;
+    private static final char STRING = 'S';
+    private static final char NUMBER = 'N';
+
+    private CursorCodec() {
+    }
+
+    public static String encode(Map<String, AttributeValue> lastEvaluatedKey) {
+        if (lastEvaluatedKey == null || lastEvaluatedKey.isEmpty()) {
+            return null;
+        }
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(128);
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeByte(VERSION);
+            out.writeByte(lastEvaluatedKey.size());
+            for (Map.Entry<String, AttributeValue> entry : lastEvaluatedKey.entrySet()) {
+                out.writeUTF(entry.getKey());
+                if (entry.getValue().n() != null) {
+                    out.writeByte(NUMBER);
+                    out.writeUTF(entry.getValue().n());
+                } else {
+                    out.writeByte(STRING);
+                    out.writeUTF(entry.getValue().s());
+                }
+            }
+        } catch (IOException e) {
+            throw new IllegalStateException("No se pudo generar el cursor", e);
+        }
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes.toByteArray());
+    }
+
+    // null si no hay cursor (primera página)
+    public static Map<String, AttributeValue> decode(String cursor, Set<String> expectedKeys) {
+        if (cursor == null || cursor.isEmpty()) {
+            return null;
+        }
+        if (cursor.length() > MAX_LENGTH) {
+            throw invalid(null);
+        }
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(Base64.getUrlDecoder().decode(cursor)))) {
+            if (in.readByte() != VERSION) {
+                throw invalid(null);
+            }
+            int size = in.readUnsignedByte();
+            Map<String, AttributeValue> key = new HashMap<>(size * 2);
+            for (int i = 0; i < size; i++) {
+                String name = in.readUTF();
+                char type = (char) in.readByte();
+                String value = in.readUTF();
+                if (type == NUMBER) {
+                    key.put(name, AttributeValue.builder().n(value).build());
+                } else if (type == STRING) {
+                    key.put(name, AttributeCodec.s(value));
+                } else {
+                    throw invalid(null);
+                }
+            }
+            if (in.available() > 0 || !key.keySet().equals(expectedKeys)) {
+                throw invalid(null);
+            }
+            return key;
+        } catch (IOException | IllegalArgumentException e) {
+            throw invalid(e);
+        }
+    }
+
+    private static IllegalArgumentException invalid(Throwable cause) {
+        return new IllegalArgumentException("Cursor de paginación inválido", cause);
+    }
+}
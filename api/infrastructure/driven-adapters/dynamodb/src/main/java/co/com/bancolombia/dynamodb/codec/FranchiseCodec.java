@@ -0,0 +1,55 @@
+package co.com.bancolombia.dynamodb.codec;
+
+import co.com.bancolombia.model.franchise.Franchise;
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static co.com.bancolombia.dynamodb.codec.AttributeCodec.dateTime;
+import static co.com.bancolombia.dynamodb.codec.AttributeCodec.putDateTime;
+import static co.com.bancolombia.dynamodb.codec.AttributeCodec.putS;
+import static co.com.bancolombia.dynamodb.codec.AttributeCodec.string;
+
+public final class FranchiseCodec {
+
+    public static final String PREFIX = "FRANCHISE#";
+    public static final String ID = "id";
+    public static final String NAME = "name";
+    public static final String CREATED_AT = "createdAt";
+    public static final String UPDATED_AT = "updatedAt";
+    public static final String STATUS = "status";
+    public static final String LAST_WRITE_AT = "lastWriteAt";
+    private static final int ATTRIBUTES = 8;
+
+    private FranchiseCodec() {
+    }
+
+    public static Map<String, AttributeValue> key(String franchiseId) {
+        return AttributeCodec.key(PREFIX + franchiseId, AttributeCodec.METADATA_SK);
+    }
+
+    public static Map<String, AttributeValue> toItem(Franchise franchise) {
+        Map<String, AttributeValue> item = new HashMap<>(ATTRIBUTES * 2);
+        item.put(AttributeCodec.PK, AttributeCodec.s(PREFIX + franchise.getId()));
+        item.put(AttributeCodec.SK, AttributeCodec.METADATA_SK);
+        putS(item, ID, franchise.getId());
+        putS(item, NAME, franchise.getName());
+        putDateTime(item, CREATED_AT, franchise.getCreatedAt());
+        putDateTime(item, UPDATED_AT, franchise.getUpdatedAt());
+        putS(item, STATUS, franchise.getStatus());
+        putDateTime(item, LAST_WRITE_AT, franchise.getLastWriteAt());
+        return item;
+    }
+
+    public static Franchise fromItem(Map<String, AttributeValue> item) {
+        return Franchise.builder()
+                .id(string(item, ID))
+                .name(string(item, NAME))
+                .createdAt(dateTime(item, CREATED_AT))
+                .updatedAt(dateTime(item, UPDATED_AT))
+                .status(string(item, STATUS))
+                .lastWriteAt(dateTime(item, LAST_WRITE_AT))
+                .build();
+    }
+}
@@ -0,0 +1,70 @@
+package co.com.bancolombia.dynamodb.codec;
+
+import co.com.bancolombia.model.franchise.FranchiseDeletionJob;
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static co.com.bancolombia.dynamodb.codec.AttributeCodec.dateTime;
+import static co.com.bancolombia.dynamodb.codec.AttributeCodec.longValue;
+import static co.com.bancolombia.dynamodb.codec.AttributeCodec.putDateTime;
+import static co.com.bancolombia.dynamodb.codec.AttributeCodec.putS;
+import static co.com.bancolombia.dynamodb.codec.AttributeCodec.string;
+
+// Job de borrado en la tabla de franquicias: misma partición que la franquicia, SK DELETION. Sobrevive a su
+// METADATA para que el resultado se pueda consultar; expiresAt (TTL de la tabla, epoch s) lo elimina al terminar
+// la retención. heartbeatAt (epoch ms) es el último avance guardado: un job RUNNING sin avance reciente se retoma
+public final class FranchiseDeletionJobCodec {
+
+    public static final AttributeValue DELETION_SK = AttributeCodec.s("DELETION");
+    public static final String FRANCHISE_ID = "franchiseId";
+    public static final String RUN_ID = "runId";
+    public static final String STATUS = "status";
+    public static final String DELETED_ITEMS = "deletedItems";
+    public static final String ERROR = "error";
+    public static final String STARTED_AT = "startedAt";
+    public static final String FINISHED_AT = "finishedAt";
+    public static final String HEARTBEAT_AT = "heartbeatAt";
+    public static final String EXPIRES_AT = "expiresAt";
+    private static final int ATTRIBUTES = 11;
+
+    private FranchiseDeletionJobCodec() {
+    }
+
+    public static Map<String, AttributeValue> key(String franchiseId) {
+        return AttributeCodec.key(FranchiseCodec.PREFIX + franchiseId, DELETION_SK);
+    }
+
+    // expiresAt null: el job sigue en curso y no expira
+    public static Map<String, AttributeValue> toItem(FranchiseDeletionJob job, long heartbeatAt, Long expiresAt) {
+        Map<String, AttributeValue> item = new HashMap<>(ATTRIBUTES * 2);
+        item.put(AttributeCodec.PK, AttributeCodec.s(FranchiseCodec.PREFIX + job.getFranchiseId()));
+        item.put(AttributeCodec.SK, DELETION_SK);
+        putS(item, FRANCHISE_ID, job.getFranchiseId());
+        putS(item, RUN_ID, job.getRunId());
+        putS(item, STATUS, job.getStatus());
+        item.put(DELETED_ITEMS, AttributeCodec.n(job.getDeletedItems()));
+        putS(item, ERROR, job.getError());
+        putDateTime(item, STARTED_AT, job.getStartedAt());
+        putDateTime(item, FINISHED_AT, job.getFinishedAt());
+        item.put(HEARTBEAT_AT, AttributeCodec.n(heartbeatAt));
+        if (expiresAt != null) {
+            item.put(EXPIRES_AT, AttributeCodec.n(expiresAt));
+        }
+        return item;
+    }
+
+    public static FranchiseDeletionJob fromItem(Map<String, AttributeValue> item) {
+        Long deletedItems = longValue(item, DELETED_ITEMS);
+        return FranchiseDeletionJob.builder()
+                .franchiseId(string(item, FRANCHISE_ID))
+                .runId(string(item, RUN_ID))
+                .status(string(item, STATUS))
+                .deletedItems(deletedItems != null ? deletedItems : 0)
+                .error(string(item, ERROR))
+                .startedAt(dateTime(item, STARTED_AT))
+                .finishedAt(dateTime(item, FINISHED_AT))
+                .build();
+    }
+}
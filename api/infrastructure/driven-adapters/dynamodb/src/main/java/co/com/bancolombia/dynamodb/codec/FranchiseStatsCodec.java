@@ -0,0 +1,40 @@
+package co.com.bancolombia.dynamodb.codec;
+
+import co.com.bancolombia.model.franchise.FranchiseStats;
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+
+import java.util.Map;
+
+import static co.com.bancolombia.dynamodb.codec.AttributeCodec.longValue;
+
+// Un item por shard: PK STATS#<franchiseId>#<shard>, sin sort key. Cada shard guarda solo la parte de los
+// contadores que le tocó; el total de la franquicia es la suma de todos
+public final class FranchiseStatsCodec {
+
+    public static final String PREFIX = "STATS#";
+    public static final String FRANCHISE_ID = "franchiseId";
+    public static final String BRANCH_COUNT = "branchCount";
+    public static final String PRODUCT_COUNT = "productCount";
+    public static final String TOTAL_STOCK = "totalStock";
+
+    private FranchiseStatsCodec() {
+    }
+
+    public static Map<String, AttributeValue> key(String franchiseId, int shard) {
+        return Map.of(AttributeCodec.PK, AttributeCodec.s(PREFIX + franchiseId + "#" + shard));
+    }
+
+    // Un shard que nunca recibió escrituras no existe: los atributos ausentes cuentan como 0
+    public static FranchiseStats fromItem(String franchiseId, Map<String, AttributeValue> item) {
+        return FranchiseStats.builder()
+                .franchiseId(franchiseId)
+                .branchCount(orZero(longValue(item, BRANCH_COUNT)))
+                .productCount(orZero(longValue(item, PRODUCT_COUNT)))
+                .totalStock(orZero(longValue(item, TOTAL_STOCK)))
+                .build();
+    }
+
+    private static long orZero(Long value) {
+        return value != null ? value : 0;
+    }
+}
@@ -0,0 +1,59 @@
+package co.com.bancolombia.dynamodb.codec;
+
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+
+// Tamaño de un valor según las reglas de DynamoDB para el límite de 400 KB por item: strings y binarios por sus
+// bytes, mapas y listas 3 bytes + 1 por elemento (más la clave en los mapas). Los números se cuentan siempre con
+// su máximo (21 bytes) para que un cambio de stock no altere la estimación: es una cota superior
+public final class ItemSizeEstimator {
+
+    public static final long MAX_NUMBER_BYTES = 21;
+    private static final long CONTAINER_BYTES = 3;
+    private static final long ELEMENT_BYTES = 1;
+
+    private ItemSizeEstimator() {
+    }
+
+    public static long of(AttributeValue value) {
+        if (value == null) {
+            return 0;
+        }
+        return switch (value.type()) {
+            case S -> utf8(value.s());
+            case N -> MAX_NUMBER_BYTES;
+            case B -> value.b().asByteArray().length;
+            case BOOL, NUL -> 1;
+            case SS -> value.ss().stream().mapToLong(ItemSizeEstimator::utf8).sum();
+            case NS -> value.ns().size() * MAX_NUMBER_BYTES;
+            case BS -> value.bs().stream().mapToLong(bytes -> bytes.asByteArray().length).sum();
+            case M -> map(value.m());
+            case L -> CONTAINER_BYTES + value.l().stream().mapToLong(element -> ELEMENT_BYTES + of(element)).sum();
+            default -> 0;
+        };
+    }
+
+    // Atributo de primer nivel: nombre + valor
+    public static long attribute(String name, AttributeValue value) {
+        return value != null ? utf8(name) + of(value) : 0;
+    }
+
+    // Lo que aporta una entrada products.#pid al mapa de productos (0 si no existe)
+    public static long entry(String key, AttributeValue value) {
+        return value != null ? ELEMENT_BYTES + utf8(key) + of(value) : 0;
+    }
+
+    public static long utf8(String value) {
+        return value != null ? value.getBytes(StandardCharsets.UTF_8).length : 0;
+    }
+
+    private static long map(Map<String, AttributeValue> values) {
+        long size = CONTAINER_BYTES;
+        for (Map.Entry<String, AttributeValue> entry : values.entrySet()) {
+            size += entry(entry.getKey(), entry.getValue());
+        }
+        return size;
+    }
+}
@@ -0,0 +1,236 @@
+package co.com.bancolombia.dynamodb.codec;
+
+import co.com.bancolombia.model.franchise.Product;
+import software.amazon.awssdk.core.SdkBytes;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+// Productos embebidos empaquetados en un único atributo B. Formato v1:
+//   [versión][flags] + cuerpo (deflate si flags & COMPRESSED)
+//   cuerpo = varint n + n * (string id, byte presentes, string name, zigzag stock, zigzag createdAt,
+//            zigzag updatedAt - createdAt); strings como varint longitud + UTF-8; fechas en epoch millis UTC
+// Un lector que encuentra una versión desconocida falla en lugar de interpretar bytes a ciegas
+public final class PackedProductsCodec {
+
+    public static final byte VERSION = 1;
+    private static final byte COMPRESSED = 0x01;
+    private static final int HAS_NAME = 0x01;
+    private static final int HAS_STOCK = 0x02;
+    private static final int HAS_CREATED_AT = 0x04;
+    private static final int HAS_UPDATED_AT = 0x08;
+
+    private PackedProductsCodec() {
+    }
+
+    public static SdkBytes encode(Collection<Product> products, int compressionThreshold) {
+        Writer body = new Writer();
+        body.varint(products.size());
+        for (Product product : products) {
+            int present = (product.getName() != null ? HAS_NAME : 0)
+                    | (product.getStock() != null ? HAS_STOCK : 0)
+                    | (product.getCreatedAt() != null ? HAS_CREATED_AT : 0)
+                    | (product.getUpdatedAt() != null ? HAS_UPDATED_AT : 0);
+            body.string(product.getId());
+            body.out.write(present);
+            if (product.getName() != null) {
+                body.string(product.getName());
+            }
+            if (product.getStock() != null) {
+                body.varlong(zigzag(product.getStock()));
+            }
+            long createdAt = product.getCreatedAt() != null ? toEpochMillis(product.getCreatedAt()) : 0L;
+            if (product.getCreatedAt() != null) {
+                body.varlong(zigzag(createdAt));
+            }
+            if (product.getUpdatedAt() != null) {
+                // Casi siempre updatedAt >= createdAt y cercano: el delta ocupa pocos bytes
+                body.varlong(zigzag(toEpochMillis(product.getUpdatedAt()) - createdAt));
+            }
+        }
+
+        byte[] raw = body.out.toByteArray();
+        byte flags = 0;
+        byte[] payload = raw;
+        if (raw.length >= compressionThreshold) {
+            byte[] deflated = deflate(raw);
+            if (deflated.length < raw.length) {
+                payload = deflated;
+                flags |= COMPRESSED;
+            }
+        }
+        byte[] encoded = new byte[payload.length + 2];
+        encoded[0] = VERSION;
+        encoded[1] = flags;
+        System.arraycopy(payload, 0, encoded, 2, payload.length);
+        return SdkBytes.fromByteArrayUnsafe(encoded);
+    }
+
+    public static List<Product> decode(SdkBytes value, String branchId) {
+        byte[] encoded = value.asByteArrayUnsafe();
+        if (encoded.length < 2 || encoded[0] != VERSION) {
+            throw new IllegalStateException("Formato de productos embebidos no soportado: v"
+                    + (encoded.length > 0 ? encoded[0] : -1));
+        }
+        Reader reader = (encoded[1] & COMPRESSED) != 0
+                ? new Reader(inflate(encoded, 2), 0)
+                : new Reader(encoded, 2);
+        int count = reader.count();
+        List<Product> products = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            Product.ProductBuilder builder = Product.builder()
+                    .id(reader.string())
+                    .branchId(branchId);
+            int present = reader.next();
+            if ((present & HAS_NAME) != 0) {
+                builder.name(reader.string());
+            }
+            if ((present & HAS_STOCK) != 0) {
+                builder.stock((int) unzigzag(reader.varlong()));
+            }
+            long createdAt = 0L;
+            if ((present & HAS_CREATED_AT) != 0) {
+                createdAt = unzigzag(reader.varlong());
+                builder.createdAt(fromEpochMillis(createdAt));
+            }
+            if ((present & HAS_UPDATED_AT) != 0) {
+                builder.updatedAt(fromEpochMillis(createdAt + unzigzag(reader.varlong())));
+            }
+            products.add(builder.build());
+        }
+        return products;
+    }
+
+    private static long toEpochMillis(LocalDateTime value) {
+        return value.toInstant(ZoneOffset.UTC).toEpochMilli();
+    }
+
+    private static LocalDateTime fromEpochMillis(long millis) {
+        return LocalDateTime.ofInstant(Instant.ofEpochMilli(millis), ZoneOffset.UTC);
+    }
+
+    private static long zigzag(long value) {
+        return (value << 1) ^ (value >> 63);
+    }
+
+    private static long unzigzag(long value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    private static byte[] deflate(byte[] raw) {
+        Deflater deflater = new Deflater(Deflater.BEST_SPEED, true);
+        try {
+            deflater.setInput(raw);
+            deflater.finish();
+            ByteArrayOutputStream out = new ByteArrayOutputStream(raw.length / 2 + 16);
+            byte[] buffer = new byte[1024];
+            while (!deflater.finished()) {
+                out.write(buffer, 0, deflater.deflate(buffer));
+            }
+            return out.toByteArray();
+        } finally {
+            deflater.end();
+        }
+    }
+
+    private static byte[] inflate(byte[] encoded, int offset) {
+        Inflater inflater = new Inflater(true);
+        try {
+            inflater.setInput(encoded, offset, encoded.length - offset);
+            ByteArrayOutputStream out = new ByteArrayOutputStream((encoded.length - offset) * 3);
+            byte[] buffer = new byte[1024];
+            while (!inflater.finished()) {
+                int inflated = inflater.inflate(buffer);
+                if (inflated == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+                    throw new IllegalStateException("Productos embebidos comprimidos truncados");
+                }
+                out.write(buffer, 0, inflated);
+            }
+            return out.toByteArray();
+        } catch (DataFormatException e) {
+            throw new IllegalStateException("Productos embebidos comprimidos corruptos", e);
+        } finally {
+            inflater.end();
+        }
+    }
+
+    private static final class Writer {
+        private final ByteArrayOutputStream out = new ByteArrayOutputStream(256);
+
+        private void varint(int value) {
+            varlong(value & 0xFFFFFFFFL);
+        }
+
+        private void varlong(long value) {
+            while ((value & ~0x7FL) != 0) {
+                out.write((int) ((value & 0x7F) | 0x80));
+                value >>>= 7;
+            }
+            out.write((int) value);
+        }
+
+        private void string(String value) {
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            varint(bytes.length);
+            out.write(bytes, 0, bytes.length);
+        }
+    }
+
+    private static final class Reader {
+        private final byte[] data;
+        private int position;
+
+        private Reader(byte[] data, int position) {
+            this.data = data;
+            this.position = position;
+        }
+
+        private int next() {
+            if (position >= data.length) {
+                throw new IllegalStateException("Productos embebidos empaquetados truncados");
+            }
+            return data[position++] & 0xFF;
+        }
+
+        private long varlong() {
+            long value = 0;
+            for (int shift = 0; shift < 64; shift += 7) {
+                int current = next();
+                value |= (long) (current & 0x7F) << shift;
+                if ((current & 0x80) == 0) {
+                    return value;
+                }
+            }
+            throw new IllegalStateException("Varint inválido en productos embebidos empaquetados");
+        }
+
+        // Cada producto ocupa al menos 2 bytes (longitud del id y presentes): un conteo mayor es un atributo
+        // truncado o corrupto, y reservar la lista con él podría agotar la memoria
+        private int count() {
+            long count = varlong();
+            if (count < 0 || count > (data.length - position) / 2) {
+                throw new IllegalStateException("Productos embebidos empaquetados truncados");
+            }
+            return (int) count;
+        }
+
+        private String string() {
+            int length = (int) varlong();
+            if (length < 0 || position + length > data.length) {
+                throw new IllegalStateException("Productos embebidos empaquetados truncados");
+            }
+            String value = new String(data, position, length, StandardCharsets.UTF_8);
+            position += length;
+            return value;
+        }
+    }
+}
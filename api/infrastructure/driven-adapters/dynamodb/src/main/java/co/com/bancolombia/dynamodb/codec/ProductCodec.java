@@ -0,0 +1,69 @@
+package co.com.bancolombia.dynamodb.codec;
+
+import co.com.bancolombia.model.franchise.Product;
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static co.com.bancolombia.dynamodb.codec.AttributeCodec.dateTime;
+import static co.com.bancolombia.dynamodb.codec.AttributeCodec.integer;
+import static co.com.bancolombia.dynamodb.codec.AttributeCodec.putDateTime;
+import static co.com.bancolombia.dynamodb.codec.AttributeCodec.putN;
+import static co.com.bancolombia.dynamodb.codec.AttributeCodec.putS;
+import static co.com.bancolombia.dynamodb.codec.AttributeCodec.string;
+
+// Item METADATA de un producto SEPARATED en la tabla de productos
+public final class ProductCodec {
+
+    public static final String PREFIX = "PRODUCT#";
+    public static final String ID = "id";
+    public static final String FRANCHISE_ID = "franchiseId";
+    public static final String BRANCH_ID = "branchId";
+    public static final String NAME = "name";
+    public static final String STOCK = "stock";
+    public static final String CREATED_AT = "createdAt";
+    public static final String UPDATED_AT = "updatedAt";
+    public static final String GSI1PK = "GSI1PK";
+    public static final String GSI2PK = "GSI2PK";
+    private static final int ATTRIBUTES = 11;
+
+    private ProductCodec() {
+    }
+
+    public static Map<String, AttributeValue> key(String productId) {
+        return key(productId, AttributeCodec.METADATA_SK);
+    }
+
+    public static Map<String, AttributeValue> key(String productId, AttributeValue sortKey) {
+        return AttributeCodec.key(PREFIX + productId, sortKey);
+    }
+
+    public static Map<String, AttributeValue> toItem(Product product) {
+        Map<String, AttributeValue> item = new HashMap<>(ATTRIBUTES * 2);
+        item.put(AttributeCodec.PK, AttributeCodec.s(PREFIX + product.getId()));
+        item.put(AttributeCodec.SK, AttributeCodec.METADATA_SK);
+        putS(item, ID, product.getId());
+        putS(item, FRANCHISE_ID, product.getFranchiseId());
+        putS(item, BRANCH_ID, product.getBranchId());
+        putS(item, NAME, product.getName());
+        putN(item, STOCK, product.getStock());
+        putDateTime(item, CREATED_AT, product.getCreatedAt());
+        putDateTime(item, UPDATED_AT, product.getUpdatedAt());
+        putS(item, GSI1PK, product.getBranchId());
+        putS(item, GSI2PK, product.getFranchiseId());
+        return item;
+    }
+
+    public static Product fromItem(Map<String, AttributeValue> item) {
+        return Product.builder()
+                .id(string(item, ID))
+                .franchiseId(string(item, FRANCHISE_ID))
+                .branchId(string(item, BRANCH_ID))
+                .name(string(item, NAME))
+                .stock(integer(item, STOCK))
+                .createdAt(dateTime(item, CREATED_AT))
+                .updatedAt(dateTime(item, UPDATED_AT))
+                .build();
+    }
+}
@@ -1,5 +1,10 @@
 package co.com.bancolombia.dynamodb.config;
 
+import co.com.bancolombia.dynamodb.throttle.DynamoThrottle;
+import co.com.bancolombia.dynamodb.throttle.ThrottledDynamoDbAsyncClient;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -7,8 +12,10 @@ import software.amazon.awssdk.auth.credentials.AwsBasicCredentials;
 import software.amazon.awssdk.auth.credentials.AwsCredentialsProvider;
 import software.amazon.awssdk.auth.credentials.DefaultCredentialsProvider;
 import software.amazon.awssdk.auth.credentials.StaticCredentialsProvider;
-import software.amazon.awssdk.enhanced.dynamodb.DynamoDbEnhancedAsyncClient;
+import software.amazon.awssdk.core.exception.SdkClientException;
+import software.amazon.awssdk.core.exception.SdkServiceException;
 import software.amazon.awssdk.regions.Region;
+import software.amazon.awssdk.retries.DefaultRetryStrategy;
 import software.amazon.awssdk.services.dynamodb.DynamoDbAsyncClient;
 import software.amazon.awssdk.services.dynamodb.DynamoDbAsyncClientBuilder;
 
@@ -24,9 +31,12 @@ public class DynamoDBConfig {
     private String endpoint;
     
     @Bean
-    public DynamoDbAsyncClient dynamoDbAsyncClient() {
+    public DynamoDbAsyncClient dynamoDbAsyncClient(DynamoDBTransport transport,
+                                                   DynamoDBProperties properties,
+                                                   ObjectProvider<MeterRegistry> meterRegistry) {
         DynamoDbAsyncClientBuilder builder = DynamoDbAsyncClient.builder()
-                .region(Region.of(region));
+                .region(Region.of(region))
+                .httpClientBuilder(transport.httpClientBuilder());
         
         // Configuración para LocalStack
         if (!endpoint.isEmpty()) {
@@ -37,13 +47,23 @@ public class DynamoDBConfig {
             builder.credentialsProvider(DefaultCredentialsProvider.create());
         }
         
-        return builder.build();
+        DynamoDBProperties.Throttling throttling = properties.getThrottling();
+        if (!throttling.isEnabled()) {
+            return builder.build();
+        }
+        // El throttling lo reintenta DynamoThrottle (que además ajusta el limitador); el SDK solo reintenta
+        // fallas de red y 5xx para no multiplicar los intentos
+        builder.overrideConfiguration(override -> override.retryStrategy(DefaultRetryStrategy.standardStrategyBuilder()
+                .retryOnException(DynamoDBConfig::isTransientFailure)
+                .build()));
+        DynamoThrottle throttle = new DynamoThrottle(throttling, meterRegistry.getIfAvailable(SimpleMeterRegistry::new));
+        return new ThrottledDynamoDbAsyncClient(builder.build(), throttle);
     }
     
-    @Bean
-    public DynamoDbEnhancedAsyncClient dynamoDbEnhancedAsyncClient(DynamoDbAsyncClient dynamoDbAsyncClient) {
-        return DynamoDbEnhancedAsyncClient.builder()
-                .dynamoDbClient(dynamoDbAsyncClient)
-                .build();
+    private static boolean isTransientFailure(Throwable error) {
+        return error instanceof SdkClientException
+                || error instanceof SdkServiceException serviceError
+                    && serviceError.statusCode() >= 500
+                    && !serviceError.isThrottlingException();
     }
 }
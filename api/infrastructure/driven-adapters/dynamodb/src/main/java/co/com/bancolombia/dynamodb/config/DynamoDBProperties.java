@@ -4,17 +4,169 @@ import lombok.Data;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.stereotype.Component;
 
+import java.time.Duration;
+
 @Data
 @Component
 @ConfigurationProperties(prefix = "aws.dynamodb")
 public class DynamoDBProperties {
     private String region;
     private Tables tables = new Tables();
+    private EmbeddedProducts embeddedProducts = new EmbeddedProducts();
+    private Transport transport = new Transport();
+    private Throttling throttling = new Throttling();
+    private Cache cache = new Cache();
+    private Stats stats = new Stats();
+    private FranchiseDeletion franchiseDeletion = new FranchiseDeletion();
+    private InventoryExport inventoryExport = new InventoryExport();
     
     @Data
     public static class Tables {
         private String franchises;
         private String branches;
         private String products;
+        private String stats;
+    }
+    
+    @Data
+    public static class EmbeddedProducts {
+        // Opt-in: guarda los productos embebidos empaquetados en un único atributo B (ver PackedProductsCodec)
+        private boolean packed = false;
+        // A partir de este tamaño (bytes) el cuerpo empaquetado se comprime con deflate si así ocupa menos
+        private int compressionThreshold = 512;
+        // Opt-in: las sucursales nuevas se crean BUCKETED, con sus productos repartidos en buckets PRODUCTS#NN
+        private boolean bucketed = false;
+        // Tamaño estimado del item a partir del cual la sucursal pasa a SEPARATED (lejos de los 400 KB: acota
+        // también lo que lee y reescribe cada escritura sobre un producto embebido)
+        private long separateAboveBytes = 64 * 1024;
+        // Una SEPARATED vuelve a EMBEDDED si todos sus productos caben por debajo de este tamaño; debe ser menor
+        // que separate-above-bytes para que una sucursal en el límite no oscile entre ambas
+        private long embedBelowBytes = 32 * 1024;
+        // Una SEPARATED solo empieza a volver a EMBEDDED si su última escritura en la tabla de productos es más
+        // antigua que esto: debe cubrir lo que tarda esa escritura, el retraso de GSI1 y el desfase de relojes
+        // entre instancias. Es también lo que puede durar un EMBEDDING antes de darlo por abandonado
+        private Duration embeddingFence = Duration.ofSeconds(30);
+        // Un producto sin LOCATOR se busca recorriendo la tabla de sucursales y se le escribe el suyo. Solo para la
+        // ventana entre el despliegue y scripts/backfill-product-locators.sh: cada id inexistente cuesta un Scan
+        // completo y cualquiera puede provocarlo desde fuera
+        private boolean locatorFallbackScan = false;
+    }
+    
+    @Data
+    public static class Transport {
+        private Type type = Type.NETTY;
+        // Conexiones simultáneas por cliente; con el default del SDK (50) se agotan bajo carga
+        private int maxConcurrency = 200;
+        // Solicitudes que pueden esperar una conexión libre antes de fallar (solo NETTY)
+        private int maxPendingConnectionAcquires = 10_000;
+        // Espera máxima por una conexión del pool (solo NETTY)
+        private Duration connectionAcquisitionTimeout = Duration.ofSeconds(10);
+        private Duration connectionTimeout = Duration.ofSeconds(2);
+        // Recicla conexiones vivas para que tomen nuevas IPs del endpoint (solo NETTY; 0 = sin límite)
+        private Duration connectionTimeToLive = Duration.ofMinutes(1);
+        private Duration connectionMaxIdleTime = Duration.ofMinutes(1);
+        private boolean tcpKeepAlive = true;
+        // Desactiva Nagle: las requests de DynamoDB son pequeñas y sensibles a latencia (solo NETTY)
+        private boolean tcpNoDelay = true;
+        // epoll en Linux si la librería nativa está disponible; si no, NIO (solo NETTY)
+        private boolean nativeTransport = true;
+        // 0 = default del SDK (2 x núcleos)
+        private int eventLoopThreads = 0;
+        
+        public enum Type {
+            NETTY,
+            CRT
+        }
+    }
+    
+    @Data
+    public static class Throttling {
+        // Limitador adaptativo por tabla y operación + reintentos con jitter ante throttling de DynamoDB
+        private boolean enabled = true;
+        // Al primer throttling la tasa baja a la observada por este factor, y de nuevo en cada rechazo
+        private double decreaseFactor = 0.7;
+        // Recuperación lineal de la tasa (requests/s por segundo) mientras no haya rechazos
+        private double recoveryRatePerSecond = 10;
+        private double minRate = 1;
+        // Sin throttling durante este tiempo el limitador se desactiva
+        private Duration quietPeriod = Duration.ofSeconds(30);
+        // Espera máxima en el limitador; por encima se rechaza sin llamar a DynamoDB
+        private Duration maxQueueDelay = Duration.ofSeconds(2);
+        private int maxRetries = 5;
+        private Duration minBackoff = Duration.ofMillis(50);
+        private Duration maxBackoff = Duration.ofSeconds(2);
+        private double jitter = 0.5;
+    }
+    
+    @Data
+    public static class Cache {
+        // Caché en proceso de lecturas por id (ver cache/ReadThroughCache)
+        private boolean enabled = true;
+        private Entry franchises = new Entry(Duration.ofMinutes(5), 10_000);
+        private Entry branches = new Entry(Duration.ofMinutes(1), 10_000);
+        
+        @Data
+        public static class Entry {
+            private Duration ttl;
+            private long maxSize;
+            
+            public Entry() {
+            }
+            
+            public Entry(Duration ttl, long maxSize) {
+                this.ttl = ttl;
+                this.maxSize = maxSize;
+            }
+        }
+    }
+    
+    @Data
+    public static class Stats {
+        // Items por franquicia entre los que se reparten las escrituras de los contadores. Solo debe crecer:
+        // la lectura suma los shards 0..N-1 y uno que quede fuera dejaría de contarse
+        private int shards = 10;
+    }
+    
+    @Data
+    public static class FranchiseDeletion {
+        // Presupuesto de escrituras (items/s) del borrado en cascada: deja capacidad al tráfico de la API
+        private int writesPerSecond = 500;
+        // Lotes de BatchWriteItem en vuelo a la vez, dentro del presupuesto
+        private int concurrency = 4;
+        // Tiempo que se puede consultar un job terminado antes de que el TTL de la tabla lo elimine
+        private Duration jobRetention = Duration.ofHours(24);
+        // Cada cuánto busca cada instancia jobs abandonados para retomarlos: un job queda sin avanzar hasta
+        // 2 minutos (su lease) más este intervalo
+        private Duration resumeInterval = Duration.ofMinutes(1);
+        
+        // El ritmo de los lotes se calcula dividiendo por este valor: se rechaza al arrancar y no a mitad de un borrado
+        public void setWritesPerSecond(int writesPerSecond) {
+            if (writesPerSecond <= 0) {
+                throw new IllegalArgumentException("aws.dynamodb.franchise-deletion.writes-per-second debe ser mayor que 0");
+            }
+            this.writesPerSecond = writesPerSecond;
+        }
+        
+        public void setConcurrency(int concurrency) {
+            if (concurrency <= 0) {
+                throw new IllegalArgumentException("aws.dynamodb.franchise-deletion.concurrency debe ser mayor que 0");
+            }
+            this.concurrency = concurrency;
+        }
+        
+        // Flux.interval no acepta un periodo cero o negativo: se rechaza al arrancar
+        public void setResumeInterval(Duration resumeInterval) {
+            if (resumeInterval == null || resumeInterval.isZero() || resumeInterval.isNegative()) {
+                throw new IllegalArgumentException("aws.dynamodb.franchise-deletion.resume-interval debe ser mayor que 0");
+            }
+            this.resumeInterval = resumeInterval;
+        }
+    }
+    
+    @Data
+    public static class InventoryExport {
+        // TotalSegments del Scan paralelo de cada tabla: las tres se leen a la vez, con una página en vuelo por
+        // segmento (hasta 3 x total-segments MB en memoria)
+        private int totalSegments = 4;
     }
 }
@@ -0,0 +1,87 @@
+package co.com.bancolombia.dynamodb.config;
+
+import io.netty.channel.ChannelOption;
+import io.netty.channel.EventLoopGroup;
+import io.netty.channel.epoll.Epoll;
+import io.netty.channel.epoll.EpollEventLoopGroup;
+import io.netty.channel.epoll.EpollSocketChannel;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.stereotype.Component;
+import software.amazon.awssdk.http.async.SdkAsyncHttpClient;
+import software.amazon.awssdk.http.crt.AwsCrtAsyncHttpClient;
+import software.amazon.awssdk.http.crt.TcpKeepAliveConfiguration;
+import software.amazon.awssdk.http.nio.netty.NettyNioAsyncHttpClient;
+import software.amazon.awssdk.http.nio.netty.SdkEventLoopGroup;
+
+import java.time.Duration;
+
+// Construye el cliente HTTP del DynamoDbAsyncClient a partir de aws.dynamodb.transport. El SDK cierra el
+// cliente HTTP junto con el DynamoDbAsyncClient, pero no un EventLoopGroup propio: el de epoll se cierra aquí
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class DynamoDBTransport implements DisposableBean {
+    
+    private static final Duration CRT_KEEP_ALIVE_INTERVAL = Duration.ofSeconds(30);
+    private static final Duration CRT_KEEP_ALIVE_TIMEOUT = Duration.ofSeconds(5);
+    
+    private final DynamoDBProperties properties;
+    private EventLoopGroup nativeEventLoopGroup;
+    
+    public SdkAsyncHttpClient.Builder<?> httpClientBuilder() {
+        DynamoDBProperties.Transport transport = properties.getTransport();
+        log.info("DynamoDB HTTP transport: {} (maxConcurrency={})", transport.getType(), transport.getMaxConcurrency());
+        return transport.getType() == DynamoDBProperties.Transport.Type.CRT
+                ? crt(transport)
+                : netty(transport);
+    }
+    
+    private NettyNioAsyncHttpClient.Builder netty(DynamoDBProperties.Transport transport) {
+        NettyNioAsyncHttpClient.Builder builder = NettyNioAsyncHttpClient.builder()
+                .maxConcurrency(transport.getMaxConcurrency())
+                .maxPendingConnectionAcquires(transport.getMaxPendingConnectionAcquires())
+                .connectionAcquisitionTimeout(transport.getConnectionAcquisitionTimeout())
+                .connectionTimeout(transport.getConnectionTimeout())
+                .connectionTimeToLive(transport.getConnectionTimeToLive())
+                .connectionMaxIdleTime(transport.getConnectionMaxIdleTime())
+                .tcpKeepAlive(transport.isTcpKeepAlive())
+                .putChannelOption(ChannelOption.TCP_NODELAY, transport.isTcpNoDelay());
+        
+        if (transport.isNativeTransport() && Epoll.isAvailable()) {
+            nativeEventLoopGroup = new EpollEventLoopGroup(transport.getEventLoopThreads());
+            return builder.eventLoopGroup(SdkEventLoopGroup.create(nativeEventLoopGroup, EpollSocketChannel::new));
+        }
+        if (transport.isNativeTransport()) {
+            log.info("epoll no disponible en esta plataforma, se usa NIO: {}", Epoll.unavailabilityCause().toString());
+        }
+        if (transport.getEventLoopThreads() > 0) {
+            builder.eventLoopGroupBuilder(SdkEventLoopGroup.builder().numberOfThreads(transport.getEventLoopThreads()));
+        }
+        return builder;
+    }
+    
+    // CRT gestiona su propio pool nativo: en esta versión del SDK no tiene cola de espera, timeout de adquisición,
+    // TTL de conexión ni opciones de canal
+    private AwsCrtAsyncHttpClient.Builder crt(DynamoDBProperties.Transport transport) {
+        AwsCrtAsyncHttpClient.Builder builder = AwsCrtAsyncHttpClient.builder()
+                .maxConcurrency(transport.getMaxConcurrency())
+                .connectionTimeout(transport.getConnectionTimeout())
+                .connectionMaxIdleTime(transport.getConnectionMaxIdleTime());
+        if (transport.isTcpKeepAlive()) {
+            builder.tcpKeepAliveConfiguration(TcpKeepAliveConfiguration.builder()
+                    .keepAliveInterval(CRT_KEEP_ALIVE_INTERVAL)
+                    .keepAliveTimeout(CRT_KEEP_ALIVE_TIMEOUT)
+                    .build());
+        }
+        return builder;
+    }
+    
+    @Override
+    public void destroy() {
+        if (nativeEventLoopGroup != null) {
+            nativeEventLoopGroup.shutdownGracefully();
+        }
+    }
+}
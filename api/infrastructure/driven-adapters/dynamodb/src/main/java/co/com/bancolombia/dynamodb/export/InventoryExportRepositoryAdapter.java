@@ -0,0 +1,110 @@
+package co.com.bancolombia.dynamodb.export;
+
+import co.com.bancolombia.dynamodb.codec.AttributeCodec;
+import co.com.bancolombia.dynamodb.codec.BranchCodec;
+import co.com.bancolombia.dynamodb.codec.FranchiseCodec;
+import co.com.bancolombia.dynamodb.codec.ProductCodec;
+import co.com.bancolombia.dynamodb.config.DynamoDBProperties;
+import co.com.bancolombia.model.franchise.Franchise;
+import co.com.bancolombia.model.franchise.InventoryRecord;
+import co.com.bancolombia.model.franchise.Product;
+import co.com.bancolombia.model.franchise.gateways.InventoryExportRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import software.amazon.awssdk.services.dynamodb.DynamoDbAsyncClient;
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+import software.amazon.awssdk.services.dynamodb.model.ScanRequest;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+// Scan paralelo de las tres tablas, cada una partida en total-segments segmentos que se leen a la vez. Los
+// productos salen de ambos orígenes: los SEPARATED del METADATA de la tabla de productos (los LOCATOR se
+// descartan) y los embebidos del METADATA o de los buckets de su sucursal. El paginador solo pide la siguiente
+// página cuando se consumió la anterior, así que la memoria queda acotada por las páginas en vuelo
+@Repository
+@RequiredArgsConstructor
+@Slf4j
+public class InventoryExportRepositoryAdapter implements InventoryExportRepository {
+
+    private final DynamoDbAsyncClient basicDynamoClient;
+    private final DynamoDBProperties properties;
+
+    @Override
+    public Flux<InventoryRecord> exportAll() {
+        DynamoDBProperties.Tables tables = properties.getTables();
+        return Flux.merge(
+                    scan(tables.getFranchises())
+                            .filter(item -> AttributeCodec.METADATA_SK.equals(item.get(AttributeCodec.SK)))
+                            .map(item -> franchise(FranchiseCodec.fromItem(item))),
+                    scan(tables.getBranches()).concatMapIterable(InventoryExportRepositoryAdapter::branchRecords),
+                    scan(tables.getProducts())
+                            .filter(item -> AttributeCodec.METADATA_SK.equals(item.get(AttributeCodec.SK)))
+                            .map(item -> product(ProductCodec.fromItem(item))))
+                .doOnComplete(() -> log.info("Inventory export completed"))
+                .doOnError(error -> log.error("Error exporting inventory", error));
+    }
+
+    // Cada segmento es un paginador independiente: el throughput crece con total-segments hasta lo que permita
+    // la capacidad de la tabla (el cliente con throttling reparte la tasa entre todos)
+    private Flux<Map<String, AttributeValue>> scan(String tableName) {
+        int totalSegments = properties.getInventoryExport().getTotalSegments();
+        return Flux.range(0, totalSegments)
+                .flatMap(segment -> Flux.from(basicDynamoClient.scanPaginator(ScanRequest.builder()
+                        .tableName(tableName)
+                        .segment(segment)
+                        .totalSegments(totalSegments)
+                        .build()).items()), totalSegments);
+    }
+
+    // El METADATA da la sucursal y, si es EMBEDDED o MIGRATING, los productos que aún guarda; un bucket solo
+    // productos. Los buckets no llevan franchiseId: sus productos se unen a la franquicia por branchId
+    private static List<InventoryRecord> branchRecords(Map<String, AttributeValue> item) {
+        String branchId = BranchCodec.idFromKey(item);
+        String franchiseId = AttributeCodec.string(item, BranchCodec.FRANCHISE_ID);
+        AttributeValue products = item.get(BranchCodec.PRODUCTS);
+        List<InventoryRecord> records = new ArrayList<>();
+        // Los atributos se leen directamente: BranchCodec.fromItem decodificaría los productos una segunda vez
+        if (!BranchCodec.isBucket(item)) {
+            records.add(InventoryRecord.builder()
+                    .type(InventoryRecord.BRANCH)
+                    .id(branchId)
+                    .franchiseId(franchiseId)
+                    .branchId(branchId)
+                    .name(AttributeCodec.string(item, BranchCodec.NAME))
+                    .storageStrategy(AttributeCodec.string(item, BranchCodec.STORAGE_STRATEGY))
+                    .updatedAt(AttributeCodec.dateTime(item, BranchCodec.UPDATED_AT))
+                    .build());
+        }
+        if (products != null) {
+            BranchCodec.embeddedProducts(products, branchId)
+                    .forEach(product -> records.add(product(product.toBuilder().franchiseId(franchiseId).build())));
+        }
+        return records;
+    }
+
+    private static InventoryRecord franchise(Franchise franchise) {
+        return InventoryRecord.builder()
+                .type(InventoryRecord.FRANCHISE)
+                .id(franchise.getId())
+                .franchiseId(franchise.getId())
+                .name(franchise.getName())
+                .updatedAt(franchise.getUpdatedAt())
+                .build();
+    }
+
+    private static InventoryRecord product(Product product) {
+        return InventoryRecord.builder()
+                .type(InventoryRecord.PRODUCT)
+                .id(product.getId())
+                .franchiseId(product.getFranchiseId())
+                .branchId(product.getBranchId())
+                .name(product.getName())
+                .stock(product.getStock())
+                .updatedAt(product.getUpdatedAt())
+                .build();
+    }
+}
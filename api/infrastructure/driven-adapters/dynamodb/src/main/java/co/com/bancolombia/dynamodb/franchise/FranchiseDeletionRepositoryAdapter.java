@@ -0,0 +1,218 @@
+package co.com.bancolombia.dynamodb.franchise;
+
+import co.com.bancolombia.dynamodb.batch.DynamoBatchWriter;
+import co.com.bancolombia.dynamodb.codec.AttributeCodec;
+import co.com.bancolombia.dynamodb.codec.BranchCodec;
+import co.com.bancolombia.dynamodb.codec.FranchiseDeletionJobCodec;
+import co.com.bancolombia.dynamodb.codec.FranchiseStatsCodec;
+import co.com.bancolombia.dynamodb.codec.ProductCodec;
+import co.com.bancolombia.dynamodb.config.DynamoDBProperties;
+import co.com.bancolombia.model.franchise.FranchiseDeletionJob;
+import co.com.bancolombia.model.franchise.gateways.FranchiseDeletionRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import software.amazon.awssdk.services.dynamodb.DynamoDbAsyncClient;
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+import software.amazon.awssdk.services.dynamodb.model.ConditionalCheckFailedException;
+import software.amazon.awssdk.services.dynamodb.model.DeleteRequest;
+import software.amazon.awssdk.services.dynamodb.model.GetItemRequest;
+import software.amazon.awssdk.services.dynamodb.model.GetItemResponse;
+import software.amazon.awssdk.services.dynamodb.model.PutItemRequest;
+import software.amazon.awssdk.services.dynamodb.model.QueryRequest;
+import software.amazon.awssdk.services.dynamodb.model.ScanRequest;
+import software.amazon.awssdk.services.dynamodb.model.WriteRequest;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+// Borrado en cascada por fases, cada una descubierta por índice y borrada con BatchWriteItem en paralelo. Lo que
+// permite encontrar a los demás (el METADATA de cada sucursal) se borra después que ellos: si el job falla,
+// volver a lanzarlo encuentra todo lo que quedó
+@Repository
+@RequiredArgsConstructor
+@Slf4j
+public class FranchiseDeletionRepositoryAdapter implements FranchiseDeletionRepository {
+
+    private static final long NANOS_PER_SECOND = TimeUnit.SECONDS.toNanos(1);
+    private static final String KEYS_PROJECTION = "PK, SK";
+    private static final String BRANCH_PROJECTION = "PK, SK, storageStrategy, products";
+    // status es palabra reservada
+    private static final Map<String, String> STATUS_NAME = Map.of("#status", FranchiseDeletionJobCodec.STATUS);
+    private static final AttributeValue RUNNING = AttributeCodec.s(FranchiseDeletionJob.RUNNING);
+
+    private final DynamoDbAsyncClient basicDynamoClient;
+    private final DynamoDBProperties properties;
+    private final DynamoBatchWriter batchWriter;
+
+    @Override
+    public Flux<Integer> deleteContents(String franchiseId) {
+        return Flux.concat(
+                    deleteAll(separatedProducts(franchiseId)),
+                    deleteAll(branchContents(franchiseId)),
+                    deleteAll(branches(franchiseId)),
+                    deleteAll(statsShards(franchiseId)))
+                .doOnComplete(() -> log.info("Franchise contents deleted: {}", franchiseId))
+                .doOnError(error -> log.error("Error deleting franchise contents: {}", franchiseId, error));
+    }
+
+    @Override
+    public Mono<Boolean> claimJob(FranchiseDeletionJob job, Duration lease) {
+        long now = System.currentTimeMillis();
+        return Mono.fromFuture(() -> basicDynamoClient.putItem(PutItemRequest.builder()
+                        .tableName(properties.getTables().getFranchises())
+                        .item(FranchiseDeletionJobCodec.toItem(job, now, null))
+                        .conditionExpression("attribute_not_exists(PK) OR #status <> :running OR heartbeatAt < :stale")
+                        .expressionAttributeNames(STATUS_NAME)
+                        .expressionAttributeValues(Map.of(
+                            ":running", RUNNING,
+                            ":stale", AttributeCodec.n(now - lease.toMillis())
+                        ))
+                        .build()))
+                .thenReturn(true)
+                .onErrorResume(ConditionalCheckFailedException.class, error -> Mono.just(false))
+                .doOnError(error -> log.error("Error claiming franchise deletion job: {}", job.getFranchiseId(), error));
+    }
+
+    // Solo la ejecución dueña (runId) escribe: si otra instancia retomó el job, esta deja de reportar
+    @Override
+    public Mono<Void> saveJob(FranchiseDeletionJob job) {
+        long now = System.currentTimeMillis();
+        Long expiresAt = job.isRunning() ? null
+                : TimeUnit.MILLISECONDS.toSeconds(now + properties.getFranchiseDeletion().getJobRetention().toMillis());
+        return Mono.fromFuture(() -> basicDynamoClient.putItem(PutItemRequest.builder()
+                        .tableName(properties.getTables().getFranchises())
+                        .item(FranchiseDeletionJobCodec.toItem(job, now, expiresAt))
+                        .conditionExpression("runId = :runId")
+                        .expressionAttributeValues(Map.of(":runId", AttributeCodec.s(job.getRunId())))
+                        .build()))
+                .onErrorMap(ConditionalCheckFailedException.class, error -> new IllegalStateException(
+                        "El borrado de la franquicia " + job.getFranchiseId() + " lo retomó otra ejecución", error))
+                .then();
+    }
+
+    @Override
+    public Mono<FranchiseDeletionJob> findJob(String franchiseId) {
+        return Mono.fromFuture(() -> basicDynamoClient.getItem(GetItemRequest.builder()
+                        .tableName(properties.getTables().getFranchises())
+                        .key(FranchiseDeletionJobCodec.key(franchiseId))
+                        .consistentRead(true)
+                        .build()))
+                .filter(GetItemResponse::hasItem)
+                .map(response -> FranchiseDeletionJobCodec.fromItem(response.item()));
+    }
+
+    // Los jobs son pocos y la tabla de franquicias pequeña: un Scan filtrado al arrancar basta
+    @Override
+    public Flux<FranchiseDeletionJob> findAbandonedJobs(Duration lease) {
+        return Flux.from(basicDynamoClient.scanPaginator(ScanRequest.builder()
+                        .tableName(properties.getTables().getFranchises())
+                        .filterExpression("SK = :deletion AND #status = :running AND heartbeatAt < :stale")
+                        .expressionAttributeNames(STATUS_NAME)
+                        .expressionAttributeValues(Map.of(
+                            ":deletion", FranchiseDeletionJobCodec.DELETION_SK,
+                            ":running", RUNNING,
+                            ":stale", AttributeCodec.n(System.currentTimeMillis() - lease.toMillis())
+                        ))
+                        .build()).items())
+                .map(FranchiseDeletionJobCodec::fromItem);
+    }
+
+    // Lotes de hasta 25 borrados (de cualquier tabla) a un ritmo que respeta writes-per-second, con varios en
+    // vuelo. Las claves llegan según se paginan las consultas: nunca se acumula la franquicia en memoria
+    private Flux<Integer> deleteAll(Flux<Deletion> deletions) {
+        DynamoDBProperties.FranchiseDeletion budget = properties.getFranchiseDeletion();
+        Duration pace = Duration.ofNanos(NANOS_PER_SECOND * DynamoBatchWriter.MAX_BATCH_SIZE / budget.getWritesPerSecond());
+        return deletions
+                .buffer(DynamoBatchWriter.MAX_BATCH_SIZE)
+                .delayElements(pace)
+                .flatMap(chunk -> batchWriter.writeBatch(requestItems(chunk)).thenReturn(chunk.size()), budget.getConcurrency());
+    }
+
+    private static Map<String, List<WriteRequest>> requestItems(List<Deletion> chunk) {
+        Map<String, List<WriteRequest>> requestItems = new HashMap<>();
+        chunk.forEach(deletion -> requestItems.computeIfAbsent(deletion.table(), table -> new ArrayList<>())
+                .add(WriteRequest.builder()
+                        .deleteRequest(DeleteRequest.builder().key(deletion.key()).build())
+                        .build()));
+        return requestItems;
+    }
+
+    // Productos SEPARATED (y los ya movidos de una sucursal MIGRATING): GSI2 de la tabla de productos
+    private Flux<Deletion> separatedProducts(String franchiseId) {
+        String products = properties.getTables().getProducts();
+        return Flux.from(basicDynamoClient.queryPaginator(QueryRequest.builder()
+                        .tableName(products)
+                        .indexName("GSI2")
+                        .keyConditionExpression(ProductCodec.GSI2PK + " = :pk")
+                        .expressionAttributeValues(Map.of(":pk", AttributeCodec.s(franchiseId)))
+                        .projectionExpression(KEYS_PROJECTION)
+                        .build()).items())
+                .map(item -> new Deletion(products, keyOf(item)));
+    }
+
+    // Lo que cuelga de cada sucursal: los LOCATOR de sus productos embebidos y, en una BUCKETED, sus buckets con
+    // los LOCATOR de lo que guardan. El METADATA queda para la siguiente fase
+    private Flux<Deletion> branchContents(String franchiseId) {
+        return branchIndex(franchiseId, BRANCH_PROJECTION)
+                .flatMap(branch -> BranchCodec.isBucketed(branch)
+                        ? Flux.concat(locators(branch), buckets(branch))
+                        : locators(branch), properties.getFranchiseDeletion().getConcurrency());
+    }
+
+    private Flux<Deletion> buckets(Map<String, AttributeValue> branch) {
+        String branches = properties.getTables().getBranches();
+        return Flux.from(basicDynamoClient.queryPaginator(QueryRequest.builder()
+                        .tableName(branches)
+                        .keyConditionExpression("PK = :pk AND begins_with(SK, :bucket)")
+                        .expressionAttributeValues(Map.of(
+                            ":pk", branch.get(AttributeCodec.PK),
+                            ":bucket", AttributeCodec.s(BranchCodec.BUCKET_PREFIX)
+                        ))
+                        .projectionExpression(BRANCH_PROJECTION)
+                        .build()).items())
+                .concatMap(bucket -> Flux.concat(locators(bucket), Flux.just(new Deletion(branches, keyOf(bucket)))));
+    }
+
+    private Flux<Deletion> locators(Map<String, AttributeValue> item) {
+        String products = properties.getTables().getProducts();
+        return Flux.fromIterable(BranchCodec.productIds(item.get(BranchCodec.PRODUCTS)))
+                .map(productId -> new Deletion(products, ProductCodec.key(productId, AttributeCodec.LOCATOR_SK)));
+    }
+
+    private Flux<Deletion> branches(String franchiseId) {
+        String branches = properties.getTables().getBranches();
+        return branchIndex(franchiseId, KEYS_PROJECTION)
+                .map(item -> new Deletion(branches, keyOf(item)));
+    }
+
+    private Flux<Map<String, AttributeValue>> branchIndex(String franchiseId, String projection) {
+        return Flux.from(basicDynamoClient.queryPaginator(QueryRequest.builder()
+                        .tableName(properties.getTables().getBranches())
+                        .indexName("GSI1")
+                        .keyConditionExpression(BranchCodec.GSI1PK + " = :pk")
+                        .expressionAttributeValues(Map.of(":pk", AttributeCodec.s(franchiseId)))
+                        .projectionExpression(projection)
+                        .build()).items());
+    }
+
+    // Claves fijas: no hace falta leerlas. Borrar un shard que nunca se escribió no falla
+    private Flux<Deletion> statsShards(String franchiseId) {
+        String stats = properties.getTables().getStats();
+        return Flux.range(0, properties.getStats().getShards())
+                .map(shard -> new Deletion(stats, FranchiseStatsCodec.key(franchiseId, shard)));
+    }
+
+    private static Map<String, AttributeValue> keyOf(Map<String, AttributeValue> item) {
+        return Map.of(AttributeCodec.PK, item.get(AttributeCodec.PK), AttributeCodec.SK, item.get(AttributeCodec.SK));
+    }
+
+    private record Deletion(String table, Map<String, AttributeValue> key) {
+    }
+}
@@ -1,52 +0,0 @@
-package co.com.bancolombia.dynamodb.franchise;
-
-import lombok.AllArgsConstructor;
-import lombok.Builder;
-import lombok.NoArgsConstructor;
-import lombok.Setter;
-import software.amazon.awssdk.enhanced.dynamodb.mapper.annotations.DynamoDbBean;
-import software.amazon.awssdk.enhanced.dynamodb.mapper.annotations.DynamoDbPartitionKey;
-import software.amazon.awssdk.enhanced.dynamodb.mapper.annotations.DynamoDbSortKey;
-
-import java.time.LocalDateTime;
-
-@Builder
-@NoArgsConstructor
-@AllArgsConstructor
-@Setter
-@DynamoDbBean
-public class FranchiseEntity {
-    
-    private String PK;
-    private String SK;
-    private String id;
-    private String name;
-    private LocalDateTime createdAt;
-    private LocalDateTime updatedAt;
-    
-    @DynamoDbPartitionKey
-    public String getPK() {
-        return PK;
-    }
-    
-    @DynamoDbSortKey
-    public String getSK() {
-        return SK;
-    }
-    
-    public String getId() {
-        return id;
-    }
-    
-    public String getName() {
-        return name;
-    }
-    
-    public LocalDateTime getCreatedAt() {
-        return createdAt;
-    }
-    
-    public LocalDateTime getUpdatedAt() {
-        return updatedAt;
-    }
-}
@@ -1,91 +1,209 @@
 package co.com.bancolombia.dynamodb.franchise;
 
+import co.com.bancolombia.dynamodb.batch.DynamoBatchReader;
+import co.com.bancolombia.dynamodb.codec.AttributeCodec;
+import co.com.bancolombia.dynamodb.codec.CursorCodec;
+import co.com.bancolombia.dynamodb.codec.FranchiseCodec;
 import co.com.bancolombia.dynamodb.config.DynamoDBProperties;
 import co.com.bancolombia.model.franchise.Franchise;
+import co.com.bancolombia.model.franchise.Page;
+import co.com.bancolombia.model.franchise.ThrottledException;
 import co.com.bancolombia.model.franchise.gateways.FranchiseRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Repository;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
-import software.amazon.awssdk.enhanced.dynamodb.DynamoDbAsyncTable;
-import software.amazon.awssdk.enhanced.dynamodb.DynamoDbEnhancedAsyncClient;
-import software.amazon.awssdk.enhanced.dynamodb.TableSchema;
+import software.amazon.awssdk.services.dynamodb.DynamoDbAsyncClient;
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+import software.amazon.awssdk.services.dynamodb.model.ConditionalCheckFailedException;
+import software.amazon.awssdk.services.dynamodb.model.DeleteItemRequest;
+import software.amazon.awssdk.services.dynamodb.model.GetItemRequest;
+import software.amazon.awssdk.services.dynamodb.model.GetItemResponse;
+import software.amazon.awssdk.services.dynamodb.model.PutItemRequest;
+import software.amazon.awssdk.services.dynamodb.model.ReturnValue;
+import software.amazon.awssdk.services.dynamodb.model.ReturnValuesOnConditionCheckFailure;
+import software.amazon.awssdk.services.dynamodb.model.ScanRequest;
+import software.amazon.awssdk.services.dynamodb.model.UpdateItemRequest;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
 
 @Repository
 @RequiredArgsConstructor
 @Slf4j
 public class FranchiseRepositoryAdapter implements FranchiseRepository {
     
-    private final DynamoDbEnhancedAsyncClient dynamoClient;
-    private final DynamoDBProperties properties;
-    private DynamoDbAsyncTable<FranchiseEntity> table;
+    private static final Set<String> CURSOR_KEYS = Set.of(AttributeCodec.PK, AttributeCodec.SK);
+    // La tabla guarda también los jobs de borrado (SK DELETION): los listados solo devuelven METADATA
+    private static final String METADATA_FILTER = "SK = :metadata";
+    private static final Map<String, AttributeValue> METADATA_FILTER_VALUES = Map.of(":metadata", AttributeCodec.METADATA_SK);
+    // status es palabra reservada
+    private static final Map<String, String> STATUS_NAME = Map.of("#status", FranchiseCodec.STATUS);
+    private static final AttributeValue DELETING = AttributeCodec.s(Franchise.DELETING);
     
-    private DynamoDbAsyncTable<FranchiseEntity> getTable() {
-        if (table == null) {
-            table = dynamoClient.table(properties.getTables().getFranchises(), 
-                    TableSchema.fromBean(FranchiseEntity.class));
-        }
-        return table;
-    }
+    private final DynamoDbAsyncClient basicDynamoClient;
+    private final DynamoDBProperties properties;
+    private final DynamoBatchReader batchReader;
     
     @Override
     public Mono<Franchise> save(Franchise franchise) {
-        FranchiseEntity entity = toEntity(franchise);
-        return Mono.fromFuture(getTable().putItem(entity))
+        return Mono.fromFuture(basicDynamoClient.putItem(PutItemRequest.builder()
+                        .tableName(properties.getTables().getFranchises())
+                        .item(FranchiseCodec.toItem(franchise))
+                        .build()))
                 .doOnSuccess(result -> log.debug("Franchise saved: {}", franchise.getId()))
                 .doOnError(error -> log.error("Error saving franchise: {}", franchise.getId(), error))
-                .onErrorMap(throwable -> new RuntimeException("Error saving franchise", throwable))
+                .onErrorMap(FranchiseRepositoryAdapter::isUnexpected, throwable -> new RuntimeException("Error saving franchise", throwable))
                 .thenReturn(franchise);
     }
     
     @Override
     public Mono<Franchise> findById(String id) {
-        return Mono.fromFuture(getTable().getItem(r -> r.key(k -> k.partitionValue("FRANCHISE#" + id).sortValue("METADATA"))))
+        return Mono.fromFuture(basicDynamoClient.getItem(GetItemRequest.builder()
+                        .tableName(properties.getTables().getFranchises())
+                        .key(FranchiseCodec.key(id))
+                        .build()))
                 .doOnSuccess(result -> log.debug("Franchise found: {}", id))
                 .doOnError(error -> log.error("Error finding franchise: {}", id, error))
-                .onErrorMap(throwable -> new RuntimeException("Error finding franchise", throwable))
-                .map(this::toDomain);
+                .onErrorMap(FranchiseRepositoryAdapter::isUnexpected, throwable -> new RuntimeException("Error finding franchise", throwable))
+                .filter(GetItemResponse::hasItem)
+                .map(response -> FranchiseCodec.fromItem(response.item()));
+    }
+    
+    // Un UpdateItem condicionado a que exista: sin lectura previa ni reescritura del item completo
+    @Override
+    public Mono<Franchise> updateName(String id, String name) {
+        return Mono.fromFuture(() -> basicDynamoClient.updateItem(UpdateItemRequest.builder()
+                        .tableName(properties.getTables().getFranchises())
+                        .key(FranchiseCodec.key(id))
+                        .updateExpression("SET #name = :name, updatedAt = :updatedAt")
+                        .conditionExpression("attribute_exists(PK)")
+                        .expressionAttributeNames(Map.of("#name", FranchiseCodec.NAME))
+                        .expressionAttributeValues(Map.of(
+                            ":name", AttributeCodec.s(name),
+                            ":updatedAt", AttributeCodec.s(LocalDateTime.now().toString())
+                        ))
+                        .returnValues(ReturnValue.ALL_NEW)
+                        .build()))
+                .doOnSuccess(result -> log.debug("Franchise renamed: {}", id))
+                .map(response -> FranchiseCodec.fromItem(response.attributes()))
+                .onErrorResume(ConditionalCheckFailedException.class, error -> Mono.empty())
+                .doOnError(error -> log.error("Error renaming franchise: {}", id, error))
+                .onErrorMap(FranchiseRepositoryAdapter::isUnexpected, throwable -> new RuntimeException("Error renaming franchise", throwable));
+    }
+    
+    @Override
+    public Flux<Franchise> findAllById(Collection<String> ids) {
+        // BatchGetItem rechaza claves repetidas: se deduplican conservando el orden de llegada
+        List<Map<String, AttributeValue>> keys = new LinkedHashSet<>(ids).stream()
+                .filter(Objects::nonNull)
+                .map(FranchiseCodec::key)
+                .toList();
+        return batchReader.read(properties.getTables().getFranchises(), keys)
+                .map(FranchiseCodec::fromItem)
+                .doOnError(error -> log.error("Error finding franchises by ids", error))
+                .onErrorMap(FranchiseRepositoryAdapter::isUnexpected, throwable -> new RuntimeException("Error finding franchises", throwable));
     }
     
     @Override
     public Flux<Franchise> findAll() {
-        return Flux.from(getTable().scan().items())
+        return Flux.from(basicDynamoClient.scanPaginator(ScanRequest.builder()
+                        .tableName(properties.getTables().getFranchises())
+                        .filterExpression(METADATA_FILTER)
+                        .expressionAttributeValues(METADATA_FILTER_VALUES)
+                        .build()).items())
                 .doOnComplete(() -> log.debug("All franchises retrieved"))
                 .doOnError(error -> log.error("Error retrieving all franchises", error))
-                .onErrorMap(throwable -> new RuntimeException("Error retrieving franchises", throwable))
-                .map(this::toDomain);
+                .onErrorMap(FranchiseRepositoryAdapter::isUnexpected, throwable -> new RuntimeException("Error retrieving franchises", throwable))
+                .map(FranchiseCodec::fromItem);
+    }
+    
+    // Un Scan con Limit por página: el costo de cada request queda acotado sin importar el tamaño de la tabla.
+    // El filtro se aplica después del Limit: una página puede traer menos franquicias (incluso ninguna) y cursor
+    @Override
+    public Mono<Page<Franchise>> findPage(int limit, String cursor) {
+        // defer: un cursor inválido se entrega como error de la suscripción y no al armar el pipeline
+        return Mono.defer(() -> Mono.fromFuture(basicDynamoClient.scan(ScanRequest.builder()
+                        .tableName(properties.getTables().getFranchises())
+                        .limit(limit)
+                        .filterExpression(METADATA_FILTER)
+                        .expressionAttributeValues(METADATA_FILTER_VALUES)
+                        .exclusiveStartKey(CursorCodec.decode(cursor, CURSOR_KEYS))
+                        .build()))
+                        .doOnError(error -> log.error("Error retrieving franchises page", error))
+                        .onErrorMap(FranchiseRepositoryAdapter::isUnexpected, throwable -> new RuntimeException("Error retrieving franchises", throwable)))
+                .map(response -> Page.of(
+                    response.items().stream().map(FranchiseCodec::fromItem).toList(),
+                    CursorCodec.encode(response.lastEvaluatedKey())
+                ));
     }
     
     @Override
     public Mono<Void> deleteById(String id) {
-        return Mono.fromFuture(getTable().deleteItem(r -> r.key(k -> k.partitionValue(id))))
+        return Mono.fromFuture(basicDynamoClient.deleteItem(DeleteItemRequest.builder()
+                        .tableName(properties.getTables().getFranchises())
+                        .key(FranchiseCodec.key(id))
+                        .build()))
                 .doOnSuccess(result -> log.debug("Franchise deleted: {}", id))
                 .doOnError(error -> log.error("Error deleting franchise: {}", id, error))
-                .onErrorMap(throwable -> new RuntimeException("Error deleting franchise", throwable))
+                .onErrorMap(FranchiseRepositoryAdapter::isUnexpected, throwable -> new RuntimeException("Error deleting franchise", throwable))
                 .then();
     }
     
-    private FranchiseEntity toEntity(Franchise franchise) {
-        return FranchiseEntity.builder()
-                .PK("FRANCHISE#" + franchise.getId())
-                .SK("METADATA")
-                .id(franchise.getId())
-                .name(franchise.getName())
-                .createdAt(franchise.getCreatedAt())
-                .updatedAt(franchise.getUpdatedAt())
-                .build();
+    // Solo condicionado a que exista: relanzar o retomar un borrado vuelve a marcarla sin fallar. ALL_NEW trae
+    // lastWriteAt, con el que el borrado espera a que terminen las creaciones registradas antes de la marca
+    @Override
+    public Mono<Franchise> markDeleting(String id) {
+        return Mono.fromFuture(() -> basicDynamoClient.updateItem(UpdateItemRequest.builder()
+                        .tableName(properties.getTables().getFranchises())
+                        .key(FranchiseCodec.key(id))
+                        .updateExpression("SET #status = :deleting")
+                        .conditionExpression("attribute_exists(PK)")
+                        .expressionAttributeNames(STATUS_NAME)
+                        .expressionAttributeValues(Map.of(":deleting", DELETING))
+                        .returnValues(ReturnValue.ALL_NEW)
+                        .build()))
+                .doOnSuccess(result -> log.debug("Franchise marked as deleting: {}", id))
+                .map(response -> FranchiseCodec.fromItem(response.attributes()))
+                .onErrorResume(ConditionalCheckFailedException.class, error -> Mono.empty())
+                .doOnError(error -> log.error("Error marking franchise as deleting: {}", id, error))
+                .onErrorMap(FranchiseRepositoryAdapter::isUnexpected, throwable -> new RuntimeException("Error marking franchise as deleting", throwable));
+    }
+    
+    // La condición se evalúa en el mismo item que marca markDeleting: no depende de la caché ni de una lectura
+    // previa. ALL_OLD en el fallo distingue una franquicia en borrado de una inexistente sin otra lectura
+    @Override
+    public Mono<Void> registerWrite(String id) {
+        return Mono.fromFuture(() -> basicDynamoClient.updateItem(UpdateItemRequest.builder()
+                        .tableName(properties.getTables().getFranchises())
+                        .key(FranchiseCodec.key(id))
+                        .updateExpression("SET " + FranchiseCodec.LAST_WRITE_AT + " = :now")
+                        .conditionExpression("attribute_exists(PK) AND (attribute_not_exists(#status) OR #status <> :deleting)")
+                        .expressionAttributeNames(STATUS_NAME)
+                        .expressionAttributeValues(Map.of(
+                            ":now", AttributeCodec.s(LocalDateTime.now().toString()),
+                            ":deleting", DELETING
+                        ))
+                        .returnValuesOnConditionCheckFailure(ReturnValuesOnConditionCheckFailure.ALL_OLD)
+                        .build()))
+                .doOnError(error -> !(error instanceof ConditionalCheckFailedException),
+                        error -> log.error("Error registering write on franchise: {}", id, error))
+                .onErrorMap(error -> isUnexpected(error) && !(error instanceof ConditionalCheckFailedException),
+                        throwable -> new RuntimeException("Error registering write on franchise", throwable))
+                .onErrorMap(ConditionalCheckFailedException.class, error -> error.hasItem()
+                        ? new IllegalStateException("La franquicia " + id + " se está eliminando")
+                        : new RuntimeException("Franquicia con ID " + id + " not found", error))
+                .then();
     }
     
-    private Franchise toDomain(FranchiseEntity entity) {
-        if (entity == null) {
-            return null;
-        }
-        return Franchise.builder()
-                .id(entity.getId())
-                .name(entity.getName())
-                .createdAt(entity.getCreatedAt())
-                .updatedAt(entity.getUpdatedAt())
-                .build();
+    // Un throttling agotado ya viene como ThrottledException (503): no se oculta tras un error genérico
+    private static boolean isUnexpected(Throwable throwable) {
+        return !(throwable instanceof ThrottledException);
     }
 }
@@ -0,0 +1,145 @@
+package co.com.bancolombia.dynamodb.product;
+
+import co.com.bancolombia.dynamodb.batch.DynamoBatchWriter;
+import co.com.bancolombia.dynamodb.codec.AttributeCodec;
+import co.com.bancolombia.dynamodb.codec.BranchCodec;
+import co.com.bancolombia.dynamodb.codec.ProductCodec;
+import co.com.bancolombia.dynamodb.config.DynamoDBProperties;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import software.amazon.awssdk.services.dynamodb.DynamoDbAsyncClient;
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+import software.amazon.awssdk.services.dynamodb.model.ConditionalCheckFailedException;
+import software.amazon.awssdk.services.dynamodb.model.Delete;
+import software.amazon.awssdk.services.dynamodb.model.DeleteRequest;
+import software.amazon.awssdk.services.dynamodb.model.Put;
+import software.amazon.awssdk.services.dynamodb.model.PutItemRequest;
+import software.amazon.awssdk.services.dynamodb.model.PutRequest;
+import software.amazon.awssdk.services.dynamodb.model.QueryRequest;
+import software.amazon.awssdk.services.dynamodb.model.ScanRequest;
+import software.amazon.awssdk.services.dynamodb.model.WriteRequest;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+// Índice productId -> branchId/estrategia dentro de la partición PRODUCT#id de la tabla de productos.
+// Un producto SEPARATED se localiza por su propio item METADATA; uno EMBEDDED por un item LOCATOR.
+@Component
+@RequiredArgsConstructor
+public class ProductLocator {
+
+    public static final String BRANCH_ID = ProductCodec.BRANCH_ID;
+    public static final String STORAGE_STRATEGY = "storageStrategy";
+    public static final String EMBEDDED = "EMBEDDED";
+    public static final String BUCKETED = "BUCKETED";
+    private static final AttributeValue EMBEDDED_STRATEGY = AttributeCodec.s(EMBEDDED);
+    private static final AttributeValue BUCKETED_STRATEGY = AttributeCodec.s(BUCKETED);
+    private static final String FALLBACK_PROJECTION = "PK, SK, products";
+
+    private final DynamoDbAsyncClient basicDynamoClient;
+    private final DynamoDBProperties properties;
+    private final DynamoBatchWriter batchWriter;
+
+    public Mono<Map<String, AttributeValue>> resolve(String productId) {
+        return query(productId)
+                .switchIfEmpty(Mono.defer(() -> properties.getEmbeddedProducts().isLocatorFallbackScan()
+                        ? scanBranches(productId)
+                        : Mono.empty()));
+    }
+
+    private Mono<Map<String, AttributeValue>> query(String productId) {
+        return Mono.fromFuture(() -> basicDynamoClient.query(QueryRequest.builder()
+                        .tableName(properties.getTables().getProducts())
+                        .keyConditionExpression("PK = :pk")
+                        .expressionAttributeValues(Map.of(
+                            ":pk", AttributeCodec.s(ProductCodec.PREFIX + productId)
+                        ))
+                        .build()))
+                .flatMap(response -> {
+                    Map<String, AttributeValue> locator = null;
+                    for (Map<String, AttributeValue> item : response.items()) {
+                        if (AttributeCodec.METADATA_SK.equals(item.get(AttributeCodec.SK))) {
+                            return Mono.just(item);
+                        }
+                        locator = item;
+                    }
+                    return Mono.justOrEmpty(locator);
+                });
+    }
+
+    // Productos embebidos escritos antes de los LOCATOR: se buscan recorriendo la tabla de sucursales (ni la lista
+    // del formato anterior ni el atributo empaquetado se pueden filtrar en DynamoDB) y el LOCATOR se escribe para
+    // que la siguiente búsqueda sea directa. Si entre tanto otro lo escribió, vale el suyo
+    private Mono<Map<String, AttributeValue>> scanBranches(String productId) {
+        return Flux.from(basicDynamoClient.scanPaginator(ScanRequest.builder()
+                        .tableName(properties.getTables().getBranches())
+                        .projectionExpression(FALLBACK_PROJECTION)
+                        .build()).items())
+                .filter(item -> BranchCodec.productIds(item.get(BranchCodec.PRODUCTS)).contains(productId))
+                .next()
+                .flatMap(item -> {
+                    Map<String, AttributeValue> locator = locatorItem(productId, BranchCodec.idFromKey(item),
+                            BranchCodec.isBucket(item) ? BUCKETED_STRATEGY : EMBEDDED_STRATEGY);
+                    return Mono.fromFuture(() -> basicDynamoClient.putItem(PutItemRequest.builder()
+                                    .tableName(properties.getTables().getProducts())
+                                    .item(locator)
+                                    .conditionExpression("attribute_not_exists(PK)")
+                                    .build()))
+                            .thenReturn(locator)
+                            .onErrorResume(ConditionalCheckFailedException.class, error -> query(productId));
+                });
+    }
+
+    public static boolean isLocator(Map<String, AttributeValue> item) {
+        return AttributeCodec.LOCATOR_SK.equals(item.get(AttributeCodec.SK));
+    }
+
+    // EMBEDDED (el producto está en el METADATA de la sucursal) o BUCKETED (en uno de sus buckets)
+    public static String strategy(Map<String, AttributeValue> locator) {
+        AttributeValue strategy = locator.get(STORAGE_STRATEGY);
+        return strategy != null ? strategy.s() : EMBEDDED;
+    }
+
+    public Put locatorPut(String productId, String branchId) {
+        return locatorPut(productId, branchId, EMBEDDED_STRATEGY);
+    }
+
+    public Put locatorPut(String productId, String branchId, AttributeValue strategy) {
+        return Put.builder()
+                .tableName(properties.getTables().getProducts())
+                .item(locatorItem(productId, branchId, strategy))
+                .build();
+    }
+
+    public Delete locatorDelete(String productId) {
+        return Delete.builder()
+                .tableName(properties.getTables().getProducts())
+                .key(ProductCodec.key(productId, AttributeCodec.LOCATOR_SK))
+                .build();
+    }
+    
+    public Mono<Void> sync(String branchId, Collection<String> added, Collection<String> removed) {
+        List<WriteRequest> requests = new ArrayList<>(added.size() + removed.size());
+        added.forEach(productId -> requests.add(WriteRequest.builder()
+                .putRequest(PutRequest.builder().item(locatorItem(productId, branchId, EMBEDDED_STRATEGY)).build())
+                .build()));
+        removed.forEach(productId -> requests.add(WriteRequest.builder()
+                .deleteRequest(DeleteRequest.builder().key(ProductCodec.key(productId, AttributeCodec.LOCATOR_SK)).build())
+                .build()));
+        return batchWriter.write(properties.getTables().getProducts(), requests);
+    }
+
+    private Map<String, AttributeValue> locatorItem(String productId, String branchId, AttributeValue strategy) {
+        return Map.of(
+            AttributeCodec.PK, AttributeCodec.s(ProductCodec.PREFIX + productId),
+            AttributeCodec.SK, AttributeCodec.LOCATOR_SK,
+            ProductCodec.ID, AttributeCodec.s(productId),
+            BRANCH_ID, AttributeCodec.s(branchId),
+            STORAGE_STRATEGY, strategy
+        );
+    }
+}
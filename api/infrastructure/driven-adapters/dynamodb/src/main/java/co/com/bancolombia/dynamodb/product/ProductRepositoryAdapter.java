@@ -1,60 +1,64 @@
 package co.com.bancolombia.dynamodb.product;
 
+import co.com.bancolombia.dynamodb.batch.DynamoBatchReader;
+import co.com.bancolombia.dynamodb.batch.DynamoBatchWriter;
+import co.com.bancolombia.dynamodb.codec.AttributeCodec;
+import co.com.bancolombia.dynamodb.codec.BranchCodec;
+import co.com.bancolombia.dynamodb.codec.CursorCodec;
+import co.com.bancolombia.dynamodb.codec.ProductCodec;
 import co.com.bancolombia.dynamodb.config.DynamoDBProperties;
+import co.com.bancolombia.model.franchise.Page;
 import co.com.bancolombia.model.franchise.Product;
+import co.com.bancolombia.model.franchise.ProductChange;
 import co.com.bancolombia.model.franchise.gateways.ProductRepository;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Repository;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
-import software.amazon.awssdk.enhanced.dynamodb.DynamoDbAsyncTable;
-import software.amazon.awssdk.enhanced.dynamodb.DynamoDbEnhancedAsyncClient;
-import software.amazon.awssdk.enhanced.dynamodb.TableSchema;
-import software.amazon.awssdk.enhanced.dynamodb.model.QueryConditional;
 import software.amazon.awssdk.services.dynamodb.DynamoDbAsyncClient;
 import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+import software.amazon.awssdk.services.dynamodb.model.ConditionalCheckFailedException;
 import software.amazon.awssdk.services.dynamodb.model.GetItemRequest;
 import software.amazon.awssdk.services.dynamodb.model.DeleteItemRequest;
 import software.amazon.awssdk.services.dynamodb.model.PutItemRequest;
-import software.amazon.awssdk.services.dynamodb.model.ScanRequest;
+import software.amazon.awssdk.services.dynamodb.model.PutRequest;
+import software.amazon.awssdk.services.dynamodb.model.QueryRequest;
+import software.amazon.awssdk.services.dynamodb.model.QueryResponse;
+import software.amazon.awssdk.services.dynamodb.model.ReturnValue;
+import software.amazon.awssdk.services.dynamodb.model.ReturnValuesOnConditionCheckFailure;
+import software.amazon.awssdk.services.dynamodb.model.UpdateItemRequest;
+import software.amazon.awssdk.services.dynamodb.model.WriteRequest;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
 
 @Repository
 @RequiredArgsConstructor
 public class ProductRepositoryAdapter implements ProductRepository {
 
-    private static final String STOCK = "stock";
-    private static final String CREATED_AT = "createdAt";
-    private static final String UPDATED_AT = "updatedAt";
-    private static final String PRODUCTS = "products";
-    private static final String METADATA_SK = "METADATA";
-    private static final String PRODUCT = "PRODUCT#";
+    private static final String PRODUCTS = BranchCodec.PRODUCTS;
+    // LastEvaluatedKey de un índice: clave de la tabla más la del índice
+    private static final Set<String> GSI1_CURSOR_KEYS = Set.of(
+        AttributeCodec.PK, AttributeCodec.SK, ProductCodec.GSI1PK, ProductCodec.STOCK
+    );
 
-    private final DynamoDbEnhancedAsyncClient dynamoClient;
     private final DynamoDbAsyncClient basicDynamoClient;
     private final DynamoDBProperties properties;
-    
-    private DynamoDbAsyncTable<ProductEntity> getTable() {
-        return dynamoClient.table(properties.getTables().getProducts(), 
-                TableSchema.fromBean(ProductEntity.class));
-    }
+    private final ProductLocator productLocator;
+    private final DynamoBatchReader batchReader;
+    private final DynamoBatchWriter batchWriter;
     
     @Override
     public Mono<Product> save(Product product) {
-        Map<String, AttributeValue> item = Map.of(
-            "PK", AttributeValue.builder().s(PRODUCT + product.getId()).build(),
-            "SK", AttributeValue.builder().s(METADATA_SK).build(),
-            "id", AttributeValue.builder().s(product.getId()).build(),
-            "franchiseId", AttributeValue.builder().s(product.getFranchiseId()).build(),
-            "branchId", AttributeValue.builder().s(product.getBranchId()).build(),
-            "name", AttributeValue.builder().s(product.getName()).build(),
-            STOCK, AttributeValue.builder().n(String.valueOf(product.getStock())).build(),
-            CREATED_AT, AttributeValue.builder().s(product.getCreatedAt().toString()).build(),
-            UPDATED_AT, AttributeValue.builder().s(product.getUpdatedAt().toString()).build(),
-            "GSI1PK", AttributeValue.builder().s(product.getBranchId()).build()
-        );
+        Map<String, AttributeValue> item = ProductCodec.toItem(product);
         
         return Mono.fromFuture(basicDynamoClient.putItem(PutItemRequest.builder()
                 .tableName(properties.getTables().getProducts())
@@ -63,106 +67,207 @@ public class ProductRepositoryAdapter implements ProductRepository {
                 .thenReturn(product);
     }
     
+    // Lotes de 25 PutRequest con varios en vuelo; los UnprocessedItems los reintenta el writer
+    @Override
+    public Flux<Product> saveAll(List<Product> products) {
+        return batchWriter.writeItems(properties.getTables().getProducts(), products, product -> WriteRequest.builder()
+                .putRequest(PutRequest.builder().item(ProductCodec.toItem(product)).build())
+                .build());
+    }
+    
     @Override
     public Mono<Product> findById(String id) {
-        return Mono.fromFuture(basicDynamoClient.getItem(GetItemRequest.builder()
-                .tableName(properties.getTables().getProducts())
-                .key(Map.of(
-                    "PK", AttributeValue.builder().s(PRODUCT + id).build(),
-                    "SK", AttributeValue.builder().s(METADATA_SK).build()
-                ))
-                .build()))
-                .filter(response -> response.item() != null && !response.item().isEmpty())
-                .map(response -> {
-                    Map<String, AttributeValue> item = response.item();
-                    return Product.builder()
-                            .id(item.get("id").s())
-                            .franchiseId(item.get("franchiseId").s())
-                            .branchId(item.get("branchId").s())
-                            .name(item.get("name").s())
-                            .stock(Integer.parseInt(item.get(STOCK).n()))
-                            .createdAt(LocalDateTime.parse(item.get(CREATED_AT).s()))
-                            .updatedAt(LocalDateTime.parse(item.get(UPDATED_AT).s()))
-                            .build();
-                })
-                .switchIfEmpty(
-                    findEmbeddedProductById(id)
-                );
+        return productLocator.resolve(id)
+                .flatMap(item -> ProductLocator.isLocator(item)
+                        ? findEmbeddedProductById(item.get(ProductLocator.BRANCH_ID).s(), id, embeddedKey(item))
+                        : Mono.just(ProductCodec.fromItem(item)));
+    }
+    
+    // Item de la sucursal que guarda el producto: su bucket si la sucursal es BUCKETED, si no el METADATA
+    private static Map<String, AttributeValue> embeddedKey(Map<String, AttributeValue> locator) {
+        String branchId = locator.get(ProductLocator.BRANCH_ID).s();
+        return ProductLocator.BUCKETED.equals(ProductLocator.strategy(locator))
+                ? BranchCodec.bucketKey(branchId, locator.get(ProductCodec.ID).s())
+                : BranchCodec.key(branchId);
     }
     
-    private Mono<Product> findEmbeddedProductById(String productId) {
-        return Mono.fromFuture(basicDynamoClient.scan(ScanRequest.builder()
+    private Mono<Product> findEmbeddedProductById(String branchId, String productId, Map<String, AttributeValue> key) {
+        return Mono.fromFuture(basicDynamoClient.getItem(GetItemRequest.builder()
                 .tableName(properties.getTables().getBranches())
+                .key(key)
+                .projectionExpression(BranchCodec.FRANCHISE_ID + ", " + PRODUCTS)
                 .build()))
-                .flatMapMany(response -> Flux.fromIterable(response.items()))
-                .filter(item -> item.containsKey(PRODUCTS) && item.get(PRODUCTS).l() != null)
-                .flatMap(branchItem -> {
-                    String branchId = branchItem.get("id").s();
-                    return Flux.fromIterable(branchItem.get(PRODUCTS).l())
-                            .filter(productAttr -> productAttr.m().get("id").s().equals(productId))
-                            .map(productAttr -> {
-                                Map<String, AttributeValue> productMap = productAttr.m();
-                                return Product.builder()
-                                        .id(productMap.get("id").s())
-                                        .branchId(branchId)
-                                        .name(productMap.get("name").s())
-                                        .stock(Integer.parseInt(productMap.get(STOCK).n()))
-                                        .createdAt(LocalDateTime.parse(productMap.get(CREATED_AT).s()))
-                                        .updatedAt(LocalDateTime.parse(productMap.get(UPDATED_AT).s()))
-                                        .build();
+                .filter(response -> response.item() != null && response.item().containsKey(PRODUCTS))
+                .flatMap(response -> Mono.justOrEmpty(
+                        BranchCodec.embeddedProduct(response.item().get(PRODUCTS), productId, branchId))
+                        .map(product -> product.toBuilder()
+                                .franchiseId(AttributeCodec.string(response.item(), BranchCodec.FRANCHISE_ID))
+                                .build()));
+    }
+    
+    @Override
+    public Flux<Product> findAllById(Collection<String> ids) {
+        // Por cada id se piden METADATA y LOCATOR en la misma ronda; si coexisten prevalece el METADATA
+        List<Map<String, AttributeValue>> keys = new ArrayList<>();
+        new LinkedHashSet<>(ids).stream()
+                .filter(Objects::nonNull)
+                .forEach(id -> {
+                    keys.add(ProductCodec.key(id));
+                    keys.add(ProductCodec.key(id, AttributeCodec.LOCATOR_SK));
+                });
+        return batchReader.read(properties.getTables().getProducts(), keys)
+                .collectList()
+                .flatMapMany(items -> {
+                    List<Product> separated = new ArrayList<>();
+                    Set<String> separatedIds = new HashSet<>();
+                    items.stream()
+                            .filter(item -> !ProductLocator.isLocator(item))
+                            .forEach(item -> {
+                                separated.add(ProductCodec.fromItem(item));
+                                separatedIds.add(item.get(ProductCodec.ID).s());
                             });
-                })
-                .next();
+                    Map<Map<String, AttributeValue>, Set<String>> embeddedIdsByItem = new HashMap<>();
+                    items.stream()
+                            .filter(ProductLocator::isLocator)
+                            .filter(item -> !separatedIds.contains(item.get(ProductCodec.ID).s()))
+                            .forEach(item -> embeddedIdsByItem
+                                    .computeIfAbsent(embeddedKey(item), k -> new HashSet<>())
+                                    .add(item.get(ProductCodec.ID).s()));
+                    return Flux.concat(Flux.fromIterable(separated), findEmbeddedProducts(embeddedIdsByItem));
+                });
+    }
+    
+    // Una sola lectura por item de sucursal (METADATA o bucket) aunque se pidan varios de sus productos embebidos
+    private Flux<Product> findEmbeddedProducts(Map<Map<String, AttributeValue>, Set<String>> productIdsByItem) {
+        List<Map<String, AttributeValue>> keys = List.copyOf(productIdsByItem.keySet());
+        return batchReader.read(properties.getTables().getBranches(), keys,
+                        AttributeCodec.PK + ", " + AttributeCodec.SK + ", " + PRODUCTS)
+                .filter(item -> item.containsKey(PRODUCTS))
+                .flatMapIterable(item -> {
+                    String branchId = BranchCodec.idFromKey(item);
+                    Set<String> wanted = productIdsByItem.getOrDefault(
+                            AttributeCodec.key(item.get(AttributeCodec.PK).s(), item.get(AttributeCodec.SK)), Set.of());
+                    return BranchCodec.embeddedProducts(item.get(PRODUCTS), branchId).stream()
+                            .filter(product -> wanted.contains(product.getId()))
+                            .toList();
+                });
     }
     
     @Override
     public Flux<Product> findByBranchId(String branchId) {
-        return Flux.from(getTable().index("GSI1")
-                .query(QueryConditional.keyEqualTo(k -> k.partitionValue(branchId)))
-                .flatMapIterable(page -> page.items()))
-                .map(this::toDomain);
+        return queryIndex(indexQuery("GSI1", ProductCodec.GSI1PK, branchId).build());
+    }
+    
+    // Una sola Query acotada por Limit por página; el cursor es el LastEvaluatedKey de la anterior
+    @Override
+    public Mono<Page<Product>> findPageByBranchId(String branchId, int limit, String cursor) {
+        return Mono.defer(() -> {
+            Map<String, AttributeValue> startKey = CursorCodec.decode(cursor, GSI1_CURSOR_KEYS);
+            if (startKey != null && !AttributeCodec.s(branchId).equals(startKey.get(ProductCodec.GSI1PK))) {
+                return Mono.error(new IllegalArgumentException("El cursor no corresponde a la sucursal " + branchId));
+            }
+            return Mono.fromFuture(basicDynamoClient.query(indexQuery("GSI1", ProductCodec.GSI1PK, branchId)
+                    .limit(limit)
+                    .exclusiveStartKey(startKey)
+                    .build()));
+        }).map(response -> Page.of(
+                response.items().stream().map(ProductCodec::fromItem).toList(),
+                CursorCodec.encode(response.lastEvaluatedKey())
+            ));
     }
     
     @Override
     public Flux<Product> findByFranchiseId(String franchiseId) {
-        return Flux.from(getTable().scan().items())
-                .filter(entity -> franchiseId.equals(entity.getFranchiseId()))
-                .map(this::toDomain);
+        return queryIndex(indexQuery("GSI2", ProductCodec.GSI2PK, franchiseId).build());
     }
     
     @Override
-    public Flux<Product> findTopStockByFranchise(String franchiseId) {
-        return findByFranchiseId(franchiseId)
-                .collectList()
-                .flatMapMany(products -> Flux.fromIterable(products)
-                        .sort((p1, p2) -> Integer.compare(p2.getStock(), p1.getStock()))
-                        .take(10));
+    public Flux<Product> findTopStockByFranchise(String franchiseId, int limit) {
+        return findTopStock("GSI2", ProductCodec.GSI2PK, franchiseId, limit);
+    }
+    
+    @Override
+    public Flux<Product> findTopStockByBranch(String branchId, int limit) {
+        return findTopStock("GSI1", ProductCodec.GSI1PK, branchId, limit);
+    }
+    
+    // El sort key de ambos índices es el atributo stock: una sola página descendente con Limit = N
+    private Flux<Product> findTopStock(String indexName, String partitionKey, String partitionValue, int limit) {
+        return Mono.fromFuture(() -> basicDynamoClient.query(indexQuery(indexName, partitionKey, partitionValue)
+                        .scanIndexForward(false)
+                        .limit(limit)
+                        .build()))
+                .flatMapIterable(QueryResponse::items)
+                .map(ProductCodec::fromItem);
     }
     
+    private Flux<Product> queryIndex(QueryRequest request) {
+        return Flux.from(basicDynamoClient.queryPaginator(request).items())
+                .map(ProductCodec::fromItem);
+    }
+    
+    private QueryRequest.Builder indexQuery(String indexName, String partitionKey, String partitionValue) {
+        return QueryRequest.builder()
+                .tableName(properties.getTables().getProducts())
+                .indexName(indexName)
+                .keyConditionExpression(partitionKey + " = :pk")
+                .expressionAttributeValues(Map.of(":pk", AttributeCodec.s(partitionValue)));
+    }
+    
+    // ALL_OLD: quien borra recibe el producto (p. ej. para descontar su stock) sin leerlo antes
     @Override
-    public Mono<Void> deleteById(String id) {
+    public Mono<Product> deleteById(String id) {
         return Mono.fromFuture(basicDynamoClient.deleteItem(DeleteItemRequest.builder()
                 .tableName(properties.getTables().getProducts())
-                .key(Map.of(
-                    "PK", AttributeValue.builder().s(PRODUCT + id).build(),
-                    "SK", AttributeValue.builder().s(METADATA_SK).build()
+                .key(ProductCodec.key(id))
+                .returnValues(ReturnValue.ALL_OLD)
+                .build()))
+                .filter(response -> response.hasAttributes() && !response.attributes().isEmpty())
+                .map(response -> ProductCodec.fromItem(response.attributes()));
+    }
+    
+    // ADD sobre stock sin leer el valor actual; la condición impide que un decremento lo deje negativo.
+    // Con ALL_OLD en el fallo se distingue stock insuficiente de producto inexistente sin otra lectura
+    @Override
+    public Mono<Product> adjustStock(String id, Integer delta) {
+        return Mono.fromFuture(basicDynamoClient.updateItem(UpdateItemRequest.builder()
+                .tableName(properties.getTables().getProducts())
+                .key(ProductCodec.key(id))
+                .updateExpression("ADD stock :delta SET updatedAt = :updatedAt")
+                .conditionExpression("attribute_exists(PK) AND stock >= :needed")
+                .expressionAttributeValues(Map.of(
+                    ":delta", AttributeCodec.n(delta),
+                    ":needed", AttributeCodec.n(Math.max(0, -delta)),
+                    ":updatedAt", AttributeCodec.s(LocalDateTime.now().toString())
+                ))
+                .returnValues(ReturnValue.ALL_NEW)
+                .returnValuesOnConditionCheckFailure(ReturnValuesOnConditionCheckFailure.ALL_OLD)
+                .build()))
+                .map(response -> ProductCodec.fromItem(response.attributes()))
+                .onErrorMap(ConditionalCheckFailedException.class, error -> error.hasItem()
+                        ? new IllegalStateException("Stock insuficiente para el producto " + id)
+                        : new RuntimeException("Product not found", error));
+    }
+    
+    // SET sin lectura previa: el stock anterior, para la diferencia de los contadores, llega en el ALL_OLD
+    @Override
+    public Mono<ProductChange> updateStock(String id, Integer stock) {
+        LocalDateTime updatedAt = LocalDateTime.now();
+        return Mono.fromFuture(basicDynamoClient.updateItem(UpdateItemRequest.builder()
+                .tableName(properties.getTables().getProducts())
+                .key(ProductCodec.key(id))
+                .updateExpression("SET stock = :stock, updatedAt = :updatedAt")
+                .conditionExpression("attribute_exists(PK)")
+                .expressionAttributeValues(Map.of(
+                    ":stock", AttributeCodec.n(stock),
+                    ":updatedAt", AttributeCodec.s(updatedAt.toString())
                 ))
+                .returnValues(ReturnValue.ALL_OLD)
                 .build()))
-                .then();
-    }
-    
-    private Product toDomain(ProductEntity entity) {
-        if (entity == null) {
-            return null;
-        }
-        return Product.builder()
-                .id(entity.getId())
-                .franchiseId(entity.getFranchiseId())
-                .branchId(entity.getBranchId())
-                .name(entity.getName())
-                .stock(entity.getStock())
-                .createdAt(entity.getCreatedAt())
-                .updatedAt(entity.getUpdatedAt())
-                .build();
+                .map(response -> {
+                    Product previous = ProductCodec.fromItem(response.attributes());
+                    return ProductChange.of(previous, previous.toBuilder().stock(stock).updatedAt(updatedAt).build());
+                })
+                .onErrorMap(ConditionalCheckFailedException.class, error -> new RuntimeException("Product not found", error));
     }
 }
@@ -0,0 +1,90 @@
+package co.com.bancolombia.dynamodb.stats;
+
+import co.com.bancolombia.dynamodb.batch.DynamoBatchReader;
+import co.com.bancolombia.dynamodb.codec.AttributeCodec;
+import co.com.bancolombia.dynamodb.codec.FranchiseStatsCodec;
+import co.com.bancolombia.dynamodb.config.DynamoDBProperties;
+import co.com.bancolombia.model.franchise.FranchiseStats;
+import co.com.bancolombia.model.franchise.ThrottledException;
+import co.com.bancolombia.model.franchise.gateways.FranchiseStatsRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Mono;
+import software.amazon.awssdk.services.dynamodb.DynamoDbAsyncClient;
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+import software.amazon.awssdk.services.dynamodb.model.UpdateItemRequest;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.stream.IntStream;
+
+// Contadores repartidos en N items por franquicia: cada escritura va a un shard al azar, así un cambio de
+// stock en cualquier sucursal no cae siempre sobre la misma partición. La lectura trae los N shards en un
+// BatchGetItem y los suma
+@Repository
+@RequiredArgsConstructor
+@Slf4j
+public class FranchiseStatsRepositoryAdapter implements FranchiseStatsRepository {
+    
+    private final DynamoDbAsyncClient basicDynamoClient;
+    private final DynamoDBProperties properties;
+    private final DynamoBatchReader batchReader;
+    
+    // ADD crea el shard y los atributos si no existen; sin condición ni lectura previa
+    @Override
+    public Mono<Void> increment(String franchiseId, long branches, long products, long stock) {
+        List<String> additions = new ArrayList<>(3);
+        Map<String, AttributeValue> values = new HashMap<>();
+        values.put(":fid", AttributeCodec.s(franchiseId));
+        addIfNonZero(additions, values, FranchiseStatsCodec.BRANCH_COUNT, ":branches", branches);
+        addIfNonZero(additions, values, FranchiseStatsCodec.PRODUCT_COUNT, ":products", products);
+        addIfNonZero(additions, values, FranchiseStatsCodec.TOTAL_STOCK, ":stock", stock);
+        if (additions.isEmpty()) {
+            return Mono.empty();
+        }
+        int shard = ThreadLocalRandom.current().nextInt(shards());
+        return Mono.fromFuture(() -> basicDynamoClient.updateItem(UpdateItemRequest.builder()
+                        .tableName(properties.getTables().getStats())
+                        .key(FranchiseStatsCodec.key(franchiseId, shard))
+                        .updateExpression("SET " + FranchiseStatsCodec.FRANCHISE_ID + " = :fid ADD "
+                                + String.join(", ", additions))
+                        .expressionAttributeValues(values)
+                        .build()))
+                .doOnError(error -> log.error("Error updating stats of franchise: {}", franchiseId, error))
+                .onErrorMap(FranchiseStatsRepositoryAdapter::isUnexpected, throwable -> new RuntimeException("Error updating franchise stats", throwable))
+                .then();
+    }
+    
+    private static void addIfNonZero(List<String> additions, Map<String, AttributeValue> values,
+                                     String attribute, String placeholder, long delta) {
+        if (delta != 0) {
+            additions.add(attribute + " " + placeholder);
+            values.put(placeholder, AttributeCodec.n(delta));
+        }
+    }
+    
+    @Override
+    public Mono<FranchiseStats> findByFranchiseId(String franchiseId) {
+        List<Map<String, AttributeValue>> keys = IntStream.range(0, shards())
+                .mapToObj(shard -> FranchiseStatsCodec.key(franchiseId, shard))
+                .toList();
+        return batchReader.read(properties.getTables().getStats(), keys)
+                .map(item -> FranchiseStatsCodec.fromItem(franchiseId, item))
+                .reduce(FranchiseStats.empty(franchiseId), FranchiseStats::plus)
+                .doOnError(error -> log.error("Error finding stats of franchise: {}", franchiseId, error))
+                .onErrorMap(FranchiseStatsRepositoryAdapter::isUnexpected, throwable -> new RuntimeException("Error finding franchise stats", throwable));
+    }
+    
+    private int shards() {
+        return Math.max(1, properties.getStats().getShards());
+    }
+    
+    // Un throttling agotado ya viene como ThrottledException (503): no se oculta tras un error genérico
+    private static boolean isUnexpected(Throwable throwable) {
+        return !(throwable instanceof ThrottledException);
+    }
+}
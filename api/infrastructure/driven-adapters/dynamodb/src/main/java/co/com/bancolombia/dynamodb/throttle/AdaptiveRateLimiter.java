@@ -0,0 +1,115 @@
+package co.com.bancolombia.dynamodb.throttle;
+
+import co.com.bancolombia.dynamodb.config.DynamoDBProperties;
+
+import java.util.concurrent.TimeUnit;
+
+// Token bucket AIMD para una tabla/operación. Está inactivo hasta el primer throttling: entonces fija la
+// tasa en una fracción de la observada, la reduce en cada nuevo rechazo y la recupera linealmente.
+// Tras quietPeriod sin rechazos vuelve a dejar pasar todo
+final class AdaptiveRateLimiter {
+    
+    static final long REJECTED = -1;
+    private static final long NANOS_PER_SECOND = TimeUnit.SECONDS.toNanos(1);
+    // Los rechazos de una misma ráfaga llegan casi juntos: cuentan como una sola reducción
+    private static final long DECREASE_INTERVAL_NANOS = TimeUnit.MILLISECONDS.toNanos(200);
+    
+    private final DynamoDBProperties.Throttling config;
+    
+    private boolean limiting;
+    private double rate;
+    private double tokens;
+    private long lastRefillNanos;
+    private long lastIncreaseNanos;
+    private long lastDecreaseNanos;
+    private long lastThrottleNanos;
+    
+    // Tasa observada: requests en la ventana de un segundo en curso, suavizada entre ventanas
+    private long windowStartNanos;
+    private int windowCount;
+    private double measuredRate;
+    
+    AdaptiveRateLimiter(DynamoDBProperties.Throttling config) {
+        this.config = config;
+        this.windowStartNanos = System.nanoTime();
+    }
+    
+    // Nanosegundos a esperar antes de enviar la request, o REJECTED si la espera supera maxQueueDelay
+    synchronized long reserve() {
+        long now = System.nanoTime();
+        measure(now);
+        if (!limiting) {
+            return 0;
+        }
+        if (now - lastThrottleNanos > config.getQuietPeriod().toNanos()) {
+            limiting = false;
+            return 0;
+        }
+        tokens = Math.min(Math.max(1, rate), tokens + rate * (now - lastRefillNanos) / NANOS_PER_SECOND);
+        lastRefillNanos = now;
+        tokens -= 1;
+        if (tokens >= 0) {
+            return 0;
+        }
+        long wait = (long) (-tokens / rate * NANOS_PER_SECOND);
+        if (wait > config.getMaxQueueDelay().toNanos()) {
+            tokens += 1;
+            return REJECTED;
+        }
+        return wait;
+    }
+    
+    synchronized void onSuccess() {
+        if (!limiting) {
+            return;
+        }
+        long now = System.nanoTime();
+        rate += config.getRecoveryRatePerSecond() * (now - lastIncreaseNanos) / NANOS_PER_SECOND;
+        lastIncreaseNanos = now;
+    }
+    
+    synchronized void onThrottle() {
+        long now = System.nanoTime();
+        lastThrottleNanos = now;
+        if (limiting && now - lastDecreaseNanos < DECREASE_INTERVAL_NANOS) {
+            return;
+        }
+        double base = limiting ? rate : Math.max(measuredRate, windowRate(now));
+        rate = Math.max(config.getMinRate(), base * config.getDecreaseFactor());
+        if (!limiting) {
+            limiting = true;
+            tokens = 0;
+            lastRefillNanos = now;
+        }
+        lastDecreaseNanos = now;
+        lastIncreaseNanos = now;
+    }
+    
+    // Para los gauges: 0 mientras el limitador no está restringiendo
+    synchronized double limit() {
+        return limiting ? rate : 0;
+    }
+    
+    synchronized double measuredRate() {
+        return measuredRate;
+    }
+    
+    synchronized double availableTokens() {
+        return limiting ? tokens : 0;
+    }
+    
+    private void measure(long now) {
+        long elapsed = now - windowStartNanos;
+        if (elapsed >= NANOS_PER_SECOND) {
+            measuredRate = measuredRate == 0 ? windowRate(now) : (measuredRate + windowRate(now)) / 2;
+            windowStartNanos = now;
+            windowCount = 0;
+        }
+        windowCount++;
+    }
+    
+    private double windowRate(long now) {
+        double seconds = Math.max(1e-3, (double) (now - windowStartNanos) / NANOS_PER_SECOND);
+        return windowCount / seconds;
+    }
+}
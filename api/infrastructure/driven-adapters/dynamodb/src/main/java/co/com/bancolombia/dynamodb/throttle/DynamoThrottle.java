@@ -0,0 +1,129 @@
+package co.com.bancolombia.dynamodb.throttle;
+
+import co.com.bancolombia.dynamodb.config.DynamoDBProperties;
+import co.com.bancolombia.model.franchise.ThrottledException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Mono;
+import reactor.util.retry.Retry;
+import software.amazon.awssdk.awscore.exception.AwsServiceException;
+import software.amazon.awssdk.services.dynamodb.model.CancellationReason;
+import software.amazon.awssdk.services.dynamodb.model.TransactionCanceledException;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+// Envuelve cada llamada a DynamoDB: espera turno en el limitador de su tabla/operación, ajusta el
+// limitador según la respuesta y reintenta los rechazos por capacidad con backoff exponencial y jitter.
+// Agotados los reintentos se emite ThrottledException (503) en lugar del error del SDK
+@Slf4j
+public class DynamoThrottle {
+    
+    private static final Set<String> THROTTLING_REASONS = Set.of(
+        "ThrottlingError", "ProvisionedThroughputExceeded", "RequestLimitExceeded"
+    );
+    
+    private final DynamoDBProperties.Throttling config;
+    private final MeterRegistry meterRegistry;
+    private final Map<String, Limiter> limiters = new ConcurrentHashMap<>();
+    
+    public DynamoThrottle(DynamoDBProperties.Throttling config, MeterRegistry meterRegistry) {
+        this.config = config;
+        this.meterRegistry = meterRegistry;
+    }
+    
+    public <T> Mono<T> call(String table, String operation, Supplier<CompletableFuture<T>> request) {
+        return call(table, operation, request, response -> false);
+    }
+    
+    // partiallyThrottled: respuestas exitosas que igual indican falta de capacidad (UnprocessedItems/Keys)
+    public <T> Mono<T> call(String table, String operation, Supplier<CompletableFuture<T>> request,
+                            Predicate<T> partiallyThrottled) {
+        Limiter limiter = limiter(table, operation);
+        return Mono.defer(() -> {
+                    long delay = limiter.rateLimiter.reserve();
+                    if (delay == AdaptiveRateLimiter.REJECTED) {
+                        limiter.rejected.increment();
+                        return Mono.error(new ClientSideRejection());
+                    }
+                    Mono<T> call = Mono.fromFuture(request);
+                    return delay == 0 ? call : Mono.delay(Duration.ofNanos(delay)).then(call);
+                })
+                .doOnNext(response -> {
+                    if (partiallyThrottled.test(response)) {
+                        limiter.rateLimiter.onThrottle();
+                        limiter.throttled.increment();
+                    } else {
+                        limiter.rateLimiter.onSuccess();
+                    }
+                })
+                .doOnError(DynamoThrottle::isThrottling, error -> {
+                    limiter.rateLimiter.onThrottle();
+                    limiter.throttled.increment();
+                })
+                .retryWhen(Retry.backoff(config.getMaxRetries(), config.getMinBackoff())
+                        .maxBackoff(config.getMaxBackoff())
+                        .jitter(config.getJitter())
+                        .filter(error -> error instanceof ClientSideRejection || isThrottling(error))
+                        .doBeforeRetry(signal -> limiter.retries.increment())
+                        .onRetryExhaustedThrow((spec, signal) -> {
+                            log.warn("DynamoDB throttled after {} retries: {} {}", signal.totalRetries(), table, operation);
+                            return new ThrottledException("DynamoDB throttled: " + table + " " + operation, signal.failure());
+                        }));
+    }
+    
+    static boolean isThrottling(Throwable error) {
+        if (error instanceof TransactionCanceledException canceled && canceled.hasCancellationReasons()) {
+            return canceled.cancellationReasons().stream()
+                    .map(CancellationReason::code)
+                    .anyMatch(THROTTLING_REASONS::contains);
+        }
+        return error instanceof AwsServiceException serviceError && serviceError.isThrottlingException();
+    }
+    
+    private Limiter limiter(String table, String operation) {
+        return limiters.computeIfAbsent(table + ":" + operation, key -> new Limiter(table, operation));
+    }
+    
+    // Gauges y contadores por tabla/operación: dynamodb.client.rate.limit es 0 mientras no se está limitando
+    private final class Limiter {
+        private final AdaptiveRateLimiter rateLimiter = new AdaptiveRateLimiter(config);
+        private final Counter throttled;
+        private final Counter retries;
+        private final Counter rejected;
+        
+        private Limiter(String table, String operation) {
+            Tags tags = Tags.of("table", table, "operation", operation);
+            Gauge.builder("dynamodb.client.rate.limit", rateLimiter, AdaptiveRateLimiter::limit)
+                    .description("Requests/s permitidas por el limitador adaptativo")
+                    .tags(tags)
+                    .register(meterRegistry);
+            Gauge.builder("dynamodb.client.rate.measured", rateLimiter, AdaptiveRateLimiter::measuredRate)
+                    .description("Requests/s observadas")
+                    .tags(tags)
+                    .register(meterRegistry);
+            Gauge.builder("dynamodb.client.tokens", rateLimiter, AdaptiveRateLimiter::availableTokens)
+                    .description("Tokens disponibles en el bucket (negativo = requests en espera)")
+                    .tags(tags)
+                    .register(meterRegistry);
+            throttled = meterRegistry.counter("dynamodb.client.throttled", tags);
+            retries = meterRegistry.counter("dynamodb.client.retries", tags);
+            rejected = meterRegistry.counter("dynamodb.client.rejected", tags);
+        }
+    }
+    
+    // El limitador rechazó la request sin enviarla: se reintenta con el mismo backoff que un throttling
+    private static final class ClientSideRejection extends RuntimeException {
+        private ClientSideRejection() {
+            super("Client-side rate limit exceeded", null, false, false);
+        }
+    }
+}
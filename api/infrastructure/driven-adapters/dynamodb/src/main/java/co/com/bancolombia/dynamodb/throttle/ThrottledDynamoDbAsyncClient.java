@@ -0,0 +1,512 @@
+package co.com.bancolombia.dynamodb.throttle;
+
+import lombok.RequiredArgsConstructor;
+import software.amazon.awssdk.services.dynamodb.DynamoDbAsyncClient;
+import software.amazon.awssdk.services.dynamodb.DynamoDbServiceClientConfiguration;
+import software.amazon.awssdk.services.dynamodb.model.BatchExecuteStatementRequest;
+import software.amazon.awssdk.services.dynamodb.model.BatchExecuteStatementResponse;
+import software.amazon.awssdk.services.dynamodb.model.BatchGetItemRequest;
+import software.amazon.awssdk.services.dynamodb.model.BatchGetItemResponse;
+import software.amazon.awssdk.services.dynamodb.model.BatchWriteItemRequest;
+import software.amazon.awssdk.services.dynamodb.model.BatchWriteItemResponse;
+import software.amazon.awssdk.services.dynamodb.model.CreateBackupRequest;
+import software.amazon.awssdk.services.dynamodb.model.CreateBackupResponse;
+import software.amazon.awssdk.services.dynamodb.model.CreateGlobalTableRequest;
+import software.amazon.awssdk.services.dynamodb.model.CreateGlobalTableResponse;
+import software.amazon.awssdk.services.dynamodb.model.CreateTableRequest;
+import software.amazon.awssdk.services.dynamodb.model.CreateTableResponse;
+import software.amazon.awssdk.services.dynamodb.model.DeleteBackupRequest;
+import software.amazon.awssdk.services.dynamodb.model.DeleteBackupResponse;
+import software.amazon.awssdk.services.dynamodb.model.DeleteItemRequest;
+import software.amazon.awssdk.services.dynamodb.model.DeleteItemResponse;
+import software.amazon.awssdk.services.dynamodb.model.DeleteResourcePolicyRequest;
+import software.amazon.awssdk.services.dynamodb.model.DeleteResourcePolicyResponse;
+import software.amazon.awssdk.services.dynamodb.model.DeleteTableRequest;
+import software.amazon.awssdk.services.dynamodb.model.DeleteTableResponse;
+import software.amazon.awssdk.services.dynamodb.model.DescribeBackupRequest;
+import software.amazon.awssdk.services.dynamodb.model.DescribeBackupResponse;
+import software.amazon.awssdk.services.dynamodb.model.DescribeContinuousBackupsRequest;
+import software.amazon.awssdk.services.dynamodb.model.DescribeContinuousBackupsResponse;
+import software.amazon.awssdk.services.dynamodb.model.DescribeContributorInsightsRequest;
+import software.amazon.awssdk.services.dynamodb.model.DescribeContributorInsightsResponse;
+import software.amazon.awssdk.services.dynamodb.model.DescribeEndpointsRequest;
+import software.amazon.awssdk.services.dynamodb.model.DescribeEndpointsResponse;
+import software.amazon.awssdk.services.dynamodb.model.DescribeExportRequest;
+import software.amazon.awssdk.services.dynamodb.model.DescribeExportResponse;
+import software.amazon.awssdk.services.dynamodb.model.DescribeGlobalTableRequest;
+import software.amazon.awssdk.services.dynamodb.model.DescribeGlobalTableResponse;
+import software.amazon.awssdk.services.dynamodb.model.DescribeGlobalTableSettingsRequest;
+import software.amazon.awssdk.services.dynamodb.model.DescribeGlobalTableSettingsResponse;
+import software.amazon.awssdk.services.dynamodb.model.DescribeImportRequest;
+import software.amazon.awssdk.services.dynamodb.model.DescribeImportResponse;
+import software.amazon.awssdk.services.dynamodb.model.DescribeKinesisStreamingDestinationRequest;
+import software.amazon.awssdk.services.dynamodb.model.DescribeKinesisStreamingDestinationResponse;
+import software.amazon.awssdk.services.dynamodb.model.DescribeLimitsRequest;
+import software.amazon.awssdk.services.dynamodb.model.DescribeLimitsResponse;
+import software.amazon.awssdk.services.dynamodb.model.DescribeTableReplicaAutoScalingRequest;
+import software.amazon.awssdk.services.dynamodb.model.DescribeTableReplicaAutoScalingResponse;
+import software.amazon.awssdk.services.dynamodb.model.DescribeTableRequest;
+import software.amazon.awssdk.services.dynamodb.model.DescribeTableResponse;
+import software.amazon.awssdk.services.dynamodb.model.DescribeTimeToLiveRequest;
+import software.amazon.awssdk.services.dynamodb.model.DescribeTimeToLiveResponse;
+import software.amazon.awssdk.services.dynamodb.model.DisableKinesisStreamingDestinationRequest;
+import software.amazon.awssdk.services.dynamodb.model.DisableKinesisStreamingDestinationResponse;
+import software.amazon.awssdk.services.dynamodb.model.EnableKinesisStreamingDestinationRequest;
+import software.amazon.awssdk.services.dynamodb.model.EnableKinesisStreamingDestinationResponse;
+import software.amazon.awssdk.services.dynamodb.model.ExecuteStatementRequest;
+import software.amazon.awssdk.services.dynamodb.model.ExecuteStatementResponse;
+import software.amazon.awssdk.services.dynamodb.model.ExecuteTransactionRequest;
+import software.amazon.awssdk.services.dynamodb.model.ExecuteTransactionResponse;
+import software.amazon.awssdk.services.dynamodb.model.ExportTableToPointInTimeRequest;
+import software.amazon.awssdk.services.dynamodb.model.ExportTableToPointInTimeResponse;
+import software.amazon.awssdk.services.dynamodb.model.GetItemRequest;
+import software.amazon.awssdk.services.dynamodb.model.GetItemResponse;
+import software.amazon.awssdk.services.dynamodb.model.GetResourcePolicyRequest;
+import software.amazon.awssdk.services.dynamodb.model.GetResourcePolicyResponse;
+import software.amazon.awssdk.services.dynamodb.model.ImportTableRequest;
+import software.amazon.awssdk.services.dynamodb.model.ImportTableResponse;
+import software.amazon.awssdk.services.dynamodb.model.ListBackupsRequest;
+import software.amazon.awssdk.services.dynamodb.model.ListBackupsResponse;
+import software.amazon.awssdk.services.dynamodb.model.ListContributorInsightsRequest;
+import software.amazon.awssdk.services.dynamodb.model.ListContributorInsightsResponse;
+import software.amazon.awssdk.services.dynamodb.model.ListExportsRequest;
+import software.amazon.awssdk.services.dynamodb.model.ListExportsResponse;
+import software.amazon.awssdk.services.dynamodb.model.ListGlobalTablesRequest;
+import software.amazon.awssdk.services.dynamodb.model.ListGlobalTablesResponse;
+import software.amazon.awssdk.services.dynamodb.model.ListImportsRequest;
+import software.amazon.awssdk.services.dynamodb.model.ListImportsResponse;
+import software.amazon.awssdk.services.dynamodb.model.ListTablesRequest;
+import software.amazon.awssdk.services.dynamodb.model.ListTablesResponse;
+import software.amazon.awssdk.services.dynamodb.model.ListTagsOfResourceRequest;
+import software.amazon.awssdk.services.dynamodb.model.ListTagsOfResourceResponse;
+import software.amazon.awssdk.services.dynamodb.model.PutItemRequest;
+import software.amazon.awssdk.services.dynamodb.model.PutItemResponse;
+import software.amazon.awssdk.services.dynamodb.model.PutResourcePolicyRequest;
+import software.amazon.awssdk.services.dynamodb.model.PutResourcePolicyResponse;
+import software.amazon.awssdk.services.dynamodb.model.QueryRequest;
+import software.amazon.awssdk.services.dynamodb.model.QueryResponse;
+import software.amazon.awssdk.services.dynamodb.model.RestoreTableFromBackupRequest;
+import software.amazon.awssdk.services.dynamodb.model.RestoreTableFromBackupResponse;
+import software.amazon.awssdk.services.dynamodb.model.RestoreTableToPointInTimeRequest;
+import software.amazon.awssdk.services.dynamodb.model.RestoreTableToPointInTimeResponse;
+import software.amazon.awssdk.services.dynamodb.model.ScanRequest;
+import software.amazon.awssdk.services.dynamodb.model.ScanResponse;
+import software.amazon.awssdk.services.dynamodb.model.TagResourceRequest;
+import software.amazon.awssdk.services.dynamodb.model.TagResourceResponse;
+import software.amazon.awssdk.services.dynamodb.model.TransactGetItemsRequest;
+import software.amazon.awssdk.services.dynamodb.model.TransactGetItemsResponse;
+import software.amazon.awssdk.services.dynamodb.model.TransactWriteItem;
+import software.amazon.awssdk.services.dynamodb.model.TransactWriteItemsRequest;
+import software.amazon.awssdk.services.dynamodb.model.TransactWriteItemsResponse;
+import software.amazon.awssdk.services.dynamodb.model.UntagResourceRequest;
+import software.amazon.awssdk.services.dynamodb.model.UntagResourceResponse;
+import software.amazon.awssdk.services.dynamodb.model.UpdateContinuousBackupsRequest;
+import software.amazon.awssdk.services.dynamodb.model.UpdateContinuousBackupsResponse;
+import software.amazon.awssdk.services.dynamodb.model.UpdateContributorInsightsRequest;
+import software.amazon.awssdk.services.dynamodb.model.UpdateContributorInsightsResponse;
+import software.amazon.awssdk.services.dynamodb.model.UpdateGlobalTableRequest;
+import software.amazon.awssdk.services.dynamodb.model.UpdateGlobalTableResponse;
+import software.amazon.awssdk.services.dynamodb.model.UpdateGlobalTableSettingsRequest;
+import software.amazon.awssdk.services.dynamodb.model.UpdateGlobalTableSettingsResponse;
+import software.amazon.awssdk.services.dynamodb.model.UpdateItemRequest;
+import software.amazon.awssdk.services.dynamodb.model.UpdateItemResponse;
+import software.amazon.awssdk.services.dynamodb.model.UpdateKinesisStreamingDestinationRequest;
+import software.amazon.awssdk.services.dynamodb.model.UpdateKinesisStreamingDestinationResponse;
+import software.amazon.awssdk.services.dynamodb.model.UpdateTableReplicaAutoScalingRequest;
+import software.amazon.awssdk.services.dynamodb.model.UpdateTableReplicaAutoScalingResponse;
+import software.amazon.awssdk.services.dynamodb.model.UpdateTableRequest;
+import software.amazon.awssdk.services.dynamodb.model.UpdateTableResponse;
+import software.amazon.awssdk.services.dynamodb.model.UpdateTimeToLiveRequest;
+import software.amazon.awssdk.services.dynamodb.model.UpdateTimeToLiveResponse;
+import software.amazon.awssdk.services.dynamodb.paginators.BatchGetItemPublisher;
+import software.amazon.awssdk.services.dynamodb.paginators.ListContributorInsightsPublisher;
+import software.amazon.awssdk.services.dynamodb.paginators.ListExportsPublisher;
+import software.amazon.awssdk.services.dynamodb.paginators.ListImportsPublisher;
+import software.amazon.awssdk.services.dynamodb.paginators.ListTablesPublisher;
+import software.amazon.awssdk.services.dynamodb.paginators.QueryPublisher;
+import software.amazon.awssdk.services.dynamodb.paginators.ScanPublisher;
+import software.amazon.awssdk.services.dynamodb.waiters.DynamoDbAsyncWaiter;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+// Cliente que pasa por DynamoThrottle las operaciones de datos (items, consultas, lotes, transacciones y
+// PartiQL). Los paginadores de esas operaciones se construyen sobre este mismo cliente, así cada página queda
+// limitada y reintentada por separado. Las de plano de control (tablas, backups, exports...) se delegan sin
+// limitar: ninguna operación se queda con el default del SDK (UnsupportedOperationException)
+@RequiredArgsConstructor
+public class ThrottledDynamoDbAsyncClient implements DynamoDbAsyncClient {
+    
+    private static final String MULTIPLE_TABLES = "*";
+    
+    private final DynamoDbAsyncClient delegate;
+    private final DynamoThrottle throttle;
+    
+    @Override
+    public CompletableFuture<GetItemResponse> getItem(GetItemRequest request) {
+        return throttle.call(request.tableName(), "GetItem", () -> delegate.getItem(request)).toFuture();
+    }
+    
+    @Override
+    public CompletableFuture<PutItemResponse> putItem(PutItemRequest request) {
+        return throttle.call(request.tableName(), "PutItem", () -> delegate.putItem(request)).toFuture();
+    }
+    
+    @Override
+    public CompletableFuture<UpdateItemResponse> updateItem(UpdateItemRequest request) {
+        return throttle.call(request.tableName(), "UpdateItem", () -> delegate.updateItem(request)).toFuture();
+    }
+    
+    @Override
+    public CompletableFuture<DeleteItemResponse> deleteItem(DeleteItemRequest request) {
+        return throttle.call(request.tableName(), "DeleteItem", () -> delegate.deleteItem(request)).toFuture();
+    }
+    
+    @Override
+    public CompletableFuture<QueryResponse> query(QueryRequest request) {
+        return throttle.call(request.tableName(), "Query", () -> delegate.query(request)).toFuture();
+    }
+    
+    @Override
+    public QueryPublisher queryPaginator(QueryRequest request) {
+        return new QueryPublisher(this, request);
+    }
+    
+    @Override
+    public CompletableFuture<ScanResponse> scan(ScanRequest request) {
+        return throttle.call(request.tableName(), "Scan", () -> delegate.scan(request)).toFuture();
+    }
+    
+    @Override
+    public ScanPublisher scanPaginator(ScanRequest request) {
+        return new ScanPublisher(this, request);
+    }
+    
+    @Override
+    public CompletableFuture<BatchGetItemResponse> batchGetItem(BatchGetItemRequest request) {
+        return throttle.call(tableOf(request.requestItems()), "BatchGetItem", () -> delegate.batchGetItem(request),
+                response -> response.hasUnprocessedKeys() && !response.unprocessedKeys().isEmpty()).toFuture();
+    }
+    
+    @Override
+    public BatchGetItemPublisher batchGetItemPaginator(BatchGetItemRequest request) {
+        return new BatchGetItemPublisher(this, request);
+    }
+    
+    @Override
+    public CompletableFuture<BatchWriteItemResponse> batchWriteItem(BatchWriteItemRequest request) {
+        return throttle.call(tableOf(request.requestItems()), "BatchWriteItem", () -> delegate.batchWriteItem(request),
+                response -> response.hasUnprocessedItems() && !response.unprocessedItems().isEmpty()).toFuture();
+    }
+    
+    @Override
+    public CompletableFuture<TransactWriteItemsResponse> transactWriteItems(TransactWriteItemsRequest request) {
+        return throttle.call(tableOf(request), "TransactWriteItems", () -> delegate.transactWriteItems(request)).toFuture();
+    }
+    
+    @Override
+    public CompletableFuture<TransactGetItemsResponse> transactGetItems(TransactGetItemsRequest request) {
+        return throttle.call(MULTIPLE_TABLES, "TransactGetItems", () -> delegate.transactGetItems(request)).toFuture();
+    }
+    
+    // PartiQL: la tabla va dentro de la sentencia, se limita como operación de varias tablas
+    @Override
+    public CompletableFuture<ExecuteStatementResponse> executeStatement(ExecuteStatementRequest request) {
+        return throttle.call(MULTIPLE_TABLES, "ExecuteStatement", () -> delegate.executeStatement(request)).toFuture();
+    }
+    
+    @Override
+    public CompletableFuture<BatchExecuteStatementResponse> batchExecuteStatement(BatchExecuteStatementRequest request) {
+        return throttle.call(MULTIPLE_TABLES, "BatchExecuteStatement", () -> delegate.batchExecuteStatement(request))
+                .toFuture();
+    }
+    
+    @Override
+    public CompletableFuture<ExecuteTransactionResponse> executeTransaction(ExecuteTransactionRequest request) {
+        return throttle.call(MULTIPLE_TABLES, "ExecuteTransaction", () -> delegate.executeTransaction(request))
+                .toFuture();
+    }
+    
+    // Plano de control y demás operaciones: se pasan tal cual, sin limitar
+    @Override
+    public CompletableFuture<CreateBackupResponse> createBackup(CreateBackupRequest request) {
+        return delegate.createBackup(request);
+    }
+    
+    @Override
+    public CompletableFuture<CreateGlobalTableResponse> createGlobalTable(CreateGlobalTableRequest request) {
+        return delegate.createGlobalTable(request);
+    }
+    
+    @Override
+    public CompletableFuture<CreateTableResponse> createTable(CreateTableRequest request) {
+        return delegate.createTable(request);
+    }
+    
+    @Override
+    public CompletableFuture<DeleteBackupResponse> deleteBackup(DeleteBackupRequest request) {
+        return delegate.deleteBackup(request);
+    }
+    
+    @Override
+    public CompletableFuture<DeleteResourcePolicyResponse> deleteResourcePolicy(DeleteResourcePolicyRequest request) {
+        return delegate.deleteResourcePolicy(request);
+    }
+    
+    @Override
+    public CompletableFuture<DeleteTableResponse> deleteTable(DeleteTableRequest request) {
+        return delegate.deleteTable(request);
+    }
+    
+    @Override
+    public CompletableFuture<DescribeBackupResponse> describeBackup(DescribeBackupRequest request) {
+        return delegate.describeBackup(request);
+    }
+    
+    @Override
+    public CompletableFuture<DescribeContinuousBackupsResponse> describeContinuousBackups(DescribeContinuousBackupsRequest request) {
+        return delegate.describeContinuousBackups(request);
+    }
+    
+    @Override
+    public CompletableFuture<DescribeContributorInsightsResponse> describeContributorInsights(DescribeContributorInsightsRequest request) {
+        return delegate.describeContributorInsights(request);
+    }
+    
+    @Override
+    public CompletableFuture<DescribeEndpointsResponse> describeEndpoints(DescribeEndpointsRequest request) {
+        return delegate.describeEndpoints(request);
+    }
+    
+    @Override
+    public CompletableFuture<DescribeExportResponse> describeExport(DescribeExportRequest request) {
+        return delegate.describeExport(request);
+    }
+    
+    @Override
+    public CompletableFuture<DescribeGlobalTableResponse> describeGlobalTable(DescribeGlobalTableRequest request) {
+        return delegate.describeGlobalTable(request);
+    }
+    
+    @Override
+    public CompletableFuture<DescribeGlobalTableSettingsResponse> describeGlobalTableSettings(DescribeGlobalTableSettingsRequest request) {
+        return delegate.describeGlobalTableSettings(request);
+    }
+    
+    @Override
+    public CompletableFuture<DescribeImportResponse> describeImport(DescribeImportRequest request) {
+        return delegate.describeImport(request);
+    }
+    
+    @Override
+    public CompletableFuture<DescribeKinesisStreamingDestinationResponse> describeKinesisStreamingDestination(DescribeKinesisStreamingDestinationRequest request) {
+        return delegate.describeKinesisStreamingDestination(request);
+    }
+    
+    @Override
+    public CompletableFuture<DescribeLimitsResponse> describeLimits(DescribeLimitsRequest request) {
+        return delegate.describeLimits(request);
+    }
+    
+    @Override
+    public CompletableFuture<DescribeTableResponse> describeTable(DescribeTableRequest request) {
+        return delegate.describeTable(request);
+    }
+    
+    @Override
+    public CompletableFuture<DescribeTableReplicaAutoScalingResponse> describeTableReplicaAutoScaling(DescribeTableReplicaAutoScalingRequest request) {
+        return delegate.describeTableReplicaAutoScaling(request);
+    }
+    
+    @Override
+    public CompletableFuture<DescribeTimeToLiveResponse> describeTimeToLive(DescribeTimeToLiveRequest request) {
+        return delegate.describeTimeToLive(request);
+    }
+    
+    @Override
+    public CompletableFuture<DisableKinesisStreamingDestinationResponse> disableKinesisStreamingDestination(DisableKinesisStreamingDestinationRequest request) {
+        return delegate.disableKinesisStreamingDestination(request);
+    }
+    
+    @Override
+    public CompletableFuture<EnableKinesisStreamingDestinationResponse> enableKinesisStreamingDestination(EnableKinesisStreamingDestinationRequest request) {
+        return delegate.enableKinesisStreamingDestination(request);
+    }
+    
+    @Override
+    public CompletableFuture<ExportTableToPointInTimeResponse> exportTableToPointInTime(ExportTableToPointInTimeRequest request) {
+        return delegate.exportTableToPointInTime(request);
+    }
+    
+    @Override
+    public CompletableFuture<GetResourcePolicyResponse> getResourcePolicy(GetResourcePolicyRequest request) {
+        return delegate.getResourcePolicy(request);
+    }
+    
+    @Override
+    public CompletableFuture<ImportTableResponse> importTable(ImportTableRequest request) {
+        return delegate.importTable(request);
+    }
+    
+    @Override
+    public CompletableFuture<ListBackupsResponse> listBackups(ListBackupsRequest request) {
+        return delegate.listBackups(request);
+    }
+    
+    @Override
+    public CompletableFuture<ListContributorInsightsResponse> listContributorInsights(ListContributorInsightsRequest request) {
+        return delegate.listContributorInsights(request);
+    }
+    
+    @Override
+    public ListContributorInsightsPublisher listContributorInsightsPaginator(ListContributorInsightsRequest request) {
+        return delegate.listContributorInsightsPaginator(request);
+    }
+    
+    @Override
+    public CompletableFuture<ListExportsResponse> listExports(ListExportsRequest request) {
+        return delegate.listExports(request);
+    }
+    
+    @Override
+    public ListExportsPublisher listExportsPaginator(ListExportsRequest request) {
+        return delegate.listExportsPaginator(request);
+    }
+    
+    @Override
+    public CompletableFuture<ListGlobalTablesResponse> listGlobalTables(ListGlobalTablesRequest request) {
+        return delegate.listGlobalTables(request);
+    }
+    
+    @Override
+    public CompletableFuture<ListImportsResponse> listImports(ListImportsRequest request) {
+        return delegate.listImports(request);
+    }
+    
+    @Override
+    public ListImportsPublisher listImportsPaginator(ListImportsRequest request) {
+        return delegate.listImportsPaginator(request);
+    }
+    
+    @Override
+    public CompletableFuture<ListTablesResponse> listTables(ListTablesRequest request) {
+        return delegate.listTables(request);
+    }
+    
+    @Override
+    public ListTablesPublisher listTablesPaginator(ListTablesRequest request) {
+        return delegate.listTablesPaginator(request);
+    }
+    
+    @Override
+    public CompletableFuture<ListTagsOfResourceResponse> listTagsOfResource(ListTagsOfResourceRequest request) {
+        return delegate.listTagsOfResource(request);
+    }
+    
+    @Override
+    public CompletableFuture<PutResourcePolicyResponse> putResourcePolicy(PutResourcePolicyRequest request) {
+        return delegate.putResourcePolicy(request);
+    }
+    
+    @Override
+    public CompletableFuture<RestoreTableFromBackupResponse> restoreTableFromBackup(RestoreTableFromBackupRequest request) {
+        return delegate.restoreTableFromBackup(request);
+    }
+    
+    @Override
+    public CompletableFuture<RestoreTableToPointInTimeResponse> restoreTableToPointInTime(RestoreTableToPointInTimeRequest request) {
+        return delegate.restoreTableToPointInTime(request);
+    }
+    
+    @Override
+    public CompletableFuture<TagResourceResponse> tagResource(TagResourceRequest request) {
+        return delegate.tagResource(request);
+    }
+    
+    @Override
+    public CompletableFuture<UntagResourceResponse> untagResource(UntagResourceRequest request) {
+        return delegate.untagResource(request);
+    }
+    
+    @Override
+    public CompletableFuture<UpdateContinuousBackupsResponse> updateContinuousBackups(UpdateContinuousBackupsRequest request) {
+        return delegate.updateContinuousBackups(request);
+    }
+    
+    @Override
+    public CompletableFuture<UpdateContributorInsightsResponse> updateContributorInsights(UpdateContributorInsightsRequest request) {
+        return delegate.updateContributorInsights(request);
+    }
+    
+    @Override
+    public CompletableFuture<UpdateGlobalTableResponse> updateGlobalTable(UpdateGlobalTableRequest request) {
+        return delegate.updateGlobalTable(request);
+    }
+    
+    @Override
+    public CompletableFuture<UpdateGlobalTableSettingsResponse> updateGlobalTableSettings(UpdateGlobalTableSettingsRequest request) {
+        return delegate.updateGlobalTableSettings(request);
+    }
+    
+    @Override
+    public CompletableFuture<UpdateKinesisStreamingDestinationResponse> updateKinesisStreamingDestination(UpdateKinesisStreamingDestinationRequest request) {
+        return delegate.updateKinesisStreamingDestination(request);
+    }
+    
+    @Override
+    public CompletableFuture<UpdateTableResponse> updateTable(UpdateTableRequest request) {
+        return delegate.updateTable(request);
+    }
+    
+    @Override
+    public CompletableFuture<UpdateTableReplicaAutoScalingResponse> updateTableReplicaAutoScaling(UpdateTableReplicaAutoScalingRequest request) {
+        return delegate.updateTableReplicaAutoScaling(request);
+    }
+    
+    @Override
+    public CompletableFuture<UpdateTimeToLiveResponse> updateTimeToLive(UpdateTimeToLiveRequest request) {
+        return delegate.updateTimeToLive(request);
+    }
+    
+    @Override
+    public DynamoDbAsyncWaiter waiter() {
+        return delegate.waiter();
+    }
+    
+    @Override
+    public DynamoDbServiceClientConfiguration serviceClientConfiguration() {
+        return delegate.serviceClientConfiguration();
+    }
+    
+    @Override
+    public String serviceName() {
+        return delegate.serviceName();
+    }
+    
+    @Override
+    public void close() {
+        delegate.close();
+    }
+    
+    private static String tableOf(Map<String, ?> requestItems) {
+        return requestItems.size() == 1 ? requestItems.keySet().iterator().next() : MULTIPLE_TABLES;
+    }
+    
+    // Una transacción puede tocar varias tablas: se limita con la del primer item
+    private static String tableOf(TransactWriteItemsRequest request) {
+        if (!request.hasTransactItems() || request.transactItems().isEmpty()) {
+            return MULTIPLE_TABLES;
+        }
+        TransactWriteItem item = request.transactItems().get(0);
+        if (item.put() != null) {
+            return item.put().tableName();
+        }
+        if (item.update() != null) {
+            return item.update().tableName();
+        }
+        if (item.delete() != null) {
+            return item.delete().tableName();
+        }
+        return item.conditionCheck() != null ? item.conditionCheck().tableName() : MULTIPLE_TABLES;
+    }
+}
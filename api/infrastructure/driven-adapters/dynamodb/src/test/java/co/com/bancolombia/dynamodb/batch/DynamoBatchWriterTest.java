@@ -0,0 +1,143 @@
+package co.com.bancolombia.dynamodb.batch;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import reactor.test.StepVerifier;
+import software.amazon.awssdk.services.dynamodb.DynamoDbAsyncClient;
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+import software.amazon.awssdk.services.dynamodb.model.BatchWriteItemRequest;
+import software.amazon.awssdk.services.dynamodb.model.BatchWriteItemResponse;
+import software.amazon.awssdk.services.dynamodb.model.PutRequest;
+import software.amazon.awssdk.services.dynamodb.model.WriteRequest;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class DynamoBatchWriterTest {
+
+    private static final String TABLE = "business-productos-test";
+
+    @Mock
+    private DynamoDbAsyncClient dynamoDbAsyncClient;
+
+    private DynamoBatchWriter batchWriter;
+
+    @BeforeEach
+    void setUp() {
+        batchWriter = new DynamoBatchWriter(dynamoDbAsyncClient);
+    }
+
+    private static WriteRequest put(String id) {
+        return WriteRequest.builder()
+                .putRequest(PutRequest.builder().item(Map.of("PK", AttributeValue.fromS(id))).build())
+                .build();
+    }
+
+    private static List<String> ids(int count) {
+        return IntStream.range(0, count).mapToObj(index -> "item-" + index).toList();
+    }
+
+    private static CompletableFuture<BatchWriteItemResponse> unprocessed(List<WriteRequest> requests) {
+        return CompletableFuture.completedFuture(BatchWriteItemResponse.builder()
+                .unprocessedItems(requests.isEmpty() ? Map.of() : Map.of(TABLE, requests))
+                .build());
+    }
+
+    @Test
+    void shouldEmitEveryItemWhenAllChunksAreWritten() {
+        // Given
+        when(dynamoDbAsyncClient.batchWriteItem(any(BatchWriteItemRequest.class))).thenReturn(unprocessed(List.of()));
+
+        // When & Then
+        StepVerifier.create(batchWriter.writeItems(TABLE, ids(60), DynamoBatchWriterTest::put))
+                .recordWith(ArrayList::new)
+                .expectNextCount(60)
+                .consumeRecordedWith(written -> assertTrue(written.containsAll(ids(60))))
+                .verifyComplete();
+    }
+
+    @Test
+    void shouldEmitItemsOfOtherChunksBeforeTheFailedChunkError() {
+        // Given - El lote de 25 se escribe; el de 5 falla entero
+        when(dynamoDbAsyncClient.batchWriteItem(any(BatchWriteItemRequest.class))).thenAnswer(invocation -> {
+            BatchWriteItemRequest request = invocation.getArgument(0);
+            return request.requestItems().get(TABLE).size() == DynamoBatchWriter.MAX_BATCH_SIZE
+                    ? unprocessed(List.of())
+                    : CompletableFuture.failedFuture(new IllegalStateException("boom"));
+        });
+
+        // When & Then
+        StepVerifier.create(batchWriter.writeItems(TABLE, ids(30), DynamoBatchWriterTest::put))
+                .recordWith(ArrayList::new)
+                .expectNextCount(25)
+                .consumeRecordedWith(written -> {
+                    assertEquals(ids(30).subList(0, 25), new ArrayList<>(written));
+                })
+                .expectErrorMessage("boom")
+                .verify();
+    }
+
+    @Test
+    void shouldLeaveOutItemsThatStayUnprocessedAfterRetries() {
+        // Given - item-1 vuelve siempre como UnprocessedItems
+        when(dynamoDbAsyncClient.batchWriteItem(any(BatchWriteItemRequest.class)))
+                .thenAnswer(invocation -> unprocessed(List.of(put("item-1"))));
+
+        // When & Then - Los reintentos esperan con backoff: tiempo virtual
+        StepVerifier.withVirtualTime(() -> batchWriter.writeItems(TABLE, ids(3), DynamoBatchWriterTest::put))
+                .thenAwait(Duration.ofMinutes(1))
+                .expectNext("item-0", "item-2")
+                .expectErrorMatches(error -> error.getMessage().startsWith("Unprocessed items"))
+                .verify();
+    }
+
+    @Test
+    void shouldRetryUnprocessedItemsUntilTheyAreWritten() {
+        // Given - El primer intento deja item-2 sin procesar; el reintento lo escribe
+        when(dynamoDbAsyncClient.batchWriteItem(any(BatchWriteItemRequest.class)))
+                .thenReturn(unprocessed(List.of(put("item-2"))))
+                .thenReturn(unprocessed(List.of()));
+
+        // When & Then
+        StepVerifier.withVirtualTime(() -> batchWriter.writeItems(TABLE, ids(3), DynamoBatchWriterTest::put))
+                .thenAwait(Duration.ofSeconds(1))
+                .expectNext("item-0", "item-1", "item-2")
+                .verifyComplete();
+    }
+
+    @Test
+    void shouldCompleteWithoutCallingDynamoForNoItems() {
+        // When & Then
+        StepVerifier.create(batchWriter.writeItems(TABLE, List.of(), DynamoBatchWriterTest::put))
+                .verifyComplete();
+
+        assertFalse(batchWriter.write(TABLE, List.of()).hasElement().block());
+    }
+
+    @Test
+    void shouldFailWriteWhenItemsStayUnprocessed() {
+        // Given
+        when(dynamoDbAsyncClient.batchWriteItem(any(BatchWriteItemRequest.class)))
+                .thenAnswer(invocation -> unprocessed(List.of(put("item-0"))));
+
+        // When & Then
+        StepVerifier.withVirtualTime(() -> batchWriter.write(TABLE, List.of(put("item-0"))))
+                .thenAwait(Duration.ofMinutes(1))
+                .expectErrorMatches(error -> error.getMessage().startsWith("Unprocessed items"))
+                .verify();
+    }
+}
@@ -0,0 +1,147 @@
+package co.com.bancolombia.dynamodb.cache;
+
+import co.com.bancolombia.model.franchise.Branch;
+import co.com.bancolombia.model.franchise.StorageStrategyChangingException;
+import co.com.bancolombia.model.franchise.gateways.BranchRepository;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class CachingBranchRepositoryTest {
+
+    @Mock
+    private BranchRepository delegate;
+
+    private CachingBranchRepository repository;
+
+    private final Branch separated = Branch.builder()
+            .id("branch-1")
+            .name("Sucursal")
+            .storageStrategy("SEPARATED")
+            .build();
+
+    @BeforeEach
+    void setUp() {
+        repository = new CachingBranchRepository(delegate,
+                new ReadThroughCache<>(Caffeine.newBuilder().build(), CachingBranchRepository::isCacheable));
+    }
+
+    @Test
+    void shouldServeSeparatedSummaryFromCache() {
+        // Given
+        when(delegate.findSummaryById("branch-1")).thenReturn(Mono.just(separated));
+
+        // When & Then
+        StepVerifier.create(repository.findSummaryById("branch-1"))
+                .expectNext(separated)
+                .verifyComplete();
+        StepVerifier.create(repository.findSummaryById("branch-1"))
+                .expectNext(separated)
+                .verifyComplete();
+
+        verify(delegate, times(1)).findSummaryById("branch-1");
+    }
+
+    @Test
+    void shouldNotCacheEmbeddedSummary() {
+        // Given
+        Branch embedded = separated.toBuilder().storageStrategy("EMBEDDED").build();
+        when(delegate.findSummaryById("branch-1")).thenReturn(Mono.just(embedded));
+
+        // When
+        repository.findSummaryById("branch-1").block();
+        repository.findSummaryById("branch-1").block();
+
+        // Then
+        verify(delegate, times(2)).findSummaryById("branch-1");
+    }
+
+    @Test
+    void shouldAlwaysReadFullBranchFromDelegate() {
+        // Given - findById trae los productos embebidos: nunca se sirve de caché
+        when(delegate.findById("branch-1")).thenReturn(Mono.just(separated));
+
+        // When
+        repository.findById("branch-1").block();
+        repository.findById("branch-1").block();
+
+        // Then
+        verify(delegate, times(2)).findById("branch-1");
+    }
+
+    @Test
+    void shouldDropCachedStrategyWhenSeparatedWriteIsRejected() {
+        // Given - otra instancia está devolviendo la sucursal a EMBEDDED
+        when(delegate.findSummaryById("branch-1")).thenReturn(Mono.just(separated));
+        when(delegate.markSeparatedWrite("branch-1"))
+                .thenReturn(Mono.error(new StorageStrategyChangingException("branch-1")));
+        repository.findSummaryById("branch-1").block();
+
+        // When & Then
+        StepVerifier.create(repository.markSeparatedWrite("branch-1"))
+                .expectError(StorageStrategyChangingException.class)
+                .verify();
+        repository.findSummaryById("branch-1").block();
+
+        verify(delegate, times(2)).findSummaryById("branch-1");
+    }
+
+    @Test
+    void shouldKeepCachedSummaryAfterSeparatedWrite() {
+        // Given
+        when(delegate.findSummaryById("branch-1")).thenReturn(Mono.just(separated));
+        when(delegate.markSeparatedWrite("branch-1")).thenReturn(Mono.empty());
+        repository.findSummaryById("branch-1").block();
+
+        // When & Then
+        StepVerifier.create(repository.markSeparatedWrite("branch-1"))
+                .verifyComplete();
+        repository.findSummaryById("branch-1").block();
+
+        verify(delegate, times(1)).findSummaryById("branch-1");
+    }
+
+    @Test
+    void shouldInvalidateSummaryWhenEmbeddingStarts() {
+        // Given
+        when(delegate.findSummaryById("branch-1")).thenReturn(Mono.just(separated));
+        when(delegate.startEmbedding("branch-1")).thenReturn(Mono.just(true));
+        repository.findSummaryById("branch-1").block();
+
+        // When & Then
+        StepVerifier.create(repository.startEmbedding("branch-1"))
+                .expectNext(true)
+                .verifyComplete();
+        repository.findSummaryById("branch-1").block();
+
+        verify(delegate, times(2)).findSummaryById("branch-1");
+    }
+
+    @Test
+    void shouldReplaceCachedSummaryOnRename() {
+        // Given
+        Branch renamed = separated.toBuilder().name("Renombrada").build();
+        when(delegate.findSummaryById("branch-1")).thenReturn(Mono.just(separated));
+        when(delegate.updateName("branch-1", "Renombrada")).thenReturn(Mono.just(renamed));
+        repository.findSummaryById("branch-1").block();
+
+        // When
+        repository.updateName("branch-1", "Renombrada").block();
+
+        // Then
+        StepVerifier.create(repository.findSummaryById("branch-1"))
+                .expectNext(renamed)
+                .verifyComplete();
+        verify(delegate, times(1)).findSummaryById("branch-1");
+    }
+}
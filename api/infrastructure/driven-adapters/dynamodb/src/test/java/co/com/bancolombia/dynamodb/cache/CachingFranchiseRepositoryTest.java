@@ -0,0 +1,118 @@
+package co.com.bancolombia.dynamodb.cache;
+
+import co.com.bancolombia.model.franchise.Franchise;
+import co.com.bancolombia.model.franchise.gateways.FranchiseRepository;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class CachingFranchiseRepositoryTest {
+
+    @Mock
+    private FranchiseRepository delegate;
+
+    private CachingFranchiseRepository repository;
+
+    private final Franchise franchise = Franchise.builder()
+            .id("franchise-1")
+            .name("Franquicia")
+            .build();
+
+    @BeforeEach
+    void setUp() {
+        repository = new CachingFranchiseRepository(delegate,
+                new ReadThroughCache<>(Caffeine.newBuilder().build(), value -> true));
+    }
+
+    @Test
+    void shouldServeFranchiseFromCache() {
+        // Given
+        when(delegate.findById("franchise-1")).thenReturn(Mono.just(franchise));
+
+        // When & Then
+        StepVerifier.create(repository.findById("franchise-1"))
+                .expectNext(franchise)
+                .verifyComplete();
+        StepVerifier.create(repository.findById("franchise-1"))
+                .expectNext(franchise)
+                .verifyComplete();
+
+        verify(delegate, times(1)).findById("franchise-1");
+    }
+
+    @Test
+    void shouldReplaceCachedFranchiseOnRename() {
+        // Given
+        Franchise renamed = franchise.toBuilder().name("Renombrada").build();
+        when(delegate.findById("franchise-1")).thenReturn(Mono.just(franchise));
+        when(delegate.updateName("franchise-1", "Renombrada")).thenReturn(Mono.just(renamed));
+        repository.findById("franchise-1").block();
+
+        // When
+        repository.updateName("franchise-1", "Renombrada").block();
+
+        // Then
+        StepVerifier.create(repository.findById("franchise-1"))
+                .expectNext(renamed)
+                .verifyComplete();
+        verify(delegate, times(1)).findById("franchise-1");
+    }
+
+    @Test
+    void shouldInvalidateCachedFranchiseOnDelete() {
+        // Given
+        when(delegate.findById("franchise-1")).thenReturn(Mono.just(franchise), Mono.empty());
+        when(delegate.deleteById("franchise-1")).thenReturn(Mono.empty());
+        repository.findById("franchise-1").block();
+
+        // When
+        repository.deleteById("franchise-1").block();
+
+        // Then
+        StepVerifier.create(repository.findById("franchise-1"))
+                .verifyComplete();
+        verify(delegate, times(2)).findById("franchise-1");
+    }
+
+    @Test
+    void shouldEvictCachedFranchiseWhenMarkedAsDeleting() {
+        // Given
+        Franchise deleting = franchise.toBuilder().status(Franchise.DELETING).build();
+        when(delegate.findById("franchise-1")).thenReturn(Mono.just(franchise), Mono.just(deleting));
+        when(delegate.markDeleting("franchise-1")).thenReturn(Mono.just(deleting));
+        repository.findById("franchise-1").block();
+
+        // When
+        repository.markDeleting("franchise-1").block();
+
+        // Then
+        StepVerifier.create(repository.findById("franchise-1"))
+                .expectNext(deleting)
+                .verifyComplete();
+        verify(delegate, times(2)).findById("franchise-1");
+    }
+
+    @Test
+    void shouldRegisterWritesAgainstTheTableEvenWhenCached() {
+        // Given - La franquicia cacheada no sabe que otra instancia la marcó DELETING
+        when(delegate.findById("franchise-1")).thenReturn(Mono.just(franchise));
+        when(delegate.registerWrite("franchise-1"))
+                .thenReturn(Mono.error(new IllegalStateException("La franquicia franchise-1 se está eliminando")));
+        repository.findById("franchise-1").block();
+
+        // When & Then
+        StepVerifier.create(repository.registerWrite("franchise-1"))
+                .expectError(IllegalStateException.class)
+                .verify();
+    }
+}
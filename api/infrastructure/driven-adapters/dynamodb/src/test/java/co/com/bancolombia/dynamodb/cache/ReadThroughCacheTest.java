@@ -0,0 +1,128 @@
+package co.com.bancolombia.dynamodb.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.test.StepVerifier;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class ReadThroughCacheTest {
+
+    private Cache<String, String> entries;
+    private ReadThroughCache<String> cache;
+    private AtomicInteger loads;
+
+    @BeforeEach
+    void setUp() {
+        entries = Caffeine.newBuilder().build();
+        // Solo se cachean valores que empiezan por "ok"
+        cache = new ReadThroughCache<>(entries, value -> value.startsWith("ok"));
+        loads = new AtomicInteger();
+    }
+
+    private Mono<String> load(String value) {
+        return Mono.fromSupplier(() -> {
+            loads.incrementAndGet();
+            return value;
+        });
+    }
+
+    @Test
+    void shouldLoadCacheableValueOnlyOnce() {
+        // When & Then
+        StepVerifier.create(cache.get("id-1", () -> load("ok-1")))
+                .expectNext("ok-1")
+                .verifyComplete();
+        StepVerifier.create(cache.get("id-1", () -> load("ok-2")))
+                .expectNext("ok-1")
+                .verifyComplete();
+
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    void shouldNotCacheValuesRejectedByPredicate() {
+        // When & Then
+        StepVerifier.create(cache.get("id-1", () -> load("skip")))
+                .expectNext("skip")
+                .verifyComplete();
+        StepVerifier.create(cache.get("id-1", () -> load("skip")))
+                .expectNext("skip")
+                .verifyComplete();
+
+        assertEquals(2, loads.get());
+        assertNull(entries.getIfPresent("id-1"));
+    }
+
+    @Test
+    void shouldNotCacheMissingValues() {
+        // When & Then
+        StepVerifier.create(cache.get("id-1", Mono::empty))
+                .verifyComplete();
+
+        assertEquals(0, entries.estimatedSize());
+    }
+
+    @Test
+    void shouldNotCacheReadThatOverlapsWithWrite() {
+        // Given - la lectura queda en vuelo mientras otra escritura invalida la clave
+        Sinks.One<String> pendingRead = Sinks.one();
+        Mono<String> read = cache.get("id-1", pendingRead::asMono);
+
+        // When & Then
+        StepVerifier.create(read)
+                .then(() -> StepVerifier.create(cache.invalidating("id-1", Mono.just("deleted")))
+                        .expectNext("deleted")
+                        .verifyComplete())
+                .then(() -> pendingRead.tryEmitValue("ok-stale"))
+                .expectNext("ok-stale")
+                .verifyComplete();
+
+        assertNull(entries.getIfPresent("id-1"));
+    }
+
+    @Test
+    void shouldReplaceEntryOnRefresh() {
+        // Given
+        entries.put("id-1", "ok-old");
+
+        // When & Then
+        StepVerifier.create(cache.refresh("id-1", Mono.just("ok-new")))
+                .expectNext("ok-new")
+                .verifyComplete();
+
+        assertEquals("ok-new", entries.getIfPresent("id-1"));
+    }
+
+    @Test
+    void shouldDropEntryWhenRefreshFails() {
+        // Given
+        entries.put("id-1", "ok-old");
+
+        // When & Then
+        StepVerifier.create(cache.refresh("id-1", Mono.error(new IllegalStateException("boom"))))
+                .expectError(IllegalStateException.class)
+                .verify();
+
+        assertNull(entries.getIfPresent("id-1"));
+    }
+
+    @Test
+    void shouldInvalidateEntryAroundWrite() {
+        // Given
+        entries.put("id-1", "ok-old");
+
+        // When & Then
+        StepVerifier.create(cache.invalidating("id-1", Mono.<Void>empty()))
+                .verifyComplete();
+
+        assertNull(entries.getIfPresent("id-1"));
+    }
+}
@@ -0,0 +1,70 @@
+package co.com.bancolombia.dynamodb.coalescing;
+
+import co.com.bancolombia.model.franchise.Product;
+import co.com.bancolombia.model.franchise.gateways.ProductRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.test.StepVerifier;
+
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class CoalescingProductRepositoryTest {
+
+    @Mock
+    private ProductRepository productRepository;
+
+    private CoalescingProductRepository repository;
+
+    @BeforeEach
+    void setUp() {
+        repository = new CoalescingProductRepository(productRepository, new SingleFlight<>());
+    }
+
+    @Test
+    void shouldCoalesceConcurrentFindById() {
+        // Given
+        Product product = Product.builder().id("product-1").name("Producto").stock(10).build();
+        Sinks.One<Product> response = Sinks.one();
+        when(productRepository.findById("product-1")).thenReturn(response.asMono());
+
+        // When & Then
+        StepVerifier.create(Mono.zip(repository.findById("product-1"), repository.findById("product-1")))
+                .then(() -> response.tryEmitValue(product))
+                .expectNextMatches(products -> products.getT1() == product && products.getT2() == product)
+                .verifyComplete();
+        verify(productRepository, times(1)).findById("product-1");
+    }
+
+    @Test
+    void shouldReadAgainAfterWriteOnSameKey() {
+        // Given
+        Product before = Product.builder().id("product-1").name("Producto").stock(10).build();
+        Product after = before.toBuilder().stock(7).build();
+        Sinks.One<Product> inFlight = Sinks.one();
+        when(productRepository.findById("product-1"))
+                .thenReturn(inFlight.asMono())
+                .thenReturn(Mono.just(after));
+        when(productRepository.adjustStock("product-1", -3)).thenReturn(Mono.just(after));
+        repository.findById("product-1").subscribe();
+
+        // When
+        StepVerifier.create(repository.adjustStock("product-1", -3))
+                .expectNext(after)
+                .verifyComplete();
+
+        // Then
+        StepVerifier.create(repository.findById("product-1"))
+                .expectNext(after)
+                .verifyComplete();
+        inFlight.tryEmitValue(before);
+        verify(productRepository, times(2)).findById("product-1");
+    }
+}
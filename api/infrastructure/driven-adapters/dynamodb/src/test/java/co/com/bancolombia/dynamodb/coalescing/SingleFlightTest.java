@@ -0,0 +1,130 @@
+package co.com.bancolombia.dynamodb.coalescing;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.test.StepVerifier;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SingleFlightTest {
+
+    private SingleFlight<String, String> singleFlight;
+    private AtomicInteger loads;
+
+    @BeforeEach
+    void setUp() {
+        singleFlight = new SingleFlight<>();
+        loads = new AtomicInteger();
+    }
+
+    @Test
+    void shouldShareInFlightLoadBetweenConcurrentSubscribers() {
+        // Given
+        Sinks.One<String> response = Sinks.one();
+        Mono<String> first = singleFlight.execute("key", () -> load(response.asMono()));
+        Mono<String> second = singleFlight.execute("key", () -> load(response.asMono()));
+
+        // When & Then
+        StepVerifier.create(Mono.zip(first, second))
+                .then(() -> response.tryEmitValue("value"))
+                .expectNextMatches(values -> values.getT1().equals("value") && values.getT2().equals("value"))
+                .verifyComplete();
+        assertEquals(1, loads.get());
+        assertEquals(0, singleFlight.inFlight());
+    }
+
+    @Test
+    void shouldLoadAgainAfterPreviousFlightCompleted() {
+        // When
+        StepVerifier.create(singleFlight.execute("key", () -> load(Mono.just("first"))))
+                .expectNext("first")
+                .verifyComplete();
+
+        // Then
+        StepVerifier.create(singleFlight.execute("key", () -> load(Mono.just("second"))))
+                .expectNext("second")
+                .verifyComplete();
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void shouldCancelLoadWhenAllSubscribersCancel() {
+        // Given
+        AtomicBoolean cancelled = new AtomicBoolean();
+        Mono<String> pending = Mono.<String>never().doOnCancel(() -> cancelled.set(true));
+
+        // When
+        StepVerifier.create(singleFlight.execute("key", () -> load(pending)))
+                .thenCancel()
+                .verify();
+
+        // Then
+        assertTrue(cancelled.get());
+        assertEquals(0, singleFlight.inFlight());
+    }
+
+    @Test
+    void shouldNotJoinFlightAfterKeyWasForgotten() {
+        // Given
+        Sinks.One<String> stale = Sinks.one();
+        AtomicReference<String> staleResult = new AtomicReference<>();
+        singleFlight.execute("key", () -> load(stale.asMono())).subscribe(staleResult::set);
+
+        // When
+        singleFlight.forget("key");
+
+        // Then
+        StepVerifier.create(singleFlight.execute("key", () -> load(Mono.just("fresh"))))
+                .expectNext("fresh")
+                .verifyComplete();
+        stale.tryEmitValue("stale");
+        assertEquals("stale", staleResult.get());
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void shouldShareErrorWithAllSubscribers() {
+        // Given
+        Sinks.One<String> response = Sinks.one();
+        Mono<String> first = singleFlight.execute("key", () -> load(response.asMono()));
+        Mono<String> second = singleFlight.execute("key", () -> load(response.asMono()));
+
+        // When & Then
+        StepVerifier.create(Mono.zipDelayError(first.onErrorReturn("error"), second.onErrorReturn("error")))
+                .then(() -> response.tryEmitError(new RuntimeException("boom")))
+                .expectNextMatches(values -> values.getT1().equals("error") && values.getT2().equals("error"))
+                .verifyComplete();
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    void shouldRunLoadWithContextOfFirstSubscriber() {
+        // Given
+        Sinks.One<String> response = Sinks.one();
+        Mono<String> tagged = Mono.deferContextual(context ->
+                response.asMono().map(value -> value + "-" + context.get("caller")));
+        Mono<String> first = singleFlight.execute("key", () -> load(tagged))
+                .contextWrite(context -> context.put("caller", "first"));
+        Mono<String> second = singleFlight.execute("key", () -> load(tagged))
+                .contextWrite(context -> context.put("caller", "second"));
+
+        // When & Then
+        StepVerifier.create(Mono.zip(first, second))
+                .then(() -> response.tryEmitValue("value"))
+                .expectNextMatches(values -> values.getT1().equals("value-first") && values.getT2().equals("value-first"))
+                .verifyComplete();
+        assertEquals(1, loads.get());
+    }
+
+    private Mono<String> load(Mono<String> source) {
+        loads.incrementAndGet();
+        return source;
+    }
+}
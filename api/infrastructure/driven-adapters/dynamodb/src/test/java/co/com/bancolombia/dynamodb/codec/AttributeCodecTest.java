@@ -0,0 +1,73 @@
+package co.com.bancolombia.dynamodb.codec;
+
+import org.junit.jupiter.api.Test;
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+
+import java.time.DateTimeException;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class AttributeCodecTest {
+
+    @Test
+    void shouldParseEveryFormatProducedByLocalDateTimeToString() {
+        // Given - toString omite segundos y nanos en cero y recorta la fracción a 3, 6 o 9 dígitos
+        List<LocalDateTime> values = List.of(
+                LocalDateTime.of(2024, 5, 1, 10, 15),
+                LocalDateTime.of(2024, 5, 1, 10, 15, 30),
+                LocalDateTime.of(2024, 5, 1, 10, 15, 30, 120_000_000),
+                LocalDateTime.of(2024, 5, 1, 10, 15, 30, 123_456_000),
+                LocalDateTime.of(2024, 5, 1, 10, 15, 0, 1),
+                LocalDateTime.of(2024, 12, 31, 23, 59, 59, 999_999_999));
+
+        // When & Then
+        values.forEach(value -> assertEquals(value, AttributeCodec.parseDateTime(value.toString())));
+    }
+
+    @Test
+    void shouldMatchLocalDateTimeParseForOtherValidForms() {
+        // Given - fracciones de longitud arbitraria y años fuera de 4 dígitos pasan por LocalDateTime.parse
+        List<String> texts = List.of(
+                "2024-05-01T10:15:30.1",
+                "2024-05-01T10:15:30.12345",
+                "+10000-01-01T00:00",
+                "2024-02-29T00:00:00");
+
+        // When & Then
+        texts.forEach(text -> assertEquals(LocalDateTime.parse(text), AttributeCodec.parseDateTime(text)));
+    }
+
+    @Test
+    void shouldRejectInvalidDates() {
+        assertThrows(DateTimeException.class, () -> AttributeCodec.parseDateTime("2024-02-30T10:15"));
+        assertThrows(DateTimeException.class, () -> AttributeCodec.parseDateTime("2024-05-01T10:1x"));
+        assertThrows(DateTimeException.class, () -> AttributeCodec.parseDateTime("2024-05-01T10:15:30."));
+        assertThrows(DateTimeException.class, () -> AttributeCodec.parseDateTime("2024-05-01"));
+    }
+
+    @Test
+    void shouldSkipNullValuesLikeEnhancedClientWithIgnoreNulls() {
+        // Given
+        Map<String, AttributeValue> item = new HashMap<>();
+
+        // When
+        AttributeCodec.putS(item, "name", null);
+        AttributeCodec.putN(item, "stock", null);
+        AttributeCodec.putDateTime(item, "createdAt", null);
+
+        // Then
+        assertFalse(item.containsKey("name"));
+        assertFalse(item.containsKey("stock"));
+        assertFalse(item.containsKey("createdAt"));
+        assertNull(AttributeCodec.string(item, "name"));
+        assertNull(AttributeCodec.integer(item, "stock"));
+        assertNull(AttributeCodec.dateTime(item, "createdAt"));
+    }
+}
@@ -0,0 +1,174 @@
+package co.com.bancolombia.dynamodb.codec;
+
+import co.com.bancolombia.model.franchise.Branch;
+import co.com.bancolombia.model.franchise.Product;
+import org.junit.jupiter.api.Test;
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static co.com.bancolombia.dynamodb.codec.AttributeCodec.s;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BranchCodecTest {
+
+    private static final LocalDateTime CREATED_AT = LocalDateTime.of(2024, 5, 1, 10, 15);
+    private static final LocalDateTime UPDATED_AT = LocalDateTime.of(2024, 5, 2, 8, 0, 30);
+
+    private static AttributeValue n(String value) {
+        return AttributeValue.builder().n(value).build();
+    }
+
+    // Producto embebido tal como lo escribía EmbeddedProductsConverter
+    private static AttributeValue enhancedProduct(String id, String name, String stock) {
+        return AttributeValue.builder().m(Map.of(
+                "id", s(id),
+                "name", s(name),
+                "stock", n(stock),
+                "createdAt", s("2024-05-01T10:15"),
+                "updatedAt", s("2024-05-02T08:00:30"))).build();
+    }
+
+    // Item METADATA tal como lo escribía BranchEntity.TABLE_SCHEMA (cliente enhanced, ignoreNulls)
+    private static Map<String, AttributeValue> enhancedItem(String storageStrategy, AttributeValue products) {
+        Map<String, AttributeValue> item = new HashMap<>(Map.of(
+                "PK", s("BRANCH#branch-1"),
+                "SK", s("METADATA"),
+                "GSI1PK", s("franchise-1"),
+                "GSI1SK", s("branch-1"),
+                "id", s("branch-1"),
+                "franchiseId", s("franchise-1"),
+                "name", s("Sucursal"),
+                "createdAt", s("2024-05-01T10:15"),
+                "updatedAt", s("2024-05-02T08:00:30"),
+                "storageStrategy", s(storageStrategy)));
+        if (products != null) {
+            item.put("products", products);
+        }
+        return item;
+    }
+
+    private static Product product(String id, String name, int stock) {
+        return Product.builder()
+                .id(id)
+                .branchId("branch-1")
+                .name(name)
+                .stock(stock)
+                .createdAt(CREATED_AT)
+                .updatedAt(UPDATED_AT)
+                .build();
+    }
+
+    private static Branch branch(String storageStrategy, List<Product> products) {
+        return Branch.builder()
+                .id("branch-1")
+                .franchiseId("franchise-1")
+                .name("Sucursal")
+                .createdAt(CREATED_AT)
+                .updatedAt(UPDATED_AT)
+                .storageStrategy(storageStrategy)
+                .products(products)
+                .build();
+    }
+
+    @Test
+    void shouldWriteSameSeparatedItemAsEnhancedMapping() {
+        assertEquals(enhancedItem("SEPARATED", null), BranchCodec.toItem(branch("SEPARATED", null), "SEPARATED", null));
+    }
+
+    @Test
+    void shouldWriteEmbeddedProductsInEnhancedMapFormat() {
+        // Given
+        List<Product> products = List.of(product("product-1", "Uno", 5), product("product-2", "Dos", 12));
+        Map<String, AttributeValue> expectedProducts = new LinkedHashMap<>();
+        expectedProducts.put("product-1", enhancedProduct("product-1", "Uno", "5"));
+        expectedProducts.put("product-2", enhancedProduct("product-2", "Dos", "12"));
+
+        // When
+        Map<String, AttributeValue> item = BranchCodec.toItem(branch("EMBEDDED", products), "EMBEDDED",
+                BranchCodec.productsToAttributeValue(products));
+
+        // Then - mismos atributos que el mapeo enhanced más el resumen
+        Map<String, AttributeValue> legacyAttributes = new HashMap<>(item);
+        legacyAttributes.keySet().removeAll(List.of(BranchCodec.PRODUCT_COUNT, BranchCodec.TOTAL_STOCK,
+                BranchCodec.TOP_STOCK_PRODUCT, BranchCodec.EMBEDDED_BYTES));
+        assertEquals(enhancedItem("EMBEDDED", AttributeValue.builder().m(expectedProducts).build()), legacyAttributes);
+        assertEquals(n("2"), item.get(BranchCodec.PRODUCT_COUNT));
+        assertEquals(n("17"), item.get(BranchCodec.TOTAL_STOCK));
+        assertEquals("product-2", item.get(BranchCodec.TOP_STOCK_PRODUCT).m().get("id").s());
+    }
+
+    @Test
+    void shouldReadEmbeddedItemWrittenByEnhancedMappingAndDeriveSummary() {
+        // Given - sin resumen: la sucursal es anterior a productCount/totalStock/topStockProduct
+        Map<String, AttributeValue> products = new LinkedHashMap<>();
+        products.put("product-1", enhancedProduct("product-1", "Uno", "5"));
+        products.put("product-2", enhancedProduct("product-2", "Dos", "12"));
+
+        // When
+        Branch branch = BranchCodec.fromItem(enhancedItem("EMBEDDED", AttributeValue.builder().m(products).build()));
+
+        // Then
+        assertEquals(List.of(product("product-1", "Uno", 5), product("product-2", "Dos", 12)), branch.getProducts());
+        assertEquals(2, branch.getProductCount());
+        assertEquals(17L, branch.getTotalStock());
+        assertEquals("product-2", branch.getTopStockProduct().getId());
+        assertTrue(branch.getEmbeddedBytes() > 0);
+        assertEquals(CREATED_AT, branch.getCreatedAt());
+        assertEquals(UPDATED_AT, branch.getUpdatedAt());
+    }
+
+    @Test
+    void shouldReadLegacyProductList() {
+        // Given - formato anterior al mapa indexado por id
+        AttributeValue products = AttributeValue.builder()
+                .l(enhancedProduct("product-1", "Uno", "5"), enhancedProduct("product-2", "Dos", "12"))
+                .build();
+
+        // When
+        Branch branch = BranchCodec.fromItem(enhancedItem("EMBEDDED", products));
+
+        // Then
+        assertEquals(List.of(product("product-1", "Uno", 5), product("product-2", "Dos", 12)), branch.getProducts());
+        assertEquals(product("product-2", "Dos", 12), BranchCodec.embeddedProduct(products, "product-2", "branch-1"));
+        assertEquals(Map.of("product-1", enhancedProduct("product-1", "Uno", "5"),
+                        "product-2", enhancedProduct("product-2", "Dos", "12")),
+                BranchCodec.normalizeProducts(products).m());
+    }
+
+    @Test
+    void shouldReadSeparatedItemWithoutProductsOrSummary() {
+        // When
+        Branch branch = BranchCodec.fromItem(enhancedItem("SEPARATED", null));
+
+        // Then
+        assertEquals(branch("SEPARATED", null), branch);
+        assertNull(branch.getProductCount());
+    }
+
+    @Test
+    void shouldRoundTripEmbeddedBranch() {
+        // Given
+        List<Product> products = List.of(product("product-1", "Uno", 5), product("product-2", "Dos", 12));
+        Branch branch = branch("EMBEDDED", products);
+
+        // When
+        Branch read = BranchCodec.fromItem(BranchCodec.toItem(branch, "EMBEDDED",
+                BranchCodec.productsToAttributeValue(products)));
+
+        // Then
+        assertEquals(branch.getName(), read.getName());
+        assertEquals(products, read.getProducts());
+        assertEquals(2, read.getProductCount());
+        assertEquals(17L, read.getTotalStock());
+        assertFalse(BranchCodec.isPacked(BranchCodec.toItem(branch, "EMBEDDED",
+                BranchCodec.productsToAttributeValue(products)).get(BranchCodec.PRODUCTS)));
+    }
+}
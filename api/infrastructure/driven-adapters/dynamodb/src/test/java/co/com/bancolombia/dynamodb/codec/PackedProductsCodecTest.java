@@ -0,0 +1,159 @@
+package co.com.bancolombia.dynamodb.codec;
+
+import co.com.bancolombia.model.franchise.Product;
+import org.junit.jupiter.api.Test;
+import software.amazon.awssdk.core.SdkBytes;
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PackedProductsCodecTest {
+
+    private static final int NEVER_COMPRESS = Integer.MAX_VALUE;
+    // Las fechas se empaquetan en epoch millis: los valores de prueba no llevan fracción menor al milisegundo
+    private static final LocalDateTime CREATED_AT = LocalDateTime.of(2024, 5, 1, 10, 15, 30, 123_000_000);
+
+    private static Product product(int index) {
+        return Product.builder()
+                .id("product-" + index)
+                .branchId("branch-1")
+                .name("Producto " + index)
+                .stock(index * 3)
+                .createdAt(CREATED_AT)
+                .updatedAt(CREATED_AT.plusMinutes(index))
+                .build();
+    }
+
+    private static List<Product> products(int count) {
+        List<Product> products = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            products.add(product(i));
+        }
+        return products;
+    }
+
+    private static SdkBytes bytes(int... values) {
+        byte[] bytes = new byte[values.length];
+        for (int i = 0; i < values.length; i++) {
+            bytes[i] = (byte) values[i];
+        }
+        return SdkBytes.fromByteArray(bytes);
+    }
+
+    @Test
+    void shouldRoundTripWithoutCompression() {
+        // Given
+        List<Product> products = products(5);
+
+        // When
+        SdkBytes encoded = PackedProductsCodec.encode(products, NEVER_COMPRESS);
+
+        // Then
+        assertEquals(PackedProductsCodec.VERSION, encoded.asByteArray()[0]);
+        assertEquals(0, encoded.asByteArray()[1]);
+        assertEquals(products, PackedProductsCodec.decode(encoded, "branch-1"));
+    }
+
+    @Test
+    void shouldRoundTripWithCompression() {
+        // Given
+        List<Product> products = products(200);
+
+        // When
+        SdkBytes compressed = PackedProductsCodec.encode(products, 0);
+        SdkBytes raw = PackedProductsCodec.encode(products, NEVER_COMPRESS);
+
+        // Then
+        assertEquals(1, compressed.asByteArray()[1]);
+        assertTrue(compressed.asByteArray().length < raw.asByteArray().length);
+        assertEquals(products, PackedProductsCodec.decode(compressed, "branch-1"));
+    }
+
+    @Test
+    void shouldRoundTripMissingFieldsAndEdgeValues() {
+        // Given
+        List<Product> products = List.of(
+                Product.builder().id("sin-datos").branchId("branch-1").build(),
+                Product.builder().id("ñandú-☕").branchId("branch-1").name("Café ñ 😀").stock(-7)
+                        .createdAt(CREATED_AT).updatedAt(CREATED_AT.minusDays(1)).build(),
+                Product.builder().id("max").branchId("branch-1").stock(Integer.MAX_VALUE)
+                        .updatedAt(LocalDateTime.of(1969, 12, 31, 23, 59, 59)).build());
+
+        // When & Then
+        assertEquals(products, PackedProductsCodec.decode(PackedProductsCodec.encode(products, NEVER_COMPRESS), "branch-1"));
+        assertEquals(List.of(), PackedProductsCodec.decode(PackedProductsCodec.encode(List.of(), 0), "branch-1"));
+    }
+
+    @Test
+    void shouldReadLegacyListSameAsPackedAttribute() {
+        // Given - sucursales escritas antes del mapa guardan los productos como lista de mapas
+        List<Product> products = products(3);
+        AttributeValue legacy = AttributeValue.builder()
+                .l(products.stream().map(BranchCodec::embeddedProduct).toList())
+                .build();
+        AttributeValue packed = BranchCodec.packedProducts(products, NEVER_COMPRESS);
+
+        // When & Then
+        assertEquals(products, BranchCodec.embeddedProducts(legacy, "branch-1"));
+        assertEquals(products, BranchCodec.embeddedProducts(packed, "branch-1"));
+        assertEquals(Set.of("product-0", "product-1", "product-2"), BranchCodec.productIds(legacy));
+        assertEquals(BranchCodec.productIds(legacy), BranchCodec.productIds(packed));
+        assertEquals(product(1), BranchCodec.embeddedProduct(legacy, "product-1", "branch-1"));
+        assertEquals(product(1), BranchCodec.embeddedProduct(packed, "product-1", "branch-1"));
+        assertEquals(BranchCodec.normalizeProducts(legacy), BranchCodec.normalizeProducts(packed));
+    }
+
+    @Test
+    void shouldRejectUnknownVersion() {
+        assertThrows(IllegalStateException.class, () -> PackedProductsCodec.decode(bytes(2, 0, 0), "branch-1"));
+        assertThrows(IllegalStateException.class, () -> PackedProductsCodec.decode(bytes(), "branch-1"));
+    }
+
+    @Test
+    void shouldRejectEveryTruncationOfUncompressedValue() {
+        // Given
+        byte[] encoded = PackedProductsCodec.encode(products(3), NEVER_COMPRESS).asByteArray();
+
+        // When & Then
+        for (int length = 0; length < encoded.length; length++) {
+            SdkBytes truncated = SdkBytes.fromByteArray(Arrays.copyOf(encoded, length));
+            assertThrows(IllegalStateException.class, () -> PackedProductsCodec.decode(truncated, "branch-1"),
+                    "longitud " + length);
+        }
+    }
+
+    @Test
+    void shouldRejectTruncatedCompressedValue() {
+        // Given
+        byte[] encoded = PackedProductsCodec.encode(products(50), 0).asByteArray();
+
+        // When & Then
+        for (int length : new int[] {2, 3, encoded.length / 2, encoded.length - 1}) {
+            SdkBytes truncated = SdkBytes.fromByteArray(Arrays.copyOf(encoded, length));
+            assertThrows(IllegalStateException.class, () -> PackedProductsCodec.decode(truncated, "branch-1"),
+                    "longitud " + length);
+        }
+    }
+
+    @Test
+    void shouldRejectCorruptValues() {
+        // Bloque deflate de tipo reservado
+        assertThrows(IllegalStateException.class, () -> PackedProductsCodec.decode(bytes(1, 1, 0xFF, 0xFF), "branch-1"));
+        // Varint de más de 64 bits
+        assertThrows(IllegalStateException.class, () -> PackedProductsCodec.decode(
+                bytes(1, 0, 0xFF, 0xFF, 0xFF, 0xFF, 0xFF, 0xFF, 0xFF, 0xFF, 0xFF, 0xFF, 0x01), "branch-1"));
+        // Conteo de productos imposible para el tamaño del atributo
+        assertThrows(IllegalStateException.class, () -> PackedProductsCodec.decode(
+                bytes(1, 0, 0xFF, 0xFF, 0xFF, 0xFF, 0x07), "branch-1"));
+        // Longitud de id mayor que el resto del atributo
+        assertThrows(IllegalStateException.class, () -> PackedProductsCodec.decode(bytes(1, 0, 1, 0x40, 0), "branch-1"));
+    }
+}
@@ -0,0 +1,73 @@
+package co.com.bancolombia.dynamodb.codec;
+
+import co.com.bancolombia.model.franchise.Product;
+import org.junit.jupiter.api.Test;
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+
+import static co.com.bancolombia.dynamodb.codec.AttributeCodec.s;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+class ProductCodecTest {
+
+    private static final LocalDateTime CREATED_AT = LocalDateTime.of(2024, 5, 1, 10, 15);
+    private static final LocalDateTime UPDATED_AT = LocalDateTime.of(2024, 5, 2, 8, 0, 30, 123_000_000);
+
+    private final Product product = Product.builder()
+            .id("product-1")
+            .franchiseId("franchise-1")
+            .branchId("branch-1")
+            .name("Producto")
+            .stock(25)
+            .createdAt(CREATED_AT)
+            .updatedAt(UPDATED_AT)
+            .build();
+
+    // Item tal como lo escribía ProductEntity.TABLE_SCHEMA (cliente enhanced, ignoreNulls)
+    private static Map<String, AttributeValue> enhancedItem() {
+        return Map.ofEntries(
+                Map.entry("PK", s("PRODUCT#product-1")),
+                Map.entry("SK", s("METADATA")),
+                Map.entry("GSI1PK", s("branch-1")),
+                Map.entry("GSI2PK", s("franchise-1")),
+                Map.entry("id", s("product-1")),
+                Map.entry("franchiseId", s("franchise-1")),
+                Map.entry("branchId", s("branch-1")),
+                Map.entry("name", s("Producto")),
+                Map.entry("stock", AttributeValue.builder().n("25").build()),
+                Map.entry("createdAt", s("2024-05-01T10:15")),
+                Map.entry("updatedAt", s("2024-05-02T08:00:30.123")));
+    }
+
+    @Test
+    void shouldWriteSameItemAsEnhancedMapping() {
+        assertEquals(enhancedItem(), ProductCodec.toItem(product));
+    }
+
+    @Test
+    void shouldReadItemWrittenByEnhancedMapping() {
+        assertEquals(product, ProductCodec.fromItem(enhancedItem()));
+    }
+
+    @Test
+    void shouldRoundTripProduct() {
+        assertEquals(product, ProductCodec.fromItem(ProductCodec.toItem(product)));
+    }
+
+    @Test
+    void shouldOmitNullAttributes() {
+        // Given
+        Product withoutStock = product.toBuilder().stock(null).updatedAt(null).build();
+
+        // When
+        Map<String, AttributeValue> item = ProductCodec.toItem(withoutStock);
+
+        // Then
+        assertFalse(item.containsKey(ProductCodec.STOCK));
+        assertFalse(item.containsKey(ProductCodec.UPDATED_AT));
+        assertEquals(withoutStock, ProductCodec.fromItem(item));
+    }
+}
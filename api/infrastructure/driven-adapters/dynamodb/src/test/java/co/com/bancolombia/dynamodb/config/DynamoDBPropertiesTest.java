@@ -0,0 +1,36 @@
+package co.com.bancolombia.dynamodb.config;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class DynamoDBPropertiesTest {
+
+    @Test
+    void shouldRejectNonPositiveFranchiseDeletionBudget() {
+        // Given
+        DynamoDBProperties.FranchiseDeletion deletion = new DynamoDBProperties.FranchiseDeletion();
+
+        // When & Then
+        assertThrows(IllegalArgumentException.class, () -> deletion.setWritesPerSecond(0));
+        assertThrows(IllegalArgumentException.class, () -> deletion.setWritesPerSecond(-1));
+        assertThrows(IllegalArgumentException.class, () -> deletion.setConcurrency(0));
+        assertEquals(500, deletion.getWritesPerSecond());
+        assertEquals(4, deletion.getConcurrency());
+    }
+
+    @Test
+    void shouldAcceptPositiveFranchiseDeletionBudget() {
+        // Given
+        DynamoDBProperties.FranchiseDeletion deletion = new DynamoDBProperties.FranchiseDeletion();
+
+        // When
+        deletion.setWritesPerSecond(1);
+        deletion.setConcurrency(1);
+
+        // Then
+        assertEquals(1, deletion.getWritesPerSecond());
+        assertEquals(1, deletion.getConcurrency());
+    }
+}
@@ -0,0 +1,120 @@
+package co.com.bancolombia.dynamodb.throttle;
+
+import co.com.bancolombia.dynamodb.config.DynamoDBProperties;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AdaptiveRateLimiterTest {
+
+    private static DynamoDBProperties.Throttling config(double decreaseFactor, double minRate, Duration maxQueueDelay) {
+        DynamoDBProperties.Throttling config = new DynamoDBProperties.Throttling();
+        config.setDecreaseFactor(decreaseFactor);
+        config.setMinRate(minRate);
+        config.setMaxQueueDelay(maxQueueDelay);
+        config.setRecoveryRatePerSecond(10);
+        config.setQuietPeriod(Duration.ofSeconds(30));
+        return config;
+    }
+
+    @Test
+    void shouldLetEverythingThroughUntilFirstThrottle() {
+        // Given
+        AdaptiveRateLimiter limiter = new AdaptiveRateLimiter(config(0.7, 1, Duration.ofSeconds(2)));
+
+        // When & Then
+        for (int i = 0; i < 1_000; i++) {
+            assertEquals(0, limiter.reserve());
+        }
+        limiter.onSuccess();
+        assertEquals(0, limiter.limit());
+    }
+
+    @Test
+    void shouldStartLimitingAtFractionOfObservedRateOnThrottle() {
+        // Given
+        AdaptiveRateLimiter limiter = new AdaptiveRateLimiter(config(0.5, 1, Duration.ofSeconds(2)));
+        for (int i = 0; i < 100; i++) {
+            limiter.reserve();
+        }
+
+        // When
+        limiter.onThrottle();
+
+        // Then - 100 requests en (como mucho) lo que dura el test: la tasa observada es alta y se reduce a la mitad
+        assertTrue(limiter.limit() > 1);
+    }
+
+    @Test
+    void shouldQueueUntilMaxQueueDelayAndThenReject() {
+        // Given - La tasa cae al mínimo (1 request/s) y el bucket arranca vacío
+        AdaptiveRateLimiter limiter = new AdaptiveRateLimiter(config(1e-9, 1, Duration.ofMillis(1_500)));
+        limiter.onThrottle();
+        assertEquals(1, limiter.limit());
+
+        // When
+        long first = limiter.reserve();
+        long second = limiter.reserve();
+
+        // Then - La primera espera ~1s; la segunda esperaría ~2s, más que maxQueueDelay
+        assertTrue(first > Duration.ofMillis(900).toNanos() && first <= Duration.ofSeconds(1).toNanos());
+        assertEquals(AdaptiveRateLimiter.REJECTED, second);
+        // El rechazo devuelve su token: la siguiente vuelve a esperar lo mismo que la segunda
+        assertEquals(AdaptiveRateLimiter.REJECTED, limiter.reserve());
+        assertTrue(limiter.availableTokens() > -1.5);
+    }
+
+    @Test
+    void shouldCountThrottlesOfSameBurstAsSingleDecrease() throws InterruptedException {
+        // Given
+        AdaptiveRateLimiter limiter = new AdaptiveRateLimiter(config(0.5, 1, Duration.ofSeconds(2)));
+        for (int i = 0; i < 100; i++) {
+            limiter.reserve();
+        }
+        limiter.onThrottle();
+        double afterFirst = limiter.limit();
+
+        // When & Then - Un rechazo de la misma ráfaga no reduce de nuevo
+        limiter.onThrottle();
+        assertEquals(afterFirst, limiter.limit());
+
+        // When & Then - Pasado el intervalo de la ráfaga, un nuevo rechazo sí reduce
+        Thread.sleep(250);
+        limiter.onThrottle();
+        assertEquals(Math.max(1, afterFirst * 0.5), limiter.limit(), 1e-9);
+    }
+
+    @Test
+    void shouldRecoverRateLinearlyOnSuccess() throws InterruptedException {
+        // Given
+        AdaptiveRateLimiter limiter = new AdaptiveRateLimiter(config(1e-9, 1, Duration.ofSeconds(2)));
+        limiter.onThrottle();
+        assertEquals(1, limiter.limit());
+
+        // When
+        Thread.sleep(200);
+        limiter.onSuccess();
+
+        // Then - 10 requests/s por segundo: sube ~2 tras 200 ms
+        assertTrue(limiter.limit() > 2.5);
+    }
+
+    @Test
+    void shouldStopLimitingAfterQuietPeriod() throws InterruptedException {
+        // Given
+        DynamoDBProperties.Throttling config = config(1e-9, 1, Duration.ofSeconds(2));
+        config.setQuietPeriod(Duration.ofMillis(50));
+        AdaptiveRateLimiter limiter = new AdaptiveRateLimiter(config);
+        limiter.onThrottle();
+
+        // When
+        Thread.sleep(100);
+
+        // Then
+        assertEquals(0, limiter.reserve());
+        assertEquals(0, limiter.limit());
+    }
+}
@@ -0,0 +1,141 @@
+package co.com.bancolombia.dynamodb.throttle;
+
+import co.com.bancolombia.dynamodb.config.DynamoDBProperties;
+import co.com.bancolombia.model.franchise.ThrottledException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import reactor.test.StepVerifier;
+import software.amazon.awssdk.awscore.exception.AwsErrorDetails;
+import software.amazon.awssdk.services.dynamodb.model.CancellationReason;
+import software.amazon.awssdk.services.dynamodb.model.ConditionalCheckFailedException;
+import software.amazon.awssdk.services.dynamodb.model.ProvisionedThroughputExceededException;
+import software.amazon.awssdk.services.dynamodb.model.TransactionCanceledException;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class DynamoThrottleTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private DynamoThrottle throttle;
+
+    @BeforeEach
+    void setUp() {
+        DynamoDBProperties.Throttling config = new DynamoDBProperties.Throttling();
+        config.setMaxRetries(2);
+        config.setMinBackoff(Duration.ofMillis(1));
+        config.setMaxBackoff(Duration.ofMillis(5));
+        // Tasa mínima alta: el limitador no debe alargar el test tras el primer rechazo
+        config.setMinRate(10_000);
+        meterRegistry = new SimpleMeterRegistry();
+        throttle = new DynamoThrottle(config, meterRegistry);
+    }
+
+    private static ProvisionedThroughputExceededException throughputExceeded() {
+        return ProvisionedThroughputExceededException.builder()
+                .statusCode(400)
+                .awsErrorDetails(AwsErrorDetails.builder()
+                        .errorCode("ProvisionedThroughputExceededException")
+                        .build())
+                .build();
+    }
+
+    private static TransactionCanceledException transactionCanceled(String code) {
+        return TransactionCanceledException.builder()
+                .statusCode(400)
+                .awsErrorDetails(AwsErrorDetails.builder()
+                        .errorCode("TransactionCanceledException")
+                        .build())
+                .cancellationReasons(
+                        CancellationReason.builder().code("None").build(),
+                        CancellationReason.builder().code(code).build())
+                .build();
+    }
+
+    @Test
+    void shouldDetectThrottlingErrors() {
+        assertTrue(DynamoThrottle.isThrottling(throughputExceeded()));
+        assertTrue(DynamoThrottle.isThrottling(transactionCanceled("ThrottlingError")));
+        assertTrue(DynamoThrottle.isThrottling(transactionCanceled("ProvisionedThroughputExceeded")));
+    }
+
+    @Test
+    void shouldNotTreatOtherErrorsAsThrottling() {
+        assertFalse(DynamoThrottle.isThrottling(transactionCanceled("ConditionalCheckFailed")));
+        assertFalse(DynamoThrottle.isThrottling(ConditionalCheckFailedException.builder()
+                .statusCode(400)
+                .awsErrorDetails(AwsErrorDetails.builder().errorCode("ConditionalCheckFailedException").build())
+                .build()));
+        assertFalse(DynamoThrottle.isThrottling(new IllegalStateException("boom")));
+    }
+
+    @Test
+    void shouldRetryThrottledCallUntilItSucceeds() {
+        // Given
+        AtomicInteger calls = new AtomicInteger();
+
+        // When & Then
+        StepVerifier.create(throttle.call("products", "PutItem", () -> calls.incrementAndGet() < 3
+                        ? CompletableFuture.<String>failedFuture(throughputExceeded())
+                        : CompletableFuture.completedFuture("ok")))
+                .expectNext("ok")
+                .verifyComplete();
+
+        assertEquals(3, calls.get());
+        assertEquals(2, meterRegistry.get("dynamodb.client.throttled").counter().count());
+    }
+
+    @Test
+    void shouldFailWithThrottledExceptionWhenRetriesAreExhausted() {
+        // Given
+        AtomicInteger calls = new AtomicInteger();
+        ProvisionedThroughputExceededException error = throughputExceeded();
+
+        // When & Then
+        StepVerifier.create(throttle.call("products", "PutItem", () -> {
+                    calls.incrementAndGet();
+                    return CompletableFuture.<String>failedFuture(error);
+                }))
+                .expectErrorMatches(thrown -> thrown instanceof ThrottledException && thrown.getCause() == error)
+                .verify();
+
+        // Intento inicial + maxRetries
+        assertEquals(3, calls.get());
+        assertEquals(2, meterRegistry.get("dynamodb.client.retries").counter().count());
+    }
+
+    @Test
+    void shouldNotRetryNonThrottlingErrors() {
+        // Given
+        AtomicInteger calls = new AtomicInteger();
+
+        // When & Then
+        StepVerifier.create(throttle.call("products", "UpdateItem", () -> {
+                    calls.incrementAndGet();
+                    return CompletableFuture.<String>failedFuture(ConditionalCheckFailedException.builder()
+                            .message("The conditional request failed")
+                            .build());
+                }))
+                .expectError(ConditionalCheckFailedException.class)
+                .verify();
+
+        assertEquals(1, calls.get());
+    }
+
+    @Test
+    void shouldCountPartiallyThrottledResponsesWithoutRetrying() {
+        // When & Then - UnprocessedItems: la respuesta se entrega, pero cuenta como throttling para el limitador
+        StepVerifier.create(throttle.call("products", "BatchWriteItem",
+                        () -> CompletableFuture.completedFuture("partial"), "partial"::equals))
+                .expectNext("partial")
+                .verifyComplete();
+
+        assertEquals(1, meterRegistry.get("dynamodb.client.throttled").counter().count());
+    }
+}
@@ -0,0 +1,91 @@
+package co.com.bancolombia.dynamodb.throttle;
+
+import co.com.bancolombia.dynamodb.config.DynamoDBProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import software.amazon.awssdk.services.dynamodb.DynamoDbAsyncClient;
+import software.amazon.awssdk.services.dynamodb.model.DescribeTableRequest;
+import software.amazon.awssdk.services.dynamodb.model.DescribeTableResponse;
+import software.amazon.awssdk.services.dynamodb.model.GetItemRequest;
+import software.amazon.awssdk.services.dynamodb.model.GetItemResponse;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ThrottledDynamoDbAsyncClientTest {
+
+    private static final String TABLE = "business-sucursales-test";
+
+    @Mock
+    private DynamoDbAsyncClient delegate;
+
+    private ThrottledDynamoDbAsyncClient client;
+
+    @BeforeEach
+    void setUp() {
+        client = new ThrottledDynamoDbAsyncClient(delegate,
+                new DynamoThrottle(new DynamoDBProperties.Throttling(), new SimpleMeterRegistry()));
+    }
+
+    @Test
+    void shouldNotLeaveAnyOperationWithTheUnsupportedDefault() throws IllegalAccessException {
+        // Given - Los argumentos nulos pueden fallar dentro de la operación; solo interesa el default del SDK
+        List<String> unsupported = new ArrayList<>();
+
+        // When
+        for (Method operation : DynamoDbAsyncClient.class.getMethods()) {
+            if (Modifier.isStatic(operation.getModifiers())) {
+                continue;
+            }
+            try {
+                operation.invoke(client, new Object[operation.getParameterCount()]);
+            } catch (InvocationTargetException error) {
+                if (error.getCause() instanceof UnsupportedOperationException) {
+                    unsupported.add(operation.toString());
+                }
+            }
+        }
+
+        // Then
+        assertTrue(unsupported.isEmpty(), () -> "Operaciones sin delegar: " + unsupported);
+    }
+
+    @Test
+    void shouldPassControlPlaneOperationsThroughToTheDelegate() {
+        // Given
+        DescribeTableRequest request = DescribeTableRequest.builder().tableName(TABLE).build();
+        CompletableFuture<DescribeTableResponse> response = CompletableFuture.completedFuture(
+                DescribeTableResponse.builder().build());
+        when(delegate.describeTable(request)).thenReturn(response);
+
+        // When & Then
+        assertSame(response, client.describeTable(request));
+    }
+
+    @Test
+    void shouldCallDelegateForThrottledOperations() {
+        // Given
+        GetItemRequest request = GetItemRequest.builder().tableName(TABLE).build();
+        GetItemResponse response = GetItemResponse.builder().build();
+        when(delegate.getItem(request)).thenReturn(CompletableFuture.completedFuture(response));
+
+        // When & Then
+        assertEquals(response, client.getItem(request).join());
+        verify(delegate).getItem(request);
+    }
+}
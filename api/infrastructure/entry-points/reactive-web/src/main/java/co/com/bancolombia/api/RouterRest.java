@@ -2,6 +2,7 @@ package co.com.bancolombia.api;
 
 import co.com.bancolombia.api.handler.FranchiseHandler;
 import co.com.bancolombia.api.handler.BranchHandler;
+import co.com.bancolombia.api.handler.InventoryHandler;
 import co.com.bancolombia.api.handler.ProductHandler;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -18,13 +19,17 @@ public class RouterRest {
     public RouterFunction<ServerResponse> routerFunction(
             FranchiseHandler franchiseHandler,
             BranchHandler branchHandler,
-            ProductHandler productHandler) {
+            ProductHandler productHandler,
+            InventoryHandler inventoryHandler) {
         
         return route()
                 // Franchise routes
                 .POST("/api/franchises", franchiseHandler::createFranchise)
                 .GET("/api/franchises", franchiseHandler::getAllFranchises)
                 .PUT("/api/franchises/{id}/name", franchiseHandler::updateFranchiseName)
+                .GET("/api/franchises/{id}/stats", franchiseHandler::getFranchiseStats)
+                .DELETE("/api/franchises/{id}", franchiseHandler::deleteFranchise)
+                .GET("/api/franchises/{id}/deletion", franchiseHandler::getFranchiseDeletion)
                 
                 // Branch routes
                 .POST("/api/franchises/{franchiseId}/branches", branchHandler::createBranch)
@@ -32,14 +37,19 @@ public class RouterRest {
                 
                 // Product routes
                 .POST("/api/franchises/{franchiseId}/branches/{branchId}/products", productHandler::createProduct)
+                .POST("/api/franchises/{franchiseId}/products/import", productHandler::importProducts)
                 .GET("/api/branches/{branchId}/products", productHandler::getProductsByBranch)
                 .GET("/api/products/{id}", productHandler::getProduct)
                 .DELETE("/api/products/{id}", productHandler::deleteProduct)
                 .PUT("/api/products/{id}/name", productHandler::updateProductName)
                 .PUT("/api/products/{id}/stock", productHandler::updateProductStock)
+                .POST("/api/products/{id}/stock/adjust", productHandler::adjustProductStock)
                 .GET("/api/franchises/{franchiseId}/products/top-stock", productHandler::getTopStockProducts)
                 .GET("/api/franchises/{franchiseId}/branches/top-stock-products", productHandler::getTopStockProductByBranch)
                 
+                // Inventory routes
+                .GET("/api/inventory/export", inventoryHandler::exportInventory)
+                
                 .build();
     }
 }
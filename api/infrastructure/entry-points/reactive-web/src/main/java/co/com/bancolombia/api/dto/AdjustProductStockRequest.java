@@ -0,0 +1,19 @@
+package co.com.bancolombia.api.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import jakarta.validation.constraints.NotNull;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class AdjustProductStockRequest {
+    @NotNull(message = "El ajuste de stock es requerido")
+    @JsonProperty("delta")
+    private Integer delta;
+}
@@ -0,0 +1,21 @@
+package co.com.bancolombia.api.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class FranchiseDeletionResponse {
+    private String franchiseId;
+    private String status;
+    private long deletedItems;
+    private String error;
+    private LocalDateTime startedAt;
+    private LocalDateTime finishedAt;
+}
@@ -0,0 +1,17 @@
+package co.com.bancolombia.api.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class FranchiseStatsResponse {
+    private String franchiseId;
+    private long branchCount;
+    private long productCount;
+    private long totalStock;
+}
@@ -0,0 +1,15 @@
+package co.com.bancolombia.api.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// Una línea NDJSON de la carga masiva; la validación la hace el caso de uso y se reporta por fila
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ImportProductRequest {
+    private String branchId;
+    private String name;
+    private Integer stock;
+}
@@ -0,0 +1,23 @@
+package co.com.bancolombia.api.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class InventoryRecordResponse {
+    private String type;
+    private String id;
+    private String franchiseId;
+    private String branchId;
+    private String name;
+    private Integer stock;
+    private String storageStrategy;
+    private LocalDateTime updatedAt;
+}
@@ -0,0 +1,18 @@
+package co.com.bancolombia.api.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductImportResultResponse {
+    private long line;
+    private String status; // IMPORTED | FAILED
+    private String branchId;
+    private String productId;
+    private String error;
+}
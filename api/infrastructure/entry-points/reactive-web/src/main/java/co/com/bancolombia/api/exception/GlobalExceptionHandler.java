@@ -1,24 +1,81 @@
 package co.com.bancolombia.api.exception;
 
+import co.com.bancolombia.model.franchise.ThrottledException;
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
-import org.springframework.http.ResponseEntity;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.HttpMessageWriter;
+import org.springframework.http.codec.ServerCodecConfigurer;
+import org.springframework.stereotype.Component;
 import org.springframework.validation.FieldError;
-import org.springframework.web.bind.annotation.ExceptionHandler;
-import org.springframework.web.bind.annotation.RestControllerAdvice;
 import org.springframework.web.bind.support.WebExchangeBindException;
+import org.springframework.web.reactive.function.server.ServerResponse;
+import org.springframework.web.reactive.result.view.ViewResolver;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebExceptionHandler;
 import reactor.core.publisher.Mono;
 
 import java.time.LocalDateTime;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
-@RestControllerAdvice
+// Las rutas son funcionales (RouterRest): un @RestControllerAdvice no las alcanza, así que los errores se
+// traducen aquí, antes del manejador por defecto de Spring Boot (@Order(-1))
+@Component
+@Order(-2)
 @Slf4j
-public class GlobalExceptionHandler {
+@RequiredArgsConstructor
+public class GlobalExceptionHandler implements WebExceptionHandler {
     
-    @ExceptionHandler(WebExchangeBindException.class)
-    public Mono<ResponseEntity<ErrorResponse>> handleValidationErrors(WebExchangeBindException ex) {
+    private final ServerCodecConfigurer codecConfigurer;
+
+    private final ServerResponse.Context context = new ServerResponse.Context() {
+        @Override
+        public List<HttpMessageWriter<?>> messageWriters() {
+            return codecConfigurer.getWriters();
+        }
+
+        @Override
+        public List<ViewResolver> viewResolvers() {
+            return List.of();
+        }
+    };
+
+    @Override
+    public Mono<Void> handle(ServerWebExchange exchange, Throwable ex) {
+        // Con la respuesta ya enviada (p. ej. a mitad de un streaming) el estado no se puede cambiar
+        if (exchange.getResponse().isCommitted()) {
+            return Mono.error(ex);
+        }
+        if (ex instanceof WebExchangeBindException bindException) {
+            return write(exchange, handleValidationErrors(bindException));
+        }
+        // Ruta inexistente, 405, 415...: siguen con el manejador por defecto
+        if (ex instanceof ResponseStatusException) {
+            return Mono.error(ex);
+        }
+        if (ex instanceof ThrottledException throttled) {
+            return write(exchange, handleThrottledException(throttled));
+        }
+        if (ex instanceof IllegalStateException illegalState) {
+            return write(exchange, handleIllegalStateException(illegalState));
+        }
+        if (ex instanceof IllegalArgumentException illegalArgument) {
+            return write(exchange, handleIllegalArgumentException(illegalArgument));
+        }
+        return write(exchange, handleRuntimeException(ex));
+    }
+
+    private Mono<Void> write(ServerWebExchange exchange, Mono<ServerResponse> response) {
+        return response.flatMap(serverResponse -> serverResponse.writeTo(exchange, context));
+    }
+
+    private Mono<ServerResponse> handleValidationErrors(WebExchangeBindException ex) {
         Map<String, String> errors = new HashMap<>();
         ex.getBindingResult().getAllErrors().forEach(error -> {
             String fieldName = ((FieldError) error).getField();
@@ -34,11 +91,10 @@ public class GlobalExceptionHandler {
                 .details(errors)
                 .build();
                 
-        return Mono.just(ResponseEntity.badRequest().body(errorResponse));
+        return body(ServerResponse.badRequest(), errorResponse);
     }
     
-    @ExceptionHandler(RuntimeException.class)
-    public Mono<ResponseEntity<ErrorResponse>> handleRuntimeException(RuntimeException ex) {
+    private Mono<ServerResponse> handleRuntimeException(Throwable ex) {
         // Manejar errores "not found" como 404
         if (ex.getMessage() != null && ex.getMessage().contains("not found")) {
             log.warn("Resource not found: {}", ex.getMessage());
@@ -50,7 +106,7 @@ public class GlobalExceptionHandler {
                     .message(ex.getMessage())
                     .build();
                     
-            return Mono.just(ResponseEntity.status(HttpStatus.NOT_FOUND).body(errorResponse));
+            return body(ServerResponse.status(HttpStatus.NOT_FOUND), errorResponse);
         }
         
         log.error("Runtime exception occurred", ex);
@@ -62,11 +118,37 @@ public class GlobalExceptionHandler {
                 .message("An unexpected error occurred")
                 .build();
                 
-        return Mono.just(ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(errorResponse));
+        return body(ServerResponse.status(HttpStatus.INTERNAL_SERVER_ERROR), errorResponse);
+    }
+    
+    private Mono<ServerResponse> handleThrottledException(ThrottledException ex) {
+        log.warn("Service unavailable: {}", ex.getMessage());
+        
+        ErrorResponse errorResponse = ErrorResponse.builder()
+                .timestamp(LocalDateTime.now())
+                .status(HttpStatus.SERVICE_UNAVAILABLE.value())
+                .error("Service Unavailable")
+                .message("Capacidad temporalmente agotada, reintente en unos segundos")
+                .build();
+                
+        return body(ServerResponse.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "1"), errorResponse);
+    }
+    
+    private Mono<ServerResponse> handleIllegalStateException(IllegalStateException ex) {
+        log.warn("Conflict: {}", ex.getMessage());
+        
+        ErrorResponse errorResponse = ErrorResponse.builder()
+                .timestamp(LocalDateTime.now())
+                .status(HttpStatus.CONFLICT.value())
+                .error("Conflict")
+                .message(ex.getMessage())
+                .build();
+                
+        return body(ServerResponse.status(HttpStatus.CONFLICT), errorResponse);
     }
     
-    @ExceptionHandler(IllegalArgumentException.class)
-    public Mono<ResponseEntity<ErrorResponse>> handleIllegalArgumentException(IllegalArgumentException ex) {
+    private Mono<ServerResponse> handleIllegalArgumentException(IllegalArgumentException ex) {
         log.warn("Invalid argument: {}", ex.getMessage());
         
         ErrorResponse errorResponse = ErrorResponse.builder()
@@ -76,6 +158,10 @@ public class GlobalExceptionHandler {
                 .message(ex.getMessage())
                 .build();
                 
-        return Mono.just(ResponseEntity.badRequest().body(errorResponse));
+        return body(ServerResponse.badRequest(), errorResponse);
+    }
+
+    private static Mono<ServerResponse> body(ServerResponse.BodyBuilder builder, ErrorResponse errorResponse) {
+        return builder.contentType(MediaType.APPLICATION_JSON).bodyValue(errorResponse);
     }
 }
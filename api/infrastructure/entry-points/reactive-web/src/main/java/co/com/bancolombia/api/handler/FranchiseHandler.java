@@ -1,16 +1,23 @@
 package co.com.bancolombia.api.handler;
 
 import co.com.bancolombia.api.dto.CreateFranchiseRequest;
+import co.com.bancolombia.api.dto.FranchiseDeletionResponse;
 import co.com.bancolombia.api.dto.FranchiseResponse;
+import co.com.bancolombia.api.dto.FranchiseStatsResponse;
 import co.com.bancolombia.api.dto.UpdateFranchiseNameRequest;
 import co.com.bancolombia.model.franchise.Franchise;
+import co.com.bancolombia.model.franchise.FranchiseDeletionJob;
+import co.com.bancolombia.model.franchise.FranchiseStats;
 import co.com.bancolombia.usecase.franchise.CreateFranchiseUseCase;
+import co.com.bancolombia.usecase.franchise.DeleteFranchiseUseCase;
 import co.com.bancolombia.usecase.franchise.GetAllFranchisesUseCase;
+import co.com.bancolombia.usecase.franchise.GetFranchiseStatsUseCase;
 import co.com.bancolombia.usecase.franchise.UpdateFranchiseNameUseCase;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Component;
 import org.springframework.web.reactive.function.server.ServerRequest;
 import org.springframework.web.reactive.function.server.ServerResponse;
+import org.springframework.web.util.UriComponentsBuilder;
 import reactor.core.publisher.Mono;
 
 @Component
@@ -20,6 +27,8 @@ public class FranchiseHandler {
     private final CreateFranchiseUseCase createFranchiseUseCase;
     private final GetAllFranchisesUseCase getAllFranchisesUseCase;
     private final UpdateFranchiseNameUseCase updateFranchiseNameUseCase;
+    private final GetFranchiseStatsUseCase getFranchiseStatsUseCase;
+    private final DeleteFranchiseUseCase deleteFranchiseUseCase;
     
     public Mono<ServerResponse> createFranchise(ServerRequest request) {
         return request.bodyToMono(CreateFranchiseRequest.class)
@@ -38,13 +47,24 @@ public class FranchiseHandler {
         }
     }
     
+    // En streaming se recorre la colección completa; limit/cursor aplican solo a la respuesta JSON, y sin ellos la
+    // respuesta es la de siempre: todas las franquicias con X-Total-Count
     public Mono<ServerResponse> getAllFranchises(ServerRequest request) {
-        return getAllFranchisesUseCase.execute()
-                .map(this::toResponse)
-                .collectList()
-                .flatMap(franchises -> ServerResponse.ok()
-                        .header("X-Total-Count", String.valueOf(franchises.size()))
-                        .bodyValue(franchises));
+        if (StreamingResponses.streamingType(request).isPresent()) {
+            return StreamingResponses.respond(request,
+                    getAllFranchisesUseCase.execute().map(this::toResponse), FranchiseResponse.class);
+        }
+        if (!PageParams.requested(request)) {
+            return getAllFranchisesUseCase.execute()
+                    .map(this::toResponse)
+                    .collectList()
+                    .flatMap(franchises -> ServerResponse.ok()
+                            .header(PageParams.TOTAL_COUNT_HEADER, String.valueOf(franchises.size()))
+                            .bodyValue(franchises));
+        }
+        return Mono.defer(() -> getAllFranchisesUseCase.execute(PageParams.limit(request), PageParams.cursor(request)))
+                .flatMap(page -> PageParams.ok(page)
+                        .bodyValue(page.getItems().stream().map(this::toResponse).toList()));
     }
     
     public Mono<ServerResponse> updateFranchiseName(ServerRequest request) {
@@ -55,10 +75,55 @@ public class FranchiseHandler {
                 .flatMap(response -> ServerResponse.ok().bodyValue(response));
     }
     
+    public Mono<ServerResponse> getFranchiseStats(ServerRequest request) {
+        return getFranchiseStatsUseCase.execute(request.pathVariable("id"))
+                .map(this::toStatsResponse)
+                .flatMap(response -> ServerResponse.ok().bodyValue(response));
+    }
+    
+    // 202: el borrado sigue en segundo plano, suscrito aparte para no atarlo al request; su avance se consulta en
+    // Location. Si otra ejecución ya lo tiene se devuelve ese job
+    public Mono<ServerResponse> deleteFranchise(ServerRequest request) {
+        String id = request.pathVariable("id");
+        return deleteFranchiseUseCase.start(id)
+                .doOnNext(job -> deleteFranchiseUseCase.run(job).subscribe())
+                .switchIfEmpty(Mono.defer(() -> deleteFranchiseUseCase.status(id)))
+                .map(this::toDeletionResponse)
+                .flatMap(response -> ServerResponse.accepted()
+                        .location(UriComponentsBuilder.fromPath("/api/franchises/{id}/deletion").build(id))
+                        .bodyValue(response));
+    }
+    
+    public Mono<ServerResponse> getFranchiseDeletion(ServerRequest request) {
+        return deleteFranchiseUseCase.status(request.pathVariable("id"))
+                .map(this::toDeletionResponse)
+                .flatMap(response -> ServerResponse.ok().bodyValue(response));
+    }
+    
     private FranchiseResponse toResponse(Franchise franchise) {
         return FranchiseResponse.builder()
                 .id(franchise.getId())
                 .name(franchise.getName())
                 .build();
     }
+    
+    private FranchiseStatsResponse toStatsResponse(FranchiseStats stats) {
+        return FranchiseStatsResponse.builder()
+                .franchiseId(stats.getFranchiseId())
+                .branchCount(stats.getBranchCount())
+                .productCount(stats.getProductCount())
+                .totalStock(stats.getTotalStock())
+                .build();
+    }
+    
+    private FranchiseDeletionResponse toDeletionResponse(FranchiseDeletionJob job) {
+        return FranchiseDeletionResponse.builder()
+                .franchiseId(job.getFranchiseId())
+                .status(job.getStatus())
+                .deletedItems(job.getDeletedItems())
+                .error(job.getError())
+                .startedAt(job.getStartedAt())
+                .finishedAt(job.getFinishedAt())
+                .build();
+    }
 }
@@ -0,0 +1,166 @@
+package co.com.bancolombia.api.handler;
+
+import co.com.bancolombia.api.dto.InventoryRecordResponse;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferFactory;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.zip.GZIPOutputStream;
+
+// Serializa el volcado directamente en DataBuffers del servidor, un buffer por lote de filas: nunca hay más de
+// un lote en memoria y la demanda del cliente se propaga hasta los paginadores del Scan. Con gzip un solo
+// compresor recorre toda la respuesta y se vacía (SYNC_FLUSH) al final de cada lote, así que cada buffer sale
+// comprimido sin esperar al resto
+final class InventoryExportWriter implements AutoCloseable {
+
+    enum Format { CSV, NDJSON }
+
+    private static final int RECORDS_PER_BUFFER = 500;
+    private static final int INITIAL_BUFFER_CAPACITY = 64 * 1024;
+    private static final byte[] CSV_HEADER = "type,id,franchiseId,branchId,name,stock,storageStrategy,updatedAt\n"
+            .getBytes(StandardCharsets.UTF_8);
+    private static final byte[] NEW_LINE = {'\n'};
+
+    private final Format format;
+    private final DataBufferFactory bufferFactory;
+    private final JsonMapper jsonMapper;
+    private final boolean compress;
+    private final Target target = new Target();
+    private GZIPOutputStream gzip;
+    private boolean headerWritten;
+
+    private InventoryExportWriter(Format format, boolean compress, DataBufferFactory bufferFactory, JsonMapper jsonMapper) {
+        this.format = format;
+        this.bufferFactory = bufferFactory;
+        this.jsonMapper = jsonMapper;
+        this.compress = compress;
+    }
+
+    static Flux<DataBuffer> write(Flux<InventoryRecordResponse> records, Format format, boolean gzip,
+                                  DataBufferFactory bufferFactory, JsonMapper jsonMapper) {
+        return Flux.using(
+                () -> new InventoryExportWriter(format, gzip, bufferFactory, jsonMapper),
+                writer -> records
+                        .buffer(RECORDS_PER_BUFFER)
+                        .map(writer::chunk)
+                        .concatWith(Mono.fromCallable(writer::finish)),
+                InventoryExportWriter::close)
+                .doOnDiscard(DataBuffer.class, DataBufferUtils::release);
+    }
+
+    // Cabecera CSV (en el primer buffer, aunque no haya filas) y trailer gzip
+    private DataBuffer finish() {
+        return fill(out -> {
+            header(out);
+            if (gzip != null) {
+                gzip.finish();
+            }
+        });
+    }
+
+    private DataBuffer chunk(List<InventoryRecordResponse> records) {
+        return fill(out -> {
+            header(out);
+            OutputStream sink = gzip != null ? gzip : out;
+            for (InventoryRecordResponse record : records) {
+                sink.write(format == Format.CSV ? csv(record) : jsonMapper.writeValueAsBytes(record));
+                if (format == Format.NDJSON) {
+                    sink.write(NEW_LINE);
+                }
+            }
+            if (gzip != null) {
+                gzip.flush();
+            }
+        });
+    }
+
+    private void header(OutputStream out) throws IOException {
+        if (format == Format.CSV && !headerWritten) {
+            (gzip != null ? gzip : out).write(CSV_HEADER);
+            headerWritten = true;
+        }
+    }
+
+    private DataBuffer fill(Writing writing) {
+        DataBuffer buffer = bufferFactory.allocateBuffer(INITIAL_BUFFER_CAPACITY);
+        try {
+            OutputStream out = buffer.asOutputStream();
+            target.out = out;
+            // El constructor escribe la cabecera gzip: se crea cuando ya hay un buffer que la reciba
+            if (compress && gzip == null) {
+                gzip = new GZIPOutputStream(target, INITIAL_BUFFER_CAPACITY, true);
+            }
+            writing.write(out);
+            return buffer;
+        } catch (IOException | RuntimeException error) {
+            DataBufferUtils.release(buffer);
+            throw error instanceof IOException io ? new UncheckedIOException(io) : (RuntimeException) error;
+        } finally {
+            target.out = OutputStream.nullOutputStream();
+        }
+    }
+
+    // Libera el Deflater también si el cliente cancela o el Scan falla; lo que aún escribiría se descarta
+    @Override
+    public void close() {
+        if (gzip != null) {
+            try {
+                gzip.close();
+            } catch (IOException ignored) {
+                // Nada que entregar: la respuesta ya terminó
+            }
+        }
+    }
+
+    private static byte[] csv(InventoryRecordResponse record) {
+        String line = String.join(",",
+                record.getType(),
+                record.getId(),
+                field(record.getFranchiseId()),
+                field(record.getBranchId()),
+                field(record.getName()),
+                record.getStock() != null ? record.getStock().toString() : "",
+                field(record.getStorageStrategy()),
+                record.getUpdatedAt() != null ? record.getUpdatedAt().toString() : "") + "\n";
+        return line.getBytes(StandardCharsets.UTF_8);
+    }
+
+    // RFC 4180: comillas dobles si el valor lleva separador, comillas o saltos de línea
+    private static String field(String value) {
+        if (value == null) {
+            return "";
+        }
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+
+    @FunctionalInterface
+    private interface Writing {
+        void write(OutputStream out) throws IOException;
+    }
+
+    // Destino del compresor: el buffer que se está llenando; fuera de un lote descarta
+    private static final class Target extends OutputStream {
+        private OutputStream out = OutputStream.nullOutputStream();
+
+        @Override
+        public void write(int b) throws IOException {
+            out.write(b);
+        }
+
+        @Override
+        public void write(byte[] bytes, int offset, int length) throws IOException {
+            out.write(bytes, offset, length);
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package co.com.bancolombia.api.handler;
+
+import co.com.bancolombia.api.dto.InventoryRecordResponse;
+import co.com.bancolombia.model.franchise.InventoryRecord;
+import co.com.bancolombia.usecase.franchise.ExportInventoryUseCase;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.BodyInserters;
+import org.springframework.web.reactive.function.server.ServerRequest;
+import org.springframework.web.reactive.function.server.ServerResponse;
+import reactor.core.publisher.Mono;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+
+@Component
+@RequiredArgsConstructor
+public class InventoryHandler {
+    
+    private static final String FORMAT_PARAM = "format";
+    private static final String GZIP = "gzip";
+    private static final MediaType TEXT_CSV = new MediaType("text", "csv", StandardCharsets.UTF_8);
+    
+    private final ExportInventoryUseCase exportInventoryUseCase;
+    private final JsonMapper jsonMapper;
+    
+    // Volcado completo en CSV o NDJSON (?format=, por defecto ndjson), comprimido con gzip si el cliente lo
+    // acepta en Accept-Encoding
+    public Mono<ServerResponse> exportInventory(ServerRequest request) {
+        boolean gzip = request.headers().header(HttpHeaders.ACCEPT_ENCODING).stream()
+                .anyMatch(value -> value.toLowerCase(Locale.ROOT).contains(GZIP));
+        return Mono.fromCallable(() -> format(request))
+                .flatMap(format -> ServerResponse.ok()
+                        .contentType(format == InventoryExportWriter.Format.CSV ? TEXT_CSV : MediaType.APPLICATION_NDJSON)
+                        .header(HttpHeaders.CONTENT_DISPOSITION,
+                                "attachment; filename=\"inventory." + format.name().toLowerCase(Locale.ROOT) + "\"")
+                        .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING)
+                        .headers(headers -> {
+                            if (gzip) {
+                                headers.set(HttpHeaders.CONTENT_ENCODING, GZIP);
+                            }
+                        })
+                        .body(BodyInserters.fromDataBuffers(InventoryExportWriter.write(
+                                exportInventoryUseCase.execute().map(this::toResponse), format, gzip,
+                                request.exchange().getResponse().bufferFactory(), jsonMapper))));
+    }
+    
+    private static InventoryExportWriter.Format format(ServerRequest request) {
+        String format = request.queryParam(FORMAT_PARAM).orElse("ndjson");
+        try {
+            return InventoryExportWriter.Format.valueOf(format.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException error) {
+            throw new IllegalArgumentException("El formato debe ser csv o ndjson");
+        }
+    }
+    
+    private InventoryRecordResponse toResponse(InventoryRecord record) {
+        return InventoryRecordResponse.builder()
+                .type(record.getType())
+                .id(record.getId())
+                .franchiseId(record.getFranchiseId())
+                .branchId(record.getBranchId())
+                .name(record.getName())
+                .stock(record.getStock())
+                .storageStrategy(record.getStorageStrategy())
+                .updatedAt(record.getUpdatedAt())
+                .build();
+    }
+}
@@ -0,0 +1,45 @@
+package co.com.bancolombia.api.handler;
+
+import co.com.bancolombia.model.franchise.Page;
+import org.springframework.web.reactive.function.server.ServerRequest;
+import org.springframework.web.reactive.function.server.ServerResponse;
+
+// Query params limit/cursor de los listados paginados. El cuerpo sigue siendo el arreglo de la página;
+// el cursor de la siguiente viaja en el header X-Next-Cursor y se omite en la última. Sin ninguno de los dos
+// se responde como antes de paginar: la colección completa (y X-Total-Count donde ya existía)
+final class PageParams {
+    
+    static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+    static final String TOTAL_COUNT_HEADER = "X-Total-Count";
+    
+    private PageParams() {
+    }
+    
+    static boolean requested(ServerRequest request) {
+        return request.queryParam("limit").isPresent() || request.queryParam("cursor").isPresent();
+    }
+    
+    static Integer limit(ServerRequest request) {
+        return request.queryParam("limit")
+                .map(value -> {
+                    try {
+                        return Integer.valueOf(value);
+                    } catch (NumberFormatException e) {
+                        throw new IllegalArgumentException("limit debe ser un número entero");
+                    }
+                })
+                .orElse(null);
+    }
+    
+    static String cursor(ServerRequest request) {
+        return request.queryParam("cursor").orElse(null);
+    }
+    
+    static ServerResponse.BodyBuilder ok(Page<?> page) {
+        ServerResponse.BodyBuilder builder = ServerResponse.ok();
+        if (page.hasNext()) {
+            builder.header(NEXT_CURSOR_HEADER, page.getNextCursor());
+        }
+        return builder;
+    }
+}
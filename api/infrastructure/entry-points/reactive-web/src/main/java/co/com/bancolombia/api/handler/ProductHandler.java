@@ -1,11 +1,15 @@
 package co.com.bancolombia.api.handler;
 
+import co.com.bancolombia.api.dto.AdjustProductStockRequest;
 import co.com.bancolombia.api.dto.CreateProductRequest;
+import co.com.bancolombia.api.dto.ProductImportResultResponse;
 import co.com.bancolombia.api.dto.ProductResponse;
 import co.com.bancolombia.api.dto.ProductWithBranchResponse;
 import co.com.bancolombia.api.dto.UpdateProductNameRequest;
 import co.com.bancolombia.api.dto.UpdateProductStockRequest;
 import co.com.bancolombia.model.franchise.Product;
+import co.com.bancolombia.model.franchise.ProductImportResult;
+import co.com.bancolombia.usecase.product.AdjustProductStockUseCase;
 import co.com.bancolombia.usecase.product.CreateProductUseCase;
 import co.com.bancolombia.usecase.product.DeleteProductUseCase;
 import co.com.bancolombia.usecase.product.GetProductByIdUseCase;
@@ -13,13 +17,17 @@ import co.com.bancolombia.usecase.product.GetProductsByBranchUseCase;
 import co.com.bancolombia.usecase.product.GetTopStockProductByBranchUseCase;
 import co.com.bancolombia.usecase.product.GetTopStockProductByBranchWithBranchNameUseCase;
 import co.com.bancolombia.usecase.product.GetTopStockProductsUseCase;
+import co.com.bancolombia.usecase.product.ImportProductsUseCase;
 import co.com.bancolombia.usecase.product.UpdateProductNameUseCase;
 import co.com.bancolombia.usecase.product.UpdateProductStockUseCase;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
 import org.springframework.stereotype.Component;
 import org.springframework.web.reactive.function.server.ServerRequest;
 import org.springframework.web.reactive.function.server.ServerResponse;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
+import tools.jackson.databind.json.JsonMapper;
 
 @Component
 @RequiredArgsConstructor
@@ -37,6 +45,9 @@ public class ProductHandler {
     private final GetTopStockProductByBranchWithBranchNameUseCase getTopStockProductByBranchWithBranchNameUseCase;
     private final UpdateProductNameUseCase updateProductNameUseCase;
     private final UpdateProductStockUseCase updateProductStockUseCase;
+    private final AdjustProductStockUseCase adjustProductStockUseCase;
+    private final ImportProductsUseCase importProductsUseCase;
+    private final JsonMapper jsonMapper;
     
     public Mono<ServerResponse> createProduct(ServerRequest request) {
         String franchiseId = request.pathVariable(FRANCHISE_ID_PATH_VARIABLE);
@@ -47,12 +58,34 @@ public class ProductHandler {
                 .flatMap(response -> ServerResponse.ok().bodyValue(response));
     }
     
+    // Carga masiva: las filas se interpretan según llega el cuerpo y el resultado de cada una se escribe en NDJSON
+    // según se procesa, sin acumular la carga ni la respuesta en memoria
+    public Mono<ServerResponse> importProducts(ServerRequest request) {
+        String franchiseId = request.pathVariable(FRANCHISE_ID_PATH_VARIABLE);
+        Flux<ProductImportResultResponse> results = importProductsUseCase
+                .execute(franchiseId, ProductImportRows.read(request, jsonMapper))
+                .map(this::toImportResponse);
+        return ServerResponse.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(results, ProductImportResultResponse.class);
+    }
+    
+    // En streaming se recorre la colección completa; limit/cursor aplican solo a la respuesta JSON
     public Mono<ServerResponse> getProductsByBranch(ServerRequest request) {
         String branchId = request.pathVariable(BRANCH_ID_PATH_VARIABLE);
-        return getProductsByBranchUseCase.execute(branchId)
-                .map(this::toResponse)
-                .collectList()
-                .flatMap(products -> ServerResponse.ok().bodyValue(products));
+        if (StreamingResponses.streamingType(request).isPresent()) {
+            return StreamingResponses.respond(request,
+                    getProductsByBranchUseCase.execute(branchId).map(this::toResponse), ProductResponse.class);
+        }
+        if (!PageParams.requested(request)) {
+            return getProductsByBranchUseCase.execute(branchId)
+                    .map(this::toResponse)
+                    .collectList()
+                    .flatMap(products -> ServerResponse.ok().bodyValue(products));
+        }
+        return Mono.defer(() -> getProductsByBranchUseCase.execute(branchId, PageParams.limit(request), PageParams.cursor(request)))
+                .flatMap(page -> PageParams.ok(page)
+                        .bodyValue(page.getItems().stream().map(this::toResponse).toList()));
     }
     
     public Mono<ServerResponse> getProduct(ServerRequest request) {
@@ -71,18 +104,16 @@ public class ProductHandler {
     
     public Mono<ServerResponse> getTopStockProducts(ServerRequest request) {
         String franchiseId = request.pathVariable(FRANCHISE_ID_PATH_VARIABLE);
-        return getTopStockProductsUseCase.execute(franchiseId)
-                .map(this::toResponse)
-                .collectList()
-                .flatMap(products -> ServerResponse.ok().bodyValue(products));
+        return StreamingResponses.respond(request,
+                getTopStockProductsUseCase.execute(franchiseId).map(this::toResponse), ProductResponse.class);
     }
     
     public Mono<ServerResponse> getTopStockProductByBranch(ServerRequest request) {
         String franchiseId = request.pathVariable(FRANCHISE_ID_PATH_VARIABLE);
-        return getTopStockProductByBranchWithBranchNameUseCase.execute(franchiseId)
-                .map(productWithBranch -> toResponseWithBranch(productWithBranch.getProduct(), productWithBranch.getBranchName()))
-                .collectList()
-                .flatMap(products -> ServerResponse.ok().bodyValue(products));
+        return StreamingResponses.respond(request,
+                getTopStockProductByBranchWithBranchNameUseCase.execute(franchiseId)
+                        .map(productWithBranch -> toResponseWithBranch(productWithBranch.getProduct(), productWithBranch.getBranchName())),
+                ProductWithBranchResponse.class);
     }
     
     public Mono<ServerResponse> updateProductName(ServerRequest request) {
@@ -101,6 +132,14 @@ public class ProductHandler {
                 .flatMap(response -> ServerResponse.ok().bodyValue(response));
     }
     
+    public Mono<ServerResponse> adjustProductStock(ServerRequest request) {
+        String id = request.pathVariable(ID_PATH_VARIABLE);
+        return request.bodyToMono(AdjustProductStockRequest.class)
+                .flatMap(req -> adjustProductStockUseCase.execute(id, req.getDelta()))
+                .map(this::toResponse)
+                .flatMap(response -> ServerResponse.ok().bodyValue(response));
+    }
+    
     private ProductResponse toResponse(Product product) {
         return ProductResponse.builder()
                 .id(product.getId())
@@ -110,6 +149,16 @@ public class ProductHandler {
                 .build();
     }
     
+    private ProductImportResultResponse toImportResponse(ProductImportResult result) {
+        return ProductImportResultResponse.builder()
+                .line(result.getLine())
+                .status(result.isImported() ? "IMPORTED" : "FAILED")
+                .branchId(result.getBranchId())
+                .productId(result.getProductId())
+                .error(result.getError())
+                .build();
+    }
+    
     private ProductWithBranchResponse toResponseWithBranch(Product product, String branchName) {
         return ProductWithBranchResponse.builder()
                 .id(product.getId())
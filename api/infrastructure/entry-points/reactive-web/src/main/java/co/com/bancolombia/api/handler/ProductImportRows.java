@@ -0,0 +1,149 @@
+package co.com.bancolombia.api.handler;
+
+import co.com.bancolombia.api.dto.ImportProductRequest;
+import co.com.bancolombia.model.franchise.ProductImportRow;
+import org.springframework.core.ResolvableType;
+import org.springframework.core.codec.StringDecoder;
+import org.springframework.http.MediaType;
+import org.springframework.web.reactive.function.BodyExtractors;
+import org.springframework.web.reactive.function.server.ServerRequest;
+import reactor.core.publisher.Flux;
+import reactor.util.function.Tuple2;
+import tools.jackson.core.JacksonException;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// Filas de una carga masiva a medida que llegan los bytes: el cuerpo se corta en líneas sin esperar al resto y
+// cada línea se interpreta por separado, así que una fila mal formada se reporta con su error y la carga sigue.
+// NDJSON: un objeto {branchId, name, stock} por línea. CSV: cabecera con las columnas branchId, name y stock (en
+// cualquier orden) y comillas dobles para valores con comas; un valor entre comillas no puede ocupar varias líneas
+final class ProductImportRows {
+
+    static final MediaType TEXT_CSV = new MediaType("text", "csv");
+    private static final String BRANCH_ID = "branchId";
+    private static final String NAME = "name";
+    private static final String STOCK = "stock";
+    private static final List<String> CSV_COLUMNS = List.of(BRANCH_ID, NAME, STOCK);
+    private static final String UTF8_BOM = "\uFEFF";
+    private static final StringDecoder LINES = StringDecoder.allMimeTypes();
+    private static final ResolvableType STRING_TYPE = ResolvableType.forClass(String.class);
+
+    private ProductImportRows() {
+    }
+
+    static Flux<ProductImportRow> read(ServerRequest request, JsonMapper jsonMapper) {
+        MediaType contentType = request.headers().contentType().orElse(MediaType.APPLICATION_NDJSON);
+        boolean csv = TEXT_CSV.equalsTypeAndSubtype(contentType);
+        if (!csv && !MediaType.APPLICATION_NDJSON.equalsTypeAndSubtype(contentType)) {
+            return Flux.error(new IllegalArgumentException("La carga debe enviarse como application/x-ndjson o text/csv"));
+        }
+        Flux<Tuple2<Long, String>> lines = LINES
+                .decode(request.body(BodyExtractors.toDataBuffers()), STRING_TYPE, contentType, Map.of())
+                .index();
+        return csv ? csv(lines) : ndjson(lines, jsonMapper);
+    }
+
+    private static Flux<ProductImportRow> ndjson(Flux<Tuple2<Long, String>> lines, JsonMapper jsonMapper) {
+        return lines
+                .filter(line -> !line.getT2().isBlank())
+                .map(line -> {
+                    long number = line.getT1() + 1;
+                    try {
+                        ImportProductRequest row = jsonMapper.readValue(line.getT2(), ImportProductRequest.class);
+                        return ProductImportRow.builder()
+                                .line(number)
+                                .branchId(row.getBranchId())
+                                .name(row.getName())
+                                .stock(row.getStock())
+                                .build();
+                    } catch (JacksonException error) {
+                        return ProductImportRow.invalid(number, "La línea no es un objeto JSON válido");
+                    }
+                });
+    }
+
+    // La primera línea es la cabecera: sin las tres columnas no se interpreta ninguna fila
+    private static Flux<ProductImportRow> csv(Flux<Tuple2<Long, String>> lines) {
+        return lines.switchOnFirst((first, all) -> {
+            if (!first.hasValue()) {
+                return all.thenMany(Flux.<ProductImportRow>empty());
+            }
+            Map<String, Integer> columns = header(first.get().getT2());
+            if (!columns.keySet().containsAll(CSV_COLUMNS)) {
+                return Flux.<ProductImportRow>error(new IllegalArgumentException(
+                        "La cabecera CSV debe incluir las columnas " + String.join(", ", CSV_COLUMNS)));
+            }
+            return all.skip(1)
+                    .filter(line -> !line.getT2().isBlank())
+                    .map(line -> csvRow(line.getT1() + 1, line.getT2(), columns));
+        });
+    }
+
+    private static Map<String, Integer> header(String line) {
+        List<String> names = fields(line.startsWith(UTF8_BOM) ? line.substring(1) : line);
+        Map<String, Integer> columns = new HashMap<>();
+        if (names != null) {
+            for (int i = 0; i < names.size(); i++) {
+                columns.putIfAbsent(names.get(i).trim(), i);
+            }
+        }
+        return columns;
+    }
+
+    private static ProductImportRow csvRow(long number, String line, Map<String, Integer> columns) {
+        List<String> fields = fields(line);
+        if (fields == null) {
+            return ProductImportRow.invalid(number, "La línea tiene comillas sin cerrar");
+        }
+        String stock = field(fields, columns.get(STOCK));
+        Integer parsedStock = null;
+        if (stock != null && !stock.isBlank()) {
+            try {
+                parsedStock = Integer.valueOf(stock.trim());
+            } catch (NumberFormatException error) {
+                return ProductImportRow.invalid(number, "El stock debe ser un número entero");
+            }
+        }
+        return ProductImportRow.builder()
+                .line(number)
+                .branchId(field(fields, columns.get(BRANCH_ID)))
+                .name(field(fields, columns.get(NAME)))
+                .stock(parsedStock)
+                .build();
+    }
+
+    private static String field(List<String> fields, int index) {
+        return index < fields.size() ? fields.get(index) : null;
+    }
+
+    // "" dentro de un valor entre comillas es una comilla literal; null si quedan comillas sin cerrar
+    private static List<String> fields(String line) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        int i = 0;
+        while (i < line.length()) {
+            char c = line.charAt(i++);
+            if (quoted && c == '"' && i < line.length() && line.charAt(i) == '"') {
+                field.append('"');
+                i++;
+            } else if (c == '"') {
+                quoted = !quoted;
+            } else if (c == ',' && !quoted) {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        if (quoted) {
+            return null;
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+}
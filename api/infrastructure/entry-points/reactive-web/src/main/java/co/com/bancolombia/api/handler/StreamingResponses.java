@@ -0,0 +1,37 @@
+package co.com.bancolombia.api.handler;
+
+import org.springframework.http.MediaType;
+import org.springframework.web.reactive.function.server.ServerRequest;
+import org.springframework.web.reactive.function.server.ServerResponse;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+import java.util.Optional;
+
+// Negociación de contenido para listados: si el cliente pide application/x-ndjson o text/event-stream
+// explícitamente en Accept, los items se escriben a medida que llegan del paginador de DynamoDB y la
+// demanda del cliente se propaga hasta el Scan/Query. Sin esos tipos se mantiene el arreglo JSON
+final class StreamingResponses {
+    
+    private static final List<MediaType> STREAMING_TYPES = List.of(MediaType.APPLICATION_NDJSON, MediaType.TEXT_EVENT_STREAM);
+    
+    private StreamingResponses() {
+    }
+    
+    static Optional<MediaType> streamingType(ServerRequest request) {
+        // */* es compatible con todo: solo cuenta el tipo pedido por nombre, en el orden del header
+        return request.headers().accept().stream()
+                .flatMap(accepted -> STREAMING_TYPES.stream().filter(accepted::equalsTypeAndSubtype))
+                .findFirst();
+    }
+    
+    static <T> Mono<ServerResponse> respond(ServerRequest request, Flux<T> items, Class<T> type) {
+        return streamingType(request)
+                .map(mediaType -> ServerResponse.ok()
+                        .contentType(mediaType)
+                        .body(items, type))
+                .orElseGet(() -> items.collectList()
+                        .flatMap(list -> ServerResponse.ok().bodyValue(list)));
+    }
+}
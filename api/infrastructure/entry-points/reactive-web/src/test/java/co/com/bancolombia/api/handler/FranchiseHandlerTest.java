@@ -2,22 +2,33 @@ package co.com.bancolombia.api.handler;
 
 import co.com.bancolombia.api.dto.CreateFranchiseRequest;
 import co.com.bancolombia.model.franchise.Franchise;
+import co.com.bancolombia.model.franchise.FranchiseDeletionJob;
+import co.com.bancolombia.model.franchise.FranchiseStats;
+import co.com.bancolombia.model.franchise.Page;
 import co.com.bancolombia.usecase.franchise.CreateFranchiseUseCase;
+import co.com.bancolombia.usecase.franchise.DeleteFranchiseUseCase;
 import co.com.bancolombia.usecase.franchise.GetAllFranchisesUseCase;
+import co.com.bancolombia.usecase.franchise.GetFranchiseStatsUseCase;
 import co.com.bancolombia.usecase.franchise.UpdateFranchiseNameUseCase;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.mock.web.reactive.function.server.MockServerRequest;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 import reactor.test.StepVerifier;
 
 import java.time.LocalDateTime;
+import java.util.List;
 
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
@@ -32,6 +43,12 @@ class FranchiseHandlerTest {
     @Mock
     private UpdateFranchiseNameUseCase updateFranchiseNameUseCase;
 
+    @Mock
+    private GetFranchiseStatsUseCase getFranchiseStatsUseCase;
+
+    @Mock
+    private DeleteFranchiseUseCase deleteFranchiseUseCase;
+
     private FranchiseHandler franchiseHandler;
 
     @BeforeEach
@@ -39,7 +56,9 @@ class FranchiseHandlerTest {
         franchiseHandler = new FranchiseHandler(
             createFranchiseUseCase, 
             getAllFranchisesUseCase, 
-            updateFranchiseNameUseCase
+            updateFranchiseNameUseCase,
+            getFranchiseStatsUseCase,
+            deleteFranchiseUseCase
         );
     }
 
@@ -84,9 +103,159 @@ class FranchiseHandlerTest {
         when(getAllFranchisesUseCase.execute())
                 .thenReturn(Flux.just(franchise1));
 
+        // When & Then - Sin limit ni cursor: la colección completa con X-Total-Count, como antes de paginar
+        StepVerifier.create(franchiseHandler.getAllFranchises(serverRequest))
+                .expectNextMatches(response -> response.statusCode().is2xxSuccessful()
+                        && "1".equals(response.headers().getFirst(PageParams.TOTAL_COUNT_HEADER))
+                        && response.headers().getFirst(PageParams.NEXT_CURSOR_HEADER) == null)
+                .verifyComplete();
+
+        verify(getAllFranchisesUseCase, never()).execute(any(), any());
+    }
+
+    @Test
+    void shouldOmitNextCursorOnLastPage() {
+        // Given
+        Franchise franchise1 = Franchise.builder()
+                .id("franchise-1")
+                .name("Franchise 1")
+                .build();
+
+        MockServerRequest serverRequest = MockServerRequest.builder()
+                .queryParam("limit", "10")
+                .build();
+
+        when(getAllFranchisesUseCase.execute(10, null))
+                .thenReturn(Mono.just(Page.of(List.of(franchise1), null)));
+
         // When & Then
         StepVerifier.create(franchiseHandler.getAllFranchises(serverRequest))
+                .expectNextMatches(response -> response.statusCode().is2xxSuccessful()
+                        && response.headers().getFirst(PageParams.NEXT_CURSOR_HEADER) == null)
+                .verifyComplete();
+    }
+
+    @Test
+    void shouldPassLimitAndCursorAndReturnNextCursorHeader() {
+        // Given
+        Franchise franchise1 = Franchise.builder()
+                .id("franchise-1")
+                .name("Franchise 1")
+                .createdAt(LocalDateTime.now())
+                .updatedAt(LocalDateTime.now())
+                .build();
+
+        MockServerRequest serverRequest = MockServerRequest.builder()
+                .queryParam("limit", "10")
+                .queryParam("cursor", "cursor-1")
+                .build();
+
+        when(getAllFranchisesUseCase.execute(10, "cursor-1"))
+                .thenReturn(Mono.just(Page.of(List.of(franchise1), "cursor-2")));
+
+        // When & Then
+        StepVerifier.create(franchiseHandler.getAllFranchises(serverRequest))
+                .expectNextMatches(response -> response.statusCode().is2xxSuccessful()
+                        && "cursor-2".equals(response.headers().getFirst(PageParams.NEXT_CURSOR_HEADER)))
+                .verifyComplete();
+    }
+
+    @Test
+    void shouldRejectNonNumericLimit() {
+        // Given
+        MockServerRequest serverRequest = MockServerRequest.builder()
+                .queryParam("limit", "abc")
+                .build();
+
+        // When & Then
+        StepVerifier.create(franchiseHandler.getAllFranchises(serverRequest))
+                .expectError(IllegalArgumentException.class)
+                .verify();
+    }
+
+    @Test
+    void shouldStreamAllFranchisesWhenNdjsonIsRequested() {
+        // Given
+        Franchise franchise1 = Franchise.builder()
+                .id("franchise-1")
+                .name("Franchise 1")
+                .createdAt(LocalDateTime.now())
+                .updatedAt(LocalDateTime.now())
+                .build();
+
+        MockServerRequest serverRequest = MockServerRequest.builder()
+                .header(HttpHeaders.ACCEPT, MediaType.APPLICATION_NDJSON_VALUE)
+                .build();
+
+        when(getAllFranchisesUseCase.execute())
+                .thenReturn(Flux.just(franchise1));
+
+        // When & Then - En streaming no se pagina
+        StepVerifier.create(franchiseHandler.getAllFranchises(serverRequest))
+                .expectNextMatches(response -> response.statusCode().is2xxSuccessful()
+                        && MediaType.APPLICATION_NDJSON.equals(response.headers().getContentType()))
+                .verifyComplete();
+    }
+
+    @Test
+    void shouldGetFranchiseStatsSuccessfully() {
+        // Given
+        FranchiseStats stats = FranchiseStats.builder()
+                .franchiseId("franchise-1")
+                .branchCount(2)
+                .productCount(5)
+                .totalStock(340)
+                .build();
+
+        MockServerRequest serverRequest = MockServerRequest.builder()
+                .pathVariable("id", "franchise-1")
+                .build();
+
+        when(getFranchiseStatsUseCase.execute("franchise-1"))
+                .thenReturn(Mono.just(stats));
+
+        // When & Then
+        StepVerifier.create(franchiseHandler.getFranchiseStats(serverRequest))
                 .expectNextMatches(response -> response.statusCode().is2xxSuccessful())
                 .verifyComplete();
     }
+
+    @Test
+    void shouldAcceptFranchiseDeletion() {
+        // Given
+        MockServerRequest serverRequest = MockServerRequest.builder()
+                .pathVariable("id", "franchise-1")
+                .build();
+
+        FranchiseDeletionJob started = FranchiseDeletionJob.start("franchise-1");
+        when(deleteFranchiseUseCase.start("franchise-1")).thenReturn(Mono.just(started));
+        when(deleteFranchiseUseCase.run(started)).thenReturn(Mono.just(started.completed()));
+
+        // When & Then - El borrado sigue en segundo plano: 202 con la URL de su estado
+        StepVerifier.create(franchiseHandler.deleteFranchise(serverRequest))
+                .expectNextMatches(response -> response.statusCode().value() == 202
+                        && "/api/franchises/franchise-1/deletion".equals(String.valueOf(response.headers().getLocation())))
+                .verifyComplete();
+
+        verify(deleteFranchiseUseCase).run(started);
+    }
+
+    @Test
+    void shouldReturnRunningDeletionInsteadOfStartingAnother() {
+        // Given - Otra ejecución ya tiene el job
+        MockServerRequest serverRequest = MockServerRequest.builder()
+                .pathVariable("id", "franchise-1")
+                .build();
+
+        when(deleteFranchiseUseCase.start("franchise-1")).thenReturn(Mono.empty());
+        when(deleteFranchiseUseCase.status("franchise-1"))
+                .thenReturn(Mono.just(FranchiseDeletionJob.start("franchise-1").progress(100)));
+
+        // When & Then
+        StepVerifier.create(franchiseHandler.deleteFranchise(serverRequest))
+                .expectNextMatches(response -> response.statusCode().value() == 202)
+                .verifyComplete();
+
+        verify(deleteFranchiseUseCase, never()).run(any());
+    }
 }
@@ -0,0 +1,304 @@
+package co.com.bancolombia.api.handler;
+
+import co.com.bancolombia.api.dto.InventoryRecordResponse;
+import io.netty.buffer.UnpooledByteBufAllocator;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.core.io.buffer.NettyDataBuffer;
+import org.springframework.core.io.buffer.NettyDataBufferFactory;
+import reactor.core.publisher.Flux;
+import reactor.test.StepVerifier;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.IntStream;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class InventoryExportWriterTest {
+
+    private static final String CSV_HEADER = "type,id,franchiseId,branchId,name,stock,storageStrategy,updatedAt\n";
+    private static final LocalDateTime UPDATED_AT = LocalDateTime.of(2026, 1, 12, 20, 0, 30);
+
+    private JsonMapper jsonMapper;
+    private TrackingBufferFactory bufferFactory;
+
+    @BeforeEach
+    void setUp() {
+        jsonMapper = JsonMapper.builder().build();
+        bufferFactory = new TrackingBufferFactory();
+    }
+
+    private static InventoryRecordResponse franchise(String id, String name) {
+        return InventoryRecordResponse.builder()
+                .type("FRANCHISE")
+                .id(id)
+                .name(name)
+                .updatedAt(UPDATED_AT)
+                .build();
+    }
+
+    private static InventoryRecordResponse product(int index) {
+        return InventoryRecordResponse.builder()
+                .type("PRODUCT")
+                .id("product-" + index)
+                .franchiseId("franchise-1")
+                .branchId("branch-1")
+                .name("Product " + index)
+                .stock(index)
+                .build();
+    }
+
+    private static List<InventoryRecordResponse> products(int count) {
+        return IntStream.range(0, count).mapToObj(InventoryExportWriterTest::product).toList();
+    }
+
+    private List<DataBuffer> export(List<InventoryRecordResponse> records, InventoryExportWriter.Format format, boolean gzip) {
+        List<DataBuffer> buffers = InventoryExportWriter.write(Flux.fromIterable(records), format, gzip,
+                bufferFactory, jsonMapper).collectList().block();
+        return buffers != null ? buffers : List.of();
+    }
+
+    // Concatena y libera los buffers, como haría el servidor al escribirlos
+    private static byte[] concat(List<DataBuffer> buffers) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        for (DataBuffer buffer : buffers) {
+            byte[] bytes = new byte[buffer.readableByteCount()];
+            buffer.read(bytes);
+            out.writeBytes(bytes);
+            DataBufferUtils.release(buffer);
+        }
+        return out.toByteArray();
+    }
+
+    private static String gunzip(byte[] compressed) {
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(compressed))) {
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        } catch (IOException error) {
+            throw new UncheckedIOException(error);
+        }
+    }
+
+    private static String csvLine(InventoryRecordResponse product) {
+        return "PRODUCT," + product.getId() + ",franchise-1,branch-1," + product.getName() + "," + product.getStock() + ",,\n";
+    }
+
+    @Test
+    void shouldWriteCsvWithHeaderAndOneLinePerRecord() {
+        // Given
+        List<InventoryRecordResponse> records = List.of(franchise("franchise-1", "Franchise 1"), product(7));
+
+        // When
+        String csv = new String(concat(export(records, InventoryExportWriter.Format.CSV, false)), StandardCharsets.UTF_8);
+
+        // Then
+        assertEquals(CSV_HEADER
+                + "FRANCHISE,franchise-1,,,Franchise 1,,,2026-01-12T20:00:30\n"
+                + "PRODUCT,product-7,franchise-1,branch-1,Product 7,7,,\n", csv);
+    }
+
+    @Test
+    void shouldQuoteCsvFieldsWithSeparatorsQuotesOrLineBreaks() {
+        // Given
+        List<InventoryRecordResponse> records = List.of(
+                franchise("f-1", "Pollo, papas y gaseosa"),
+                franchise("f-2", "El \"mejor\" sabor"),
+                franchise("f-3", "Línea 1\nLínea 2"),
+                franchise("f-4", "Retorno\r"));
+
+        // When
+        String csv = new String(concat(export(records, InventoryExportWriter.Format.CSV, false)), StandardCharsets.UTF_8);
+
+        // Then
+        assertEquals(CSV_HEADER
+                + "FRANCHISE,f-1,,,\"Pollo, papas y gaseosa\",,,2026-01-12T20:00:30\n"
+                + "FRANCHISE,f-2,,,\"El \"\"mejor\"\" sabor\",,,2026-01-12T20:00:30\n"
+                + "FRANCHISE,f-3,,,\"Línea 1\nLínea 2\",,,2026-01-12T20:00:30\n"
+                + "FRANCHISE,f-4,,,\"Retorno\r\",,,2026-01-12T20:00:30\n", csv);
+    }
+
+    @Test
+    void shouldWriteCsvHeaderWhenThereAreNoRecords() {
+        // When
+        List<DataBuffer> plain = export(List.of(), InventoryExportWriter.Format.CSV, false);
+        List<DataBuffer> compressed = export(List.of(), InventoryExportWriter.Format.CSV, true);
+
+        // Then
+        assertEquals(1, plain.size());
+        assertEquals(CSV_HEADER, new String(concat(plain), StandardCharsets.UTF_8));
+        assertEquals(CSV_HEADER, gunzip(concat(compressed)));
+    }
+
+    @Test
+    void shouldWriteNothingButAValidGzipStreamForEmptyNdjson() {
+        // When
+        List<DataBuffer> plain = export(List.of(), InventoryExportWriter.Format.NDJSON, false);
+        List<DataBuffer> compressed = export(List.of(), InventoryExportWriter.Format.NDJSON, true);
+
+        // Then
+        assertEquals(0, concat(plain).length);
+        assertEquals("", gunzip(concat(compressed)));
+    }
+
+    @Test
+    void shouldWriteOneJsonObjectPerLine() {
+        // Given
+        List<InventoryRecordResponse> records = List.of(franchise("franchise-1", "Franchise \"1\""), product(3));
+
+        // When
+        String ndjson = new String(concat(export(records, InventoryExportWriter.Format.NDJSON, false)), StandardCharsets.UTF_8);
+
+        // Then
+        assertTrue(ndjson.endsWith("\n"));
+        List<InventoryRecordResponse> parsed = Arrays.stream(ndjson.split("\n"))
+                .map(line -> jsonMapper.readValue(line, InventoryRecordResponse.class))
+                .toList();
+        assertEquals(records, parsed);
+    }
+
+    @Test
+    void shouldGzipCsvAcrossBuffersIntoASingleStream() {
+        // Given - 1.200 filas: tres lotes de hasta 500 más el trailer
+        List<InventoryRecordResponse> records = products(1200);
+        StringBuilder expected = new StringBuilder(CSV_HEADER);
+        records.forEach(record -> expected.append(csvLine(record)));
+
+        // When
+        List<DataBuffer> buffers = export(records, InventoryExportWriter.Format.CSV, true);
+
+        // Then
+        assertEquals(4, buffers.size());
+        assertEquals(expected.toString(), gunzip(concat(buffers)));
+    }
+
+    @Test
+    void shouldGzipNdjsonToTheSameBytesAsThePlainOutput() {
+        // Given
+        List<InventoryRecordResponse> records = products(750);
+
+        // When
+        byte[] plain = concat(export(records, InventoryExportWriter.Format.NDJSON, false));
+        String compressed = gunzip(concat(export(records, InventoryExportWriter.Format.NDJSON, true)));
+
+        // Then
+        assertEquals(new String(plain, StandardCharsets.UTF_8), compressed);
+    }
+
+    @Test
+    void shouldEmitEachCompressedBufferWithoutWaitingForTheRest() {
+        // Given - Cada lote se vacía con SYNC_FLUSH: el primer buffer se descomprime solo hasta sus filas
+        List<InventoryRecordResponse> records = products(600);
+
+        // When
+        List<DataBuffer> buffers = export(records, InventoryExportWriter.Format.CSV, true);
+        DataBuffer first = buffers.getFirst();
+        byte[] firstBytes = new byte[first.readableByteCount()];
+        first.read(firstBytes);
+        concat(buffers);
+
+        // Then
+        StringBuilder expected = new StringBuilder(CSV_HEADER);
+        records.subList(0, 500).forEach(record -> expected.append(csvLine(record)));
+        assertEquals(expected.toString(), inflatePartial(firstBytes));
+    }
+
+    // GZIPInputStream falla al no encontrar el trailer: se lee lo que haya antes del fin de los datos
+    private static String inflatePartial(byte[] compressed) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(compressed))) {
+            byte[] chunk = new byte[8192];
+            int read;
+            while ((read = in.read(chunk)) > 0) {
+                out.write(chunk, 0, read);
+            }
+        } catch (IOException endOfData) {
+            // Sin trailer: esperado
+        }
+        return out.toString(StandardCharsets.UTF_8);
+    }
+
+    @Test
+    void shouldReleaseBuffersWhenClientCancels() {
+        // Given
+        Flux<InventoryRecordResponse> records = Flux.fromIterable(products(2000));
+
+        // When & Then
+        StepVerifier.create(InventoryExportWriter.write(records, InventoryExportWriter.Format.CSV, true,
+                        bufferFactory, jsonMapper), 1)
+                .consumeNextWith(DataBufferUtils::release)
+                .thenCancel()
+                .verify();
+
+        assertFalse(bufferFactory.allocated.isEmpty());
+        assertTrue(bufferFactory.allReleased());
+    }
+
+    @Test
+    void shouldReleaseBuffersWhenScanFails() {
+        // Given
+        Flux<InventoryRecordResponse> records = Flux.concat(
+                Flux.fromIterable(products(500)),
+                Flux.error(new IllegalStateException("Scan interrumpido")));
+
+        // When & Then
+        StepVerifier.create(InventoryExportWriter.write(records, InventoryExportWriter.Format.NDJSON, true,
+                        bufferFactory, jsonMapper))
+                .consumeNextWith(DataBufferUtils::release)
+                .expectErrorMessage("Scan interrumpido")
+                .verify();
+
+        assertTrue(bufferFactory.allReleased());
+    }
+
+    @Test
+    void shouldReleaseTheBufferBeingFilledWhenSerializationFails() {
+        // Given
+        JsonMapper failingMapper = mock(JsonMapper.class);
+        when(failingMapper.writeValueAsBytes(any())).thenThrow(new IllegalStateException("No serializable"));
+
+        // When & Then
+        StepVerifier.create(InventoryExportWriter.write(Flux.just(product(1)), InventoryExportWriter.Format.NDJSON,
+                        false, bufferFactory, failingMapper))
+                .expectErrorMessage("No serializable")
+                .verify();
+
+        assertEquals(1, bufferFactory.allocated.size());
+        assertTrue(bufferFactory.allReleased());
+    }
+
+    // Buffers Netty con contador de referencias: permite comprobar que ninguno queda sin liberar
+    private static final class TrackingBufferFactory extends NettyDataBufferFactory {
+        private final List<NettyDataBuffer> allocated = new ArrayList<>();
+
+        private TrackingBufferFactory() {
+            super(UnpooledByteBufAllocator.DEFAULT);
+        }
+
+        @Override
+        public NettyDataBuffer allocateBuffer(int initialCapacity) {
+            NettyDataBuffer buffer = super.allocateBuffer(initialCapacity);
+            allocated.add(buffer);
+            return buffer;
+        }
+
+        private boolean allReleased() {
+            return allocated.stream().allMatch(buffer -> buffer.getNativeBuffer().refCnt() == 0);
+        }
+    }
+}
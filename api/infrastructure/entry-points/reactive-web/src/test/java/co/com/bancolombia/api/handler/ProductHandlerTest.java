@@ -0,0 +1,184 @@
+package co.com.bancolombia.api.handler;
+
+import co.com.bancolombia.api.dto.AdjustProductStockRequest;
+import co.com.bancolombia.api.exception.GlobalExceptionHandler;
+import co.com.bancolombia.model.franchise.Product;
+import co.com.bancolombia.model.franchise.ThrottledException;
+import co.com.bancolombia.usecase.product.AdjustProductStockUseCase;
+import co.com.bancolombia.usecase.product.CreateProductUseCase;
+import co.com.bancolombia.usecase.product.DeleteProductUseCase;
+import co.com.bancolombia.usecase.product.GetProductByIdUseCase;
+import co.com.bancolombia.usecase.product.GetProductsByBranchUseCase;
+import co.com.bancolombia.usecase.product.GetTopStockProductByBranchWithBranchNameUseCase;
+import co.com.bancolombia.usecase.product.GetTopStockProductsUseCase;
+import co.com.bancolombia.usecase.product.ImportProductsUseCase;
+import co.com.bancolombia.usecase.product.UpdateProductNameUseCase;
+import co.com.bancolombia.usecase.product.UpdateProductStockUseCase;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.ServerCodecConfigurer;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import org.springframework.web.reactive.function.server.HandlerStrategies;
+import org.springframework.web.reactive.function.server.RouterFunctions;
+import reactor.core.publisher.Mono;
+import tools.jackson.databind.json.JsonMapper;
+
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ProductHandlerTest {
+
+    @Mock
+    private CreateProductUseCase createProductUseCase;
+
+    @Mock
+    private GetProductsByBranchUseCase getProductsByBranchUseCase;
+
+    @Mock
+    private GetProductByIdUseCase getProductByIdUseCase;
+
+    @Mock
+    private DeleteProductUseCase deleteProductUseCase;
+
+    @Mock
+    private GetTopStockProductsUseCase getTopStockProductsUseCase;
+
+    @Mock
+    private GetTopStockProductByBranchWithBranchNameUseCase getTopStockProductByBranchWithBranchNameUseCase;
+
+    @Mock
+    private UpdateProductNameUseCase updateProductNameUseCase;
+
+    @Mock
+    private UpdateProductStockUseCase updateProductStockUseCase;
+
+    @Mock
+    private AdjustProductStockUseCase adjustProductStockUseCase;
+
+    @Mock
+    private ImportProductsUseCase importProductsUseCase;
+
+    private WebTestClient webTestClient;
+
+    @BeforeEach
+    void setUp() {
+        ProductHandler productHandler = new ProductHandler(
+            createProductUseCase,
+            getProductsByBranchUseCase,
+            getProductByIdUseCase,
+            deleteProductUseCase,
+            getTopStockProductsUseCase,
+            getTopStockProductByBranchWithBranchNameUseCase,
+            updateProductNameUseCase,
+            updateProductStockUseCase,
+            adjustProductStockUseCase,
+            importProductsUseCase,
+            JsonMapper.builder().build()
+        );
+        // Mismo manejo de errores que en la aplicación: las rutas funcionales pasan por el WebExceptionHandler
+        webTestClient = WebTestClient
+                .bindToRouterFunction(RouterFunctions.route()
+                        .POST("/api/products/{id}/stock/adjust", productHandler::adjustProductStock)
+                        .build())
+                .handlerStrategies(HandlerStrategies.builder()
+                        .exceptionHandler(new GlobalExceptionHandler(ServerCodecConfigurer.create()))
+                        .build())
+                .build();
+    }
+
+    @Test
+    void shouldAdjustProductStockSuccessfully() {
+        // Given
+        Product product = Product.builder()
+                .id("product-1")
+                .name("Product 1")
+                .stock(15)
+                .branchId("branch-1")
+                .build();
+
+        when(adjustProductStockUseCase.execute("product-1", 5))
+                .thenReturn(Mono.just(product));
+
+        // When & Then
+        webTestClient.post()
+                .uri("/api/products/product-1/stock/adjust")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(AdjustProductStockRequest.builder().delta(5).build())
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.stock").isEqualTo(15);
+    }
+
+    @Test
+    void shouldReturnConflictWhenStockIsInsufficient() {
+        // Given
+        when(adjustProductStockUseCase.execute("product-1", -20))
+                .thenReturn(Mono.error(new IllegalStateException("Stock insuficiente para el producto product-1")));
+
+        // When & Then
+        webTestClient.post()
+                .uri("/api/products/product-1/stock/adjust")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(AdjustProductStockRequest.builder().delta(-20).build())
+                .exchange()
+                .expectStatus().isEqualTo(HttpStatus.CONFLICT)
+                .expectBody()
+                .jsonPath("$.status").isEqualTo(409)
+                .jsonPath("$.message").isEqualTo("Stock insuficiente para el producto product-1");
+    }
+
+    @Test
+    void shouldReturnBadRequestWhenDeltaIsInvalid() {
+        // Given
+        when(adjustProductStockUseCase.execute("product-1", 0))
+                .thenReturn(Mono.error(new IllegalArgumentException("El ajuste de stock debe ser distinto de 0")));
+
+        // When & Then
+        webTestClient.post()
+                .uri("/api/products/product-1/stock/adjust")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(AdjustProductStockRequest.builder().delta(0).build())
+                .exchange()
+                .expectStatus().isBadRequest();
+    }
+
+    @Test
+    void shouldReturnNotFoundWhenProductDoesNotExist() {
+        // Given
+        when(adjustProductStockUseCase.execute("missing", 5))
+                .thenReturn(Mono.error(new RuntimeException("Product not found")));
+
+        // When & Then
+        webTestClient.post()
+                .uri("/api/products/missing/stock/adjust")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(AdjustProductStockRequest.builder().delta(5).build())
+                .exchange()
+                .expectStatus().isNotFound();
+    }
+
+    @Test
+    void shouldReturnServiceUnavailableWithRetryAfterWhenThrottled() {
+        // Given
+        when(adjustProductStockUseCase.execute("product-1", 5))
+                .thenReturn(Mono.error(new ThrottledException("DynamoDB throttled: products UpdateItem", null)));
+
+        // When & Then
+        webTestClient.post()
+                .uri("/api/products/product-1/stock/adjust")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(AdjustProductStockRequest.builder().delta(5).build())
+                .exchange()
+                .expectStatus().isEqualTo(HttpStatus.SERVICE_UNAVAILABLE)
+                .expectHeader().valueEquals(HttpHeaders.RETRY_AFTER, "1")
+                .expectBody()
+                .jsonPath("$.status").isEqualTo(503);
+    }
+}
@@ -0,0 +1,156 @@
+package co.com.bancolombia.api.handler;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import org.springframework.web.reactive.function.server.RouterFunctions;
+import reactor.core.publisher.Flux;
+import reactor.test.StepVerifier;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class StreamingResponsesTest {
+
+    private static final String NDJSON_BODY = "{\"id\":\"1\",\"stock\":10}\n{\"id\":\"2\",\"stock\":20}\n";
+    private static final String SSE_BODY = "data:{\"id\":\"1\",\"stock\":10}\n\ndata:{\"id\":\"2\",\"stock\":20}\n\n";
+    private static final String JSON_BODY = "[{\"id\":\"1\",\"stock\":10},{\"id\":\"2\",\"stock\":20}]";
+
+    record Item(String id, int stock) {
+    }
+
+    private Flux<Item> items;
+    private WebTestClient webTestClient;
+
+    @BeforeEach
+    void setUp() {
+        items = Flux.just(new Item("1", 10), new Item("2", 20));
+        webTestClient = WebTestClient
+                .bindToRouterFunction(RouterFunctions.route()
+                        .GET("/items", request -> StreamingResponses.respond(request, items, Item.class))
+                        .build())
+                .build();
+    }
+
+    private WebTestClient.ResponseSpec get(String accept) {
+        WebTestClient.RequestHeadersSpec<?> request = webTestClient.get().uri("/items");
+        if (accept != null) {
+            request = request.header(HttpHeaders.ACCEPT, accept);
+        }
+        return request.exchange();
+    }
+
+    private static String body(WebTestClient.ResponseSpec response) {
+        byte[] content = response.expectBody().returnResult().getResponseBody();
+        return content == null ? "" : new String(content, StandardCharsets.UTF_8);
+    }
+
+    @Test
+    void shouldWriteOneJsonObjectPerLineWhenNdjsonIsRequested() {
+        // When
+        WebTestClient.ResponseSpec response = get(MediaType.APPLICATION_NDJSON_VALUE)
+                .expectStatus().isOk()
+                .expectHeader().contentType(MediaType.APPLICATION_NDJSON);
+
+        // Then
+        assertEquals(NDJSON_BODY, body(response));
+    }
+
+    @Test
+    void shouldWriteOneEventPerItemWhenEventStreamIsRequested() {
+        // When
+        WebTestClient.ResponseSpec response = get(MediaType.TEXT_EVENT_STREAM_VALUE)
+                .expectStatus().isOk()
+                .expectHeader().contentTypeCompatibleWith(MediaType.TEXT_EVENT_STREAM);
+
+        // Then
+        assertEquals(SSE_BODY, body(response));
+    }
+
+    @Test
+    void shouldFallBackToJsonArrayWithoutAcceptHeader() {
+        // When
+        WebTestClient.ResponseSpec response = get(null)
+                .expectStatus().isOk()
+                .expectHeader().contentType(MediaType.APPLICATION_JSON);
+
+        // Then
+        assertEquals(JSON_BODY, body(response));
+    }
+
+    @Test
+    void shouldFallBackToJsonArrayWhenJsonIsRequested() {
+        // When
+        WebTestClient.ResponseSpec response = get(MediaType.APPLICATION_JSON_VALUE)
+                .expectStatus().isOk()
+                .expectHeader().contentType(MediaType.APPLICATION_JSON);
+
+        // Then
+        assertEquals(JSON_BODY, body(response));
+    }
+
+    @Test
+    void shouldNotStreamForWildcardAccept() {
+        // When - */* también acepta NDJSON, pero solo cuenta el tipo pedido por nombre
+        WebTestClient.ResponseSpec response = get(MediaType.ALL_VALUE)
+                .expectStatus().isOk()
+                .expectHeader().contentType(MediaType.APPLICATION_JSON);
+
+        // Then
+        assertEquals(JSON_BODY, body(response));
+    }
+
+    @Test
+    void shouldStreamWhenStreamingTypeIsListedAfterJson() {
+        // When
+        WebTestClient.ResponseSpec response = get(MediaType.APPLICATION_JSON_VALUE + ", " + MediaType.APPLICATION_NDJSON_VALUE)
+                .expectStatus().isOk()
+                .expectHeader().contentType(MediaType.APPLICATION_NDJSON);
+
+        // Then
+        assertEquals(NDJSON_BODY, body(response));
+    }
+
+    @Test
+    void shouldUseFirstStreamingTypeInHeaderOrder() {
+        // When
+        WebTestClient.ResponseSpec response = get(MediaType.TEXT_EVENT_STREAM_VALUE + ", " + MediaType.APPLICATION_NDJSON_VALUE)
+                .expectStatus().isOk()
+                .expectHeader().contentTypeCompatibleWith(MediaType.TEXT_EVENT_STREAM);
+
+        // Then
+        assertEquals(SSE_BODY, body(response));
+    }
+
+    @Test
+    void shouldWriteJsonEmptyArrayWhenThereAreNoItems() {
+        // Given
+        items = Flux.empty();
+
+        // When
+        WebTestClient.ResponseSpec response = get(null)
+                .expectStatus().isOk();
+
+        // Then
+        assertEquals("[]", body(response));
+    }
+
+    @Test
+    void shouldWriteItemsBeforeSourceCompletesWhenStreaming() {
+        // Given - Una fuente que no termina: el arreglo JSON nunca se escribiría
+        items = Flux.concat(Flux.just(new Item("1", 10)), Flux.never());
+
+        // When & Then
+        StepVerifier.create(get(MediaType.APPLICATION_NDJSON_VALUE)
+                        .expectStatus().isOk()
+                        .returnResult(Item.class)
+                        .getResponseBody())
+                .expectNext(new Item("1", 10))
+                .thenCancel()
+                .verify(Duration.ofSeconds(5));
+    }
+}
@@ -14,6 +14,10 @@ data "aws_dynamodb_table" "productos" {
   name = "business-productos-${var.env}"
 }
 
+data "aws_dynamodb_table" "estadisticas" {
+  name = "business-estadisticas-${var.env}"
+}
+
 data "aws_vpc" "main" {
   default = true
 }
@@ -407,6 +411,7 @@ resource "aws_iam_role_policy" "ecs_task_dynamodb" {
           data.aws_dynamodb_table.franquicias.arn,
           data.aws_dynamodb_table.sucursales.arn,
           data.aws_dynamodb_table.productos.arn,
+          data.aws_dynamodb_table.estadisticas.arn,
           "${data.aws_dynamodb_table.franquicias.arn}/index/*",
           "${data.aws_dynamodb_table.sucursales.arn}/index/*",
           "${data.aws_dynamodb_table.productos.arn}/index/*"
@@ -35,6 +35,12 @@ resource "aws_dynamodb_table" "franquicias" {
     projection_type = "ALL"
   }
 
+  # Jobs de borrado terminados (SK DELETION): expiran pasada aws.dynamodb.franchise-deletion.job-retention
+  ttl {
+    attribute_name = "expiresAt"
+    enabled        = true
+  }
+
   point_in_time_recovery {
     enabled = var.env == "prod" ? true : false
   }
@@ -79,10 +85,11 @@ resource "aws_dynamodb_table" "sucursales" {
     type = "S"
   }
 
+  # GSI1: Buscar sucursales por franquicia
   global_secondary_index {
     name            = "GSI1"
-    hash_key        = "GSI1PK"
-    range_key       = "GSI1SK"
+    hash_key        = "GSI1PK"  # franchiseId
+    range_key       = "GSI1SK"  # branchId
     projection_type = "ALL"
   }
 
@@ -126,27 +133,30 @@ resource "aws_dynamodb_table" "productos" {
   }
 
   attribute {
-    name = "GSI1SK"
+    name = "GSI2PK"
     type = "S"
   }
 
   attribute {
-    name = "GSI2PK"
-    type = "S"
+    name = "stock"
+    type = "N"
   }
 
-  # GSI1: Buscar productos por sucursal
+  # Cambiar la sort key recrea GSI1 y GSI2: seguir el despliegue de docs/data-model.md (backfill de GSI2PK
+  # con scripts/backfill-product-gsi2pk.sh)
+  # GSI1: Buscar productos por sucursal, ordenados por stock (top-N con ScanIndexForward=false)
   global_secondary_index {
     name            = "GSI1"
     hash_key        = "GSI1PK"  # branchId
-    range_key       = "GSI1SK"  # productId
+    range_key       = "stock"
     projection_type = "ALL"
   }
 
-  # GSI2: Buscar producto por ID
+  # GSI2: Buscar productos por franquicia, ordenados por stock
   global_secondary_index {
     name            = "GSI2"
-    hash_key        = "GSI2PK"  # productId
+    hash_key        = "GSI2PK"  # franchiseId
+    range_key       = "stock"
     projection_type = "ALL"
   }
 
@@ -166,3 +176,31 @@ resource "aws_dynamodb_table" "productos" {
     Environment = var.env
   })
 }
+
+# Tabla de contadores de inventario por franquicia: N items (shards) por franquicia con PK STATS#<franchiseId>#<shard>
+resource "aws_dynamodb_table" "estadisticas" {
+  name           = "business-estadisticas-${var.env}"
+  billing_mode   = "PAY_PER_REQUEST"
+  hash_key       = "PK"
+
+  attribute {
+    name = "PK"
+    type = "S"
+  }
+
+  point_in_time_recovery {
+    enabled = var.env == "prod" ? true : false
+  }
+
+  server_side_encryption {
+    enabled = true
+  }
+
+  tags = merge(var.tags, {
+    Name        = "business-estadisticas-${var.env}"
+    DataType    = "Estadisticas"
+    Module      = "transversal"
+    Capacity    = var.capacity
+    Environment = var.env
+  })
+}
@@ -31,12 +31,23 @@ output "productos_table_arn" {
   value       = aws_dynamodb_table.productos.arn
 }
 
+output "estadisticas_table_name" {
+  description = "Name of the estadisticas DynamoDB table"
+  value       = aws_dynamodb_table.estadisticas.name
+}
+
+output "estadisticas_table_arn" {
+  description = "ARN of the estadisticas DynamoDB table"
+  value       = aws_dynamodb_table.estadisticas.arn
+}
+
 output "all_table_arns" {
   description = "List of all DynamoDB table ARNs for IAM policies"
   value = [
     aws_dynamodb_table.franquicias.arn,
     aws_dynamodb_table.sucursales.arn,
     aws_dynamodb_table.productos.arn,
+    aws_dynamodb_table.estadisticas.arn,
     "${aws_dynamodb_table.franquicias.arn}/index/*",
     "${aws_dynamodb_table.sucursales.arn}/index/*",
     "${aws_dynamodb_table.productos.arn}/index/*"
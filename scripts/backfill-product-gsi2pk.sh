@@ -0,0 +1,60 @@
+#!/bin/bash
+
+# Backfill de GSI2PK en la tabla de productos
+# Los productos SEPARATED escritos antes de que GSI2 pasara a ordenar por stock no tienen GSI2PK y no aparecen en
+# el índice (top-N por franquicia y borrado de franquicias los pierden). Copia franchiseId a GSI2PK en cada item
+# METADATA que no lo tenga. Es idempotente: se puede relanzar hasta que no quede ninguno
+#
+# Uso: ./scripts/backfill-product-gsi2pk.sh <env> [endpoint]
+#   ./scripts/backfill-product-gsi2pk.sh dev
+#   ./scripts/backfill-product-gsi2pk.sh local http://localhost:4566
+
+set -e
+
+ENV=${1:?"Uso: $0 <env> [endpoint]"}
+TABLE_NAME="business-productos-$ENV"
+ENDPOINT_ARGS=()
+if [ -n "$2" ]; then
+    ENDPOINT_ARGS=(--endpoint-url "$2")
+fi
+
+echo "🔎 Buscando productos sin GSI2PK en $TABLE_NAME"
+
+UPDATED=0
+NEXT_TOKEN=""
+while true; do
+    PAGE_ARGS=()
+    if [ -n "$NEXT_TOKEN" ]; then
+        PAGE_ARGS=(--starting-token "$NEXT_TOKEN")
+    fi
+
+    PAGE=$(aws dynamodb scan "${ENDPOINT_ARGS[@]}" \
+        --table-name "$TABLE_NAME" \
+        --filter-expression "SK = :metadata AND attribute_not_exists(GSI2PK) AND attribute_exists(franchiseId)" \
+        --projection-expression "PK, SK, franchiseId" \
+        --expression-attribute-values '{":metadata": {"S": "METADATA"}}' \
+        --page-size 500 \
+        --max-items 500 \
+        "${PAGE_ARGS[@]}" \
+        --output json)
+
+    while read -r ITEM; do
+        [ -z "$ITEM" ] && continue
+        KEY=$(echo "$ITEM" | jq -c '{PK: .PK, SK: .SK}')
+        # Condicionado: si entre tanto la aplicación lo escribió (o borró el producto) no se toca
+        aws dynamodb update-item "${ENDPOINT_ARGS[@]}" \
+            --table-name "$TABLE_NAME" \
+            --key "$KEY" \
+            --update-expression "SET GSI2PK = franchiseId" \
+            --condition-expression "attribute_exists(PK) AND attribute_not_exists(GSI2PK)" \
+            > /dev/null 2>&1 || true
+        UPDATED=$((UPDATED + 1))
+    done < <(echo "$PAGE" | jq -c '.Items[]?')
+
+    NEXT_TOKEN=$(echo "$PAGE" | jq -r '.NextToken // empty')
+    if [ -z "$NEXT_TOKEN" ]; then
+        break
+    fi
+done
+
+echo "✅ Backfill completado: $UPDATED productos revisados"
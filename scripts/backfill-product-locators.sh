@@ -0,0 +1,72 @@
+#!/bin/bash
+
+# Backfill de LOCATOR en la tabla de productos
+# Los productos embebidos escritos antes de que existieran los LOCATOR (formato lista, y mapa si los hubiera) no
+# tienen el item PRODUCT#id / LOCATOR que los localiza: sin él GET/PUT/DELETE /api/products/{id} no los encuentra
+# (o, con embedded-products.locator-fallback-scan, recorren la tabla de sucursales). Escribe el LOCATOR de cada
+# producto embebido en el METADATA de cada sucursal. El formato empaquetado y los buckets son posteriores a los
+# LOCATOR y se omiten. Es idempotente: cada Put está condicionado a que el LOCATOR no exista
+#
+# Uso: ./scripts/backfill-product-locators.sh <env> [endpoint]
+#   ./scripts/backfill-product-locators.sh dev
+#   ./scripts/backfill-product-locators.sh local http://localhost:4566
+
+set -e
+
+ENV=${1:?"Uso: $0 <env> [endpoint]"}
+BRANCHES_TABLE="business-sucursales-$ENV"
+PRODUCTS_TABLE="business-productos-$ENV"
+ENDPOINT_ARGS=()
+if [ -n "$2" ]; then
+    ENDPOINT_ARGS=(--endpoint-url "$2")
+fi
+
+echo "🔎 Buscando productos embebidos en $BRANCHES_TABLE"
+
+CREATED=0
+NEXT_TOKEN=""
+while true; do
+    PAGE_ARGS=()
+    if [ -n "$NEXT_TOKEN" ]; then
+        PAGE_ARGS=(--starting-token "$NEXT_TOKEN")
+    fi
+
+    PAGE=$(aws dynamodb scan "${ENDPOINT_ARGS[@]}" \
+        --table-name "$BRANCHES_TABLE" \
+        --filter-expression "SK = :metadata AND (attribute_type(products, :list) OR attribute_type(products, :map))" \
+        --projection-expression "PK, products" \
+        --expression-attribute-values '{":metadata": {"S": "METADATA"}, ":list": {"S": "L"}, ":map": {"S": "M"}}' \
+        --page-size 100 \
+        --max-items 100 \
+        "${PAGE_ARGS[@]}" \
+        --output json)
+
+    # Una línea "branchId productId" por producto: la lista guarda el id en cada elemento, el mapa en la clave
+    while read -r BRANCH_ID PRODUCT_ID; do
+        [ -z "$PRODUCT_ID" ] && continue
+        ITEM=$(jq -cn --arg branch "$BRANCH_ID" --arg product "$PRODUCT_ID" '{
+            PK: {S: ("PRODUCT#" + $product)},
+            SK: {S: "LOCATOR"},
+            id: {S: $product},
+            branchId: {S: $branch},
+            storageStrategy: {S: "EMBEDDED"}
+        }')
+        if aws dynamodb put-item "${ENDPOINT_ARGS[@]}" \
+            --table-name "$PRODUCTS_TABLE" \
+            --item "$ITEM" \
+            --condition-expression "attribute_not_exists(PK)" \
+            > /dev/null 2>&1; then
+            CREATED=$((CREATED + 1))
+        fi
+    done < <(echo "$PAGE" | jq -r '.Items[]?
+        | (.PK.S | sub("^BRANCH#"; "")) as $branch
+        | (if .products.L then [.products.L[].M.id.S] else (.products.M | keys) end)[]
+        | "\($branch) \(.)"')
+
+    NEXT_TOKEN=$(echo "$PAGE" | jq -r '.NextToken // empty')
+    if [ -z "$NEXT_TOKEN" ]; then
+        break
+    fi
+done
+
+echo "✅ Backfill completado: $CREATED LOCATOR creados"
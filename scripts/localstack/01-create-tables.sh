@@ -20,10 +20,13 @@ delete_table_if_exists() {
 ENDPOINT="http://localhost:4566"
 
 # Función para crear tabla
+# Parámetros: nombre, hash key, range key, atributos de índices (opcional), definiciones de GSI (opcional)
 create_table() {
     local table_name=$1
     local hash_key=$2
     local range_key=$3
+    local index_attributes=$4
+    local indexes=$5
     
     echo "📋 Creando tabla: $table_name"
     
@@ -36,34 +39,49 @@ create_table() {
             --key-schema AttributeName=$hash_key,KeyType=HASH \
             --billing-mode PAY_PER_REQUEST
     else
-        # Tabla con hash key y range key
+        # Tabla con hash key, range key y GSIs
         aws dynamodb create-table \
             --endpoint-url $ENDPOINT \
             --table-name $table_name \
             --attribute-definitions \
                 AttributeName=$hash_key,AttributeType=S \
                 AttributeName=$range_key,AttributeType=S \
-                AttributeName=GSI1PK,AttributeType=S \
-                AttributeName=GSI2PK,AttributeType=S \
+                $index_attributes \
             --key-schema \
                 AttributeName=$hash_key,KeyType=HASH \
                 AttributeName=$range_key,KeyType=RANGE \
-            --global-secondary-indexes \
-                'IndexName=GSI1,KeySchema=[{AttributeName=GSI1PK,KeyType=HASH}],Projection={ProjectionType=ALL}' \
-                'IndexName=GSI2,KeySchema=[{AttributeName=GSI2PK,KeyType=HASH}],Projection={ProjectionType=ALL}' \
+            --global-secondary-indexes "$indexes" \
             --billing-mode PAY_PER_REQUEST
     fi
 }
 
+# GSI1: sucursales por franquicia
+BRANCH_INDEX_ATTRIBUTES="AttributeName=GSI1PK,AttributeType=S AttributeName=GSI1SK,AttributeType=S"
+BRANCH_INDEXES='[{"IndexName":"GSI1","KeySchema":[{"AttributeName":"GSI1PK","KeyType":"HASH"},{"AttributeName":"GSI1SK","KeyType":"RANGE"}],"Projection":{"ProjectionType":"ALL"}}]'
+
+# GSI1: productos por sucursal / GSI2: productos por franquicia, ambos ordenados por stock
+PRODUCT_INDEX_ATTRIBUTES="AttributeName=GSI1PK,AttributeType=S AttributeName=GSI2PK,AttributeType=S AttributeName=stock,AttributeType=N"
+PRODUCT_INDEXES='[{"IndexName":"GSI1","KeySchema":[{"AttributeName":"GSI1PK","KeyType":"HASH"},{"AttributeName":"stock","KeyType":"RANGE"}],"Projection":{"ProjectionType":"ALL"}},{"IndexName":"GSI2","KeySchema":[{"AttributeName":"GSI2PK","KeyType":"HASH"},{"AttributeName":"stock","KeyType":"RANGE"}],"Projection":{"ProjectionType":"ALL"}}]'
+
+# GSI1: reservado en franquicias (igual que en Terraform)
+FRANCHISE_INDEX_ATTRIBUTES="AttributeName=GSI1PK,AttributeType=S AttributeName=GSI1SK,AttributeType=S"
+FRANCHISE_INDEXES='[{"IndexName":"GSI1","KeySchema":[{"AttributeName":"GSI1PK","KeyType":"HASH"},{"AttributeName":"GSI1SK","KeyType":"RANGE"}],"Projection":{"ProjectionType":"ALL"}}]'
+
 # Eliminar tablas existentes
 delete_table_if_exists "business-franquicias-local"
 delete_table_if_exists "business-sucursales-local"
 delete_table_if_exists "business-productos-local"
+delete_table_if_exists "business-estadisticas-local"
 
 # Crear tablas con estructura PK+SK como en AWS
-create_table "business-franquicias-local" "PK" "SK"
-create_table "business-sucursales-local" "PK" "SK"  
-create_table "business-productos-local" "PK" "SK"
+create_table "business-franquicias-local" "PK" "SK" "$FRANCHISE_INDEX_ATTRIBUTES" "$FRANCHISE_INDEXES"
+create_table "business-sucursales-local" "PK" "SK" "$BRANCH_INDEX_ATTRIBUTES" "$BRANCH_INDEXES"
+create_table "business-productos-local" "PK" "SK" "$PRODUCT_INDEX_ATTRIBUTES" "$PRODUCT_INDEXES"
+# Contadores por franquicia: solo hash key (STATS#<franchiseId>#<shard>)
+create_table "business-estadisticas-local" "PK"
+# Jobs de borrado de franquicias terminados
+aws dynamodb update-time-to-live --endpoint-url $ENDPOINT --table-name business-franquicias-local \
+    --time-to-live-specification "Enabled=true,AttributeName=expiresAt" > /dev/null
 
 echo "✅ Tablas DynamoDB creadas exitosamente!"
 
@@ -0,0 +1,152 @@
+#!/bin/bash
+
+# Recálculo de los contadores por franquicia (tabla de estadísticas)
+# Los contadores solo reciben deltas (ADD): las franquicias creadas antes de que existieran empiezan en 0 y pueden
+# quedar negativas al borrar productos antiguos, y un ADD que el SDK reintenta tras un timeout puede contarse dos
+# veces. Este script cuenta lo que hay realmente en las tablas y corrige la diferencia:
+#   - sucursales: un METADATA por sucursal en la tabla de sucursales
+#   - productos embebidos: el resumen productCount/totalStock de cada sucursal EMBEDDED y de cada bucket de una
+#     BUCKETED; sin resumen, el mapa (o la lista del formato anterior) de products; los que aún no se mueven de
+#     una MIGRATING, su mapa
+#   - productos SEPARATED: los METADATA de la tabla de productos
+# La corrección es un ADD de (real - actual) sobre el shard 0, así que los incrementos que la aplicación haga
+# mientras corre no se pierden. Los Scan no son una foto instantánea: conviene correrlo con poco tráfico de
+# escritura y se puede relanzar (lo que ya cuadra no se toca)
+#
+# Uso: ./scripts/recompute-franchise-stats.sh <env> [endpoint]
+#   ./scripts/recompute-franchise-stats.sh dev
+#   ./scripts/recompute-franchise-stats.sh local http://localhost:4566
+
+set -e
+
+ENV=${1:?"Uso: $0 <env> [endpoint]"}
+FRANCHISES_TABLE="business-franquicias-$ENV"
+BRANCHES_TABLE="business-sucursales-$ENV"
+PRODUCTS_TABLE="business-productos-$ENV"
+STATS_TABLE="business-estadisticas-$ENV"
+ENDPOINT_ARGS=()
+if [ -n "$2" ]; then
+    ENDPOINT_ARGS=(--endpoint-url "$2")
+fi
+
+WORK=$(mktemp)
+trap 'rm -f "$WORK"' EXIT
+
+# scan_into <tabla> <filtro jq por página> [argumentos de aws dynamodb scan...]: agrega al archivo de trabajo una
+# línea por item según el filtro jq
+scan_into() {
+    local table=$1 filter=$2
+    shift 2
+    local next_token="" page
+    while true; do
+        local page_args=()
+        if [ -n "$next_token" ]; then
+            page_args=(--starting-token "$next_token")
+        fi
+
+        page=$(aws dynamodb scan "${ENDPOINT_ARGS[@]}" \
+            --table-name "$table" \
+            "$@" \
+            --page-size 100 \
+            --max-items 100 \
+            "${page_args[@]}" \
+            --output json)
+
+        echo "$page" | jq -r "$filter" >> "$WORK"
+
+        next_token=$(echo "$page" | jq -r '.NextToken // empty')
+        if [ -z "$next_token" ]; then
+            break
+        fi
+    done
+}
+
+echo "🔎 Leyendo franquicias de $FRANCHISES_TABLE"
+scan_into "$FRANCHISES_TABLE" '.Items[]? | "F \(.id.S)"' \
+    --filter-expression "SK = :metadata" \
+    --projection-expression "id" \
+    --expression-attribute-values '{":metadata": {"S": "METADATA"}}'
+
+# M <sucursal> <franquicia> <productos> <stock> por METADATA, K <sucursal> <productos> <stock> por bucket y
+# U <sucursal> si el formato empaquetado no trae resumen (no se puede contar desde aquí)
+echo "🔎 Contando sucursales y productos embebidos en $BRANCHES_TABLE"
+scan_into "$BRANCHES_TABLE" '
+    def summary: if .productCount.N and .totalStock.N then "\(.productCount.N) \(.totalStock.N)" else null end;
+    def embedded:
+        if .products.M then "\(.products.M | length) \([.products.M[].M.stock.N // "0" | tonumber] | add // 0)"
+        elif .products.L then "\(.products.L | length) \([.products.L[].M.stock.N // "0" | tonumber] | add // 0)"
+        elif .products.B then null
+        else "0 0" end;
+    .Items[]?
+    | (.PK.S | sub("^BRANCH#"; "")) as $branch
+    | (.storageStrategy.S // "EMBEDDED") as $strategy
+    | if .SK.S == "METADATA" then
+        (if $strategy == "EMBEDDED" then (summary // embedded)
+         elif $strategy == "MIGRATING" then embedded
+         else "0 0" end) as $products
+        | if $products == null then "U \($branch)" else "M \($branch) \(.franchiseId.S // "null") \($products)" end
+      else
+        (summary // embedded) as $products
+        | if $products == null then "U \($branch)" else "K \($branch) \($products)" end
+      end' \
+    --projection-expression "PK, SK, franchiseId, storageStrategy, products, productCount, totalStock"
+
+echo "🔎 Contando productos separados en $PRODUCTS_TABLE"
+scan_into "$PRODUCTS_TABLE" '.Items[]? | "P \(.franchiseId.S) \(.stock.N // "0")"' \
+    --filter-expression "SK = :metadata AND attribute_exists(franchiseId)" \
+    --projection-expression "franchiseId, stock" \
+    --expression-attribute-values '{":metadata": {"S": "METADATA"}}'
+
+echo "🔎 Leyendo contadores actuales de $STATS_TABLE"
+scan_into "$STATS_TABLE" '.Items[]? | "C \(.franchiseId.S) \(.branchCount.N // "0") \(.productCount.N // "0") \(.totalStock.N // "0")"' \
+    --projection-expression "franchiseId, branchCount, productCount, totalStock"
+
+UNKNOWN=$(awk '$1 == "U"' "$WORK" | wc -l)
+if [ "$UNKNOWN" -gt 0 ]; then
+    echo "⚠️  $UNKNOWN sucursales o buckets empaquetados sin resumen: sus productos no se cuentan"
+fi
+
+# Una línea "<franquicia> <delta sucursales> <delta productos> <delta stock>" por franquicia que no cuadra. Los
+# buckets se atribuyen a la franquicia de su sucursal
+CORRECTED=0
+while read -r FRANCHISE_ID BRANCHES PRODUCTS STOCK; do
+    [ -z "$FRANCHISE_ID" ] && continue
+    KEY=$(jq -cn --arg pk "STATS#$FRANCHISE_ID#0" '{PK: {S: $pk}}')
+    VALUES=$(jq -cn --arg fid "$FRANCHISE_ID" --arg branches "$BRANCHES" --arg products "$PRODUCTS" --arg stock "$STOCK" '{
+        ":fid": {S: $fid},
+        ":branches": {N: $branches},
+        ":products": {N: $products},
+        ":stock": {N: $stock}
+    }')
+    aws dynamodb update-item "${ENDPOINT_ARGS[@]}" \
+        --table-name "$STATS_TABLE" \
+        --key "$KEY" \
+        --update-expression "SET franchiseId = :fid ADD branchCount :branches, productCount :products, totalStock :stock" \
+        --expression-attribute-values "$VALUES" \
+        > /dev/null
+    echo "   $FRANCHISE_ID: sucursales $BRANCHES, productos $PRODUCTS, stock $STOCK"
+    CORRECTED=$((CORRECTED + 1))
+done < <(awk '
+    $1 == "F" { franchises[$2] = 1 }
+    $1 == "M" { owner[$2] = $3; branches[$3] += 1; products[$3] += $4; stock[$3] += $5 }
+    $1 == "K" { bucketProducts[$2] += $3; bucketStock[$2] += $4 }
+    $1 == "P" { products[$2] += 1; stock[$2] += $3 }
+    $1 == "C" { currentBranches[$2] += $3; currentProducts[$2] += $4; currentStock[$2] += $5 }
+    END {
+        for (branch in bucketProducts) {
+            if (branch in owner) {
+                products[owner[branch]] += bucketProducts[branch]
+                stock[owner[branch]] += bucketStock[branch]
+            }
+        }
+        for (franchise in franchises) {
+            db = branches[franchise] - currentBranches[franchise]
+            dp = products[franchise] - currentProducts[franchise]
+            ds = stock[franchise] - currentStock[franchise]
+            if (db != 0 || dp != 0 || ds != 0) {
+                printf "%s %.0f %.0f %.0f\n", franchise, db, dp, ds
+            }
+        }
+    }' "$WORK")
+
+echo "✅ Recálculo completado: $CORRECTED franquicias corregidas"